@@ -0,0 +1,105 @@
+package com.eway.payment.rapid.sdk;
+
+import com.eway.payment.rapid.sdk.beans.external.TransactionFilter;
+import com.eway.payment.rapid.sdk.output.QueryTransactionResponse;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+/**
+ * Runs many transaction queries with a bounded number in flight. Each
+ * completed query starts the next one, so no thread is held waiting for a
+ * free slot.
+ */
+class BulkTransactionQuery {
+
+    private final RapidClient client;
+    private final Executor executor;
+    private final List<TransactionFilter> filters;
+    private final BiConsumer<TransactionFilter, QueryTransactionResponse> onResult;
+    private final AtomicInteger next = new AtomicInteger();
+    private final AtomicInteger remaining;
+    private final CompletableFuture<Void> done = new CompletableFuture<Void>();
+
+    /**
+     * @param client The client that runs each query
+     * @param executor The executor to run queries on
+     * @param filters The filters to query, duplicates and nulls are dropped
+     * @param onResult Receives each result as it completes
+     */
+    BulkTransactionQuery(RapidClient client, Executor executor, Collection<TransactionFilter> filters,
+                         BiConsumer<TransactionFilter, QueryTransactionResponse> onResult) {
+        this.client = client;
+        this.executor = executor;
+        this.filters = distinct(filters);
+        this.onResult = onResult;
+        this.remaining = new AtomicInteger(this.filters.size());
+    }
+
+    /**
+     * Start the queries
+     *
+     * @param maxInFlight The maximum number of queries running at once
+     * @return A future completed once every result has been delivered
+     */
+    CompletableFuture<Void> start(int maxInFlight) {
+        if (filters.isEmpty()) {
+            done.complete(null);
+        }
+        int initial = Math.min(maxInFlight, filters.size());
+        for (int i = 0; i < initial; i++) {
+            startNext();
+        }
+        return done;
+    }
+
+    private void startNext() {
+        int index = next.getAndIncrement();
+        if (index >= filters.size() || done.isDone()) {
+            return;
+        }
+        final TransactionFilter filter = filters.get(index);
+        try {
+            CompletableFuture.supplyAsync(() -> client.queryTransaction(filter), executor)
+                    .whenComplete((response, error) -> complete(filter, response, error));
+        } catch (RuntimeException e) {
+            done.completeExceptionally(e);
+        }
+    }
+
+    private void complete(TransactionFilter filter, QueryTransactionResponse response, Throwable error) {
+        if (error != null) {
+            done.completeExceptionally(error);
+            return;
+        }
+        try {
+            onResult.accept(filter, response);
+        } catch (RuntimeException e) {
+            done.completeExceptionally(e);
+            return;
+        }
+        if (remaining.decrementAndGet() == 0) {
+            done.complete(null);
+        } else {
+            startNext();
+        }
+    }
+
+    private static List<TransactionFilter> distinct(Collection<TransactionFilter> filters) {
+        LinkedHashSet<TransactionFilter> unique = new LinkedHashSet<TransactionFilter>();
+        if (filters != null) {
+            for (TransactionFilter filter : filters) {
+                if (filter != null) {
+                    unique.add(filter);
+                }
+            }
+        }
+        return new ArrayList<TransactionFilter>(unique);
+    }
+}
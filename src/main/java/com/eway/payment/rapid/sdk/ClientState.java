@@ -0,0 +1,257 @@
+package com.eway.payment.rapid.sdk;
+
+import com.eway.payment.rapid.sdk.message.process.transport.HttpTransport;
+import com.eway.payment.rapid.sdk.message.process.transport.InstrumentedConnectionManager;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An immutable snapshot of a client's credentials, endpoint and validity,
+ * together with the transport built from them. A client publishes its
+ * snapshot through one volatile reference and replaces it whole when a
+ * setting changes, so a request reads the settings once and sends with the
+ * same credentials and endpoint from start to end, without locking.
+ * <p>
+ * Requests acquire the snapshot for as long as they use its transport. A
+ * replaced snapshot is retired and closes its transport once the last of
+ * those requests has released it.
+ */
+final class ClientState {
+
+    private final String apiKey;
+    private final String password;
+    private final String rapidEndpoint;
+    private final List<String> webUrls;
+    private final String webUrl;
+    private final String apiVersion;
+    private final boolean debug;
+    private final boolean valid;
+    private final List<String> errors;
+
+    // built on first use from the settings above, guarded by the client's lock
+    private volatile HttpTransport transport;
+    private volatile InstrumentedConnectionManager connectionManager;
+    // set while the endpoint still has to be verified before the first request
+    private volatile boolean verificationPending;
+    // claimed by the one request that verifies the endpoint, which the others wait for
+    private final AtomicBoolean verificationClaimed = new AtomicBoolean();
+    private final CountDownLatch verified = new CountDownLatch(1);
+    private volatile Exception verificationFailure;
+
+    private final AtomicInteger users = new AtomicInteger();
+    private volatile boolean retired;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    /**
+     * @param apiKey Rapid API key
+     * @param password Rapid API password
+     * @param rapidEndpoint Rapid endpoint name or URL
+     * @param webUrls The URLs of the endpoint, more than one if calls are
+     * routed across several, {@code null} if it is invalid
+     * @param apiVersion Rapid API version, or {@code null} for the default
+     * @param debug true to log requests and responses
+     * @param errors The error codes of the settings, empty if they are valid
+     */
+    ClientState(String apiKey, String password, String rapidEndpoint, List<String> webUrls, String apiVersion, boolean debug,
+            List<String> errors) {
+        this.apiKey = apiKey;
+        this.password = password;
+        this.rapidEndpoint = rapidEndpoint;
+        this.webUrls = webUrls != null ? Collections.unmodifiableList(new ArrayList<String>(webUrls)) : null;
+        this.webUrl = webUrls != null ? StringUtils.join(webUrls, ',') : null;
+        this.apiVersion = apiVersion;
+        this.debug = debug;
+        this.errors = Collections.unmodifiableList(new ArrayList<String>(errors));
+        this.valid = errors.isEmpty();
+    }
+
+    /**
+     * A copy of the settings with a new error, sharing nothing with this
+     * snapshot's transport
+     *
+     * @param errCode The error code to add
+     * @return An invalid snapshot
+     */
+    ClientState withError(String errCode) {
+        List<String> withError = new ArrayList<String>(errors);
+        if (!withError.contains(errCode)) {
+            withError.add(errCode);
+        }
+        return new ClientState(apiKey, password, rapidEndpoint, webUrls, apiVersion, debug, withError);
+    }
+
+    /**
+     * A copy of the settings with no transport built yet, still to be
+     * verified if this snapshot is
+     *
+     * @return A snapshot with the same settings
+     */
+    ClientState copy() {
+        ClientState copy = new ClientState(apiKey, password, rapidEndpoint, webUrls, apiVersion, debug, errors);
+        copy.verificationPending = verificationPending;
+        return copy;
+    }
+
+    /**
+     * @param apiKey Rapid API key
+     * @param password Rapid API password
+     * @param rapidEndpoint Rapid endpoint name or URL
+     * @param apiVersion Rapid API version
+     * @param debug true to log requests and responses
+     * @return true if this snapshot was made from the same settings
+     */
+    boolean hasSettings(String apiKey, String password, String rapidEndpoint, String apiVersion, boolean debug) {
+        return StringUtils.equals(this.apiKey, apiKey) && StringUtils.equals(this.password, password)
+                && StringUtils.equals(this.rapidEndpoint, rapidEndpoint) && StringUtils.equals(this.apiVersion, apiVersion)
+                && this.debug == debug;
+    }
+
+    /**
+     * Register a request using this snapshot's transport
+     *
+     * @return false if the snapshot has been retired, in which case the
+     * caller reads the client's current one instead
+     */
+    boolean acquire() {
+        users.incrementAndGet();
+        if (retired) {
+            release();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Unregister a request, closing the transport if the snapshot has been
+     * retired and this was its last request
+     */
+    void release() {
+        if (users.decrementAndGet() == 0 && retired) {
+            closeTransport();
+        }
+    }
+
+    /**
+     * Stop handing out this snapshot and close its transport once no request
+     * uses it
+     */
+    void retire() {
+        retired = true;
+        if (users.get() == 0) {
+            closeTransport();
+        }
+    }
+
+    private void closeTransport() {
+        HttpTransport current = transport;
+        if (current != null && closed.compareAndSet(false, true)) {
+            current.close();
+        }
+    }
+
+    String getApiKey() {
+        return apiKey;
+    }
+
+    String getPassword() {
+        return password;
+    }
+
+    String getRapidEndpoint() {
+        return rapidEndpoint;
+    }
+
+    /**
+     * @return The URL of the endpoint, or its URLs separated by commas
+     */
+    String getWebUrl() {
+        return webUrl;
+    }
+
+    List<String> getWebUrls() {
+        return webUrls;
+    }
+
+    String getApiVersion() {
+        return apiVersion;
+    }
+
+    boolean isDebug() {
+        return debug;
+    }
+
+    boolean isValid() {
+        return valid;
+    }
+
+    List<String> getErrors() {
+        return errors;
+    }
+
+    HttpTransport getTransport() {
+        return transport;
+    }
+
+    InstrumentedConnectionManager getConnectionManager() {
+        return connectionManager;
+    }
+
+    /**
+     * @param transport The transport built from this snapshot
+     * @param connectionManager Its connection manager, {@code null} if it
+     * has none
+     */
+    void setTransport(HttpTransport transport, InstrumentedConnectionManager connectionManager) {
+        this.connectionManager = connectionManager;
+        this.transport = transport;
+    }
+
+    boolean isVerificationPending() {
+        return verificationPending;
+    }
+
+    void setVerificationPending(boolean verificationPending) {
+        this.verificationPending = verificationPending;
+    }
+
+    /**
+     * Claim the verification of the endpoint. Only the first caller gets
+     * it, and must report the outcome to {@link #verificationDone(Exception)}.
+     *
+     * @return true if the caller is to verify the endpoint
+     */
+    boolean claimVerification() {
+        return verificationClaimed.compareAndSet(false, true);
+    }
+
+    /**
+     * Report the outcome of the verification and release the requests
+     * waiting for it
+     *
+     * @param failure Why the endpoint could not be verified, or
+     * {@code null} if it was
+     */
+    void verificationDone(Exception failure) {
+        verificationFailure = failure;
+        verificationPending = false;
+        verified.countDown();
+    }
+
+    /**
+     * Wait for the verification of the endpoint to finish
+     *
+     * @return Why the endpoint could not be verified, or {@code null} if it
+     * was
+     * @throws InterruptedException if interrupted while waiting
+     */
+    Exception awaitVerification() throws InterruptedException {
+        verified.await();
+        return verificationFailure;
+    }
+}
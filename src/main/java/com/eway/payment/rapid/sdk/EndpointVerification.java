@@ -0,0 +1,36 @@
+package com.eway.payment.rapid.sdk;
+
+/**
+ * When a Rapid Client checks that it can connect to its endpoint. The
+ * connection opened for the check is kept for the first request, so it does
+ * not need another TLS handshake.
+ */
+public enum EndpointVerification {
+
+    /**
+     * Connect to the endpoint when the client is created and whenever the
+     * credentials or endpoint change, blocking the caller
+     */
+    EAGER,
+
+    /**
+     * Connect to the endpoint before the first request that needs it. A
+     * failure is reported by that request, {@link RapidClient#isValid()}
+     * and {@link RapidClient#getErrors()}.
+     */
+    LAZY,
+
+    /**
+     * Connect to the endpoint on the client's executor without blocking the
+     * caller. Requests made before it finishes wait for it. A failure is
+     * reported by {@link RapidClient#isValid()} and
+     * {@link RapidClient#getErrors()}.
+     */
+    BACKGROUND,
+
+    /**
+     * Never connect ahead of a request. An unreachable endpoint is only
+     * reported by the requests that fail with a communication error.
+     */
+    NONE
+}
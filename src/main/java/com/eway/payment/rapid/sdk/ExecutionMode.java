@@ -0,0 +1,18 @@
+package com.eway.payment.rapid.sdk;
+
+/**
+ * The kind of threads a Rapid Client runs its asynchronous calls on
+ */
+public enum ExecutionMode {
+
+    /**
+     * A pool of platform threads owned by the client
+     */
+    PLATFORM_THREADS,
+
+    /**
+     * A new virtual thread for every call. Requires a Java 21 or later
+     * runtime; on older runtimes the client falls back to platform threads.
+     */
+    VIRTUAL_THREADS
+}
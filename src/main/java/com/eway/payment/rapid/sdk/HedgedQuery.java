@@ -0,0 +1,219 @@
+package com.eway.payment.rapid.sdk;
+
+import com.eway.payment.rapid.sdk.exception.CommunicationFailureException;
+import com.eway.payment.rapid.sdk.exception.RapidSdkException;
+import com.eway.payment.rapid.sdk.resilience.Hedging;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Runs one attempt of a query with a hedge. The request is sent on the
+ * executor while the calling thread waits for it; if it has not been
+ * answered within the hedge delay, and the budget allows, the same request
+ * is sent again. The first answer is returned and the thread of the other
+ * request is interrupted, which keeps it from being sent if it has not
+ * been yet. A request already sent is not aborted: the blocking I/O of the
+ * Jersey transport ignores interrupts, so it runs to completion, holding
+ * its thread and connection, and its answer is discarded. The query only
+ * fails once every request sent has failed.
+ *
+ * @param <V> Output class of the query
+ */
+class HedgedQuery<V> {
+
+    /**
+     * Sends one request of the query
+     */
+    interface Request<V> {
+
+        V send() throws RapidSdkException;
+    }
+
+    private final Request<V> request;
+    private final Executor executor;
+    private final Hedging hedging;
+    private final CompletableFuture<V> winner = new CompletableFuture<V>();
+    // requests started and not yet failed; the last to fail completes the query
+    private final AtomicInteger pending = new AtomicInteger();
+    private final List<Sender> senders = new CopyOnWriteArrayList<Sender>();
+    // the request whose answer completed the query
+    private final AtomicReference<Sender> answered = new AtomicReference<Sender>();
+    private volatile RapidSdkException failure;
+
+    /**
+     * @param request Sends one request of the query
+     * @param executor The executor to send requests on
+     * @param hedging Records latencies and holds the hedge budget
+     */
+    HedgedQuery(Request<V> request, Executor executor, Hedging hedging) {
+        this.request = request;
+        this.executor = executor;
+        this.hedging = hedging;
+    }
+
+    /**
+     * Run the query
+     *
+     * @param delayMillis How long to wait for an answer before hedging
+     * @return The first answer
+     * @throws RapidSdkException if every request sent failed
+     */
+    V run(long delayMillis) throws RapidSdkException {
+        pending.incrementAndGet();
+        if (!start(false)) {
+            // no thread to wait on, so send the request on this one
+            long begin = System.nanoTime();
+            V output = request.send();
+            hedging.recordLatency(System.nanoTime() - begin);
+            return output;
+        }
+        try {
+            V output;
+            try {
+                output = winner.get(delayMillis, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                hedge();
+                output = winner.get();
+            }
+            // counted here rather than by the sender so the stats are current once the query returns
+            if (answered.get().hedge) {
+                hedging.hedgeWon();
+            }
+            return output;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RapidSdkException) {
+                throw (RapidSdkException) cause;
+            }
+            throw (RuntimeException) cause;
+        } catch (InterruptedException e) {
+            cancelAll(null);
+            Thread.currentThread().interrupt();
+            throw new CommunicationFailureException("Interrupted waiting for Rapid API", e);
+        }
+    }
+
+    private void hedge() {
+        // counted before looking at the outcome, so a request failing meanwhile waits for the hedge
+        pending.incrementAndGet();
+        if (winner.isDone() || !hedging.tryHedge() || !start(true)) {
+            finished(null);
+        }
+    }
+
+    /**
+     * @return false if the executor would not take the request
+     */
+    private boolean start(boolean hedge) {
+        Sender sender = new Sender(hedge);
+        senders.add(sender);
+        try {
+            executor.execute(sender);
+            return true;
+        } catch (RejectedExecutionException e) {
+            senders.remove(sender);
+            return false;
+        }
+    }
+
+    /**
+     * A request has failed, or was not sent after all
+     *
+     * @param e The failure, {@code null} if the request was not sent
+     */
+    private void finished(RapidSdkException e) {
+        if (e != null) {
+            failure = e;
+        }
+        if (pending.decrementAndGet() == 0) {
+            winner.completeExceptionally(failure);
+        }
+    }
+
+    private void cancelAll(Sender except) {
+        for (Sender sender : senders) {
+            if (sender != except) {
+                sender.cancel();
+            }
+        }
+    }
+
+    /**
+     * Sends one request on an executor thread, which it interrupts if the
+     * request is cancelled while running. The interrupt stops a wait before
+     * the request is sent, not the request itself.
+     */
+    private final class Sender implements Runnable {
+
+        private final boolean hedge;
+        // a lock rather than synchronized so virtual threads do not pin; guards runner and cancelled
+        private final ReentrantLock lock = new ReentrantLock();
+        private Thread runner;
+        private boolean cancelled;
+
+        Sender(boolean hedge) {
+            this.hedge = hedge;
+        }
+
+        public void run() {
+            lock.lock();
+            try {
+                if (cancelled) {
+                    return;
+                }
+                runner = Thread.currentThread();
+            } finally {
+                lock.unlock();
+            }
+            try {
+                long begin = System.nanoTime();
+                V output = request.send();
+                hedging.recordLatency(System.nanoTime() - begin);
+                if (answered.compareAndSet(null, this)) {
+                    winner.complete(output);
+                    cancelAll(this);
+                }
+            } catch (RapidSdkException e) {
+                finished(e);
+            } catch (RuntimeException e) {
+                if (answered.compareAndSet(null, this)) {
+                    winner.completeExceptionally(e);
+                    cancelAll(this);
+                }
+            } finally {
+                lock.lock();
+                try {
+                    runner = null;
+                    if (cancelled) {
+                        // clear the interrupt meant for this request before the thread goes back to the executor
+                        Thread.interrupted();
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+
+        void cancel() {
+            lock.lock();
+            try {
+                cancelled = true;
+                if (runner != null) {
+                    runner.interrupt();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
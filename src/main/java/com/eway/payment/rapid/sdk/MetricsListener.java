@@ -0,0 +1,32 @@
+package com.eway.payment.rapid.sdk;
+
+/**
+ * Receives a notification for every call a Rapid Client makes to the Rapid
+ * API. Responses served from a cache or shared with a coalesced query are
+ * not reported. Listeners are called on the calling thread, so they must be
+ * quick and thread safe; exceptions they throw are logged and ignored.
+ */
+public interface MetricsListener {
+
+    /**
+     * A call to the Rapid API finished
+     *
+     * @param operation The kind of call
+     * @param durationNanos How long the call took
+     * @param errorCode The SDK error code if the call failed without a
+     * response from Rapid, such as S9992, or {@code null} if Rapid answered
+     */
+    void callCompleted(OperationType operation, long durationNanos, String errorCode);
+
+    /**
+     * A failed call is about to be sent again under the client's
+     * {@link RetryPolicy}. Every attempt is also reported to
+     * {@link #callCompleted(OperationType, long, String)}.
+     *
+     * @param operation The kind of call
+     * @param attempt The attempt that failed, from 1
+     * @param errorCode The SDK error code of the failure
+     */
+    default void callRetried(OperationType operation, int attempt, String errorCode) {
+    }
+}
@@ -0,0 +1,62 @@
+package com.eway.payment.rapid.sdk;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Immutable timeouts for one kind of Rapid API call. A timeout of 0 means no
+ * limit.
+ */
+public final class OperationTimeouts {
+
+    private final long connectTimeoutMillis;
+    private final long readTimeoutMillis;
+    private final long deadlineMillis;
+
+    private OperationTimeouts(long connectTimeoutMillis, long readTimeoutMillis, long deadlineMillis) {
+        this.connectTimeoutMillis = connectTimeoutMillis;
+        this.readTimeoutMillis = readTimeoutMillis;
+        this.deadlineMillis = deadlineMillis;
+    }
+
+    /**
+     * @param connectTimeout How long to wait to connect to Rapid
+     * @param readTimeout How long to wait for data from Rapid once connected
+     * @param deadline How long the whole call may take, including any
+     * retries, after which it fails with error code S9997
+     * @param unit Time unit of the timeouts
+     * @return The timeouts
+     */
+    public static OperationTimeouts of(long connectTimeout, long readTimeout, long deadline, TimeUnit unit) {
+        if (connectTimeout < 0 || readTimeout < 0 || deadline < 0) {
+            throw new IllegalArgumentException("Timeouts must not be negative");
+        }
+        return new OperationTimeouts(unit.toMillis(connectTimeout), unit.toMillis(readTimeout), unit.toMillis(deadline));
+    }
+
+    /**
+     * @return How long to wait to connect, in milliseconds
+     */
+    public long getConnectTimeoutMillis() {
+        return connectTimeoutMillis;
+    }
+
+    /**
+     * @return How long to wait for data once connected, in milliseconds
+     */
+    public long getReadTimeoutMillis() {
+        return readTimeoutMillis;
+    }
+
+    /**
+     * @return How long the whole call may take, in milliseconds
+     */
+    public long getDeadlineMillis() {
+        return deadlineMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "OperationTimeouts[connect=" + connectTimeoutMillis + "ms, read=" + readTimeoutMillis
+                + "ms, deadline=" + deadlineMillis + "ms]";
+    }
+}
@@ -0,0 +1,28 @@
+package com.eway.payment.rapid.sdk;
+
+/**
+ * The kinds of Rapid API call, each of which can have its own timeouts
+ */
+public enum OperationType {
+
+    /**
+     * Creating a transaction, capturing an authorisation, or creating or
+     * updating a token customer
+     */
+    PAYMENT,
+
+    /**
+     * Querying transactions and token customers
+     */
+    QUERY,
+
+    /**
+     * Refunding a transaction
+     */
+    REFUND,
+
+    /**
+     * Cancelling an authorisation
+     */
+    CANCEL
+}
@@ -0,0 +1,199 @@
+package com.eway.payment.rapid.sdk;
+
+import com.eway.payment.rapid.sdk.beans.external.Customer;
+import com.eway.payment.rapid.sdk.beans.external.PaymentMethod;
+import com.eway.payment.rapid.sdk.beans.external.Refund;
+import com.eway.payment.rapid.sdk.beans.external.Transaction;
+import com.eway.payment.rapid.sdk.beans.external.TransactionFilter;
+import com.eway.payment.rapid.sdk.cache.CacheStats;
+import com.eway.payment.rapid.sdk.cache.CoalescingStats;
+import com.eway.payment.rapid.sdk.entities.CreateCustomerResponse;
+import com.eway.payment.rapid.sdk.message.process.transport.ConnectionPoolStats;
+import com.eway.payment.rapid.sdk.output.CreateTransactionResponse;
+import com.eway.payment.rapid.sdk.output.QueryCustomerResponse;
+import com.eway.payment.rapid.sdk.output.QueryTransactionResponse;
+import com.eway.payment.rapid.sdk.output.RefundResponse;
+import com.eway.payment.rapid.sdk.resilience.CircuitBreakerStats;
+import com.eway.payment.rapid.sdk.resilience.ConcurrencyLimitStats;
+import com.eway.payment.rapid.sdk.resilience.EndpointStats;
+import com.eway.payment.rapid.sdk.resilience.HedgingStats;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+
+/**
+ * A view of a client that makes every call, and every asynchronous call,
+ * in one priority lane. Everything else is the client's own: settings,
+ * connections, caches and statistics are shared with it.
+ */
+final class PrioritizedRapidClient implements RapidClient {
+
+    private final RapidClientImpl client;
+    private final RequestPriority priority;
+
+    PrioritizedRapidClient(RapidClientImpl client, RequestPriority priority) {
+        this.client = client;
+        this.priority = priority;
+    }
+
+    public RapidClient withPriority(RequestPriority priority) {
+        return client.withPriority(priority);
+    }
+
+    public void setCredentials(String APIKey, String password) {
+        client.setCredentials(APIKey, password);
+    }
+
+    public void setEndpoint(String endpoint) {
+        client.setEndpoint(endpoint);
+    }
+
+    public void setDebug(boolean debug) {
+        client.setDebug(debug);
+    }
+
+    public void setVersion(String version) {
+        client.setVersion(version);
+    }
+
+    public CreateTransactionResponse create(PaymentMethod paymentMethod, Transaction transaction) {
+        return client.callWithPriority(priority, () -> client.create(paymentMethod, transaction));
+    }
+
+    public CreateCustomerResponse create(PaymentMethod paymentMethod, Customer customer) {
+        return client.callWithPriority(priority, () -> client.create(paymentMethod, customer));
+    }
+
+    public CreateCustomerResponse update(PaymentMethod paymentMethod, Customer customer) {
+        return client.callWithPriority(priority, () -> client.update(paymentMethod, customer));
+    }
+
+    public QueryTransactionResponse queryTransaction(int id) {
+        return client.callWithPriority(priority, () -> client.queryTransaction(id));
+    }
+
+    public QueryTransactionResponse queryTransaction(String accessCode) {
+        return client.callWithPriority(priority, () -> client.queryTransaction(accessCode));
+    }
+
+    public QueryTransactionResponse queryTransaction(TransactionFilter filter) {
+        return client.callWithPriority(priority, () -> client.queryTransaction(filter));
+    }
+
+    public Map<TransactionFilter, QueryTransactionResponse> queryTransactions(Collection<TransactionFilter> filters) {
+        // the bulk query calls back into this view, so each of its queries is made in the lane
+        return client.queryTransactions(this, filters);
+    }
+
+    public CompletableFuture<Void> queryTransactionsAsync(Collection<TransactionFilter> filters,
+            BiConsumer<TransactionFilter, QueryTransactionResponse> onResult) {
+        return client.queryTransactionsAsync(this, filters, onResult);
+    }
+
+    public QueryCustomerResponse queryCustomer(long tokenCustomerID) {
+        return client.callWithPriority(priority, () -> client.queryCustomer(tokenCustomerID));
+    }
+
+    public RefundResponse refund(Refund refund) {
+        return client.callWithPriority(priority, () -> client.refund(refund));
+    }
+
+    public RefundResponse cancel(Refund refund) {
+        return client.callWithPriority(priority, () -> client.cancel(refund));
+    }
+
+    public CompletableFuture<CreateTransactionResponse> createAsync(PaymentMethod paymentMethod, Transaction transaction) {
+        return client.supplyAsync(() -> create(paymentMethod, transaction));
+    }
+
+    public CompletableFuture<CreateCustomerResponse> createAsync(PaymentMethod paymentMethod, Customer customer) {
+        return client.supplyAsync(() -> create(paymentMethod, customer));
+    }
+
+    public CompletableFuture<CreateCustomerResponse> updateAsync(PaymentMethod paymentMethod, Customer customer) {
+        return client.supplyAsync(() -> update(paymentMethod, customer));
+    }
+
+    public CompletableFuture<QueryTransactionResponse> queryTransactionAsync(int transactionId) {
+        return client.supplyAsync(() -> queryTransaction(transactionId));
+    }
+
+    public CompletableFuture<QueryTransactionResponse> queryTransactionAsync(String accessCode) {
+        return client.supplyAsync(() -> queryTransaction(accessCode));
+    }
+
+    public CompletableFuture<QueryTransactionResponse> queryTransactionAsync(TransactionFilter filter) {
+        return client.supplyAsync(() -> queryTransaction(filter));
+    }
+
+    public CompletableFuture<QueryCustomerResponse> queryCustomerAsync(long tokenCustomerID) {
+        return client.supplyAsync(() -> queryCustomer(tokenCustomerID));
+    }
+
+    public CompletableFuture<RefundResponse> refundAsync(Refund refund) {
+        return client.supplyAsync(() -> refund(refund));
+    }
+
+    public CompletableFuture<RefundResponse> cancelAsync(Refund refund) {
+        return client.supplyAsync(() -> cancel(refund));
+    }
+
+    public String getRapidEndpoint() {
+        return client.getRapidEndpoint();
+    }
+
+    public boolean isValid() {
+        return client.isValid();
+    }
+
+    public List<String> getErrors() {
+        return client.getErrors();
+    }
+
+    public CoalescingStats getCoalescingStats() {
+        return client.getCoalescingStats();
+    }
+
+    public CacheStats getTokenCustomerCacheStats() {
+        return client.getTokenCustomerCacheStats();
+    }
+
+    public CacheStats getSettledTransactionCacheStats() {
+        return client.getSettledTransactionCacheStats();
+    }
+
+    public ConnectionPoolStats getConnectionPoolStats() {
+        return client.getConnectionPoolStats();
+    }
+
+    public CircuitBreakerStats getCircuitBreakerStats() {
+        return client.getCircuitBreakerStats();
+    }
+
+    public ConcurrencyLimitStats getConcurrencyLimitStats() {
+        return client.getConcurrencyLimitStats();
+    }
+
+    public HedgingStats getHedgingStats() {
+        return client.getHedgingStats();
+    }
+
+    public List<EndpointStats> getEndpointStats() {
+        return client.getEndpointStats();
+    }
+
+    public boolean warmUp() {
+        return client.warmUp();
+    }
+
+    public boolean warmUp(int connections) {
+        return client.warmUp(connections);
+    }
+
+    public void close() {
+        client.close();
+    }
+}
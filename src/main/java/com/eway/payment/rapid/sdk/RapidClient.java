@@ -5,20 +5,31 @@ import com.eway.payment.rapid.sdk.beans.external.PaymentMethod;
 import com.eway.payment.rapid.sdk.beans.external.Refund;
 import com.eway.payment.rapid.sdk.beans.external.Transaction;
 import com.eway.payment.rapid.sdk.beans.external.TransactionFilter;
+import com.eway.payment.rapid.sdk.cache.CacheStats;
+import com.eway.payment.rapid.sdk.cache.CoalescingStats;
 import com.eway.payment.rapid.sdk.entities.CreateCustomerResponse;
+import com.eway.payment.rapid.sdk.message.process.transport.ConnectionPoolStats;
 import com.eway.payment.rapid.sdk.output.CreateTransactionResponse;
 import com.eway.payment.rapid.sdk.output.QueryCustomerResponse;
 import com.eway.payment.rapid.sdk.output.QueryTransactionResponse;
 import com.eway.payment.rapid.sdk.output.RefundResponse;
+import com.eway.payment.rapid.sdk.resilience.CircuitBreakerStats;
+import com.eway.payment.rapid.sdk.resilience.ConcurrencyLimitStats;
+import com.eway.payment.rapid.sdk.resilience.EndpointStats;
+import com.eway.payment.rapid.sdk.resilience.HedgingStats;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
 
 /**
  * The eWAY Rapid Client
  * Access eWAY Rapid functions, including transactions, tokens and refunds.
  *
  */
-public interface RapidClient {
+public interface RapidClient extends AutoCloseable {
 
     /**
      * Change the API Key and Password the Client is configured to use
@@ -51,6 +62,19 @@ public interface RapidClient {
      */
     void setVersion(String version);
 
+    /**
+     * Get a view of this client that makes every call, including the
+     * asynchronous ones, with a priority. The priority decides the lane
+     * the calls wait in when priority lanes are enabled in the client
+     * configuration, and is ignored otherwise. The view shares everything
+     * else with this client, including its settings, so changing or
+     * closing either changes or closes both.
+     *
+     * @param priority The priority of the calls
+     * @return A view of the client
+     */
+    RapidClient withPriority(RequestPriority priority);
+
     /**
      * Create a transaction.
      * Can be an authorisation, a responsive shared page, transparent redirect,
@@ -117,6 +141,30 @@ public interface RapidClient {
      */
     QueryTransactionResponse queryTransaction(TransactionFilter filter);
 
+    /**
+     * Query many transactions at once. Each filter may search by any one of
+     * transaction id, access code, invoice number or invoice reference.
+     * Duplicate filters are queried once, and up to the configured bulk
+     * query concurrency requests run at the same time.
+     *
+     * @param filters The transactions to search for
+     * @return The query response for each distinct filter, in the order the
+     * filters were given
+     */
+    Map<TransactionFilter, QueryTransactionResponse> queryTransactions(Collection<TransactionFilter> filters);
+
+    /**
+     * Streaming version of {@link #queryTransactions(Collection)}. Each
+     * result is passed to the callback as soon as it arrives; the callback
+     * may be called from several threads at once.
+     *
+     * @param filters The transactions to search for
+     * @param onResult Receives each filter and its query response
+     * @return A future completed once every result has been delivered
+     */
+    CompletableFuture<Void> queryTransactionsAsync(Collection<TransactionFilter> filters,
+            BiConsumer<TransactionFilter, QueryTransactionResponse> onResult);
+
     /**
      * Get the details of a Token Customer.
      *
@@ -141,6 +189,86 @@ public interface RapidClient {
      */
     RefundResponse cancel(Refund refund);
 
+    /**
+     * Asynchronous version of {@link #create(PaymentMethod, Transaction)}.
+     * The call runs on the client's executor and errors are reported in the
+     * response exactly as for the blocking call.
+     *
+     * @param paymentMethod Describes where the card details will be coming
+     * from for this transaction
+     * @param transaction Request containing the transaction details
+     * @return A future completed with the transaction response
+     */
+    CompletableFuture<CreateTransactionResponse> createAsync(PaymentMethod paymentMethod, Transaction transaction);
+
+    /**
+     * Asynchronous version of {@link #create(PaymentMethod, Customer)}
+     *
+     * @param paymentMethod Describes where the card details will be coming
+     * from for this customer
+     * @param customer The Customer's information
+     * @return A future completed with the create customer response
+     */
+    CompletableFuture<CreateCustomerResponse> createAsync(PaymentMethod paymentMethod, Customer customer);
+
+    /**
+     * Asynchronous version of {@link #update(PaymentMethod, Customer)}
+     *
+     * @param paymentMethod Describes where the card details will be coming
+     * from for this customer
+     * @param customer The Customer's information
+     * @return A future completed with the update customer response
+     */
+    CompletableFuture<CreateCustomerResponse> updateAsync(PaymentMethod paymentMethod, Customer customer);
+
+    /**
+     * Asynchronous version of {@link #queryTransaction(int)}
+     *
+     * @param id eWAY Transaction ID
+     * @return A future completed with the transaction query response
+     */
+    CompletableFuture<QueryTransactionResponse> queryTransactionAsync(int id);
+
+    /**
+     * Asynchronous version of {@link #queryTransaction(String)}
+     *
+     * @param accessCode Access code for the transaction to query
+     * @return A future completed with the transaction query response
+     */
+    CompletableFuture<QueryTransactionResponse> queryTransactionAsync(String accessCode);
+
+    /**
+     * Asynchronous version of {@link #queryTransaction(TransactionFilter)}
+     *
+     * @param filter A TransactionFilter with the search details
+     * @return A future completed with the transaction query response
+     */
+    CompletableFuture<QueryTransactionResponse> queryTransactionAsync(TransactionFilter filter);
+
+    /**
+     * Asynchronous version of {@link #queryCustomer(long)}
+     *
+     * @param tokenCustomerID The Token Customer ID
+     * @return A future completed with the customer query response
+     */
+    CompletableFuture<QueryCustomerResponse> queryCustomerAsync(long tokenCustomerID);
+
+    /**
+     * Asynchronous version of {@link #refund(Refund)}
+     *
+     * @param refund Contains information of the refund
+     * @return A future completed with the refund transaction response
+     */
+    CompletableFuture<RefundResponse> refundAsync(Refund refund);
+
+    /**
+     * Asynchronous version of {@link #cancel(Refund)}
+     *
+     * @param refund Contains information of the authorisation to cancel
+     * @return A future completed with the cancel transaction response
+     */
+    CompletableFuture<RefundResponse> cancelAsync(Refund refund);
+
     /**
      * Get the current Rapid endpoint
      *
@@ -163,4 +291,103 @@ public interface RapidClient {
      */
     List<String> getErrors();
 
+    /**
+     * Get the counters of coalesced queries. All zero unless query
+     * coalescing is enabled in the client configuration.
+     *
+     * @return Coalescing counters
+     */
+    CoalescingStats getCoalescingStats();
+
+    /**
+     * Get the counters of the token customer query cache. All zero unless the
+     * cache is enabled in the client configuration.
+     *
+     * @return Cache counters
+     */
+    CacheStats getTokenCustomerCacheStats();
+
+    /**
+     * Get the counters of the settled transaction cache. All zero unless the
+     * cache is enabled in the client configuration.
+     *
+     * @return Cache counters
+     */
+    CacheStats getSettledTransactionCacheStats();
+
+    /**
+     * Get a snapshot of the HTTP connection pool: leased, idle and pending
+     * connections and the average wait to lease one. All zero until the
+     * first request, and when the JDK HttpClient transport is used.
+     *
+     * @return Connection pool statistics
+     */
+    ConnectionPoolStats getConnectionPoolStats();
+
+    /**
+     * Get the state and counters of the circuit breaker of the client's
+     * endpoint. With several endpoints, the counters of their breakers are
+     * added up and the state is the most closed of theirs. Closed with all
+     * counters zero unless a circuit breaker is enabled in the client
+     * configuration.
+     *
+     * @return Circuit breaker statistics
+     */
+    CircuitBreakerStats getCircuitBreakerStats();
+
+    /**
+     * Get the limit, calls in flight and queue depth of the concurrency
+     * limiter of the client's API key. All zero unless a concurrency limit
+     * is enabled in the client configuration.
+     *
+     * @return Concurrency limiter statistics
+     */
+    ConcurrencyLimitStats getConcurrencyLimitStats();
+
+    /**
+     * Get the counters of hedged queries and the current hedge delay. The
+     * counters are zero unless hedging is enabled in the client
+     * configuration.
+     *
+     * @return Hedging statistics
+     */
+    HedgingStats getHedgingStats();
+
+    /**
+     * Get the health of each endpoint calls are routed across, in the
+     * order they were configured. The list is empty unless the client has
+     * several endpoints.
+     *
+     * @return Endpoint statistics
+     */
+    List<EndpointStats> getEndpointStats();
+
+    /**
+     * Prepare the client for its first calls: open a connection to the
+     * endpoint, completing the TLS handshake, and run the JSON mapping and
+     * conversion of every kind of call on synthetic data. Nothing is sent to
+     * Rapid except the connection set up, so nothing is charged. Call it
+     * once at startup, before taking traffic.
+     *
+     * @return true if the endpoint could be connected to
+     */
+    boolean warmUp();
+
+    /**
+     * Like {@link #warmUp()}, opening several connections so that as many
+     * calls can start at once without a handshake. The number is capped by
+     * the connection pool size.
+     *
+     * @param connections How many connections to open
+     * @return true if the endpoint could be connected to
+     */
+    boolean warmUp(int connections);
+
+    /**
+     * Releases the pooled connections, and the asynchronous executor if the
+     * client created it. The client may still be used afterwards, in which
+     * case they are created again.
+     */
+    void close();
+
 }
@@ -0,0 +1,701 @@
+package com.eway.payment.rapid.sdk;
+
+import com.eway.payment.rapid.sdk.resilience.CircuitBreakerListener;
+import com.eway.payment.rapid.sdk.resilience.CircuitBreakerPolicy;
+import com.eway.payment.rapid.sdk.resilience.ConcurrencyLimitPolicy;
+import com.eway.payment.rapid.sdk.resilience.EndpointRoutingPolicy;
+import com.eway.payment.rapid.sdk.resilience.HedgingPolicy;
+import com.eway.payment.rapid.sdk.resilience.PriorityLanePolicy;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Immutable tuning options for a Rapid Client. Options that are not set keep
+ * the library defaults.
+ *
+ * Example:
+ * <pre>
+ * {@code
+ * RapidClientConfig config = RapidClientConfig.builder()
+ *         .executor(checkoutExecutor)
+ *         .build();
+ * RapidClient client = RapidSDK.newRapidClient(APIKEY, PASSWORD, RAPID_ENDPOINT, config);
+ * }
+ * </pre>
+ */
+public final class RapidClientConfig {
+
+    private static final RapidClientConfig DEFAULTS = builder().build();
+
+    private final Executor executor;
+    private final ExecutionMode executionMode;
+    private final int bulkQueryConcurrency;
+    private final boolean coalesceQueries;
+    private final int tokenCustomerCacheSize;
+    private final long tokenCustomerCacheTtlMillis;
+    private final int settledTransactionCacheSize;
+    private final TransportType transportType;
+    private final int maxConnections;
+    private final int maxConnectionsPerRoute;
+    private final long idleConnectionTimeoutMillis;
+    private final long validateAfterInactivityMillis;
+    private final Map<OperationType, OperationTimeouts> timeouts;
+    private final Map<OperationType, RetryPolicy> retryPolicies;
+    private final CircuitBreakerPolicy circuitBreakerPolicy;
+    private final CircuitBreakerListener circuitBreakerListener;
+    private final ConcurrencyLimitPolicy concurrencyLimitPolicy;
+    private final PriorityLanePolicy priorityLanePolicy;
+    private final HedgingPolicy hedgingPolicy;
+    private final EndpointRoutingPolicy endpointRoutingPolicy;
+    private final MetricsListener metricsListener;
+    private final EndpointVerification endpointVerification;
+
+    private RapidClientConfig(Builder builder) {
+        this.executor = builder.executor;
+        this.executionMode = builder.executionMode;
+        this.bulkQueryConcurrency = builder.bulkQueryConcurrency;
+        this.coalesceQueries = builder.coalesceQueries;
+        this.tokenCustomerCacheSize = builder.tokenCustomerCacheSize;
+        this.tokenCustomerCacheTtlMillis = builder.tokenCustomerCacheTtlMillis;
+        this.settledTransactionCacheSize = builder.settledTransactionCacheSize;
+        this.transportType = builder.transportType;
+        this.maxConnections = builder.maxConnections;
+        this.maxConnectionsPerRoute = builder.maxConnectionsPerRoute;
+        this.idleConnectionTimeoutMillis = builder.idleConnectionTimeoutMillis;
+        this.validateAfterInactivityMillis = builder.validateAfterInactivityMillis;
+        this.timeouts = Collections.unmodifiableMap(new EnumMap<OperationType, OperationTimeouts>(builder.timeouts));
+        this.retryPolicies = Collections.unmodifiableMap(new EnumMap<OperationType, RetryPolicy>(builder.retryPolicies));
+        this.circuitBreakerPolicy = builder.circuitBreakerPolicy;
+        this.circuitBreakerListener = builder.circuitBreakerListener;
+        this.concurrencyLimitPolicy = builder.concurrencyLimitPolicy;
+        this.priorityLanePolicy = builder.priorityLanePolicy;
+        this.hedgingPolicy = builder.hedgingPolicy;
+        this.endpointRoutingPolicy = builder.endpointRoutingPolicy;
+        this.metricsListener = builder.metricsListener;
+        this.endpointVerification = builder.endpointVerification;
+    }
+
+    /**
+     * @return A builder holding the default options
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return The configuration used when none is given
+     */
+    public static RapidClientConfig defaults() {
+        return DEFAULTS;
+    }
+
+    /**
+     * The executor that runs the asynchronous client methods
+     *
+     * @return The executor, or {@code null} if the client manages its own
+     */
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * The kind of threads the client creates for asynchronous calls when no
+     * executor is configured
+     *
+     * @return The execution mode
+     */
+    public ExecutionMode getExecutionMode() {
+        return executionMode;
+    }
+
+    /**
+     * The maximum number of requests a bulk transaction query has in flight
+     *
+     * @return The bulk query concurrency
+     */
+    public int getBulkQueryConcurrency() {
+        return bulkQueryConcurrency;
+    }
+
+    /**
+     * Whether identical concurrent transaction and customer queries share one
+     * network call
+     *
+     * @return true if queries are coalesced
+     */
+    public boolean isCoalesceQueries() {
+        return coalesceQueries;
+    }
+
+    /**
+     * The maximum number of token customers kept by the query cache
+     *
+     * @return The cache size, 0 if the cache is disabled
+     */
+    public int getTokenCustomerCacheSize() {
+        return tokenCustomerCacheSize;
+    }
+
+    /**
+     * How long a token customer query response stays cached
+     *
+     * @return Time to live in milliseconds
+     */
+    public long getTokenCustomerCacheTtlMillis() {
+        return tokenCustomerCacheTtlMillis;
+    }
+
+    /**
+     * The maximum number of settled transactions kept by the query cache
+     *
+     * @return The cache size, 0 if the cache is disabled
+     */
+    public int getSettledTransactionCacheSize() {
+        return settledTransactionCacheSize;
+    }
+
+    /**
+     * The HTTP client used to call the Rapid API
+     *
+     * @return The transport type
+     */
+    public TransportType getTransportType() {
+        return transportType;
+    }
+
+    /**
+     * The maximum number of connections the client opens
+     *
+     * @return The pool size
+     */
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    /**
+     * The maximum number of connections the client opens to one host
+     *
+     * @return The pool size per route
+     */
+    public int getMaxConnectionsPerRoute() {
+        return maxConnectionsPerRoute;
+    }
+
+    /**
+     * How long an idle connection is kept alive
+     *
+     * @return Idle time in milliseconds, 0 to keep connections for as long
+     * as the server allows
+     */
+    public long getIdleConnectionTimeoutMillis() {
+        return idleConnectionTimeoutMillis;
+    }
+
+    /**
+     * How long a connection may be idle before it is checked for being
+     * stale when it is reused
+     *
+     * @return Inactivity in milliseconds
+     */
+    public long getValidateAfterInactivityMillis() {
+        return validateAfterInactivityMillis;
+    }
+
+    /**
+     * The connect, read and deadline timeouts of a kind of call
+     *
+     * @param operation The kind of call
+     * @return The timeouts
+     */
+    public OperationTimeouts getTimeouts(OperationType operation) {
+        return timeouts.get(operation);
+    }
+
+    /**
+     * The retry policy of a kind of call
+     *
+     * @param operation The kind of call
+     * @return The retry policy, {@link RetryPolicy#none()} if the calls are
+     * not retried
+     */
+    public RetryPolicy getRetryPolicy(OperationType operation) {
+        return retryPolicies.get(operation);
+    }
+
+    /**
+     * When the circuit breaker of an endpoint opens and closes
+     *
+     * @return The circuit breaker policy, or {@code null} if calls are not
+     * guarded by a circuit breaker
+     */
+    public CircuitBreakerPolicy getCircuitBreakerPolicy() {
+        return circuitBreakerPolicy;
+    }
+
+    /**
+     * The listener told about circuit breaker state changes
+     *
+     * @return The listener, or {@code null} if there is none
+     */
+    public CircuitBreakerListener getCircuitBreakerListener() {
+        return circuitBreakerListener;
+    }
+
+    /**
+     * How many calls for each API key may be in flight at once
+     *
+     * @return The concurrency limit policy, or {@code null} if the calls in
+     * flight are not limited
+     */
+    public ConcurrencyLimitPolicy getConcurrencyLimitPolicy() {
+        return concurrencyLimitPolicy;
+    }
+
+    /**
+     * How calls are scheduled in priority lanes
+     *
+     * @return The priority lane policy, or {@code null} if calls are not
+     * scheduled by priority
+     */
+    public PriorityLanePolicy getPriorityLanePolicy() {
+        return priorityLanePolicy;
+    }
+
+    /**
+     * When slow queries are sent a second time
+     *
+     * @return The hedging policy, or {@code null} if queries are not hedged
+     */
+    public HedgingPolicy getHedgingPolicy() {
+        return hedgingPolicy;
+    }
+
+    /**
+     * How calls are routed when the endpoint lists several URLs
+     *
+     * @return The endpoint routing policy
+     */
+    public EndpointRoutingPolicy getEndpointRoutingPolicy() {
+        return endpointRoutingPolicy;
+    }
+
+    /**
+     * The listener told about every call to the Rapid API
+     *
+     * @return The listener, or {@code null} if there is none
+     */
+    public MetricsListener getMetricsListener() {
+        return metricsListener;
+    }
+
+    /**
+     * When the client checks that it can connect to its endpoint
+     *
+     * @return The endpoint verification mode
+     */
+    public EndpointVerification getEndpointVerification() {
+        return endpointVerification;
+    }
+
+    /**
+     * Builds a {@link RapidClientConfig}
+     */
+    public static final class Builder {
+
+        private Executor executor;
+        private ExecutionMode executionMode = ExecutionMode.PLATFORM_THREADS;
+        private int bulkQueryConcurrency = 8;
+        private boolean coalesceQueries;
+        private int tokenCustomerCacheSize;
+        private long tokenCustomerCacheTtlMillis;
+        private int settledTransactionCacheSize;
+        private TransportType transportType = TransportType.JERSEY;
+        // Every request goes to the same Rapid host, so the per route limit matches the total
+        private int maxConnections = 20;
+        private int maxConnectionsPerRoute = 20;
+        private long idleConnectionTimeoutMillis;
+        private long validateAfterInactivityMillis = 2000;
+        private final Map<OperationType, OperationTimeouts> timeouts = new EnumMap<OperationType, OperationTimeouts>(OperationType.class);
+        private final Map<OperationType, RetryPolicy> retryPolicies = new EnumMap<OperationType, RetryPolicy>(OperationType.class);
+        private CircuitBreakerPolicy circuitBreakerPolicy;
+        private CircuitBreakerListener circuitBreakerListener;
+        private ConcurrencyLimitPolicy concurrencyLimitPolicy;
+        private PriorityLanePolicy priorityLanePolicy;
+        private HedgingPolicy hedgingPolicy;
+        private EndpointRoutingPolicy endpointRoutingPolicy = EndpointRoutingPolicy.defaults();
+        private MetricsListener metricsListener;
+        private EndpointVerification endpointVerification = EndpointVerification.EAGER;
+
+        private Builder() {
+            timeouts(OperationTimeouts.of(10, 60, 0, TimeUnit.SECONDS));
+            for (OperationType operation : OperationType.values()) {
+                retryPolicies.put(operation, RetryPolicy.none());
+            }
+        }
+
+        /**
+         * Set the executor that runs the asynchronous client methods. When
+         * not set, the client uses its own pool of daemon threads, which is
+         * shut down by {@link RapidClient#close()}.
+         *
+         * @param executor The executor to run Rapid calls on
+         * @return This builder
+         */
+        public Builder executor(Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Set the kind of threads the client creates for asynchronous calls.
+         * Ignored when an {@link #executor(Executor)} is set.
+         *
+         * @param executionMode Platform or virtual threads
+         * @return This builder
+         */
+        public Builder executionMode(ExecutionMode executionMode) {
+            this.executionMode = executionMode;
+            return this;
+        }
+
+        /**
+         * Set the maximum number of requests a bulk transaction query keeps
+         * in flight. Defaults to 8.
+         *
+         * @param bulkQueryConcurrency The number of concurrent requests
+         * @return This builder
+         */
+        public Builder bulkQueryConcurrency(int bulkQueryConcurrency) {
+            if (bulkQueryConcurrency < 1) {
+                throw new IllegalArgumentException("Bulk query concurrency must be at least 1");
+            }
+            this.bulkQueryConcurrency = bulkQueryConcurrency;
+            return this;
+        }
+
+        /**
+         * Enable coalescing of identical concurrent queries. While a
+         * transaction or customer query is in flight, identical queries wait
+         * for it and receive the same response object rather than calling
+         * Rapid again. Disabled by default.
+         *
+         * @param coalesceQueries true to coalesce queries
+         * @return This builder
+         */
+        public Builder coalesceQueries(boolean coalesceQueries) {
+            this.coalesceQueries = coalesceQueries;
+            return this;
+        }
+
+        /**
+         * Cache successful token customer query responses. A customer is
+         * removed from the cache when it is created or updated through the
+         * client. Disabled by default.
+         *
+         * @param maxSize The maximum number of cached customers, 0 to disable
+         * @param ttl How long a response stays cached
+         * @param unit Time unit of the ttl
+         * @return This builder
+         */
+        public Builder tokenCustomerCache(int maxSize, long ttl, TimeUnit unit) {
+            if (maxSize < 0 || ttl < 0) {
+                throw new IllegalArgumentException("Token customer cache size and ttl must not be negative");
+            }
+            this.tokenCustomerCacheSize = maxSize;
+            this.tokenCustomerCacheTtlMillis = unit.toMillis(ttl);
+            return this;
+        }
+
+        /**
+         * Cache transaction query responses once the transaction is settled:
+         * declined, or captured with nothing left to refund. Settled
+         * responses never change, so they are kept until evicted, and
+         * queries by transaction ID are answered without calling Rapid, as
+         * are queries by the invoice number or invoice reference of an
+         * approved transaction until a payment or refund is made with the
+         * same invoice number or reference. Disabled by default.
+         *
+         * @param maxSize The maximum number of cached transactions, 0 to disable
+         * @return This builder
+         */
+        public Builder settledTransactionCache(int maxSize) {
+            if (maxSize < 0) {
+                throw new IllegalArgumentException("Settled transaction cache size must not be negative");
+            }
+            this.settledTransactionCacheSize = maxSize;
+            return this;
+        }
+
+        /**
+         * Set the HTTP client used to call the Rapid API. Defaults to
+         * {@link TransportType#JERSEY}.
+         *
+         * @param transportType The transport type
+         * @return This builder
+         */
+        public Builder transportType(TransportType transportType) {
+            if (transportType == null) {
+                throw new IllegalArgumentException("Transport type must not be null");
+            }
+            this.transportType = transportType;
+            return this;
+        }
+
+        /**
+         * Set the size of the connection pool of the Jersey transport.
+         * Defaults to 20 connections, all of which may go to the Rapid host.
+         *
+         * @param maxTotal The maximum number of connections
+         * @param maxPerRoute The maximum number of connections to one host
+         * @return This builder
+         */
+        public Builder connectionPool(int maxTotal, int maxPerRoute) {
+            if (maxTotal < 1 || maxPerRoute < 1) {
+                throw new IllegalArgumentException("Connection pool sizes must be at least 1");
+            }
+            this.maxConnections = maxTotal;
+            this.maxConnectionsPerRoute = maxPerRoute;
+            return this;
+        }
+
+        /**
+         * Set how long the Jersey transport keeps an idle connection alive
+         * before closing it. By default connections are kept for as long as
+         * the server allows.
+         *
+         * @param timeout Idle time, 0 to keep connections for as long as the
+         * server allows
+         * @param unit Time unit of the timeout
+         * @return This builder
+         */
+        public Builder idleConnectionTimeout(long timeout, TimeUnit unit) {
+            if (timeout < 0) {
+                throw new IllegalArgumentException("Idle connection timeout must not be negative");
+            }
+            this.idleConnectionTimeoutMillis = unit.toMillis(timeout);
+            return this;
+        }
+
+        /**
+         * Set how long a pooled connection of the Jersey transport may be
+         * idle before it is checked for being stale when it is reused.
+         * Defaults to 2 seconds.
+         *
+         * @param inactivity Idle time, 0 to check before every reuse
+         * @param unit Time unit of the inactivity
+         * @return This builder
+         */
+        public Builder validateAfterInactivity(long inactivity, TimeUnit unit) {
+            if (inactivity < 0) {
+                throw new IllegalArgumentException("Validate after inactivity must not be negative");
+            }
+            this.validateAfterInactivityMillis = unit.toMillis(inactivity);
+            return this;
+        }
+
+        /**
+         * Set the timeouts of every kind of call. Defaults to a 10 second
+         * connect timeout, a 60 second read timeout and no deadline.
+         *
+         * @param timeouts The timeouts
+         * @return This builder
+         */
+        public Builder timeouts(OperationTimeouts timeouts) {
+            for (OperationType operation : OperationType.values()) {
+                timeouts(operation, timeouts);
+            }
+            return this;
+        }
+
+        /**
+         * Set the timeouts of one kind of call, such as a shorter deadline
+         * for queries than for payments
+         *
+         * @param operation The kind of call
+         * @param timeouts The timeouts
+         * @return This builder
+         */
+        public Builder timeouts(OperationType operation, OperationTimeouts timeouts) {
+            if (operation == null || timeouts == null) {
+                throw new IllegalArgumentException("Operation and timeouts must not be null");
+            }
+            this.timeouts.put(operation, timeouts);
+            return this;
+        }
+
+        /**
+         * Retry queries, transactions and refunds that fail with error code
+         * S9992. Queries are sent again as they are. A transaction or refund
+         * is only retried if it has an invoice reference, and is only sent
+         * again if it could not connect to Rapid. One that may have reached
+         * Rapid is looked up by that reference instead: if the query finds
+         * it, its outcome is returned, otherwise it fails with error code
+         * S9998, so one that went through before its response was lost is
+         * not charged twice. Token customer calls and cancellations are
+         * never retried. Disabled by default.
+         *
+         * @param retryPolicy The retry policy
+         * @return This builder
+         */
+        public Builder retryPolicy(RetryPolicy retryPolicy) {
+            for (OperationType operation : OperationType.values()) {
+                if (operation != OperationType.CANCEL) {
+                    retryPolicy(operation, retryPolicy);
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Set the retry policy of one kind of call, such as retrying only
+         * queries
+         *
+         * @param operation The kind of call, other than
+         * {@link OperationType#CANCEL}
+         * @param retryPolicy The retry policy
+         * @return This builder
+         * @see #retryPolicy(RetryPolicy)
+         */
+        public Builder retryPolicy(OperationType operation, RetryPolicy retryPolicy) {
+            if (operation == null || retryPolicy == null) {
+                throw new IllegalArgumentException("Operation and retry policy must not be null");
+            }
+            if (operation == OperationType.CANCEL && retryPolicy.getMaxAttempts() > 1) {
+                throw new IllegalArgumentException("Cancellations are not retried");
+            }
+            this.retryPolicies.put(operation, retryPolicy);
+            return this;
+        }
+
+        /**
+         * Guard the calls to each endpoint with a circuit breaker. While the
+         * breaker is open, calls fail at once with error code S9992 instead
+         * of waiting for an endpoint that is down, and are not retried.
+         * When calls are routed across several endpoint URLs, each URL has
+         * its own breaker: a call the router sends to a URL whose breaker is
+         * open goes to the next URL instead, and only fails at once if every
+         * URL's breaker is open. Disabled by default.
+         *
+         * @param circuitBreakerPolicy The policy, or {@code null} to disable
+         * @return This builder
+         */
+        public Builder circuitBreaker(CircuitBreakerPolicy circuitBreakerPolicy) {
+            this.circuitBreakerPolicy = circuitBreakerPolicy;
+            return this;
+        }
+
+        /**
+         * Set a listener to be told when a circuit breaker opens, half opens
+         * or closes
+         *
+         * @param circuitBreakerListener The listener, or {@code null} for none
+         * @return This builder
+         */
+        public Builder circuitBreakerListener(CircuitBreakerListener circuitBreakerListener) {
+            this.circuitBreakerListener = circuitBreakerListener;
+            return this;
+        }
+
+        /**
+         * Limit how many calls for each API key are in flight at once, with
+         * a limit that adapts to the load Rapid takes without slowing down.
+         * Calls above the limit wait, no longer than their deadline, or fail
+         * with error code S9992 without being sent when the queue is full.
+         * Disabled by default.
+         *
+         * @param concurrencyLimitPolicy The policy, or {@code null} to disable
+         * @return This builder
+         */
+        public Builder concurrencyLimit(ConcurrencyLimitPolicy concurrencyLimitPolicy) {
+            this.concurrencyLimitPolicy = concurrencyLimitPolicy;
+            return this;
+        }
+
+        /**
+         * Schedule calls in priority lanes, each with its own share of the
+         * calls in flight, so that background work waits rather than
+         * payments when connections are scarce. Calls are given a priority
+         * with {@link RapidClient#withPriority(RequestPriority)}. A call
+         * that cannot get room in its lane before its deadline fails with
+         * error code S9997. Disabled by default.
+         *
+         * @param priorityLanePolicy The policy, or {@code null} to disable
+         * @return This builder
+         */
+        public Builder priorityLanes(PriorityLanePolicy priorityLanePolicy) {
+            this.priorityLanePolicy = priorityLanePolicy;
+            return this;
+        }
+
+        /**
+         * Hedge transaction and token customer queries: a query not
+         * answered within a percentile of recent query latency is sent
+         * again, and the first answer is used. Queries are read only, so
+         * sending one twice is harmless, and a budget caps how many are.
+         * The losing request is not aborted once sent: it runs to
+         * completion on the asynchronous executor and its answer is
+         * discarded. Disabled by default.
+         *
+         * @param hedgingPolicy The policy, or {@code null} to disable
+         * @return This builder
+         */
+        public Builder hedging(HedgingPolicy hedgingPolicy) {
+            this.hedgingPolicy = hedgingPolicy;
+            return this;
+        }
+
+        /**
+         * Set how calls are routed when the endpoint is a comma separated
+         * list of several URLs or endpoint names: each call goes to the
+         * endpoint with the lowest moving average of round trip time, and
+         * endpoints that fail calls in a row are ejected until a probe
+         * connects to them. Unused with a single endpoint.
+         *
+         * @param endpointRoutingPolicy The policy, {@code null} for the
+         * defaults
+         * @return This builder
+         */
+        public Builder endpointRouting(EndpointRoutingPolicy endpointRoutingPolicy) {
+            this.endpointRoutingPolicy = endpointRoutingPolicy != null ? endpointRoutingPolicy : EndpointRoutingPolicy.defaults();
+            return this;
+        }
+
+        /**
+         * Set a listener to be told the duration and outcome of every call
+         * to the Rapid API
+         *
+         * @param metricsListener The listener, or {@code null} for none
+         * @return This builder
+         */
+        public Builder metricsListener(MetricsListener metricsListener) {
+            this.metricsListener = metricsListener;
+            return this;
+        }
+
+        /**
+         * Set when the client checks that it can connect to its endpoint.
+         * Defaults to {@link EndpointVerification#EAGER}.
+         *
+         * @param endpointVerification The endpoint verification mode
+         * @return This builder
+         */
+        public Builder endpointVerification(EndpointVerification endpointVerification) {
+            if (endpointVerification == null) {
+                throw new IllegalArgumentException("Endpoint verification must not be null");
+            }
+            this.endpointVerification = endpointVerification;
+            return this;
+        }
+
+        /**
+         * @return The configuration
+         */
+        public RapidClientConfig build() {
+            return new RapidClientConfig(this);
+        }
+    }
+}
@@ -1,11 +1,25 @@
 package com.eway.payment.rapid.sdk;
 
 import com.eway.payment.rapid.sdk.beans.external.*;
+import com.eway.payment.rapid.sdk.cache.CacheStats;
+import com.eway.payment.rapid.sdk.cache.CoalescingStats;
+import com.eway.payment.rapid.sdk.cache.SettledTransactionCache;
+import com.eway.payment.rapid.sdk.cache.SingleFlight;
+import com.eway.payment.rapid.sdk.cache.TokenCustomerCache;
 import com.eway.payment.rapid.sdk.entities.CreateCustomerResponse;
 import com.eway.payment.rapid.sdk.exception.APIKeyInvalidException;
+import com.eway.payment.rapid.sdk.exception.CircuitOpenException;
+import com.eway.payment.rapid.sdk.exception.CommunicationFailureException;
+import com.eway.payment.rapid.sdk.exception.ConcurrencyLimitExceededException;
+import com.eway.payment.rapid.sdk.exception.DeadlineExceededException;
+import com.eway.payment.rapid.sdk.exception.EndpointInvalidException;
+import com.eway.payment.rapid.sdk.exception.OutcomeUnknownException;
 import com.eway.payment.rapid.sdk.exception.ParameterInvalidException;
 import com.eway.payment.rapid.sdk.exception.RapidSdkException;
-import com.eway.payment.rapid.sdk.message.process.MessageProcess;
+import com.eway.payment.rapid.sdk.exception.SystemErrorException;
+import com.eway.payment.rapid.sdk.message.process.AbstractMessageProcess;
+import com.eway.payment.rapid.sdk.message.process.MessageContext;
+import com.eway.payment.rapid.sdk.message.process.MessageProcessWarmUp;
 import com.eway.payment.rapid.sdk.message.process.customer.*;
 import com.eway.payment.rapid.sdk.message.process.refund.CancelAuthorisationMsgProcess;
 import com.eway.payment.rapid.sdk.message.process.refund.CapturePaymentMsgProcess;
@@ -14,13 +28,43 @@ import com.eway.payment.rapid.sdk.message.process.transaction.TransDirectPayment
 import com.eway.payment.rapid.sdk.message.process.transaction.TransQueryMsgProcess;
 import com.eway.payment.rapid.sdk.message.process.transaction.TransResponsiveSharedMsgProcess;
 import com.eway.payment.rapid.sdk.message.process.transaction.TransTransparentRedirectMsgProcess;
+import com.eway.payment.rapid.sdk.message.process.transport.ConnectionPoolStats;
+import com.eway.payment.rapid.sdk.message.process.transport.Deadline;
+import com.eway.payment.rapid.sdk.message.process.transport.HttpTransport;
+import com.eway.payment.rapid.sdk.message.process.transport.InstrumentedConnectionManager;
+import com.eway.payment.rapid.sdk.message.process.transport.JdkHttpTransport;
+import com.eway.payment.rapid.sdk.message.process.transport.JerseyTransport;
+import com.eway.payment.rapid.sdk.message.process.transport.RoutingTransport;
 import com.eway.payment.rapid.sdk.output.*;
+import com.eway.payment.rapid.sdk.resilience.CircuitBreaker;
+import com.eway.payment.rapid.sdk.resilience.CircuitBreakerStats;
+import com.eway.payment.rapid.sdk.resilience.CircuitState;
+import com.eway.payment.rapid.sdk.resilience.ConcurrencyLimitStats;
+import com.eway.payment.rapid.sdk.resilience.ConcurrencyLimiter;
+import com.eway.payment.rapid.sdk.resilience.EndpointRouter;
+import com.eway.payment.rapid.sdk.resilience.EndpointStats;
+import com.eway.payment.rapid.sdk.resilience.Hedging;
+import com.eway.payment.rapid.sdk.resilience.HedgingStats;
+import com.eway.payment.rapid.sdk.resilience.PriorityLanes;
 import com.eway.payment.rapid.sdk.util.Constant;
+import com.eway.payment.rapid.sdk.util.DaemonThreadFactory;
 import com.eway.payment.rapid.sdk.util.EwayJacksonJsonFeature;
 import com.eway.payment.rapid.sdk.util.RapidClientFilter;
 import com.eway.payment.rapid.sdk.util.ResourceUtil;
+import com.eway.payment.rapid.sdk.util.ResponseBufferingFilter;
+import com.eway.payment.rapid.sdk.util.VirtualThreads;
 import org.apache.commons.lang3.StringUtils;
-import org.glassfish.jersey.client.authentication.HttpAuthenticationFeature;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.ConnectTimeoutException;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.glassfish.jersey.apache.connector.ApacheClientProperties;
+import org.glassfish.jersey.apache.connector.ApacheConnectorProvider;
+import org.glassfish.jersey.client.ClientConfig;
+import org.glassfish.jersey.client.ClientProperties;
+import org.glassfish.jersey.client.RequestEntityProcessing;
 import org.glassfish.jersey.logging.LoggingFeature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -28,27 +72,97 @@ import org.slf4j.LoggerFactory;
 import javax.net.ssl.SSLContext;
 import javax.ws.rs.client.Client;
 import javax.ws.rs.client.ClientBuilder;
-import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.HttpHeaders;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
 import java.net.URL;
-import java.net.URLConnection;
+import java.net.UnknownHostException;
 import java.security.KeyManagementException;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
 
 public class RapidClientImpl implements RapidClient {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(RapidClient.class);
-    private String APIKey;
-    private String password;
-    private String webUrl;
-    private String rapidEndpoint;
-    private String apiVersion;
-    private boolean debug;
 
-    private boolean isValid;
-    private List<String> listError;
+    private static final boolean JDK_HTTP_CLIENT_AVAILABLE = isClassPresent("java.net.http.HttpClient");
+    private static final String TLS_PROTOCOL = "TLSv1.2";
+    // the lane of the calls made on this thread through a prioritized view, unset for calls made on the client itself
+    private static final ThreadLocal<RequestPriority> PRIORITY = new ThreadLocal<RequestPriority>();
+
+    // credentials, endpoint and validity, replaced whole when they change
+    private volatile ClientState state;
+
+    private final RapidClientConfig config;
+    // guards the lazily built transports, SSL context and executor; a lock rather than synchronized so virtual threads do not pin
+    private final ReentrantLock lock = new ReentrantLock();
+    // serializes replacing the client state; never taken while holding lock
+    private final ReentrantLock updateLock = new ReentrantLock();
+    private ExecutorService ownExecutor;
+    private final SingleFlight<String, QueryTransactionResponse> transactionQueries;
+    private final SingleFlight<String, QueryCustomerResponse> customerQueries;
+    private final TokenCustomerCache customerCache;
+    private final SettledTransactionCache settledTransactions;
+    // one circuit breaker per endpoint URL, null if disabled
+    private final ConcurrentMap<String, CircuitBreaker> circuitBreakers;
+    // one concurrency limiter per API key, null if disabled
+    private final ConcurrentMap<String, ConcurrencyLimiter> concurrencyLimiters;
+    // null if priority lanes are disabled
+    private final PriorityLanes priorityLanes;
+    // null if queries are not hedged
+    private final Hedging hedging;
+    // one router per list of endpoint URLs, so endpoint health outlives a change of credentials
+    private final ConcurrentMap<String, EndpointRouter> endpointRouters = new ConcurrentHashMap<String, EndpointRouter>();
+
+    // one message process per operation, shared by every call of the client
+    private final TransDirectPaymentMsgProcess transDirectPayment =
+            new TransDirectPaymentMsgProcess(Constant.DIRECT_PAYMENT_METHOD_NAME.concat(Constant.JSON_SUFIX));
+    private final TransResponsiveSharedMsgProcess transResponsiveShared =
+            new TransResponsiveSharedMsgProcess(Constant.RESPONSIVE_SHARED_METHOD_NAME.concat(Constant.JSON_SUFIX));
+    private final TransTransparentRedirectMsgProcess transTransparentRedirect =
+            new TransTransparentRedirectMsgProcess(Constant.TRANSPARENT_REDIRECT_METHOD_NAME.concat(Constant.JSON_SUFIX));
+    private final CapturePaymentMsgProcess capturePayment = new CapturePaymentMsgProcess(Constant.CAPTURE_PAYMENT_METHOD);
+    private final CustDirectPaymentMsgProcess custDirectPayment =
+            new CustDirectPaymentMsgProcess(Constant.DIRECT_PAYMENT_METHOD_NAME.concat(Constant.JSON_SUFIX));
+    private final CustResponsiveSharedMsgProcess custResponsiveShared =
+            new CustResponsiveSharedMsgProcess(Constant.RESPONSIVE_SHARED_METHOD_NAME.concat(Constant.JSON_SUFIX));
+    private final CustTransparentRedirectMsgProcess custTransparentRedirect =
+            new CustTransparentRedirectMsgProcess(Constant.TRANSPARENT_REDIRECT_METHOD_NAME.concat(Constant.JSON_SUFIX));
+    private final CustDirectUpdateMsgProcess custDirectUpdate =
+            new CustDirectUpdateMsgProcess(Constant.DIRECT_PAYMENT_METHOD_NAME.concat(Constant.JSON_SUFIX));
+    private final CustResponsiveUpdateMsgProcess custResponsiveUpdate =
+            new CustResponsiveUpdateMsgProcess(Constant.RESPONSIVE_SHARED_METHOD_NAME.concat(Constant.JSON_SUFIX));
+    private final CustTransparentUpdateMsgProcess custTransparentUpdate =
+            new CustTransparentUpdateMsgProcess(Constant.TRANSPARENT_REDIRECT_METHOD_NAME.concat(Constant.JSON_SUFIX));
+    private final TransQueryMsgProcess transQuery = new TransQueryMsgProcess(Constant.TRANSACTION_METHOD);
+    private final TransQueryMsgProcess transQueryByInvoiceNumber =
+            new TransQueryMsgProcess(Constant.TRANSACTION_METHOD, Constant.TRANSACTION_QUERY_WITH_INVOICE_NUM_METHOD);
+    private final TransQueryMsgProcess transQueryByInvoiceRef =
+            new TransQueryMsgProcess(Constant.TRANSACTION_METHOD, Constant.TRANSACTION_QUERY_WITH_INVOICE_REF_METHOD);
+    private final QueryCustomerMsgProcess queryCustomer =
+            new QueryCustomerMsgProcess(Constant.DIRECT_CUSTOMER_SEARCH_METHOD.concat(Constant.JSON_SUFIX));
+    private final RefundMsgProcess refund = new RefundMsgProcess(Constant.TRANSACTION_METHOD);
+    private final CancelAuthorisationMsgProcess cancelAuthorisation =
+            new CancelAuthorisationMsgProcess(Constant.CANCEL_AUTHORISATION_METHOD);
+
+    private SSLContext sslContext;
 
     /**
      * Get the Rapid API Key
@@ -56,7 +170,17 @@ public class RapidClientImpl implements RapidClient {
      * @return API Key
      */
     protected String getAPIKey() {
-        return APIKey;
+        return state.getApiKey();
+    }
+
+    /**
+     * Get the URL of the Rapid endpoint
+     *
+     * @return Endpoint URL, or the URLs separated by commas when calls are
+     * routed across several, {@code null} if the endpoint is invalid
+     */
+    protected String getWebUrl() {
+        return state.getWebUrl();
     }
 
     /**
@@ -66,80 +190,292 @@ public class RapidClientImpl implements RapidClient {
      * @param rapidEndpoint Rapid API endpoint
      */
     protected RapidClientImpl(String APIKey, String password, String rapidEndpoint) {
+        this(APIKey, password, rapidEndpoint, RapidClientConfig.defaults());
+    }
+
+    /**
+     * Set and validate the client parameters
+     * @param APIKey Rapid API key
+     * @param password Rapid API password
+     * @param rapidEndpoint Rapid API endpoint
+     * @param config Client tuning options
+     */
+    protected RapidClientImpl(String APIKey, String password, String rapidEndpoint, RapidClientConfig config) {
+        this(APIKey, password, rapidEndpoint, null, false, config);
+    }
+
+    /**
+     * Set and validate the client parameters
+     * @param APIKey Rapid API key
+     * @param password Rapid API password
+     * @param rapidEndpoint Rapid API endpoint
+     * @param apiVersion Rapid API version, or {@code null} for the default
+     * @param debug true to log requests and responses
+     * @param config Client tuning options
+     */
+    protected RapidClientImpl(String APIKey, String password, String rapidEndpoint, String apiVersion, boolean debug,
+            RapidClientConfig config) {
         LOGGER.info("Initiate client with end point:" + rapidEndpoint);
-        this.APIKey = APIKey;
-        this.password = password;
-        this.rapidEndpoint = rapidEndpoint;
-        this.debug = false;
-        validateAPIParam();
+        this.config = config != null ? config : RapidClientConfig.defaults();
+        this.transactionQueries = this.config.isCoalesceQueries() ? new SingleFlight<String, QueryTransactionResponse>() : null;
+        this.customerQueries = this.config.isCoalesceQueries() ? new SingleFlight<String, QueryCustomerResponse>() : null;
+        this.customerCache = this.config.getTokenCustomerCacheSize() > 0
+                ? new TokenCustomerCache(this.config.getTokenCustomerCacheSize(), this.config.getTokenCustomerCacheTtlMillis(), TimeUnit.MILLISECONDS)
+                : null;
+        this.settledTransactions = this.config.getSettledTransactionCacheSize() > 0
+                ? new SettledTransactionCache(this.config.getSettledTransactionCacheSize())
+                : null;
+        this.circuitBreakers = this.config.getCircuitBreakerPolicy() != null
+                ? new ConcurrentHashMap<String, CircuitBreaker>()
+                : null;
+        this.concurrencyLimiters = this.config.getConcurrencyLimitPolicy() != null
+                ? new ConcurrentHashMap<String, ConcurrencyLimiter>()
+                : null;
+        this.priorityLanes = this.config.getPriorityLanePolicy() != null
+                ? new PriorityLanes(this.config.getPriorityLanePolicy(), this.config.getPriorityLanePolicy().getTotalConcurrency() > 0
+                        ? this.config.getPriorityLanePolicy().getTotalConcurrency() : this.config.getMaxConnectionsPerRoute())
+                : null;
+        this.hedging = this.config.getHedgingPolicy() != null ? new Hedging(this.config.getHedgingPolicy()) : null;
+        updateLock.lock();
+        try {
+            publishAndVerify(createState(APIKey, password, rapidEndpoint, apiVersion, debug));
+        } finally {
+            updateLock.unlock();
+        }
     }
 
+    /**
+     * Replaces the API key and password in one step: each request is sent
+     * with either the old or the new credentials, never a mix of them.
+     * Requests already sending finish with the old ones.
+     */
     public void setCredentials(String APIKey, String password) {
-        this.APIKey = APIKey;
-        this.password = password;
-        validateAPIParam();
+        updateLock.lock();
+        try {
+            ClientState current = state;
+            update(APIKey, password, current.getRapidEndpoint(), current.getApiVersion(), current.isDebug());
+        } finally {
+            updateLock.unlock();
+        }
     }
 
     public void setEndpoint(String endpoint) {
-        this.rapidEndpoint = endpoint;
-        validateAPIParam();
+        updateLock.lock();
+        try {
+            ClientState current = state;
+            update(current.getApiKey(), current.getPassword(), endpoint, current.getApiVersion(), current.isDebug());
+        } finally {
+            updateLock.unlock();
+        }
     }
 
     public void setDebug(boolean debug) {
         LOGGER.info("eWAY Rapid SDK debug mode set to " + debug);
-        this.debug = debug;
+        updateLock.lock();
+        try {
+            ClientState current = state;
+            update(current.getApiKey(), current.getPassword(), current.getRapidEndpoint(), current.getApiVersion(), debug);
+        } finally {
+            updateLock.unlock();
+        }
     }
 
     public void setVersion(String version) {
         LOGGER.info("eWAY Rapid SDK version set to " + version);
-        this.apiVersion = version;
+        updateLock.lock();
+        try {
+            ClientState current = state;
+            update(current.getApiKey(), current.getPassword(), current.getRapidEndpoint(), version, current.isDebug());
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    public RapidClient withPriority(RequestPriority priority) {
+        if (priority == null) {
+            throw new IllegalArgumentException("Priority must not be null");
+        }
+        return new PrioritizedRapidClient(this, priority);
     }
 
     /**
-     * Checks the API credentials are present and valid
+     * Make a call on this thread in a priority lane
+     *
+     * @param priority The lane
+     * @param call The call
+     * @return The output of the call
      */
-    private void validateAPIParam() {
-        isValid = true;
+    <V> V callWithPriority(RequestPriority priority, Supplier<V> call) {
+        RequestPriority previous = PRIORITY.get();
+        PRIORITY.set(priority);
+        try {
+            return call.get();
+        } finally {
+            if (previous != null) {
+                PRIORITY.set(previous);
+            } else {
+                PRIORITY.remove();
+            }
+        }
+    }
+
+    /**
+     * Make a call on the asynchronous executor
+     *
+     * @param call The call
+     * @return A future completed with the output of the call
+     */
+    <V> CompletableFuture<V> supplyAsync(Supplier<V> call) {
+        return CompletableFuture.supplyAsync(call, getExecutor());
+    }
+
+    public void close() {
+        updateLock.lock();
+        try {
+            // the same settings with no transport, built and verified again if the client is used
+            publish(state.copy());
+        } finally {
+            updateLock.unlock();
+        }
+        lock.lock();
+        try {
+            if (ownExecutor != null) {
+                ownExecutor.shutdown();
+                ownExecutor = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Replaces the client state, unless it already has these settings and
+     * is valid. Must be called holding the update lock.
+     */
+    private void update(String APIKey, String password, String rapidEndpoint, String apiVersion, boolean debug) {
+        ClientState current = state;
+        if (current.isValid() && current.hasSettings(APIKey, password, rapidEndpoint, apiVersion, debug)) {
+            return;
+        }
+        publishAndVerify(createState(APIKey, password, rapidEndpoint, apiVersion, debug));
+    }
+
+    /**
+     * Makes the new client state visible to requests and retires the
+     * previous one. Must be called holding the update lock.
+     *
+     * @param next The new client state
+     */
+    private void publish(ClientState next) {
+        ClientState previous = state;
+        state = next;
+        if (previous != null && !isSameAccount(previous, next)) {
+            // responses cached for one account must not be served to another
+            if (customerCache != null) {
+                customerCache.clear();
+            }
+            if (settledTransactions != null) {
+                settledTransactions.clear();
+            }
+        }
+        if (previous != null) {
+            previous.retire();
+        }
+        // keeping only what the new state uses also drops entries a call still in flight on an older one added back
+        if (circuitBreakers != null) {
+            circuitBreakers.keySet().retainAll(next.getWebUrls() != null ? next.getWebUrls() : Collections.<String>emptyList());
+        }
+        if (concurrencyLimiters != null) {
+            concurrencyLimiters.keySet().retainAll(Collections.singleton(next.getApiKey()));
+        }
+        endpointRouters.keySet().retainAll(Collections.singleton(next.getWebUrl()));
+    }
+
+    /**
+     * Publishes new client state and starts verifying its endpoint if that
+     * is done in the background. Must be called holding the update lock.
+     *
+     * @param next The new client state
+     */
+    private void publishAndVerify(ClientState next) {
+        publish(next);
+        if (next.isVerificationPending() && config.getEndpointVerification() == EndpointVerification.BACKGROUND) {
+            verifyEndpointInBackground(next);
+        }
+    }
+
+    /**
+     * @return true if both client states reach the same Rapid account, so
+     * responses cached under one are valid under the other
+     */
+    private static boolean isSameAccount(ClientState previous, ClientState next) {
+        return StringUtils.equals(previous.getApiKey(), next.getApiKey())
+                && StringUtils.equals(previous.getWebUrl(), next.getWebUrl());
+    }
+
+    /**
+     * Checks the API credentials are present and valid, and verifies the
+     * endpoint if it is verified eagerly
+     *
+     * @return The client state of the settings
+     */
+    private ClientState createState(String APIKey, String password, String rapidEndpoint, String apiVersion, boolean debug) {
+        List<String> errors = new ArrayList<String>();
         if (StringUtils.isBlank(APIKey) || StringUtils.isBlank(password)) {
-            addErrorCode(Constant.API_KEY_INVALID_ERROR_CODE);
-            isValid = false;
+            errors.add(Constant.API_KEY_INVALID_ERROR_CODE);
         }
         if (StringUtils.isBlank(rapidEndpoint)) {
-            addErrorCode(Constant.LIBRARY_NOT_HAVE_ENDPOINT_ERROR_CODE);
-            isValid = false;
+            errors.add(Constant.LIBRARY_NOT_HAVE_ENDPOINT_ERROR_CODE);
         }
-        if (isValid) {
-            try {
-                parserRapidEnpointToGetWebUrl();
-                if (listError != null) {
-                    listError.clear();
+        if (!errors.isEmpty()) {
+            LOGGER.warn("Rapid client [" + rapidEndpoint + "] has invalid credentials");
+            return new ClientState(APIKey, password, rapidEndpoint, null, apiVersion, debug, errors);
+        }
+        List<String> webUrls = new ArrayList<String>();
+        try {
+            for (String endpoint : StringUtils.split(rapidEndpoint, ',')) {
+                if (!StringUtils.isBlank(endpoint)) {
+                    webUrls.add(parserRapidEnpointToGetWebUrl(endpoint.trim()));
                 }
-                isValid = true;
-                LOGGER.info("Initiate client[" + rapidEndpoint + "] successful!");
-            } catch (NoSuchAlgorithmException e) {
-                LOGGER.error("Error using TLS 1.2 to connect to Rapid: no such algorithm", e);
-                isValid = false;
-                addErrorCode(Constant.COMMUNICATION_FAILURE_ERROR_CODE);
-            } catch (KeyManagementException e) {
-                LOGGER.error("Error using TLS 1.2 to connect to Rapid: key management", e);
-                isValid = false;
-                addErrorCode(Constant.COMMUNICATION_FAILURE_ERROR_CODE);
+            }
+            if (webUrls.isEmpty()) {
+                throw new Exception("The endpoint " + rapidEndpoint + " lists no URL.");
+            }
+        } catch (Exception e) {
+            LOGGER.error("Error loading or connecting to endpoint", e);
+            errors.add(Constant.LIBRARY_NOT_HAVE_ENDPOINT_ERROR_CODE);
+            return new ClientState(APIKey, password, rapidEndpoint, null, apiVersion, debug, errors);
+        }
+        ClientState next = new ClientState(APIKey, password, rapidEndpoint, webUrls, apiVersion, debug, errors);
+        EndpointVerification verification = config.getEndpointVerification();
+        if (verification == EndpointVerification.EAGER) {
+            try {
+                verifyEndpoint(next);
+            } catch (RapidSdkException e) {
+                LOGGER.error(e.getMessage(), e);
+                next.retire();
+                return next.withError(Constant.COMMUNICATION_FAILURE_ERROR_CODE);
             } catch (Exception e) {
                 LOGGER.error("Error loading or connecting to endpoint", e);
-                isValid = false;
-                addErrorCode(Constant.LIBRARY_NOT_HAVE_ENDPOINT_ERROR_CODE);
+                next.retire();
+                return next.withError(Constant.LIBRARY_NOT_HAVE_ENDPOINT_ERROR_CODE);
             }
-        } else {
-            LOGGER.warn("Rapid client [" + rapidEndpoint + "] has invalid credentials");
         }
+        next.setVerificationPending(verification == EndpointVerification.LAZY
+                || verification == EndpointVerification.BACKGROUND);
+        LOGGER.info("Initiate client[" + rapidEndpoint + "] successful!");
+        return next;
     }
 
     /**
      * Load Rapid endpoint URL
      *
+     * @param rapidEndpoint Rapid endpoint name or URL
+     * @return The endpoint URL
      * @throws Exception if loading properties fails
      */
-    private void parserRapidEnpointToGetWebUrl() throws Exception {
+    private static String parserRapidEnpointToGetWebUrl(String rapidEndpoint) throws Exception {
+        String webUrl;
         String propName = null;
         if (Constant.RAPID_ENDPOINT_PRODUCTION.equalsIgnoreCase(rapidEndpoint)) {
             propName = Constant.GLOBAL_RAPID_PRODUCTION_REST_URL_PARAM;
@@ -155,27 +491,114 @@ public class RapidClientImpl implements RapidClient {
                 throw new Exception("The endpoint " + propName + " is invalid.");
             }
         }
-        verifyEndpointUrl(webUrl);
+        // fail on a malformed URL even when the endpoint is not connected to yet
+        new URL(webUrl);
+        return webUrl;
     }
 
     /**
-     * Check Rapid end point URL
+     * Verify the endpoint if verification is still pending: before the first
+     * request when verification is lazy, or on a background thread. The
+     * first caller verifies it and every other caller waits until it has,
+     * without holding the client's lock across the connect. A failure makes
+     * the client invalid, as it would have been had the endpoint been
+     * verified when the client was created.
      *
-     * @param endpointUrl the URL to check
-     * @throws Exception if connection check fails
+     * @param settings The client state to verify
+     * @throws RapidSdkException if the endpoint cannot be connected to
      */
-    private void verifyEndpointUrl(String endpointUrl) throws Exception {
-        URL url = new URL(endpointUrl);
+    private void verifyPendingEndpoint(ClientState settings) throws RapidSdkException {
+        if (settings.claimVerification()) {
+            Exception failure = null;
+            try {
+                verifyEndpoint(settings);
+                LOGGER.info("Verified client endpoint [" + settings.getRapidEndpoint() + "]");
+            } catch (Exception e) {
+                LOGGER.error("Error loading or connecting to endpoint", e);
+                failure = e;
+                updateLock.lock();
+                try {
+                    // unless the settings have been replaced meanwhile
+                    if (state == settings) {
+                        publish(settings.withError(Constant.LIBRARY_NOT_HAVE_ENDPOINT_ERROR_CODE));
+                    }
+                } finally {
+                    updateLock.unlock();
+                }
+            } finally {
+                settings.verificationDone(failure);
+            }
+        }
+        Exception failure;
+        try {
+            failure = settings.awaitVerification();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CommunicationFailureException("Interrupted waiting for the endpoint to be verified", e);
+        }
+        if (failure != null) {
+            throw new EndpointInvalidException("Error connecting to endpoint " + settings.getWebUrl(), failure);
+        }
+    }
 
-        SSLContext context = SSLContext.getInstance("TLSv1.2");
-        context.init(null,null,null);
-        SSLContext oldContext = SSLContext.getDefault();
-        SSLContext.setDefault(context);
+    /**
+     * Start verifying the endpoint on the client's executor. Requests made
+     * before it finishes wait for it.
+     *
+     * @param settings The client state to verify
+     */
+    private void verifyEndpointInBackground(final ClientState settings) {
+        getExecutor().execute(new Runnable() {
+            public void run() {
+                if (!settings.acquire()) {
+                    // replaced before it was verified
+                    return;
+                }
+                try {
+                    verifyPendingEndpoint(settings);
+                } catch (RapidSdkException e) {
+                    // already logged and published through isValid() and getErrors()
+                } finally {
+                    settings.release();
+                }
+            }
+        });
+    }
 
-        URLConnection conn = url.openConnection();
-        conn.connect();
+    /**
+     * Check the Rapid endpoint can be connected to. The connection is opened
+     * through the client state's transport, so it stays in the pool for the
+     * first request.
+     *
+     * @param settings The client state to verify
+     * @throws Exception if the connection check fails
+     */
+    private void verifyEndpoint(ClientState settings) throws Exception {
+        // only reaching the endpoint matters, so a slow response does not fail the check
+        OperationTimeouts timeouts = config.getTimeouts(OperationType.PAYMENT);
+        transport(settings).connect(Deadline.start(timeouts.getConnectTimeoutMillis(), 0, 0));
+    }
 
-        SSLContext.setDefault(oldContext);
+    /**
+     * Get the TLS 1.2 context used for every connection this client makes.
+     * It is built once so its session cache lets later handshakes resume.
+     *
+     * @return The client's SSL context
+     * @throws NoSuchAlgorithmException if TLS 1.2 is not available
+     * @throws KeyManagementException if the context cannot be initialised
+     */
+    private SSLContext getSslContext() throws NoSuchAlgorithmException, KeyManagementException {
+        lock.lock();
+        try {
+            if (sslContext == null) {
+                SSLContext context = SSLContext.getInstance(TLS_PROTOCOL);
+                context.init(null, null, null);
+                sslContext = context;
+            }
+            return sslContext;
+        } finally {
+            lock.unlock();
+        }
     }
 
     public CreateTransactionResponse create(PaymentMethod paymentMethod, Transaction transaction) {
@@ -183,60 +606,139 @@ public class RapidClientImpl implements RapidClient {
             return makeResponseWithException(new APIKeyInvalidException("API Key, Password or Rapid endpoint is invalid"),
                     CreateTransactionResponse.class);
         }
+        if (settledTransactions != null && transaction != null && transaction.getPaymentDetails() != null) {
+            settledTransactions.invalidateInvoice(transaction.getPaymentDetails().getInvoiceNumber(),
+                    transaction.getPaymentDetails().getInvoiceReference());
+        }
         try {
-            MessageProcess<Transaction, CreateTransactionResponse> process = null;
+            AbstractMessageProcess<Transaction, CreateTransactionResponse> process = null;
+            OutcomeLookup<CreateTransactionResponse> earlierOutcome = findTransaction(transaction);
             switch (paymentMethod) {
                 case Direct:
-                    process = new TransDirectPaymentMsgProcess(getEwayWebResource(), Constant.DIRECT_PAYMENT_METHOD_NAME.concat(Constant.JSON_SUFIX));
+                    process = transDirectPayment;
                     break;
                 case ResponsiveShared:
-                    process = new TransResponsiveSharedMsgProcess(getEwayWebResource(), Constant.RESPONSIVE_SHARED_METHOD_NAME.concat(Constant.JSON_SUFIX));
+                    process = transResponsiveShared;
+                    // creating another access code charges nothing
+                    earlierOutcome = deadline -> null;
                     break;
                 case TransparentRedirect:
-                    process = new TransTransparentRedirectMsgProcess(getEwayWebResource(), Constant.TRANSPARENT_REDIRECT_METHOD_NAME.concat(Constant.JSON_SUFIX));
+                    process = transTransparentRedirect;
+                    earlierOutcome = deadline -> null;
                     break;
                 case Wallet:
                     if (transaction.isCapture()) {
-                        process = new TransDirectPaymentMsgProcess(getEwayWebResource(), Constant.DIRECT_PAYMENT_METHOD_NAME.concat(Constant.JSON_SUFIX));
+                        process = transDirectPayment;
                         break;
                     } else {
-                        process = new CapturePaymentMsgProcess(getEwayWebResource(), Constant.CAPTURE_PAYMENT_METHOD);
+                        process = capturePayment;
+                        // the lookup would find the authorisation, which has the capture's invoice reference
+                        earlierOutcome = null;
                         break;
                     }
                 case Authorisation:
-                    process = new CapturePaymentMsgProcess(getEwayWebResource(), Constant.CAPTURE_PAYMENT_METHOD);
+                    process = capturePayment;
+                    earlierOutcome = null;
                     break;
                 default:
                     return makeResponseWithException(new ParameterInvalidException("Unsupported Payment Method"), CreateTransactionResponse.class);
             }
-            return process.doWork(transaction);
+            return doWork(process, OperationType.PAYMENT, transaction, earlierOutcome);
         } catch (RapidSdkException e) {
             LOGGER.error(e.getMessage());
             return makeResponseWithException(e, CreateTransactionResponse.class);
         }
     }
 
+    /**
+     * Looks up a transaction by its invoice reference, for telling whether a
+     * failed attempt to create it went through. Only an approved transaction
+     * of the same amount, captured or not as the one being created, counts as
+     * the outcome: a reference may be reused, so a decline or another amount
+     * may be an earlier payment, and the outcome stays unknown.
+     *
+     * @param transaction The transaction
+     * @return The lookup, or {@code null} if the transaction has no invoice
+     * reference and so cannot be sent again safely
+     */
+    private OutcomeLookup<CreateTransactionResponse> findTransaction(final Transaction transaction) {
+        if (transaction == null || transaction.getPaymentDetails() == null
+                || StringUtils.isBlank(transaction.getPaymentDetails().getInvoiceReference())) {
+            return null;
+        }
+        final String invoiceReference = transaction.getPaymentDetails().getInvoiceReference();
+        final int totalAmount = transaction.getPaymentDetails().getTotalAmount();
+        return deadline -> {
+            QueryTransactionResponse found = attempt(transQueryByInvoiceRef, OperationType.QUERY, invoiceReference, deadline);
+            if (found == null || found.getTransactionStatus() == null || found.getTransactionStatus().getTransactionID() == 0
+                    || !found.getTransactionStatus().isStatus()
+                    || found.getTransactionStatus().getTotal() != totalAmount
+                    || found.getTransactionStatus().isCaptured() != transaction.isCapture()) {
+                return null;
+            }
+            CreateTransactionResponse response = new CreateTransactionResponse();
+            response.setTransaction(found.getTransaction());
+            response.setTransactionStatus(found.getTransactionStatus());
+            response.setErrors(found.getErrors());
+            return response;
+        };
+    }
+
+    /**
+     * Looks up a refund by its invoice reference, for telling whether a
+     * failed attempt to make it went through. Only an approved refund of the
+     * same amount counts as the outcome: the reference may be shared with
+     * the transaction being refunded or with an earlier refund of it.
+     *
+     * @param refund The refund
+     * @return The lookup, or {@code null} if the refund has no invoice
+     * reference and so cannot be sent again safely
+     */
+    private OutcomeLookup<RefundResponse> findRefund(final Refund refund) {
+        if (refund == null || refund.getRefundDetails() == null
+                || StringUtils.isBlank(refund.getRefundDetails().getInvoiceReference())) {
+            return null;
+        }
+        final String invoiceReference = refund.getRefundDetails().getInvoiceReference();
+        final String originalTransactionID = refund.getRefundDetails().getOriginalTransactionID();
+        final int totalAmount = refund.getRefundDetails().getTotalAmount();
+        return deadline -> {
+            QueryTransactionResponse found = attempt(transQueryByInvoiceRef, OperationType.QUERY, invoiceReference, deadline);
+            if (found == null || found.getTransactionStatus() == null || found.getTransactionStatus().getTransactionID() == 0
+                    || String.valueOf(found.getTransactionStatus().getTransactionID()).equals(originalTransactionID)
+                    || !found.getTransactionStatus().isStatus()
+                    || found.getTransactionStatus().getTotal() != totalAmount) {
+                return null;
+            }
+            RefundResponse response = new RefundResponse();
+            response.setRefund(refund);
+            response.setTransactionStatus(found.getTransactionStatus());
+            response.setErrors(found.getErrors());
+            return response;
+        };
+    }
+
     public CreateCustomerResponse create(PaymentMethod PaymentMethod, Customer customer) {
         if (!isValid()) {
             return makeResponseWithException(new APIKeyInvalidException("API Key, Password or Rapid endpoint is invalid"),
                     CreateCustomerResponse.class);
         }
         try {
-            MessageProcess<Customer, CreateCustomerResponse> process = null;
+            AbstractMessageProcess<Customer, CreateCustomerResponse> process = null;
             switch (PaymentMethod) {
                 case Direct:
-                    process = new CustDirectPaymentMsgProcess(getEwayWebResource(), Constant.DIRECT_PAYMENT_METHOD_NAME.concat(Constant.JSON_SUFIX));
+                    process = custDirectPayment;
                     break;
                 case ResponsiveShared:
-                    process = new CustResponsiveSharedMsgProcess(getEwayWebResource(), Constant.RESPONSIVE_SHARED_METHOD_NAME.concat(Constant.JSON_SUFIX));
+                    process = custResponsiveShared;
                     break;
                 case TransparentRedirect:
-                    process = new CustTransparentRedirectMsgProcess(getEwayWebResource(), Constant.TRANSPARENT_REDIRECT_METHOD_NAME.concat(Constant.JSON_SUFIX));
+                    process = custTransparentRedirect;
                     break;
                 default:
                     return makeResponseWithException(new ParameterInvalidException("Unsupported Payment Method"), CreateCustomerResponse.class);
             }
-            return process.doWork(customer);
+            return invalidateCachedCustomer(customer, doWork(process, OperationType.PAYMENT, customer));
         } catch (RapidSdkException e) {
             LOGGER.error(e.getMessage());
             return makeResponseWithException(e, CreateCustomerResponse.class);
@@ -249,21 +751,21 @@ public class RapidClientImpl implements RapidClient {
                     CreateCustomerResponse.class);
         }
         try {
-            MessageProcess<Customer, CreateCustomerResponse> process = null;
+            AbstractMessageProcess<Customer, CreateCustomerResponse> process = null;
             switch (paymentMethod) {
                 case Direct:
-                    process = new CustDirectUpdateMsgProcess(getEwayWebResource(), Constant.DIRECT_PAYMENT_METHOD_NAME.concat(Constant.JSON_SUFIX));
+                    process = custDirectUpdate;
                     break;
                 case ResponsiveShared:
-                    process = new CustResponsiveUpdateMsgProcess(getEwayWebResource(), Constant.RESPONSIVE_SHARED_METHOD_NAME.concat(Constant.JSON_SUFIX));
+                    process = custResponsiveUpdate;
                     break;
                 case TransparentRedirect:
-                    process = new CustTransparentUpdateMsgProcess(getEwayWebResource(), Constant.TRANSPARENT_REDIRECT_METHOD_NAME.concat(Constant.JSON_SUFIX));
+                    process = custTransparentUpdate;
                     break;
                 default:
                     return makeResponseWithException(new ParameterInvalidException("Not support this payment type"), CreateCustomerResponse.class);
             }
-            return process.doWork(customer);
+            return invalidateCachedCustomer(customer, doWork(process, OperationType.PAYMENT, customer));
         } catch (RapidSdkException e) {
             LOGGER.error(e.getMessage());
             return makeResponseWithException(e, CreateCustomerResponse.class);
@@ -271,28 +773,54 @@ public class RapidClientImpl implements RapidClient {
     }
 
     public QueryTransactionResponse queryTransaction(int transactionId) {
+        if (settledTransactions != null && isValid()) {
+            QueryTransactionResponse cached = settledTransactions.get(transactionId);
+            if (cached != null) {
+                return cached;
+            }
+        }
         return queryTransaction(String.valueOf(transactionId));
     }
 
     public QueryTransactionResponse queryTransaction(String accessCode) {
-        return queryTransactionWithPath(accessCode, Constant.TRANSACTION_METHOD);
+        return queryTransactionWithPath(accessCode, transQuery);
     }
 
     /**
      * Completes the query transaction request
      *
      * @param request The transaction ID or Access Code
-     * @param requestPath The request path
+     * @param process The query process for the request path
      * @return The transaction query response
      */
-    private QueryTransactionResponse queryTransactionWithPath(String request, String... requestPath) {
+    private QueryTransactionResponse queryTransactionWithPath(final String request, final TransQueryMsgProcess process) {
         if (!isValid()) {
             return makeResponseWithException(new APIKeyInvalidException("API Key, Password or Rapid endpoint is invalid"),
                     QueryTransactionResponse.class);
         }
+        QueryTransactionResponse response;
+        if (transactionQueries != null) {
+            String key = coalescingKey(StringUtils.join(process.getRequestPath(), '/') + '/' + request);
+            response = transactionQueries.execute(key, () -> sendQueryTransaction(request, process));
+        } else {
+            response = sendQueryTransaction(request, process);
+        }
+        if (settledTransactions != null) {
+            settledTransactions.put(response);
+        }
+        return response;
+    }
+
+    /**
+     * Sends the query transaction request
+     *
+     * @param request The transaction ID or Access Code
+     * @param process The query process for the request path
+     * @return The transaction query response
+     */
+    private QueryTransactionResponse sendQueryTransaction(String request, TransQueryMsgProcess process) {
         try {
-            MessageProcess<String, QueryTransactionResponse> process = new TransQueryMsgProcess(getEwayWebResource(), requestPath);
-            return process.doWork(request);
+            return doWork(process, OperationType.QUERY, request);
         } catch (RapidSdkException e) {
             LOGGER.error(e.getMessage());
             return makeResponseWithException(e, QueryTransactionResponse.class);
@@ -304,6 +832,12 @@ public class RapidClientImpl implements RapidClient {
         if (indexOfValue == null) {
             return makeResponseWithException(new APIKeyInvalidException("Invalid transaction filter input"), QueryTransactionResponse.class);
         }
+        if (settledTransactions != null && isValid()) {
+            QueryTransactionResponse cached = settledTransactions.get(filter);
+            if (cached != null) {
+                return cached;
+            }
+        }
 
         switch (indexOfValue) {
             case TransactionFilter.TRANSACTION_ID_INDEX:
@@ -311,22 +845,106 @@ public class RapidClientImpl implements RapidClient {
             case TransactionFilter.ACCESS_CODE_INDEX:
                 return queryTransaction(filter.getAccessCode());
             case TransactionFilter.INVOICE_NUMBER_INDEX:
-                return queryTransactionWithPath(filter.getInvoiceNumber(), Constant.TRANSACTION_METHOD, Constant.TRANSACTION_QUERY_WITH_INVOICE_NUM_METHOD);
+                return queryTransactionWithPath(filter.getInvoiceNumber(), transQueryByInvoiceNumber);
             case TransactionFilter.INVOICE_REFERENCE_INDEX:
-                return queryTransactionWithPath(filter.getInvoiceReference(), Constant.TRANSACTION_METHOD, Constant.TRANSACTION_QUERY_WITH_INVOICE_REF_METHOD);
+                return queryTransactionWithPath(filter.getInvoiceReference(), transQueryByInvoiceRef);
         }
         return makeResponseWithException(new APIKeyInvalidException("Unsupported transaction filter"), QueryTransactionResponse.class);
     }
 
-    public QueryCustomerResponse queryCustomer(long tokenCustomerID) {
+    public Map<TransactionFilter, QueryTransactionResponse> queryTransactions(Collection<TransactionFilter> filters) {
+        return queryTransactions(this, filters);
+    }
+
+    /**
+     * Query many transactions at once, making each query through a client
+     *
+     * @param client The client that makes each query, this one or a view of it
+     * @param filters The transactions to search for
+     * @return The query response for each distinct filter
+     */
+    Map<TransactionFilter, QueryTransactionResponse> queryTransactions(RapidClient client, Collection<TransactionFilter> filters) {
+        Map<TransactionFilter, QueryTransactionResponse> ordered = new LinkedHashMap<TransactionFilter, QueryTransactionResponse>();
+        if (filters == null) {
+            return ordered;
+        }
+        final Map<TransactionFilter, QueryTransactionResponse> results = new ConcurrentHashMap<TransactionFilter, QueryTransactionResponse>();
+        queryTransactionsAsync(client, filters, results::put).join();
+        for (TransactionFilter filter : filters) {
+            if (filter != null && results.containsKey(filter)) {
+                ordered.put(filter, results.get(filter));
+            }
+        }
+        return ordered;
+    }
+
+    public CompletableFuture<Void> queryTransactionsAsync(Collection<TransactionFilter> filters,
+            BiConsumer<TransactionFilter, QueryTransactionResponse> onResult) {
+        return queryTransactionsAsync(this, filters, onResult);
+    }
+
+    CompletableFuture<Void> queryTransactionsAsync(RapidClient client, Collection<TransactionFilter> filters,
+            BiConsumer<TransactionFilter, QueryTransactionResponse> onResult) {
+        return new BulkTransactionQuery(client, getExecutor(), filters, onResult).start(config.getBulkQueryConcurrency());
+    }
+
+    public QueryCustomerResponse queryCustomer(final long tokenCustomerID) {
         if (!isValid()) {
             return makeResponseWithException(new APIKeyInvalidException("API Key, Password or Rapid endpoint is invalid"),
                     QueryCustomerResponse.class);
         }
+        if (customerCache == null) {
+            return coalesceQueryCustomer(tokenCustomerID);
+        }
+        QueryCustomerResponse cached = customerCache.get(tokenCustomerID);
+        if (cached != null) {
+            return cached;
+        }
+        long version = customerCache.version();
+        QueryCustomerResponse response = coalesceQueryCustomer(tokenCustomerID);
+        if (response != null && response.getErrors().isEmpty()) {
+            customerCache.put(tokenCustomerID, response, version);
+        }
+        return response;
+    }
+
+    /**
+     * Sends the query customer request, sharing a request already in flight
+     * for the same customer if coalescing is enabled
+     *
+     * @param tokenCustomerID The Token Customer ID
+     * @return Customer query response
+     */
+    private QueryCustomerResponse coalesceQueryCustomer(final long tokenCustomerID) {
+        if (customerQueries != null) {
+            return customerQueries.execute(coalescingKey(String.valueOf(tokenCustomerID)),
+                    () -> sendQueryCustomer(tokenCustomerID));
+        }
+        return sendQueryCustomer(tokenCustomerID);
+    }
+
+    /**
+     * The key a query is coalesced under, which names the account it is sent
+     * to so a query is never answered with another account's response while
+     * the credentials or endpoint change
+     *
+     * @param request What the query asks for
+     * @return The key of the query
+     */
+    private String coalescingKey(String request) {
+        ClientState current = state;
+        return current.getApiKey() + '@' + current.getWebUrl() + ' ' + request;
+    }
+
+    /**
+     * Sends the query customer request
+     *
+     * @param tokenCustomerID The Token Customer ID
+     * @return Customer query response
+     */
+    private QueryCustomerResponse sendQueryCustomer(long tokenCustomerID) {
         try {
-            MessageProcess<String, QueryCustomerResponse> process = new QueryCustomerMsgProcess(getEwayWebResource(),
-                    Constant.DIRECT_CUSTOMER_SEARCH_METHOD.concat(Constant.JSON_SUFIX));
-            return process.doWork(String.valueOf(tokenCustomerID));
+            return doWork(queryCustomer, OperationType.QUERY, String.valueOf(tokenCustomerID));
         } catch (RapidSdkException e) {
             LOGGER.error(e.getMessage());
             return makeResponseWithException(e, QueryCustomerResponse.class);
@@ -339,10 +957,13 @@ public class RapidClientImpl implements RapidClient {
             return makeResponseWithException(new APIKeyInvalidException("API Key, Password or Rapid endpoint is invalid"),
                     RefundResponse.class);
         }
+        // the refund may share its invoice number and reference with a cached payment
+        if (settledTransactions != null && refund != null && refund.getRefundDetails() != null) {
+            settledTransactions.invalidateInvoice(refund.getRefundDetails().getInvoiceNumber(),
+                    refund.getRefundDetails().getInvoiceReference());
+        }
         try {
-            MessageProcess<Refund, RefundResponse> process = null;
-            process = new RefundMsgProcess(getEwayWebResource(), Constant.TRANSACTION_METHOD);
-            return process.doWork(refund);
+            return doWork(this.refund, OperationType.REFUND, refund, findRefund(refund));
         } catch (RapidSdkException e) {
             LOGGER.error(e.getMessage());
             return makeResponseWithException(e, RefundResponse.class);
@@ -355,71 +976,777 @@ public class RapidClientImpl implements RapidClient {
                     RefundResponse.class);
         }
         try {
-            MessageProcess<Refund, RefundResponse> process = new CancelAuthorisationMsgProcess(getEwayWebResource(), Constant.CANCEL_AUTHORISATION_METHOD);
-            return process.doWork(refund);
+            return doWork(cancelAuthorisation, OperationType.CANCEL, refund);
         } catch (RapidSdkException e) {
             LOGGER.error(e.getMessage());
             return makeResponseWithException(e, RefundResponse.class);
         }
     }
 
+    public CompletableFuture<CreateTransactionResponse> createAsync(final PaymentMethod paymentMethod, final Transaction transaction) {
+        return CompletableFuture.supplyAsync(() -> create(paymentMethod, transaction), getExecutor());
+    }
+
+    public CompletableFuture<CreateCustomerResponse> createAsync(final PaymentMethod paymentMethod, final Customer customer) {
+        return CompletableFuture.supplyAsync(() -> create(paymentMethod, customer), getExecutor());
+    }
+
+    public CompletableFuture<CreateCustomerResponse> updateAsync(final PaymentMethod paymentMethod, final Customer customer) {
+        return CompletableFuture.supplyAsync(() -> update(paymentMethod, customer), getExecutor());
+    }
+
+    public CompletableFuture<QueryTransactionResponse> queryTransactionAsync(final int transactionId) {
+        return CompletableFuture.supplyAsync(() -> queryTransaction(transactionId), getExecutor());
+    }
+
+    public CompletableFuture<QueryTransactionResponse> queryTransactionAsync(final String accessCode) {
+        return CompletableFuture.supplyAsync(() -> queryTransaction(accessCode), getExecutor());
+    }
+
+    public CompletableFuture<QueryTransactionResponse> queryTransactionAsync(final TransactionFilter filter) {
+        return CompletableFuture.supplyAsync(() -> queryTransaction(filter), getExecutor());
+    }
+
+    public CompletableFuture<QueryCustomerResponse> queryCustomerAsync(final long tokenCustomerID) {
+        return CompletableFuture.supplyAsync(() -> queryCustomer(tokenCustomerID), getExecutor());
+    }
+
+    public CompletableFuture<RefundResponse> refundAsync(final Refund refund) {
+        return CompletableFuture.supplyAsync(() -> refund(refund), getExecutor());
+    }
+
+    public CompletableFuture<RefundResponse> cancelAsync(final Refund refund) {
+        return CompletableFuture.supplyAsync(() -> cancel(refund), getExecutor());
+    }
+
     public String getRapidEndpoint() {
-        return rapidEndpoint;
+        return state.getRapidEndpoint();
     }
 
     public boolean isValid() {
-        return isValid;
+        return state.isValid();
     }
 
     public List<String> getErrors() {
-        return listError != null ? listError : new ArrayList<String>();
+        return new ArrayList<String>(state.getErrors());
+    }
+
+    public CacheStats getTokenCustomerCacheStats() {
+        return customerCache != null ? customerCache.getStats() : new CacheStats(0, 0, 0, 0);
+    }
+
+    public CacheStats getSettledTransactionCacheStats() {
+        return settledTransactions != null ? settledTransactions.getStats() : new CacheStats(0, 0, 0, 0);
+    }
+
+    public boolean warmUp() {
+        return warmUp(1);
+    }
+
+    public boolean warmUp(int connections) {
+        int failures = MessageProcessWarmUp.run();
+        if (failures > 0) {
+            LOGGER.warn(failures + " message processes failed to warm up");
+        }
+        ClientState current = acquireState();
+        try {
+            if (!current.isValid()) {
+                return false;
+            }
+            OperationTimeouts timeouts = config.getTimeouts(OperationType.PAYMENT);
+            getTransport(current).connect(connections, Deadline.start(timeouts.getConnectTimeoutMillis(), 0, 0));
+            return true;
+        } catch (RapidSdkException e) {
+            LOGGER.error(e.getMessage());
+            return false;
+        } catch (IOException e) {
+            LOGGER.error("Error warming up connections to " + current.getWebUrl(), e);
+            return false;
+        } finally {
+            current.release();
+        }
+    }
+
+    public ConnectionPoolStats getConnectionPoolStats() {
+        InstrumentedConnectionManager current = state.getConnectionManager();
+        return current != null ? current.getStats() : new ConnectionPoolStats(0, 0, 0, 0, 0, 0);
+    }
+
+    /**
+     * When calls are routed across several endpoints, each has its own
+     * breaker: the counters of all of them are added up, and the state is
+     * the most closed of theirs, since calls only fail at once when every
+     * breaker is open.
+     */
+    public CircuitBreakerStats getCircuitBreakerStats() {
+        ClientState current = state;
+        if (circuitBreakers == null || current.getWebUrls() == null || current.getWebUrls().isEmpty()) {
+            return new CircuitBreakerStats(CircuitState.CLOSED, 0, 0, 0, 0, 0);
+        }
+        CircuitState combined = null;
+        long successful = 0;
+        long failed = 0;
+        long slow = 0;
+        long rejected = 0;
+        long opened = 0;
+        for (String url : current.getWebUrls()) {
+            CircuitBreakerStats stats = circuitBreaker(url).getStats();
+            if (combined == null || isMoreClosed(stats.getState(), combined)) {
+                combined = stats.getState();
+            }
+            successful += stats.getSuccessfulCalls();
+            failed += stats.getFailedCalls();
+            slow += stats.getSlowCalls();
+            rejected += stats.getRejectedCalls();
+            opened += stats.getTimesOpened();
+        }
+        return new CircuitBreakerStats(combined, successful, failed, slow, rejected, opened);
+    }
+
+    private static boolean isMoreClosed(CircuitState state, CircuitState than) {
+        return state == CircuitState.CLOSED && than != CircuitState.CLOSED
+                || state == CircuitState.HALF_OPEN && than == CircuitState.OPEN;
+    }
+
+    /**
+     * @param url An endpoint URL, one of several if calls are routed
+     * @return The circuit breaker of the endpoint
+     */
+    private CircuitBreaker circuitBreaker(String url) {
+        return circuitBreakers.computeIfAbsent(url,
+                key -> new CircuitBreaker(key, config.getCircuitBreakerPolicy(), config.getCircuitBreakerListener()));
+    }
+
+    public List<EndpointStats> getEndpointStats() {
+        EndpointRouter router = endpointRouter(state);
+        return router != null ? router.getStats() : Collections.<EndpointStats>emptyList();
     }
 
     /**
-     * Fetches and configures a Web Resource to connect to eWAY
+     * @param current A client state
+     * @return The router of the state's endpoint URLs, or {@code null} if
+     * it has only one or the endpoint is invalid
+     */
+    private EndpointRouter endpointRouter(ClientState current) {
+        if (current.getWebUrls() == null || current.getWebUrls().size() < 2) {
+            return null;
+        }
+        return endpointRouters.computeIfAbsent(current.getWebUrl(),
+                url -> new EndpointRouter(current.getWebUrls(), config.getEndpointRoutingPolicy()));
+    }
+
+    public HedgingStats getHedgingStats() {
+        return hedging != null ? hedging.getStats() : new HedgingStats(0, 0, 0, 0, -1);
+    }
+
+    public ConcurrencyLimitStats getConcurrencyLimitStats() {
+        ConcurrencyLimiter limiter = concurrencyLimiter(state);
+        return limiter != null ? limiter.getStats() : new ConcurrencyLimitStats(0, 0, 0, 0);
+    }
+
+    /**
+     * @param current A client state
+     * @return The concurrency limiter of the state's API key, or
+     * {@code null} if concurrency limits are disabled or there is no key
+     */
+    private ConcurrencyLimiter concurrencyLimiter(ClientState current) {
+        if (concurrencyLimiters == null || current.getApiKey() == null) {
+            return null;
+        }
+        return concurrencyLimiters.computeIfAbsent(current.getApiKey(),
+                key -> new ConcurrencyLimiter(config.getConcurrencyLimitPolicy()));
+    }
+
+    public CoalescingStats getCoalescingStats() {
+        if (transactionQueries == null) {
+            return new CoalescingStats(0, 0);
+        }
+        CoalescingStats transactions = transactionQueries.getStats();
+        CoalescingStats customers = customerQueries.getStats();
+        return new CoalescingStats(transactions.getRequests() + customers.getRequests(),
+                transactions.getCoalesced() + customers.getCoalesced());
+    }
+
+    /**
+     * Looks up whether an earlier attempt of a failed call went through,
+     * before the call is sent again
      *
-     * @return A WebResource
+     * @param <V> Output class of the call
      */
-    private WebTarget getEwayWebResource() {
+    private interface OutcomeLookup<V> {
+
+        /**
+         * @param deadline The deadline of the call
+         * @return The outcome of the earlier attempt, or {@code null} if it
+         * was not found
+         * @throws RapidSdkException if the lookup fails
+         */
+        V find(Deadline deadline) throws RapidSdkException;
+    }
+
+    /**
+     * Runs a message process that is safe to send again as it is, which
+     * only queries are
+     *
+     * @param process The message process of the operation
+     * @param operation The kind of call
+     * @param input The input of the process
+     * @return The output of the process
+     * @throws RapidSdkException if the call fails or its deadline passes
+     */
+    private <T, V> V doWork(AbstractMessageProcess<T, V> process, OperationType operation, T input) throws RapidSdkException {
+        return doWork(process, operation, input, null);
+    }
+
+    /**
+     * Runs a message process within the timeouts configured for its kind
+     * of call. Queries that fail with a communication failure are sent again
+     * under the retry policy of their kind, within the same deadline. Calls
+     * with an outcome lookup are only sent again under it when the failed
+     * attempt never left the client; otherwise it may still be processed
+     * after the lookup misses it, so an outcome not found is reported as
+     * unknown with error code S9998 rather than risk charging twice.
+     *
+     * @param process The message process of the operation
+     * @param operation The kind of call
+     * @param input The input of the process
+     * @param earlierOutcome Looks up whether a failed attempt went through
+     * when it may have reached Rapid, {@code null} to send queries again as
+     * they are and never send other calls again
+     * @return The output of the process
+     * @throws RapidSdkException if the call fails or its deadline passes
+     */
+    private <T, V> V doWork(AbstractMessageProcess<T, V> process, OperationType operation, T input,
+            OutcomeLookup<V> earlierOutcome) throws RapidSdkException {
+        OperationTimeouts timeouts = config.getTimeouts(operation);
+        Deadline deadline = Deadline.start(timeouts.getConnectTimeoutMillis(), timeouts.getReadTimeoutMillis(),
+                timeouts.getDeadlineMillis());
+        RetryPolicy retryPolicy = operation == OperationType.QUERY || earlierOutcome != null
+                ? config.getRetryPolicy(operation) : RetryPolicy.none();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                if (hedging != null && operation == OperationType.QUERY) {
+                    return hedge(process, operation, input, deadline);
+                }
+                return attempt(process, operation, input, deadline);
+            } catch (RapidSdkException e) {
+                if (earlierOutcome != null && !isNeverSent(e) && attempt < retryPolicy.getMaxAttempts()
+                        && Constant.COMMUNICATION_FAILURE_ERROR_CODE.equals(e.getErrorCode())) {
+                    return findOutcome(earlierOutcome, e, deadline);
+                }
+                if (!awaitRetry(retryPolicy, operation, attempt, e, deadline)) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Looks up the outcome of a failed attempt that may have reached Rapid.
+     * The call is never sent again from here: the attempt may still be
+     * processed after the lookup.
+     *
+     * @return The outcome of the attempt
+     * @throws OutcomeUnknownException if the lookup fails or finds nothing
+     */
+    private <V> V findOutcome(OutcomeLookup<V> earlierOutcome, RapidSdkException failure, Deadline deadline)
+            throws RapidSdkException {
+        V outcome;
+        try {
+            outcome = earlierOutcome.find(deadline);
+        } catch (RapidSdkException lookupFailure) {
+            LOGGER.warn("Could not tell whether a failed call went through", lookupFailure);
+            throw new OutcomeUnknownException("Rapid API call failed and its outcome could not be queried", failure);
+        }
+        if (outcome == null) {
+            throw new OutcomeUnknownException("Rapid API call failed and no outcome was found for it", failure);
+        }
+        return outcome;
+    }
+
+    /**
+     * Whether a failed attempt is known not to have reached Rapid: it was
+     * failed before it was sent, or could not connect to the endpoint
+     *
+     * @param failure Why the attempt failed
+     * @return true if the call can be sent again without looking it up
+     */
+    private static boolean isNeverSent(RapidSdkException failure) {
+        if (failure instanceof CircuitOpenException || failure instanceof ConcurrencyLimitExceededException) {
+            return true;
+        }
+        for (Throwable t = failure.getCause(); t != null; t = t.getCause()) {
+            if (t instanceof ConnectException || t instanceof ConnectTimeoutException
+                    || t instanceof NoRouteToHostException || t instanceof UnknownHostException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Decide whether a failed attempt is sent again and wait out its
+     * backoff. Only communication failures are retried, and only while the
+     * backoff leaves time before the deadline.
+     *
+     * @return true to send the call again
+     */
+    private boolean awaitRetry(RetryPolicy retryPolicy, OperationType operation, int attempt, RapidSdkException failure,
+            Deadline deadline) {
+        if (attempt >= retryPolicy.getMaxAttempts() || failure instanceof CircuitOpenException
+                || failure instanceof ConcurrencyLimitExceededException
+                || !Constant.COMMUNICATION_FAILURE_ERROR_CODE.equals(failure.getErrorCode())) {
+            return false;
+        }
+        long backoff = retryPolicy.backoffMillis(attempt);
+        if (backoff >= deadline.remainingMillis()) {
+            return false;
+        }
+        MetricsListener listener = config.getMetricsListener();
+        if (listener != null) {
+            try {
+                listener.callRetried(operation, attempt, failure.getErrorCode());
+            } catch (RuntimeException e) {
+                LOGGER.warn("Metrics listener failed", e);
+            }
+        }
+        try {
+            Thread.sleep(backoff);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Sends one attempt of a query, and sends it again if it has not been
+     * answered by the hedge delay. Until enough queries have completed to
+     * know the delay, or if the delay would pass the deadline, the attempt
+     * is sent once on the calling thread.
+     */
+    private <T, V> V hedge(AbstractMessageProcess<T, V> process, OperationType operation, T input, Deadline deadline)
+            throws RapidSdkException {
+        long delay = hedging.startQuery();
+        if (delay < 0 || delay >= deadline.remainingMillis()) {
+            long start = System.nanoTime();
+            V output = attempt(process, operation, input, deadline);
+            hedging.recordLatency(System.nanoTime() - start);
+            return output;
+        }
+        // the requests run on executor threads, so they are given the lane of this one
+        final RequestPriority priority = PRIORITY.get();
+        HedgedQuery<V> query = new HedgedQuery<V>(() -> {
+            if (priority == null) {
+                return attempt(process, operation, input, deadline);
+            }
+            PRIORITY.set(priority);
+            try {
+                return attempt(process, operation, input, deadline);
+            } finally {
+                PRIORITY.remove();
+            }
+        }, getExecutor(), hedging);
+        return query.run(delay);
+    }
+
+    /**
+     * Sends one attempt of a call. The attempt reads the client state once
+     * and keeps it until it completes, so it is sent with one set of
+     * credentials even if they are changed meanwhile. The process is shared
+     * by every call; what belongs to this attempt travels in its own
+     * context. The attempt waits for room in its priority lane, then
+     * while the API key has as many calls in flight as its concurrency
+     * limit; while the circuit breaker of the endpoint is open, it fails at
+     * once.
+     */
+    private <T, V> V attempt(AbstractMessageProcess<T, V> process, OperationType operation, T input, Deadline deadline)
+            throws RapidSdkException {
+        ClientState current = acquireState();
+        try {
+            if (!current.isValid()) {
+                throw new APIKeyInvalidException("API Key, Password or Rapid endpoint is invalid");
+            }
+            MessageContext<T> context = new MessageContext<T>(getTransport(current), deadline, input);
+            if (priorityLanes == null) {
+                return limit(process, operation, context, current);
+            }
+            RequestPriority priority = PRIORITY.get() != null ? PRIORITY.get() : RequestPriority.of(operation);
+            if (!priorityLanes.acquire(priority, deadline.remainingMillis())) {
+                throw new DeadlineExceededException("Deadline passed waiting in the " + priority + " lane", null);
+            }
+            try {
+                return limit(process, operation, context, current);
+            } finally {
+                priorityLanes.release(priority);
+            }
+        } finally {
+            current.release();
+        }
+    }
+
+    /**
+     * Sends one attempt of a call within the concurrency limit of its API
+     * key, if there is one
+     */
+    private <T, V> V limit(AbstractMessageProcess<T, V> process, OperationType operation, MessageContext<T> context,
+            ClientState current) throws RapidSdkException {
+        ConcurrencyLimiter limiter = concurrencyLimiter(current);
+        if (limiter == null) {
+            return guard(process, operation, context, current);
+        }
+        if (!limiter.acquire(context.getDeadline().remainingMillis())) {
+            throw new ConcurrencyLimitExceededException("Too many calls in flight for the API key");
+        }
+        // timed after the wait for room, so queueing does not read as Rapid slowing down
+        long start = System.nanoTime();
+        boolean sent = true;
+        boolean failed = false;
+        try {
+            return guard(process, operation, context, current);
+        } catch (CircuitOpenException e) {
+            sent = false;
+            throw e;
+        } catch (RapidSdkException e) {
+            failed = isRapidFailure(e);
+            throw e;
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            if (sent) {
+                limiter.release(System.nanoTime() - start, failed);
+            } else {
+                limiter.release();
+            }
+        }
+    }
+
+    /**
+     * Sends one attempt of a call through the circuit breaker of its
+     * endpoint, if there is one. When calls are routed across several
+     * endpoints, the endpoint is picked before sending and its own breaker
+     * guards the attempt; an endpoint whose breaker is open is passed over
+     * for the next one, and the attempt only fails at once if every
+     * endpoint's breaker is open.
+     */
+    private <T, V> V guard(AbstractMessageProcess<T, V> process, OperationType operation, MessageContext<T> context,
+            ClientState current) throws RapidSdkException {
+        if (circuitBreakers == null || current.getWebUrl() == null) {
+            return doWork(process, operation, context);
+        }
+        if (!(context.getTransport() instanceof RoutingTransport)) {
+            CircuitBreaker breaker = circuitBreaker(current.getWebUrls().get(0));
+            if (!breaker.tryAcquire()) {
+                throw new CircuitOpenException("Circuit breaker of the Rapid endpoint is open");
+            }
+            return guard(process, operation, context, breaker);
+        }
+        RoutingTransport routing = (RoutingTransport) context.getTransport();
+        for (int tried = 1; ; tried++) {
+            RoutingTransport.Route route = routing.route();
+            CircuitBreaker breaker = circuitBreaker(route.getUrl());
+            if (breaker.tryAcquire()) {
+                try {
+                    return guard(process, operation, new MessageContext<T>(route, context.getDeadline(), context.getInput()),
+                            breaker);
+                } finally {
+                    route.release();
+                }
+            }
+            route.reject();
+            if (tried >= routing.size()) {
+                throw new CircuitOpenException("Circuit breakers of every Rapid endpoint are open");
+            }
+        }
+    }
+
+    /**
+     * Sends one attempt of a call the circuit breaker has let through, and
+     * reports its outcome to the breaker
+     */
+    private <T, V> V guard(AbstractMessageProcess<T, V> process, OperationType operation, MessageContext<T> context,
+            CircuitBreaker breaker) throws RapidSdkException {
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            return doWork(process, operation, context);
+        } catch (RapidSdkException e) {
+            failed = isRapidFailure(e);
+            throw e;
+        } catch (RuntimeException e) {
+            // an attempt that broke off unexpectedly cannot count as a success
+            failed = true;
+            throw e;
+        } finally {
+            breaker.onResult(System.nanoTime() - start, failed);
+        }
+    }
+
+    /**
+     * Whether a failed attempt says Rapid is unhealthy: it could not be
+     * reached or read, passed its deadline, or answered with a server error
+     *
+     * @param failure Why the attempt failed
+     * @return true if the attempt counts against the endpoint
+     */
+    private static boolean isRapidFailure(RapidSdkException failure) {
+        // an attempt interrupted by its caller, such as a hedged query that lost, says nothing about Rapid
+        if (Thread.currentThread().isInterrupted()) {
+            return false;
+        }
+        return failure instanceof CommunicationFailureException
+                || failure instanceof SystemErrorException && ((SystemErrorException) failure).getHttpStatus() >= 500;
+    }
+
+    private <T, V> V doWork(AbstractMessageProcess<T, V> process, OperationType operation, MessageContext<T> context)
+            throws RapidSdkException {
+        MetricsListener listener = config.getMetricsListener();
+        if (listener == null) {
+            return process.doWork(context);
+        }
+        long start = System.nanoTime();
+        String errorCode = null;
+        try {
+            return process.doWork(context);
+        } catch (RapidSdkException e) {
+            errorCode = e.getErrorCode();
+            throw e;
+        } finally {
+            try {
+                listener.callCompleted(operation, System.nanoTime() - start, errorCode);
+            } catch (RuntimeException e) {
+                LOGGER.warn("Metrics listener failed", e);
+            }
+        }
+    }
+
+    /**
+     * Read the client state and register a call using it
+     *
+     * @return The current client state, to be released once the call
+     * completes
+     */
+    private ClientState acquireState() {
+        ClientState current;
+        do {
+            current = state;
+        } while (!current.acquire());
+        return current;
+    }
+
+    /**
+     * Returns the transport used to connect to eWAY, building it on first
+     * use. The same transport, and its pool of keep-alive connections, is
+     * shared by every request until the client configuration changes.
+     *
+     * @param settings The client state of the call
+     * @return The transport
+     * @throws RapidSdkException if the TLS context cannot be created
+     */
+    private HttpTransport getTransport(ClientState settings) throws RapidSdkException {
+        if (settings.isVerificationPending()) {
+            verifyPendingEndpoint(settings);
+        }
+        return transport(settings);
+    }
+
+    /**
+     * Returns the transport, building it if needed, without verifying the
+     * endpoint
+     *
+     * @param settings The client state the transport is built from
+     * @return The transport
+     * @throws RapidSdkException if the TLS context cannot be created
+     */
+    private HttpTransport transport(ClientState settings) throws RapidSdkException {
+        HttpTransport current = settings.getTransport();
+        if (current == null) {
+            lock.lock();
+            try {
+                current = settings.getTransport();
+                if (current == null) {
+                    current = buildTransport(settings, getSslContext());
+                }
+            } catch (NoSuchAlgorithmException e) {
+                throw new CommunicationFailureException("Error using TLS 1.2 to connect to Rapid: no such algorithm", e);
+            } catch (KeyManagementException e) {
+                throw new CommunicationFailureException("Error using TLS 1.2 to connect to Rapid: key management", e);
+            } finally {
+                lock.unlock();
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Creates the configured kind of transport and sets it on the client
+     * state. When the state has several endpoint URLs, the transport routes
+     * each request to one of them.
+     *
+     * @param settings The client state the transport is built from
+     * @param context The SSL context for HTTPS connections
+     * @return A transport
+     */
+    private HttpTransport buildTransport(ClientState settings, SSLContext context) {
+        List<HttpTransport> transports = new ArrayList<HttpTransport>(settings.getWebUrls().size());
+        InstrumentedConnectionManager connectionManager = null;
+        boolean jdkHttpClient = config.getTransportType() == TransportType.JDK_HTTP_CLIENT;
+        if (jdkHttpClient && !JDK_HTTP_CLIENT_AVAILABLE) {
+            LOGGER.warn("java.net.http.HttpClient is not available on this runtime, using Jersey");
+            jdkHttpClient = false;
+        }
+        if (jdkHttpClient) {
+            Map<String, String> headers = new LinkedHashMap<String, String>();
+            headers.put(HttpHeaders.USER_AGENT, RapidClientFilter.userAgent());
+            headers.put(HttpHeaders.AUTHORIZATION, RapidClientFilter.basicAuthorization(settings.getApiKey(), settings.getPassword()));
+            if (settings.getApiVersion() != null) {
+                headers.put(RapidClientFilter.API_VERSION_HEADER, settings.getApiVersion());
+            }
+            for (String webUrl : settings.getWebUrls()) {
+                transports.add(JdkHttpTransport.create(webUrl, context, headers, maxConnectTimeoutMillis(), settings.isDebug()));
+            }
+        } else {
+            // one client and pool for every endpoint, so the pool's total limit holds across them
+            connectionManager = buildConnectionManager(context);
+            Client client = buildClient(settings, context, connectionManager);
+            for (String webUrl : settings.getWebUrls()) {
+                transports.add(new JerseyTransport(client, webUrl, connectionManager));
+            }
+        }
+        EndpointRouter router = endpointRouter(settings);
+        HttpTransport transport = router == null ? transports.get(0)
+                : new RoutingTransport(transports, router, getExecutor(), maxConnectTimeoutMillis());
+        settings.setTransport(transport, connectionManager);
+        return transport;
+    }
+
+    /**
+     * @return The longest connect timeout of any kind of call, for settings
+     * the HTTP clients only support once per client
+     */
+    private long maxConnectTimeoutMillis() {
+        long max = 0;
+        for (OperationType operation : OperationType.values()) {
+            long timeout = config.getTimeouts(operation).getConnectTimeoutMillis();
+            if (timeout == 0) {
+                return 0;
+            }
+            max = Math.max(max, timeout);
+        }
+        return max;
+    }
+
+    /**
+     * Creates the pool of connections of a Jersey client
+     *
+     * @param context The SSL context for HTTPS connections
+     * @return A connection manager
+     */
+    private InstrumentedConnectionManager buildConnectionManager(SSLContext context) {
+        InstrumentedConnectionManager connectionManager = new InstrumentedConnectionManager(
+                RegistryBuilder.<ConnectionSocketFactory>create()
+                        .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                        .register("https", new SSLConnectionSocketFactory(context))
+                        .build(),
+                this.config.getIdleConnectionTimeoutMillis());
+        connectionManager.setMaxTotal(this.config.getMaxConnections());
+        connectionManager.setDefaultMaxPerRoute(this.config.getMaxConnectionsPerRoute());
+        connectionManager.setValidateAfterInactivity((int) Math.min(Integer.MAX_VALUE, this.config.getValidateAfterInactivityMillis()));
+        return connectionManager;
+    }
+
+    /**
+     * Configures a client to connect to eWAY
+     *
+     * @param settings The client state with the credentials to send
+     * @param context The SSL context for HTTPS connections
+     * @param connectionManager The pool of connections
+     * @return A Client
+     */
+    private Client buildClient(ClientState settings, SSLContext context, InstrumentedConnectionManager connectionManager) {
+        ClientConfig config = new ClientConfig();
+        config.connectorProvider(new ApacheConnectorProvider());
+        config.property(ApacheClientProperties.CONNECTION_MANAGER, connectionManager);
+        config.property(ApacheClientProperties.DISABLE_COOKIES, true);
+        // waiting for a pooled connection counts as connecting
+        config.property(ApacheClientProperties.REQUEST_CONFIG, RequestConfig.custom()
+                .setConnectionRequestTimeout((int) Math.min(Integer.MAX_VALUE, maxConnectTimeoutMillis())).build());
+        // send a Content-Length rather than chunking request bodies
+        config.property(ClientProperties.REQUEST_ENTITY_PROCESSING, RequestEntityProcessing.BUFFERED);
 
         // bind jackson manually rather than relying on external configuration of Jackson which might also
         // be too aggressive in that it might bind JAXB annotations too if the common jersey-media-jackson package
         // is used
-        final ClientBuilder builder = ClientBuilder.newBuilder().register(EwayJacksonJsonFeature.class);
-
-        HttpAuthenticationFeature authFeature = HttpAuthenticationFeature.basicBuilder().credentials(APIKey, password).build();
-        builder.register(authFeature);
+        final ClientBuilder builder = ClientBuilder.newBuilder().withConfig(config).sslContext(context)
+                .register(EwayJacksonJsonFeature.class);
 
-        if (this.debug) {
+        if (settings.isDebug()) {
             builder.register(new LoggingFeature());
+            builder.property(Constant.RAPID_SDK_DEBUG_PROPERTY, true);
         }
 
-        // Set additional headers
+        // Set the Rapid and Basic authorization headers
         RapidClientFilter rapidFilter = new RapidClientFilter();
-        rapidFilter.setVersion(apiVersion);
+        rapidFilter.setVersion(settings.getApiVersion());
+        rapidFilter.setCredentials(settings.getApiKey(), settings.getPassword());
         builder.register(rapidFilter);
+        builder.register(new ResponseBufferingFilter());
 
-        Client client = builder.build();
-
+        return builder.build();
+    }
 
-        return client.target(webUrl);
+    /**
+     * Get the executor for asynchronous calls: the configured one, or one
+     * owned by this client running either virtual or platform threads
+     *
+     * @return The executor
+     */
+    private Executor getExecutor() {
+        if (config.getExecutor() != null) {
+            return config.getExecutor();
+        }
+        lock.lock();
+        try {
+            if (ownExecutor == null) {
+                if (config.getExecutionMode() == ExecutionMode.VIRTUAL_THREADS) {
+                    ownExecutor = VirtualThreads.newVirtualThreadPerTaskExecutor();
+                    if (ownExecutor == null) {
+                        LOGGER.warn("Virtual threads are not available on this Java runtime, using platform threads");
+                    }
+                }
+                if (ownExecutor == null) {
+                    ownExecutor = Executors.newCachedThreadPool(new DaemonThreadFactory("rapid-sdk-async"));
+                }
+            }
+            return ownExecutor;
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
-     * Add an error code to the client
+     * Removes a token customer from the query cache once it has been
+     * successfully created or updated
      *
-     * @param errCode The error code to add
+     * @param customer The customer sent to Rapid
+     * @param response The create or update response
+     * @return The response
      */
-    private void addErrorCode(String errCode) {
-        if (errCode == null) {
-            return;
+    private CreateCustomerResponse invalidateCachedCustomer(Customer customer, CreateCustomerResponse response) {
+        if (customerCache != null && response != null && response.getErrors().isEmpty()) {
+            invalidateCachedCustomer(customer != null ? customer.getTokenCustomerID() : null);
+            invalidateCachedCustomer(response.getCustomer() != null ? response.getCustomer().getTokenCustomerID() : null);
         }
-        if (listError == null) {
-            listError = new ArrayList<String>();
-            listError.add(errCode);
-        } else {
-            if (!listError.contains(errCode)) {
-                listError.add(errCode);
+        return response;
+    }
+
+    private void invalidateCachedCustomer(String tokenCustomerID) {
+        if (StringUtils.isNumeric(tokenCustomerID)) {
+            try {
+                customerCache.invalidate(Long.parseLong(tokenCustomerID));
+            } catch (NumberFormatException e) {
+                LOGGER.debug("Token customer ID " + tokenCustomerID + " is not cacheable");
             }
         }
     }
@@ -434,7 +1761,7 @@ public class RapidClientImpl implements RapidClient {
      */
     private <T extends ResponseOutput> T makeResponseWithException(RapidSdkException e, Class<T> c) {
 
-        if (this.debug) {
+        if (state.isDebug()) {
             e.printStackTrace();
         }
 
@@ -451,4 +1778,15 @@ public class RapidClientImpl implements RapidClient {
         return null;
     }
 
+    private static boolean isClassPresent(String className) {
+        try {
+            Class.forName(className, false, RapidClientImpl.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        } catch (LinkageError e) {
+            return false;
+        }
+    }
+
 }
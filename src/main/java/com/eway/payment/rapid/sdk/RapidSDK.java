@@ -1,12 +1,21 @@
 package com.eway.payment.rapid.sdk;
 
+import com.eway.payment.rapid.sdk.resilience.CircuitBreakerListener;
+import com.eway.payment.rapid.sdk.resilience.CircuitBreakerPolicy;
+import com.eway.payment.rapid.sdk.resilience.ConcurrencyLimitPolicy;
+import com.eway.payment.rapid.sdk.resilience.EndpointRoutingPolicy;
+import com.eway.payment.rapid.sdk.resilience.HedgingPolicy;
+import com.eway.payment.rapid.sdk.resilience.PriorityLanePolicy;
 import com.eway.payment.rapid.sdk.util.Constant;
 import com.eway.payment.rapid.sdk.util.ResourceUtil;
 
+import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Properties;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * The eWAY RapidSDK client factory.
@@ -22,6 +31,20 @@ import java.util.Properties;
  * RapidClient client = RapidSDK.newRapidClient(APIKEY, PASSWORD, RAPID_ENDPOINT);
  * }
  * </pre>
+ *
+ * Or, to tune the client:
+ * <pre>
+ * {@code
+ * RapidClient client = RapidSDK.builder()
+ *         .credentials(APIKEY, PASSWORD)
+ *         .endpoint(RAPID_ENDPOINT)
+ *         .transportType(TransportType.JDK_HTTP_CLIENT)
+ *         .timeouts(OperationTimeouts.of(5, 30, 60, TimeUnit.SECONDS))
+ *         .retryPolicy(RetryPolicy.of(3, 200, 2000, TimeUnit.MILLISECONDS))
+ *         .endpointVerification(EndpointVerification.LAZY)
+ *         .build();
+ * }
+ * </pre>
  * 
  * @author eWAY
  */
@@ -42,6 +65,30 @@ public class RapidSDK {
         return new RapidClientImpl(APIKey, password, rapidEndpoint);
     }
 
+    /**
+     * Creates new instance of Rapid Client with the given tuning options
+     *
+     * @param APIKey Rapid API Key
+     * @param password Rapid API Password
+     * @param rapidEndpoint Rapid API endpoint, one of "Production", "Sandbox"
+     *  or a URL
+     * @param config Client tuning options
+     * @return A Rapid Client
+     */
+    public static RapidClient newRapidClient(String APIKey, String password, String rapidEndpoint, RapidClientConfig config) {
+        return new RapidClientImpl(APIKey, password, rapidEndpoint, config);
+    }
+
+    /**
+     * Creates a builder for a Rapid Client, holding its credentials,
+     * endpoint and every tuning option in one place
+     *
+     * @return A builder with the default options
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
     /**
      * Translate an error code to a user friendly message
      *
@@ -71,4 +118,322 @@ public class RapidSDK {
         }
     }
 
+    /**
+     * Builds a Rapid Client. The tuning options are collected into an
+     * immutable {@link RapidClientConfig}, see {@link RapidClientConfig.Builder}
+     * for their defaults.
+     */
+    public static final class Builder {
+
+        private String apiKey;
+        private String password;
+        private String endpoint;
+        private boolean debug;
+        private String version;
+        private final RapidClientConfig.Builder config = RapidClientConfig.builder();
+
+        private Builder() {
+        }
+
+        /**
+         * @param apiKey Rapid API Key
+         * @param password Rapid API Password
+         * @return This builder
+         */
+        public Builder credentials(String apiKey, String password) {
+            this.apiKey = apiKey;
+            this.password = password;
+            return this;
+        }
+
+        /**
+         * @param endpoint Rapid API endpoint, one of "Production", "Sandbox"
+         * or a URL, or several of them separated by commas to route calls
+         * across them
+         * @return This builder
+         */
+        public Builder endpoint(String endpoint) {
+            this.endpoint = endpoint;
+            return this;
+        }
+
+        /**
+         * Route calls across several endpoints, such as regional proxies in
+         * front of Rapid. Each call goes to the healthiest, fastest of them.
+         *
+         * @param endpoints Rapid API endpoints, each one of "Production",
+         * "Sandbox" or a URL
+         * @return This builder
+         * @see RapidClientConfig.Builder#endpointRouting(EndpointRoutingPolicy)
+         */
+        public Builder endpoints(String... endpoints) {
+            this.endpoint = StringUtils.join(endpoints, ',');
+            return this;
+        }
+
+        /**
+         * @param debug true to log requests and responses
+         * @return This builder
+         */
+        public Builder debug(boolean debug) {
+            this.debug = debug;
+            return this;
+        }
+
+        /**
+         * @param version The Rapid API version to request
+         * @return This builder
+         */
+        public Builder version(String version) {
+            this.version = version;
+            return this;
+        }
+
+        /**
+         * @param transportType The HTTP client used to call the Rapid API
+         * @return This builder
+         * @see RapidClientConfig.Builder#transportType(TransportType)
+         */
+        public Builder transportType(TransportType transportType) {
+            config.transportType(transportType);
+            return this;
+        }
+
+        /**
+         * @param maxTotal The maximum number of connections
+         * @param maxPerRoute The maximum number of connections to one host
+         * @return This builder
+         * @see RapidClientConfig.Builder#connectionPool(int, int)
+         */
+        public Builder connectionPool(int maxTotal, int maxPerRoute) {
+            config.connectionPool(maxTotal, maxPerRoute);
+            return this;
+        }
+
+        /**
+         * @param timeout Idle time, 0 to keep connections for as long as the
+         * server allows
+         * @param unit Time unit of the timeout
+         * @return This builder
+         * @see RapidClientConfig.Builder#idleConnectionTimeout(long, TimeUnit)
+         */
+        public Builder idleConnectionTimeout(long timeout, TimeUnit unit) {
+            config.idleConnectionTimeout(timeout, unit);
+            return this;
+        }
+
+        /**
+         * @param inactivity Idle time, 0 to check before every reuse
+         * @param unit Time unit of the inactivity
+         * @return This builder
+         * @see RapidClientConfig.Builder#validateAfterInactivity(long, TimeUnit)
+         */
+        public Builder validateAfterInactivity(long inactivity, TimeUnit unit) {
+            config.validateAfterInactivity(inactivity, unit);
+            return this;
+        }
+
+        /**
+         * @param timeouts The timeouts of every kind of call
+         * @return This builder
+         * @see RapidClientConfig.Builder#timeouts(OperationTimeouts)
+         */
+        public Builder timeouts(OperationTimeouts timeouts) {
+            config.timeouts(timeouts);
+            return this;
+        }
+
+        /**
+         * @param operation The kind of call
+         * @param timeouts The timeouts
+         * @return This builder
+         * @see RapidClientConfig.Builder#timeouts(OperationType, OperationTimeouts)
+         */
+        public Builder timeouts(OperationType operation, OperationTimeouts timeouts) {
+            config.timeouts(operation, timeouts);
+            return this;
+        }
+
+        /**
+         * @param retryPolicy The retry policy of queries, transactions and
+         * refunds
+         * @return This builder
+         * @see RapidClientConfig.Builder#retryPolicy(RetryPolicy)
+         */
+        public Builder retryPolicy(RetryPolicy retryPolicy) {
+            config.retryPolicy(retryPolicy);
+            return this;
+        }
+
+        /**
+         * @param operation The kind of call
+         * @param retryPolicy The retry policy
+         * @return This builder
+         * @see RapidClientConfig.Builder#retryPolicy(OperationType, RetryPolicy)
+         */
+        public Builder retryPolicy(OperationType operation, RetryPolicy retryPolicy) {
+            config.retryPolicy(operation, retryPolicy);
+            return this;
+        }
+
+        /**
+         * @param executor The executor to run asynchronous calls on
+         * @return This builder
+         * @see RapidClientConfig.Builder#executor(Executor)
+         */
+        public Builder executor(Executor executor) {
+            config.executor(executor);
+            return this;
+        }
+
+        /**
+         * @param executionMode Platform or virtual threads
+         * @return This builder
+         * @see RapidClientConfig.Builder#executionMode(ExecutionMode)
+         */
+        public Builder executionMode(ExecutionMode executionMode) {
+            config.executionMode(executionMode);
+            return this;
+        }
+
+        /**
+         * @param bulkQueryConcurrency The number of concurrent requests
+         * @return This builder
+         * @see RapidClientConfig.Builder#bulkQueryConcurrency(int)
+         */
+        public Builder bulkQueryConcurrency(int bulkQueryConcurrency) {
+            config.bulkQueryConcurrency(bulkQueryConcurrency);
+            return this;
+        }
+
+        /**
+         * @param coalesceQueries true to coalesce queries
+         * @return This builder
+         * @see RapidClientConfig.Builder#coalesceQueries(boolean)
+         */
+        public Builder coalesceQueries(boolean coalesceQueries) {
+            config.coalesceQueries(coalesceQueries);
+            return this;
+        }
+
+        /**
+         * @param maxSize The maximum number of cached customers, 0 to disable
+         * @param ttl How long a response stays cached
+         * @param unit Time unit of the ttl
+         * @return This builder
+         * @see RapidClientConfig.Builder#tokenCustomerCache(int, long, TimeUnit)
+         */
+        public Builder tokenCustomerCache(int maxSize, long ttl, TimeUnit unit) {
+            config.tokenCustomerCache(maxSize, ttl, unit);
+            return this;
+        }
+
+        /**
+         * @param maxSize The maximum number of cached transactions, 0 to disable
+         * @return This builder
+         * @see RapidClientConfig.Builder#settledTransactionCache(int)
+         */
+        public Builder settledTransactionCache(int maxSize) {
+            config.settledTransactionCache(maxSize);
+            return this;
+        }
+
+        /**
+         * @param circuitBreakerPolicy The policy, or {@code null} to disable
+         * @return This builder
+         * @see RapidClientConfig.Builder#circuitBreaker(CircuitBreakerPolicy)
+         */
+        public Builder circuitBreaker(CircuitBreakerPolicy circuitBreakerPolicy) {
+            config.circuitBreaker(circuitBreakerPolicy);
+            return this;
+        }
+
+        /**
+         * @param circuitBreakerListener The listener, or {@code null} for none
+         * @return This builder
+         * @see RapidClientConfig.Builder#circuitBreakerListener(CircuitBreakerListener)
+         */
+        public Builder circuitBreakerListener(CircuitBreakerListener circuitBreakerListener) {
+            config.circuitBreakerListener(circuitBreakerListener);
+            return this;
+        }
+
+        /**
+         * @param concurrencyLimitPolicy The policy, or {@code null} to disable
+         * @return This builder
+         * @see RapidClientConfig.Builder#concurrencyLimit(ConcurrencyLimitPolicy)
+         */
+        public Builder concurrencyLimit(ConcurrencyLimitPolicy concurrencyLimitPolicy) {
+            config.concurrencyLimit(concurrencyLimitPolicy);
+            return this;
+        }
+
+        /**
+         * @param priorityLanePolicy The policy, or {@code null} to disable
+         * @return This builder
+         * @see RapidClientConfig.Builder#priorityLanes(PriorityLanePolicy)
+         */
+        public Builder priorityLanes(PriorityLanePolicy priorityLanePolicy) {
+            config.priorityLanes(priorityLanePolicy);
+            return this;
+        }
+
+        /**
+         * @param hedgingPolicy The policy, or {@code null} to disable
+         * @return This builder
+         * @see RapidClientConfig.Builder#hedging(HedgingPolicy)
+         */
+        public Builder hedging(HedgingPolicy hedgingPolicy) {
+            config.hedging(hedgingPolicy);
+            return this;
+        }
+
+        /**
+         * @param endpointRoutingPolicy The policy, {@code null} for the
+         * defaults
+         * @return This builder
+         * @see RapidClientConfig.Builder#endpointRouting(EndpointRoutingPolicy)
+         */
+        public Builder endpointRouting(EndpointRoutingPolicy endpointRoutingPolicy) {
+            config.endpointRouting(endpointRoutingPolicy);
+            return this;
+        }
+
+        /**
+         * @param metricsListener The listener, or {@code null} for none
+         * @return This builder
+         * @see RapidClientConfig.Builder#metricsListener(MetricsListener)
+         */
+        public Builder metricsListener(MetricsListener metricsListener) {
+            config.metricsListener(metricsListener);
+            return this;
+        }
+
+        /**
+         * @param endpointVerification The endpoint verification mode
+         * @return This builder
+         * @see RapidClientConfig.Builder#endpointVerification(EndpointVerification)
+         */
+        public Builder endpointVerification(EndpointVerification endpointVerification) {
+            config.endpointVerification(endpointVerification);
+            return this;
+        }
+
+        /**
+         * @return The immutable configuration of the tuning options set so far
+         */
+        public RapidClientConfig buildConfig() {
+            return config.build();
+        }
+
+        /**
+         * Create the client. With {@link EndpointVerification#EAGER}, the
+         * default, this connects to the endpoint before returning.
+         *
+         * @return A Rapid Client
+         */
+        public RapidClient build() {
+            return new RapidClientImpl(apiKey, password, endpoint, version, debug, buildConfig());
+        }
+    }
 }
@@ -0,0 +1,36 @@
+package com.eway.payment.rapid.sdk;
+
+/**
+ * The priority lanes Rapid API calls are scheduled in when priority lanes
+ * are enabled. Calls made without a priority go in the lane of their kind:
+ * queries in {@link #INTERACTIVE_QUERY}, every other call in
+ * {@link #INTERACTIVE_PAYMENT}.
+ *
+ * @see RapidClient#withPriority(RequestPriority)
+ */
+public enum RequestPriority {
+
+    /**
+     * Payments, refunds and token customer changes a customer is waiting on
+     */
+    INTERACTIVE_PAYMENT,
+
+    /**
+     * Queries a customer or operator is waiting on
+     */
+    INTERACTIVE_QUERY,
+
+    /**
+     * Batch refunds, customer syncs, reconciliation and other work nobody
+     * is waiting on
+     */
+    BACKGROUND;
+
+    /**
+     * @param operation A kind of call
+     * @return The lane of calls of that kind made without a priority
+     */
+    static RequestPriority of(OperationType operation) {
+        return operation == OperationType.QUERY ? INTERACTIVE_QUERY : INTERACTIVE_PAYMENT;
+    }
+}
@@ -0,0 +1,94 @@
+package com.eway.payment.rapid.sdk;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Immutable policy for sending a call again after it failed to reach Rapid
+ * or to get a readable answer, error code S9992. The wait before each retry
+ * doubles from the initial backoff up to the maximum, and a random half of
+ * it is jittered so that clients failing together do not retry together.
+ * Retries stop early once the wait would pass the deadline of the call.
+ */
+public final class RetryPolicy {
+
+    private static final RetryPolicy NONE = new RetryPolicy(1, 0, 0);
+
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+
+    private RetryPolicy(int maxAttempts, long initialBackoffMillis, long maxBackoffMillis) {
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+    }
+
+    /**
+     * @return A policy that sends every call once
+     */
+    public static RetryPolicy none() {
+        return NONE;
+    }
+
+    /**
+     * @param maxAttempts The most times a call is sent, including the first
+     * @param initialBackoff How long to wait before the first retry
+     * @param maxBackoff The longest wait before a retry
+     * @param unit Time unit of the backoffs
+     * @return The policy
+     */
+    public static RetryPolicy of(int maxAttempts, long initialBackoff, long maxBackoff, TimeUnit unit) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("Max attempts must be at least 1");
+        }
+        if (initialBackoff < 0 || maxBackoff < initialBackoff) {
+            throw new IllegalArgumentException("Backoffs must not be negative and the initial backoff must not exceed the maximum");
+        }
+        return new RetryPolicy(maxAttempts, unit.toMillis(initialBackoff), unit.toMillis(maxBackoff));
+    }
+
+    /**
+     * @return The most times a call is sent, including the first
+     */
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * @return How long to wait before the first retry, in milliseconds
+     */
+    public long getInitialBackoffMillis() {
+        return initialBackoffMillis;
+    }
+
+    /**
+     * @return The longest wait before a retry, in milliseconds
+     */
+    public long getMaxBackoffMillis() {
+        return maxBackoffMillis;
+    }
+
+    /**
+     * How long to wait before a retry: between half and all of the initial
+     * backoff doubled for each earlier retry, capped at the maximum
+     *
+     * @param retry The retry about to be made, from 1
+     * @return The wait in milliseconds
+     */
+    public long backoffMillis(int retry) {
+        long backoff = initialBackoffMillis;
+        for (int i = 1; i < retry && backoff < maxBackoffMillis; i++) {
+            backoff *= 2;
+        }
+        backoff = Math.min(backoff, maxBackoffMillis);
+        long half = backoff / 2;
+        return half + ThreadLocalRandom.current().nextLong(backoff - half + 1);
+    }
+
+    @Override
+    public String toString() {
+        return "RetryPolicy[maxAttempts=" + maxAttempts + ", initialBackoff=" + initialBackoffMillis
+                + "ms, maxBackoff=" + maxBackoffMillis + "ms]";
+    }
+}
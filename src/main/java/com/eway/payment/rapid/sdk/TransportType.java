@@ -0,0 +1,19 @@
+package com.eway.payment.rapid.sdk;
+
+/**
+ * The HTTP client a Rapid Client uses to call the Rapid API
+ */
+public enum TransportType {
+
+    /**
+     * Jersey with a pool of keep-alive HTTP/1.1 connections
+     */
+    JERSEY,
+
+    /**
+     * The {@code java.net.http.HttpClient} of Java 11 or later, which uses
+     * HTTP/2 where the endpoint supports it. On older runtimes the client
+     * falls back to Jersey.
+     */
+    JDK_HTTP_CLIENT
+}
@@ -1,6 +1,8 @@
 package com.eway.payment.rapid.sdk.beans.external;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
 import java.util.BitSet;
 
 /**
@@ -126,4 +128,35 @@ public class TransactionFilter {
         return bit.nextSetBit(1);
     }
 
+    /**
+     * Two filters are equal when they search by the same values, so duplicate
+     * filters can be dropped from a bulk query
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof TransactionFilter)) {
+            return false;
+        }
+        TransactionFilter other = (TransactionFilter) obj;
+        return new EqualsBuilder()
+                .append(transactionId, other.transactionId)
+                .append(accessCode, other.accessCode)
+                .append(invoiceNumber, other.invoiceNumber)
+                .append(invoiceReference, other.invoiceReference)
+                .isEquals();
+    }
+
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder()
+                .append(transactionId)
+                .append(accessCode)
+                .append(invoiceNumber)
+                .append(invoiceReference)
+                .toHashCode();
+    }
+
 }
@@ -0,0 +1,53 @@
+package com.eway.payment.rapid.sdk.cache;
+
+/**
+ * A snapshot of a response cache's counters
+ */
+public class CacheStats {
+
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final int size;
+
+    public CacheStats(long hits, long misses, long evictions, int size) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.size = size;
+    }
+
+    /**
+     * @return Number of lookups answered from the cache
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return Number of lookups that had to call Rapid
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return Number of entries removed because they expired or the cache
+     * was full
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * @return Number of entries currently cached
+     */
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStats[hits=" + hits + ", misses=" + misses + ", evictions=" + evictions + ", size=" + size + "]";
+    }
+}
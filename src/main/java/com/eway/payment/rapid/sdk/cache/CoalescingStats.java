@@ -0,0 +1,35 @@
+package com.eway.payment.rapid.sdk.cache;
+
+/**
+ * A snapshot of the request coalescing counters
+ */
+public class CoalescingStats {
+
+    private final long requests;
+    private final long coalesced;
+
+    public CoalescingStats(long requests, long coalesced) {
+        this.requests = requests;
+        this.coalesced = coalesced;
+    }
+
+    /**
+     * @return Number of coalescable requests made
+     */
+    public long getRequests() {
+        return requests;
+    }
+
+    /**
+     * @return Number of requests that shared another request's network call,
+     * i.e. the calls saved
+     */
+    public long getCoalesced() {
+        return coalesced;
+    }
+
+    @Override
+    public String toString() {
+        return "CoalescingStats[requests=" + requests + ", coalesced=" + coalesced + "]";
+    }
+}
@@ -0,0 +1,251 @@
+package com.eway.payment.rapid.sdk.cache;
+
+import com.eway.payment.rapid.sdk.beans.external.PaymentDetails;
+import com.eway.payment.rapid.sdk.beans.external.Transaction;
+import com.eway.payment.rapid.sdk.beans.external.TransactionFilter;
+import com.eway.payment.rapid.sdk.beans.external.TransactionStatus;
+import com.eway.payment.rapid.sdk.output.QueryTransactionResponse;
+import org.apache.commons.lang3.StringUtils;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bounded cache of transaction query responses that can no longer change.
+ * Only settled transactions are kept: declined payments, and captured
+ * payments with nothing left to refund. Authorisations and captured payments
+ * that can still be refunded are never cached. Entries do not expire; when
+ * the cache is full the least recently used entry is evicted.
+ *
+ * Each entry is indexed by transaction ID, so a {@link TransactionFilter}
+ * using it is answered from the cache. Approved payments are also indexed
+ * by invoice number and invoice reference, which are assumed to identify a
+ * single transaction; see {@link #invalidateInvoice(String, String)}.
+ * Declines are not, because a declined invoice is usually paid again under
+ * the same number and reference, and a lookup must then find the new
+ * transaction.
+ */
+public class SettledTransactionCache {
+
+    private final int maxSize;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // access ordered, the first entry is the least recently used
+    private final LinkedHashMap<Integer, QueryTransactionResponse> byTransactionId;
+    private final Map<String, Integer> byInvoiceNumber = new HashMap<String, Integer>();
+    private final Map<String, Integer> byInvoiceReference = new HashMap<String, Integer>();
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * @param maxSize The maximum number of cached transactions
+     */
+    public SettledTransactionCache(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Cache size must be at least 1");
+        }
+        this.maxSize = maxSize;
+        this.byTransactionId = new LinkedHashMap<Integer, QueryTransactionResponse>(16, 0.75f, true);
+    }
+
+    /**
+     * Whether a query response describes a transaction in a final state
+     *
+     * @param response The transaction query response
+     * @return true if the response can be cached indefinitely
+     */
+    public static boolean isSettled(QueryTransactionResponse response) {
+        if (response == null || !response.getErrors().isEmpty()) {
+            return false;
+        }
+        TransactionStatus status = response.getTransactionStatus();
+        Transaction transaction = response.getTransaction();
+        if (status == null || transaction == null || status.getTransactionID() <= 0) {
+            return false;
+        }
+        // a transaction without a response code has not been processed yet
+        if (status.getProcessingDetails() == null
+                || StringUtils.isBlank(status.getProcessingDetails().getResponseCode())) {
+            return false;
+        }
+        if (!status.isStatus()) {
+            return true;
+        }
+        return status.isCaptured() && isZero(transaction.getMaxRefund());
+    }
+
+    /**
+     * Get the cached response for a transaction ID
+     *
+     * @param transactionId The transaction ID
+     * @return The cached response, or {@code null} if there is none
+     */
+    public QueryTransactionResponse get(int transactionId) {
+        lock.lock();
+        try {
+            return count(byTransactionId.get(transactionId));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the cached response for a transaction filter
+     *
+     * @param filter A filter with exactly one value set
+     * @return The cached response, or {@code null} if there is none or the
+     * filter uses an access code
+     */
+    public QueryTransactionResponse get(TransactionFilter filter) {
+        Integer indexOfValue = filter.calculateIndexOfValue();
+        if (indexOfValue == null) {
+            return null;
+        }
+        lock.lock();
+        try {
+            Integer transactionId;
+            switch (indexOfValue) {
+                case TransactionFilter.TRANSACTION_ID_INDEX:
+                    transactionId = filter.getTransactionId();
+                    break;
+                case TransactionFilter.INVOICE_NUMBER_INDEX:
+                    transactionId = byInvoiceNumber.get(filter.getInvoiceNumber());
+                    break;
+                case TransactionFilter.INVOICE_REFERENCE_INDEX:
+                    transactionId = byInvoiceReference.get(filter.getInvoiceReference());
+                    break;
+                default:
+                    return null;
+            }
+            return count(transactionId != null ? byTransactionId.get(transactionId) : null);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Cache a response if it is settled
+     *
+     * @param response The transaction query response
+     * @return true if the response was cached
+     */
+    public boolean put(QueryTransactionResponse response) {
+        if (!isSettled(response)) {
+            return false;
+        }
+        Integer transactionId = response.getTransactionStatus().getTransactionID();
+        PaymentDetails paymentDetails = response.getTransaction().getPaymentDetails();
+        lock.lock();
+        try {
+            if (byTransactionId.put(transactionId, response) == null && byTransactionId.size() > maxSize) {
+                Iterator<Map.Entry<Integer, QueryTransactionResponse>> eldest = byTransactionId.entrySet().iterator();
+                QueryTransactionResponse evicted = eldest.next().getValue();
+                eldest.remove();
+                unindex(evicted);
+                evictions++;
+            }
+            if (paymentDetails != null && response.getTransactionStatus().isStatus()) {
+                if (!StringUtils.isBlank(paymentDetails.getInvoiceNumber())) {
+                    byInvoiceNumber.put(paymentDetails.getInvoiceNumber(), transactionId);
+                }
+                if (!StringUtils.isBlank(paymentDetails.getInvoiceReference())) {
+                    byInvoiceReference.put(paymentDetails.getInvoiceReference(), transactionId);
+                }
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stop answering invoice lookups from the cache, for example because a
+     * new transaction was created with the same invoice number or reference.
+     * Lookups by transaction ID are not affected.
+     *
+     * @param invoiceNumber The invoice number, may be {@code null}
+     * @param invoiceReference The invoice reference, may be {@code null}
+     */
+    public void invalidateInvoice(String invoiceNumber, String invoiceReference) {
+        lock.lock();
+        try {
+            if (invoiceNumber != null) {
+                byInvoiceNumber.remove(invoiceNumber);
+            }
+            if (invoiceReference != null) {
+                byInvoiceReference.remove(invoiceReference);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Remove every entry
+     */
+    public void clear() {
+        lock.lock();
+        try {
+            byTransactionId.clear();
+            byInvoiceNumber.clear();
+            byInvoiceReference.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return The cache counters
+     */
+    public CacheStats getStats() {
+        lock.lock();
+        try {
+            return new CacheStats(hits, misses, evictions, byTransactionId.size());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private QueryTransactionResponse count(QueryTransactionResponse response) {
+        if (response != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return response;
+    }
+
+    /**
+     * Drop the invoice index entries still pointing at an evicted response
+     */
+    private void unindex(QueryTransactionResponse response) {
+        Integer transactionId = response.getTransactionStatus().getTransactionID();
+        PaymentDetails paymentDetails = response.getTransaction().getPaymentDetails();
+        if (paymentDetails == null) {
+            return;
+        }
+        if (transactionId.equals(byInvoiceNumber.get(paymentDetails.getInvoiceNumber()))) {
+            byInvoiceNumber.remove(paymentDetails.getInvoiceNumber());
+        }
+        if (transactionId.equals(byInvoiceReference.get(paymentDetails.getInvoiceReference()))) {
+            byInvoiceReference.remove(paymentDetails.getInvoiceReference());
+        }
+    }
+
+    private static boolean isZero(String amount) {
+        if (StringUtils.isBlank(amount)) {
+            return false;
+        }
+        try {
+            return new BigDecimal(amount.trim()).signum() == 0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.eway.payment.rapid.sdk.cache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces identical concurrent calls: while a call for a key is running,
+ * other callers with the same key wait for it and receive the same result
+ * instead of making their own call.
+ *
+ * @param <K> Key identifying identical calls
+ * @param <V> Result of a call
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<K, CompletableFuture<V>>();
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    /**
+     * Run the call for a key, or join the one already running
+     *
+     * @param key Identifies the call
+     * @param call Makes the call when none is running for the key
+     * @return The result of the call
+     */
+    public V execute(K key, Supplier<V> call) {
+        calls.incrementAndGet();
+        CompletableFuture<V> flight = new CompletableFuture<V>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, flight);
+        if (running != null) {
+            coalesced.incrementAndGet();
+            return await(running);
+        }
+        try {
+            V result = call.get();
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    /**
+     * @return Counters for the calls made so far
+     */
+    public CoalescingStats getStats() {
+        return new CoalescingStats(calls.get(), coalesced.get());
+    }
+
+    private V await(CompletableFuture<V> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
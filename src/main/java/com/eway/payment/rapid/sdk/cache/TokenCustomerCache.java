@@ -0,0 +1,262 @@
+package com.eway.payment.rapid.sdk.cache;
+
+import com.eway.payment.rapid.sdk.output.QueryCustomerResponse;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * A bounded cache of token customer query responses. Entries expire after a
+ * fixed time, and when the cache is full the least recently used entry is
+ * evicted. Token customer IDs are kept in a primitive open addressing table
+ * so lookups do not box the key.
+ */
+public class TokenCustomerCache {
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final long[] keys;
+    private final Entry[] slots;
+    private final int mask;
+    private final int shift;
+    // sentinel of the access ordered list, head.next is the least recently used entry
+    private final Entry head = new Entry(0L);
+
+    private int size;
+    private long version;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * @param maxSize The maximum number of cached customers
+     * @param ttl How long a response stays cached
+     * @param unit Time unit of the ttl
+     */
+    public TokenCustomerCache(int maxSize, long ttl, TimeUnit unit) {
+        this(maxSize, unit.toNanos(ttl), System::nanoTime);
+    }
+
+    TokenCustomerCache(int maxSize, long ttlNanos, LongSupplier clock) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Cache size must be at least 1");
+        }
+        this.maxSize = maxSize;
+        this.ttlNanos = ttlNanos;
+        this.clock = clock;
+        // keep the table at most half full so probe sequences stay short
+        int capacity = Integer.highestOneBit(Math.max(2, maxSize) * 2 - 1) << 1;
+        this.keys = new long[capacity];
+        this.slots = new Entry[capacity];
+        this.mask = capacity - 1;
+        this.shift = 64 - Integer.numberOfTrailingZeros(capacity);
+        head.prev = head;
+        head.next = head;
+    }
+
+    /**
+     * Get the cached response for a token customer
+     *
+     * @param tokenCustomerID The Token Customer ID
+     * @return The cached response, or {@code null} if there is none
+     */
+    public QueryCustomerResponse get(long tokenCustomerID) {
+        lock.lock();
+        try {
+            int slot = find(tokenCustomerID);
+            if (slot < 0) {
+                misses++;
+                return null;
+            }
+            Entry entry = slots[slot];
+            if (clock.getAsLong() - entry.expiresAt >= 0) {
+                remove(slot);
+                evictions++;
+                misses++;
+                return null;
+            }
+            hits++;
+            unlink(entry);
+            linkLast(entry);
+            return entry.value;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The current version of the cache, which changes on every invalidation.
+     * Read it before querying Rapid and pass it to
+     * {@link #put(long, QueryCustomerResponse, long)} so a response fetched
+     * before an invalidation is not cached.
+     *
+     * @return The cache version
+     */
+    public long version() {
+        lock.lock();
+        try {
+            return version;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Cache a response unless the cache was invalidated since the given
+     * version was read
+     *
+     * @param tokenCustomerID The Token Customer ID
+     * @param response The query response to cache
+     * @param expectedVersion The version read before the query was sent
+     */
+    public void put(long tokenCustomerID, QueryCustomerResponse response, long expectedVersion) {
+        lock.lock();
+        try {
+            if (version != expectedVersion) {
+                return;
+            }
+            long expiresAt = clock.getAsLong() + ttlNanos;
+            int slot = find(tokenCustomerID);
+            if (slot >= 0) {
+                Entry entry = slots[slot];
+                entry.value = response;
+                entry.expiresAt = expiresAt;
+                unlink(entry);
+                linkLast(entry);
+                return;
+            }
+            if (size == maxSize) {
+                remove(find(head.next.key));
+                evictions++;
+            }
+            Entry entry = new Entry(tokenCustomerID);
+            entry.value = response;
+            entry.expiresAt = expiresAt;
+            int free = index(tokenCustomerID);
+            while (slots[free] != null) {
+                free = (free + 1) & mask;
+            }
+            keys[free] = tokenCustomerID;
+            slots[free] = entry;
+            linkLast(entry);
+            size++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Remove a token customer from the cache, and stop any query already in
+     * flight from caching its response
+     *
+     * @param tokenCustomerID The Token Customer ID
+     */
+    public void invalidate(long tokenCustomerID) {
+        lock.lock();
+        try {
+            version++;
+            int slot = find(tokenCustomerID);
+            if (slot >= 0) {
+                remove(slot);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Remove every entry
+     */
+    public void clear() {
+        lock.lock();
+        try {
+            version++;
+            for (int i = 0; i < slots.length; i++) {
+                slots[i] = null;
+            }
+            head.prev = head;
+            head.next = head;
+            size = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return The cache counters
+     */
+    public CacheStats getStats() {
+        lock.lock();
+        try {
+            return new CacheStats(hits, misses, evictions, size);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int index(long key) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> shift);
+    }
+
+    private int find(long key) {
+        int slot = index(key);
+        while (slots[slot] != null) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Remove the entry in a slot, shifting later entries of the same probe
+     * sequence back so lookups never stop at the gap
+     */
+    private void remove(int slot) {
+        unlink(slots[slot]);
+        slots[slot] = null;
+        size--;
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        while (slots[next] != null) {
+            int home = index(keys[next]);
+            // move the entry unless its home slot lies cyclically after the gap
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                slots[gap] = slots[next];
+                slots[next] = null;
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+    }
+
+    private void unlink(Entry entry) {
+        entry.prev.next = entry.next;
+        entry.next.prev = entry.prev;
+    }
+
+    private void linkLast(Entry entry) {
+        entry.prev = head.prev;
+        entry.next = head;
+        head.prev.next = entry;
+        head.prev = entry;
+    }
+
+    private static final class Entry {
+        private final long key;
+        private QueryCustomerResponse value;
+        private long expiresAt;
+        private Entry prev;
+        private Entry next;
+
+        private Entry(long key) {
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,5 @@
+/**
+ * This package contains response caching and request coalescing for the eWAY
+ * Rapid library
+ */
+package com.eway.payment.rapid.sdk.cache;
@@ -10,6 +10,10 @@ public class AuthenticationFailureException extends RapidSdkException {
 
     private static final long serialVersionUID = -2301805600093174889L;
 
+    public AuthenticationFailureException(String message) {
+        super(Constant.AUTHENTICATION_FAILURE_ERROR_CODE, message);
+    }
+
     public AuthenticationFailureException(String message, Throwable t) {
         super(Constant.AUTHENTICATION_FAILURE_ERROR_CODE, message, t);
     }
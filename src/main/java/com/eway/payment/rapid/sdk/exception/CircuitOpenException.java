@@ -0,0 +1,20 @@
+package com.eway.payment.rapid.sdk.exception;
+
+/**
+ * Circuit open - occurs when a call is failed at once because the circuit
+ * breaker of its endpoint is open. It carries the communication failure
+ * error code, and no stack trace, so failing a call fast stays cheap.
+ */
+public class CircuitOpenException extends CommunicationFailureException {
+
+    private static final long serialVersionUID = 2803617524372409184L;
+
+    public CircuitOpenException(String message) {
+        super(message, null);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
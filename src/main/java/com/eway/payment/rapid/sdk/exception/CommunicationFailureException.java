@@ -10,4 +10,8 @@ public class CommunicationFailureException extends RapidSdkException {
         super(Constant.COMMUNICATION_FAILURE_ERROR_CODE, message, t);
     }
 
+    protected CommunicationFailureException(String errCode, String message, Throwable t) {
+        super(errCode, message, t);
+    }
+
 }
@@ -0,0 +1,21 @@
+package com.eway.payment.rapid.sdk.exception;
+
+/**
+ * Concurrency limit exceeded - occurs when a call is failed without being
+ * sent because too many calls for its API key were in flight and it could
+ * not wait for room. It carries the communication failure error code, and
+ * no stack trace, so turning a call away stays cheap.
+ */
+public class ConcurrencyLimitExceededException extends CommunicationFailureException {
+
+    private static final long serialVersionUID = -4529614583037520466L;
+
+    public ConcurrencyLimitExceededException(String message) {
+        super(message, null);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
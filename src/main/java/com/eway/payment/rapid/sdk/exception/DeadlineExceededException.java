@@ -0,0 +1,17 @@
+package com.eway.payment.rapid.sdk.exception;
+
+import com.eway.payment.rapid.sdk.util.Constant;
+
+/**
+ * Deadline exceeded - occurs when a call to Rapid API, including any
+ * retries, does not complete within the deadline configured for its
+ * operation
+ */
+public class DeadlineExceededException extends CommunicationFailureException {
+
+    private static final long serialVersionUID = -6391545263720166915L;
+
+    public DeadlineExceededException(String message, Throwable t) {
+        super(Constant.DEADLINE_EXCEEDED_ERROR_CODE, message, t);
+    }
+}
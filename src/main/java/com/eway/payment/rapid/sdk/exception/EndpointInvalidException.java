@@ -0,0 +1,16 @@
+package com.eway.payment.rapid.sdk.exception;
+
+import com.eway.payment.rapid.sdk.util.Constant;
+
+/**
+ * Endpoint invalid - occurs when the Rapid endpoint cannot be resolved to a
+ * URL or cannot be connected to
+ */
+public class EndpointInvalidException extends RapidSdkException {
+
+    private static final long serialVersionUID = -4035720613358264131L;
+
+    public EndpointInvalidException(String message, Throwable t) {
+        super(Constant.LIBRARY_NOT_HAVE_ENDPOINT_ERROR_CODE, message, t);
+    }
+}
@@ -0,0 +1,18 @@
+package com.eway.payment.rapid.sdk.exception;
+
+import com.eway.payment.rapid.sdk.util.Constant;
+
+/**
+ * Outcome unknown - occurs when a payment or refund fails after it may have
+ * reached Rapid API, and a query by its invoice reference does not find it.
+ * It may still have gone through, so it is not sent again; query it before
+ * trying again.
+ */
+public class OutcomeUnknownException extends CommunicationFailureException {
+
+    private static final long serialVersionUID = 4417958201375160283L;
+
+    public OutcomeUnknownException(String message, Throwable t) {
+        super(Constant.OUTCOME_UNKNOWN_ERROR_CODE, message, t);
+    }
+}
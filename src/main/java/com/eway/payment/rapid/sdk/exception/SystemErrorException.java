@@ -6,12 +6,29 @@ public class SystemErrorException extends RapidSdkException {
 
     private static final long serialVersionUID = 852475063038180563L;
 
+    private final int httpStatus;
+
     public SystemErrorException(String message) {
         super(Constant.INTERNAL_RAPID_SERVER_ERROR_CODE, message);
+        this.httpStatus = 0;
     }
 
     public SystemErrorException(String message, Throwable t) {
         super(Constant.INTERNAL_RAPID_SERVER_ERROR_CODE, message, t);
+        this.httpStatus = 0;
+    }
+
+    public SystemErrorException(int httpStatus, String message) {
+        super(Constant.INTERNAL_RAPID_SERVER_ERROR_CODE, message);
+        this.httpStatus = httpStatus;
+    }
+
+    /**
+     * @return The HTTP status Rapid answered with, or 0 if the error did not
+     * come from an answer
+     */
+    public int getHttpStatus() {
+        return httpStatus;
     }
 
 }
@@ -0,0 +1,65 @@
+package com.eway.payment.rapid.sdk.message.convert;
+
+import com.eway.payment.rapid.sdk.message.convert.request.RefundToDirectRefundReqConverter;
+import com.eway.payment.rapid.sdk.message.convert.request.TransactionToCapturePaymentConverter;
+import com.eway.payment.rapid.sdk.message.convert.request.TransactionToCreateAccessCodeRequestConverter;
+import com.eway.payment.rapid.sdk.message.convert.request.TransactionToCreateAccessCodeSharedRequestConverter;
+import com.eway.payment.rapid.sdk.message.convert.request.TransactionToDirectPaymentConverter;
+import com.eway.payment.rapid.sdk.message.convert.response.AccessCodeSharedToCreateCustConverter;
+import com.eway.payment.rapid.sdk.message.convert.response.AccessCodeSharedToCreateTransConverter;
+import com.eway.payment.rapid.sdk.message.convert.response.AccessCodeToCreateCustConverter;
+import com.eway.payment.rapid.sdk.message.convert.response.AccessCodeToCreateTransConverter;
+import com.eway.payment.rapid.sdk.message.convert.response.CancelAuthorisationToRefundConverter;
+import com.eway.payment.rapid.sdk.message.convert.response.CapturePaymentToCreateTransactionConverter;
+import com.eway.payment.rapid.sdk.message.convert.response.DirectCustomerToQueryCustomerConverter;
+import com.eway.payment.rapid.sdk.message.convert.response.DirectPaymentToCreateCustConverter;
+import com.eway.payment.rapid.sdk.message.convert.response.DirectPaymentToCreateTransConverter;
+import com.eway.payment.rapid.sdk.message.convert.response.DirectRefundToRefundResponseConverter;
+import com.eway.payment.rapid.sdk.message.convert.response.SearchToQueryTransConverter;
+
+/**
+ * Shared instances of every bean converter. Converters hold no per-call
+ * state, so one instance of each is safe to use from any number of threads.
+ */
+public final class Converters {
+
+    // bean converters
+    public static final CustomerToInternalCustomerConverter CUSTOMER_TO_INTERNAL_CUSTOMER = new CustomerToInternalCustomerConverter();
+    public static final CustomerToInternalCustomerConverter CUSTOMER_TO_INTERNAL_CUSTOMER_UNMERGED_CARD = new CustomerToInternalCustomerConverter(false);
+    public static final DirectPaymentToTransStatusConverter DIRECT_PAYMENT_TO_TRANS_STATUS = new DirectPaymentToTransStatusConverter();
+    public static final DirectRefundToTransStatusConverter DIRECT_REFUND_TO_TRANS_STATUS = new DirectRefundToTransStatusConverter();
+    public static final InternalCustomerToCustomerConverter INTERNAL_CUSTOMER_TO_CUSTOMER = new InternalCustomerToCustomerConverter();
+    public static final InternalTransToTransConverter INTERNAL_TRANS_TO_TRANS = new InternalTransToTransConverter();
+    public static final InternalTransactionToAddressConverter INTERNAL_TRANSACTION_TO_ADDRESS = new InternalTransactionToAddressConverter();
+    public static final InternalTransactionToStatusConverter INTERNAL_TRANSACTION_TO_STATUS = new InternalTransactionToStatusConverter();
+    public static final PaymentToPaymentDetailsConverter PAYMENT_TO_PAYMENT_DETAILS = new PaymentToPaymentDetailsConverter();
+    public static final ShippingDetailsToAddressConverter SHIPPING_DETAILS_TO_ADDRESS = new ShippingDetailsToAddressConverter();
+    public static final TransactionShippingAddressConverter TRANSACTION_SHIPPING_ADDRESS = new TransactionShippingAddressConverter();
+    public static final TransactionToArrLineItemConverter TRANSACTION_TO_ARR_LINE_ITEM = new TransactionToArrLineItemConverter();
+    public static final TransactionToArrOptionConverter TRANSACTION_TO_ARR_OPTION = new TransactionToArrOptionConverter();
+    public static final TransactionToPaymentConverter TRANSACTION_TO_PAYMENT = new TransactionToPaymentConverter();
+    public static final VerificationToVerifiResultConverter VERIFICATION_TO_VERIFI_RESULT = new VerificationToVerifiResultConverter();
+
+    // request converters
+    public static final RefundToDirectRefundReqConverter REFUND_TO_DIRECT_REFUND_REQ = new RefundToDirectRefundReqConverter();
+    public static final TransactionToCapturePaymentConverter TRANSACTION_TO_CAPTURE_PAYMENT = new TransactionToCapturePaymentConverter();
+    public static final TransactionToCreateAccessCodeRequestConverter TRANSACTION_TO_CREATE_ACCESS_CODE_REQUEST = new TransactionToCreateAccessCodeRequestConverter();
+    public static final TransactionToCreateAccessCodeSharedRequestConverter TRANSACTION_TO_CREATE_ACCESS_CODE_SHARED_REQUEST = new TransactionToCreateAccessCodeSharedRequestConverter();
+    public static final TransactionToDirectPaymentConverter TRANSACTION_TO_DIRECT_PAYMENT = new TransactionToDirectPaymentConverter();
+
+    // response converters
+    public static final AccessCodeSharedToCreateCustConverter ACCESS_CODE_SHARED_TO_CREATE_CUST = new AccessCodeSharedToCreateCustConverter();
+    public static final AccessCodeSharedToCreateTransConverter ACCESS_CODE_SHARED_TO_CREATE_TRANS = new AccessCodeSharedToCreateTransConverter();
+    public static final AccessCodeToCreateCustConverter ACCESS_CODE_TO_CREATE_CUST = new AccessCodeToCreateCustConverter();
+    public static final AccessCodeToCreateTransConverter ACCESS_CODE_TO_CREATE_TRANS = new AccessCodeToCreateTransConverter();
+    public static final CancelAuthorisationToRefundConverter CANCEL_AUTHORISATION_TO_REFUND = new CancelAuthorisationToRefundConverter();
+    public static final CapturePaymentToCreateTransactionConverter CAPTURE_PAYMENT_TO_CREATE_TRANSACTION = new CapturePaymentToCreateTransactionConverter();
+    public static final DirectCustomerToQueryCustomerConverter DIRECT_CUSTOMER_TO_QUERY_CUSTOMER = new DirectCustomerToQueryCustomerConverter();
+    public static final DirectPaymentToCreateCustConverter DIRECT_PAYMENT_TO_CREATE_CUST = new DirectPaymentToCreateCustConverter();
+    public static final DirectPaymentToCreateTransConverter DIRECT_PAYMENT_TO_CREATE_TRANS = new DirectPaymentToCreateTransConverter();
+    public static final DirectRefundToRefundResponseConverter DIRECT_REFUND_TO_REFUND_RESPONSE = new DirectRefundToRefundResponseConverter();
+    public static final SearchToQueryTransConverter SEARCH_TO_QUERY_TRANS = new SearchToQueryTransConverter();
+
+    private Converters() {
+    }
+}
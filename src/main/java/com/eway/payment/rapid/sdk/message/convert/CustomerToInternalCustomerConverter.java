@@ -10,9 +10,11 @@ import com.eway.payment.rapid.sdk.exception.RapidSdkException;
 
 public class CustomerToInternalCustomerConverter implements BeanConverter<Customer, com.eway.payment.rapid.sdk.beans.internal.Customer> {
 
-    private boolean mergeCardDetailToThis = true;
+    private final boolean mergeCardDetailToThis;
 
-    public CustomerToInternalCustomerConverter() {}
+    public CustomerToInternalCustomerConverter() {
+        this(true);
+    }
 
     public CustomerToInternalCustomerConverter(boolean isMergeCardInfo) {
         this.mergeCardDetailToThis = isMergeCardInfo;
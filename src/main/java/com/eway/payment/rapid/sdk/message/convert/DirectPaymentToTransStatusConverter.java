@@ -36,7 +36,7 @@ public class DirectPaymentToTransStatusConverter implements BeanConverter<Direct
                 throw new ParameterInvalidException("Invalid Transaction ID");
             }
         }
-        BeanConverter<Verification, VerificationResult> verifiConvert = new VerificationToVerifiResultConverter();
+        BeanConverter<Verification, VerificationResult> verifiConvert = Converters.VERIFICATION_TO_VERIFI_RESULT;
         status.setVerificationResult(verifiConvert.doConvert(response.getVerification()));
 
         return status;
@@ -34,9 +34,9 @@ public class InternalTransToTransConverter implements BeanConverter<com.eway.pay
 
     private Customer getEwayCustomer(com.eway.payment.rapid.sdk.beans.internal.Transaction iTransaction) throws RapidSdkException {
         com.eway.payment.rapid.sdk.beans.internal.Customer iCustomer = iTransaction.getCustomer();
-        InternalCustomerToCustomerConverter custConvert = new InternalCustomerToCustomerConverter();
+        InternalCustomerToCustomerConverter custConvert = Converters.INTERNAL_CUSTOMER_TO_CUSTOMER;
         Customer customer = custConvert.doConvert(iCustomer);
-        InternalTransactionToAddressConverter addressConvert = new InternalTransactionToAddressConverter();
+        InternalTransactionToAddressConverter addressConvert = Converters.INTERNAL_TRANSACTION_TO_ADDRESS;
         customer.setAddress(addressConvert.doConvert(iTransaction));
         return customer;
     }
@@ -53,7 +53,7 @@ public class InternalTransToTransConverter implements BeanConverter<com.eway.pay
     private ShippingDetails getShippingDetails(com.eway.payment.rapid.sdk.beans.internal.Transaction iTransaction) throws RapidSdkException {
         ShippingDetails shippingDetails = new ShippingDetails();
         if (iTransaction.getShippingAddress() != null) {
-            InternalTransactionToAddressConverter addressConvert = new InternalTransactionToAddressConverter();
+            InternalTransactionToAddressConverter addressConvert = Converters.INTERNAL_TRANSACTION_TO_ADDRESS;
             shippingDetails.setShippingAddress(addressConvert.doConvert(iTransaction));
             String methodName = iTransaction.getShippingAddress().getShippingMethod();
             if (!StringUtils.isBlank(methodName)) {
@@ -41,7 +41,7 @@ public class InternalTransactionToStatusConverter implements BeanConverter<Trans
             }
         }
 
-        BeanConverter<Verification, VerificationResult> converter = new VerificationToVerifiResultConverter();
+        BeanConverter<Verification, VerificationResult> converter = Converters.VERIFICATION_TO_VERIFI_RESULT;
         VerificationResult result = converter.doConvert(transaction.getVerification());
 
         BeagleVerification beagleVerification = transaction.getBeagleVerification();
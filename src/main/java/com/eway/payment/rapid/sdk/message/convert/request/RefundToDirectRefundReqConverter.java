@@ -10,8 +10,8 @@ import com.eway.payment.rapid.sdk.beans.internal.Customer;
 import com.eway.payment.rapid.sdk.entities.DirectRefundRequest;
 import com.eway.payment.rapid.sdk.exception.RapidSdkException;
 import com.eway.payment.rapid.sdk.message.convert.BeanConverter;
+import com.eway.payment.rapid.sdk.message.convert.Converters;
 import com.eway.payment.rapid.sdk.message.convert.CustomerToInternalCustomerConverter;
-import com.eway.payment.rapid.sdk.message.convert.ShippingDetailsToAddressConverter;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -21,9 +21,9 @@ public class RefundToDirectRefundReqConverter implements BeanConverter<Refund, D
         DirectRefundRequest request = new DirectRefundRequest();
         if (refund != null) {
             request.setRefund(refund.getRefundDetails());
-            BeanConverter<ShippingDetails, ShippingAddress> shippingConvert = new ShippingDetailsToAddressConverter();
+            BeanConverter<ShippingDetails, ShippingAddress> shippingConvert = Converters.SHIPPING_DETAILS_TO_ADDRESS;
             request.setShippingAddress(shippingConvert.doConvert(refund.getShippingDetails()));
-            CustomerToInternalCustomerConverter customerConvert = new CustomerToInternalCustomerConverter();
+            CustomerToInternalCustomerConverter customerConvert = Converters.CUSTOMER_TO_INTERNAL_CUSTOMER;
             Customer customer = customerConvert.doConvert(refund.getCustomer());
             if (customer.getCardDetails() == null) {
                 customer.setCardDetails(new CardDetails());
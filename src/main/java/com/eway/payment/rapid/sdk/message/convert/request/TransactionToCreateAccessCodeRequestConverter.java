@@ -9,11 +9,8 @@ import com.eway.payment.rapid.sdk.beans.internal.ShippingAddress;
 import com.eway.payment.rapid.sdk.entities.CreateAccessCodeRequest;
 import com.eway.payment.rapid.sdk.exception.RapidSdkException;
 import com.eway.payment.rapid.sdk.message.convert.BeanConverter;
+import com.eway.payment.rapid.sdk.message.convert.Converters;
 import com.eway.payment.rapid.sdk.message.convert.CustomerToInternalCustomerConverter;
-import com.eway.payment.rapid.sdk.message.convert.TransactionShippingAddressConverter;
-import com.eway.payment.rapid.sdk.message.convert.TransactionToArrLineItemConverter;
-import com.eway.payment.rapid.sdk.message.convert.TransactionToArrOptionConverter;
-import com.eway.payment.rapid.sdk.message.convert.TransactionToPaymentConverter;
 import org.apache.commons.lang3.StringUtils;
 
 public class TransactionToCreateAccessCodeRequestConverter implements BeanConverter<Transaction, CreateAccessCodeRequest> {
@@ -29,26 +26,26 @@ public class TransactionToCreateAccessCodeRequestConverter implements BeanConver
                 request.getPayment().setTotalAmount(input.getPaymentDetails().getTotalAmount());
             }
             if (input.getCustomer() != null) {
-                CustomerToInternalCustomerConverter internalCustConvert = new CustomerToInternalCustomerConverter(false);
+                CustomerToInternalCustomerConverter internalCustConvert = Converters.CUSTOMER_TO_INTERNAL_CUSTOMER_UNMERGED_CARD;
                 request.setCustomer(internalCustConvert.doConvert(input.getCustomer()));
             }
 
             request.setCustomerIP(input.getCustomer() != null ? input.getCustomer().getCustomerDeviceIP() : null);
 
-            BeanConverter<Transaction, ShippingAddress> shipAddressConvert = new TransactionShippingAddressConverter();
+            BeanConverter<Transaction, ShippingAddress> shipAddressConvert = Converters.TRANSACTION_SHIPPING_ADDRESS;
             request.setShippingAddress(shipAddressConvert.doConvert(input));
 
-            BeanConverter<Transaction, Payment> paymentConvert = new TransactionToPaymentConverter();
+            BeanConverter<Transaction, Payment> paymentConvert = Converters.TRANSACTION_TO_PAYMENT;
             request.setPayment(paymentConvert.doConvert(input));
             if (!StringUtils.isBlank(input.getCheckoutURL())) {
                 request.setCheckoutPayment(input.isCheckoutPayment());
                 request.setCheckoutUrl(input.getCheckoutURL());
             }
 
-            BeanConverter<Transaction, LineItem[]> lineItemConvert = new TransactionToArrLineItemConverter();
+            BeanConverter<Transaction, LineItem[]> lineItemConvert = Converters.TRANSACTION_TO_ARR_LINE_ITEM;
             request.setItems(lineItemConvert.doConvert(input));
 
-            BeanConverter<Transaction, Option[]> optionConverter = new TransactionToArrOptionConverter();
+            BeanConverter<Transaction, Option[]> optionConverter = Converters.TRANSACTION_TO_ARR_OPTION;
             request.setOptions(optionConverter.doConvert(input));
 
             if (input.getShippingDetails() != null && input.getShippingDetails().getShippinhgMethod() != null) {
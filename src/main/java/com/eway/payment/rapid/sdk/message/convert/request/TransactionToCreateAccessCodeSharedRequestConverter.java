@@ -10,11 +10,7 @@ import com.eway.payment.rapid.sdk.beans.internal.ShippingAddress;
 import com.eway.payment.rapid.sdk.entities.CreateAccessCodeSharedRequest;
 import com.eway.payment.rapid.sdk.exception.RapidSdkException;
 import com.eway.payment.rapid.sdk.message.convert.BeanConverter;
-import com.eway.payment.rapid.sdk.message.convert.CustomerToInternalCustomerConverter;
-import com.eway.payment.rapid.sdk.message.convert.TransactionShippingAddressConverter;
-import com.eway.payment.rapid.sdk.message.convert.TransactionToArrLineItemConverter;
-import com.eway.payment.rapid.sdk.message.convert.TransactionToArrOptionConverter;
-import com.eway.payment.rapid.sdk.message.convert.TransactionToPaymentConverter;
+import com.eway.payment.rapid.sdk.message.convert.Converters;
 
 public class TransactionToCreateAccessCodeSharedRequestConverter implements BeanConverter<Transaction, CreateAccessCodeSharedRequest> {
 
@@ -35,19 +31,19 @@ public class TransactionToCreateAccessCodeSharedRequestConverter implements Bean
             request.setVerifyCustomerPhone(input.getVerifyCustomerPhone());
             request.setCustomerReadOnly(input.getCustomerReadOnly());
 
-            BeanConverter<Customer, com.eway.payment.rapid.sdk.beans.internal.Customer> internalCustConvert = new CustomerToInternalCustomerConverter();
+            BeanConverter<Customer, com.eway.payment.rapid.sdk.beans.internal.Customer> internalCustConvert = Converters.CUSTOMER_TO_INTERNAL_CUSTOMER;
             request.setCustomer(internalCustConvert.doConvert(input.getCustomer()));
 
-            BeanConverter<Transaction, ShippingAddress> shipAddressConvert = new TransactionShippingAddressConverter();
+            BeanConverter<Transaction, ShippingAddress> shipAddressConvert = Converters.TRANSACTION_SHIPPING_ADDRESS;
             request.setShippingAddress(shipAddressConvert.doConvert(input));
 
-            BeanConverter<Transaction, Payment> paymentConvert = new TransactionToPaymentConverter();
+            BeanConverter<Transaction, Payment> paymentConvert = Converters.TRANSACTION_TO_PAYMENT;
             request.setPayment(paymentConvert.doConvert(input));
 
-            BeanConverter<Transaction, LineItem[]> lineItemConvert = new TransactionToArrLineItemConverter();
+            BeanConverter<Transaction, LineItem[]> lineItemConvert = Converters.TRANSACTION_TO_ARR_LINE_ITEM;
             request.setItems(lineItemConvert.doConvert(input));
 
-            BeanConverter<Transaction, Option[]> optionConverter = new TransactionToArrOptionConverter();
+            BeanConverter<Transaction, Option[]> optionConverter = Converters.TRANSACTION_TO_ARR_OPTION;
             request.setOptions(optionConverter.doConvert(input));
 
             request.setMethod(input.isCapture() ? (input.isSaveCustomer() ? RequestMethod.TokenPayment.name() : RequestMethod.ProcessPayment.name()) : RequestMethod.Authorise.name());
@@ -6,7 +6,7 @@ import com.eway.payment.rapid.sdk.beans.external.Transaction;
 import com.eway.payment.rapid.sdk.entities.DirectPaymentRequest;
 import com.eway.payment.rapid.sdk.exception.RapidSdkException;
 import com.eway.payment.rapid.sdk.message.convert.BeanConverter;
-import com.eway.payment.rapid.sdk.message.convert.CustomerToInternalCustomerConverter;
+import com.eway.payment.rapid.sdk.message.convert.Converters;
 import com.eway.payment.rapid.sdk.message.convert.TransactionShippingAddressConverter;
 import com.eway.payment.rapid.sdk.message.convert.TransactionToArrLineItemConverter;
 import com.eway.payment.rapid.sdk.message.convert.TransactionToArrOptionConverter;
@@ -16,21 +16,21 @@ public class TransactionToDirectPaymentConverter implements BeanConverter<Transa
 
     public DirectPaymentRequest doConvert(Transaction input) throws RapidSdkException {
         DirectPaymentRequest request = new DirectPaymentRequest();
-        BeanConverter<Customer, com.eway.payment.rapid.sdk.beans.internal.Customer> interCustConvert = new CustomerToInternalCustomerConverter(false);
+        BeanConverter<Customer, com.eway.payment.rapid.sdk.beans.internal.Customer> interCustConvert = Converters.CUSTOMER_TO_INTERNAL_CUSTOMER_UNMERGED_CARD;
         if (input.getCustomer() != null) {
             request.setCustomerIP(input.getCustomer().getCustomerDeviceIP());
             request.setCustomer(interCustConvert.doConvert(input.getCustomer()));
         }
-        TransactionToPaymentConverter paymentConvert = new TransactionToPaymentConverter();
+        TransactionToPaymentConverter paymentConvert = Converters.TRANSACTION_TO_PAYMENT;
         request.setPayment(paymentConvert.doConvert(input));
 
-        TransactionShippingAddressConverter shipConverter = new TransactionShippingAddressConverter();
+        TransactionShippingAddressConverter shipConverter = Converters.TRANSACTION_SHIPPING_ADDRESS;
         request.setShippingAddress(shipConverter.doConvert(input));
 
-        TransactionToArrLineItemConverter lineItemConvert = new TransactionToArrLineItemConverter();
+        TransactionToArrLineItemConverter lineItemConvert = Converters.TRANSACTION_TO_ARR_LINE_ITEM;
         request.setItems(lineItemConvert.doConvert(input));
 
-        TransactionToArrOptionConverter optionConverter = new TransactionToArrOptionConverter();
+        TransactionToArrOptionConverter optionConverter = Converters.TRANSACTION_TO_ARR_OPTION;
         request.setOptions(optionConverter.doConvert(input));
 
         request.setDeviceID(input.getDeviceID());
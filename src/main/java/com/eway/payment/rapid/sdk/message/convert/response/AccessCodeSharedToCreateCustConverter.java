@@ -3,6 +3,7 @@ package com.eway.payment.rapid.sdk.message.convert.response;
 import com.eway.payment.rapid.sdk.entities.CreateAccessCodeSharedResponse;
 import com.eway.payment.rapid.sdk.entities.CreateCustomerResponse;
 import com.eway.payment.rapid.sdk.message.convert.BeanConverter;
+import com.eway.payment.rapid.sdk.message.convert.Converters;
 import com.eway.payment.rapid.sdk.message.convert.InternalCustomerToCustomerConverter;
 import org.apache.commons.lang3.StringUtils;
 import java.util.Arrays;
@@ -15,7 +16,7 @@ public class AccessCodeSharedToCreateCustConverter implements BeanConverter<Crea
         if (!StringUtils.isBlank(response.getErrors())) {
             customerResponse.setErrors(Arrays.asList(response.getErrors().split("\\s*,\\s*")));
         }
-        InternalCustomerToCustomerConverter custConvert = new InternalCustomerToCustomerConverter();
+        InternalCustomerToCustomerConverter custConvert = Converters.INTERNAL_CUSTOMER_TO_CUSTOMER;
         customerResponse.setCustomer(custConvert.doConvert(response.getCustomer()));
         customerResponse.setSharedPaymentUrl(response.getSharedPaymentUrl());
         return customerResponse;
@@ -7,8 +7,7 @@ import com.eway.payment.rapid.sdk.beans.internal.Payment;
 import com.eway.payment.rapid.sdk.entities.CreateAccessCodeSharedResponse;
 import com.eway.payment.rapid.sdk.exception.RapidSdkException;
 import com.eway.payment.rapid.sdk.message.convert.BeanConverter;
-import com.eway.payment.rapid.sdk.message.convert.InternalCustomerToCustomerConverter;
-import com.eway.payment.rapid.sdk.message.convert.PaymentToPaymentDetailsConverter;
+import com.eway.payment.rapid.sdk.message.convert.Converters;
 import com.eway.payment.rapid.sdk.output.CreateTransactionResponse;
 import org.apache.commons.lang3.StringUtils;
 import java.util.Arrays;
@@ -18,10 +17,10 @@ public class AccessCodeSharedToCreateTransConverter implements BeanConverter<Cre
     public CreateTransactionResponse doConvert(CreateAccessCodeSharedResponse response) throws RapidSdkException {
         CreateTransactionResponse transactionResponse = new CreateTransactionResponse();
         Transaction transaction = new Transaction();
-        BeanConverter<com.eway.payment.rapid.sdk.beans.internal.Customer, Customer> custConvert = new InternalCustomerToCustomerConverter();
+        BeanConverter<com.eway.payment.rapid.sdk.beans.internal.Customer, Customer> custConvert = Converters.INTERNAL_CUSTOMER_TO_CUSTOMER;
         transaction.setCustomer(custConvert.doConvert(response.getCustomer()));
 
-        BeanConverter<Payment, PaymentDetails> paymentConverter = new PaymentToPaymentDetailsConverter();
+        BeanConverter<Payment, PaymentDetails> paymentConverter = Converters.PAYMENT_TO_PAYMENT_DETAILS;
         transaction.setPaymentDetails(paymentConverter.doConvert(response.getPayment()));
 
         transactionResponse.setTransaction(transaction);
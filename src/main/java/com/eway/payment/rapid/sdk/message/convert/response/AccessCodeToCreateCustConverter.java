@@ -3,6 +3,7 @@ package com.eway.payment.rapid.sdk.message.convert.response;
 import com.eway.payment.rapid.sdk.entities.CreateAccessCodeResponse;
 import com.eway.payment.rapid.sdk.entities.CreateCustomerResponse;
 import com.eway.payment.rapid.sdk.message.convert.BeanConverter;
+import com.eway.payment.rapid.sdk.message.convert.Converters;
 import com.eway.payment.rapid.sdk.message.convert.InternalCustomerToCustomerConverter;
 import org.apache.commons.lang3.StringUtils;
 import java.util.Arrays;
@@ -13,7 +14,7 @@ public class AccessCodeToCreateCustConverter implements BeanConverter<CreateAcce
         CreateCustomerResponse customerResponse = new CreateCustomerResponse();
         customerResponse.setAccessCode(response.getAccessCode());
         customerResponse.setFormActionUrl(response.getFormActionURL());
-        InternalCustomerToCustomerConverter convert = new InternalCustomerToCustomerConverter();
+        InternalCustomerToCustomerConverter convert = Converters.INTERNAL_CUSTOMER_TO_CUSTOMER;
         customerResponse.setCustomer(convert.doConvert(response.getCustomer()));
         if (!StringUtils.isBlank(response.getErrors())) {
             customerResponse.setErrors(Arrays.asList(response.getErrors().split("\\s*,\\s*")));
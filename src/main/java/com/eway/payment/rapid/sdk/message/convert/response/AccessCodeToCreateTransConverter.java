@@ -6,8 +6,8 @@ import com.eway.payment.rapid.sdk.beans.internal.Payment;
 import com.eway.payment.rapid.sdk.entities.CreateAccessCodeResponse;
 import com.eway.payment.rapid.sdk.exception.RapidSdkException;
 import com.eway.payment.rapid.sdk.message.convert.BeanConverter;
+import com.eway.payment.rapid.sdk.message.convert.Converters;
 import com.eway.payment.rapid.sdk.message.convert.InternalCustomerToCustomerConverter;
-import com.eway.payment.rapid.sdk.message.convert.PaymentToPaymentDetailsConverter;
 import com.eway.payment.rapid.sdk.output.CreateTransactionResponse;
 import org.apache.commons.lang3.StringUtils;
 import java.util.Arrays;
@@ -17,9 +17,9 @@ public class AccessCodeToCreateTransConverter implements BeanConverter<CreateAcc
     public CreateTransactionResponse doConvert(CreateAccessCodeResponse response) throws RapidSdkException {
         CreateTransactionResponse transactionResponse = new CreateTransactionResponse();
         Transaction transaction = new Transaction();
-        InternalCustomerToCustomerConverter custConvert = new InternalCustomerToCustomerConverter();
+        InternalCustomerToCustomerConverter custConvert = Converters.INTERNAL_CUSTOMER_TO_CUSTOMER;
         transaction.setCustomer(custConvert.doConvert(response.getCustomer()));
-        BeanConverter<Payment, PaymentDetails> paymentConverter = new PaymentToPaymentDetailsConverter();
+        BeanConverter<Payment, PaymentDetails> paymentConverter = Converters.PAYMENT_TO_PAYMENT_DETAILS;
         transaction.setPaymentDetails(paymentConverter.doConvert(response.getPayment()));
         transactionResponse.setTransaction(transaction);
 
@@ -10,17 +10,34 @@ import com.eway.payment.rapid.sdk.output.RefundResponse;
 import org.apache.commons.lang3.StringUtils;
 import java.util.Arrays;
 
+/**
+ * Converts a cancel authorisation response. The caller sets the refund on the
+ * result, since it is not part of the Rapid response, unless the converter
+ * was created for one refund.
+ */
 public class CancelAuthorisationToRefundConverter implements BeanConverter<CancelAuthorisationResponse, RefundResponse> {
 
-    private Refund refund;
+    private final Refund refund;
 
+    public CancelAuthorisationToRefundConverter() {
+        this.refund = null;
+    }
+
+    /**
+     * @param refund The refund set on every result
+     * @deprecated use {@link com.eway.payment.rapid.sdk.message.convert.Converters#CANCEL_AUTHORISATION_TO_REFUND}
+     * and set the refund on the result, so one converter serves every call
+     */
+    @Deprecated
     public CancelAuthorisationToRefundConverter(Refund refund) {
         this.refund = refund;
     }
 
     public RefundResponse doConvert(CancelAuthorisationResponse cancel) throws RapidSdkException {
         RefundResponse response = new RefundResponse();
-        response.setRefund(this.refund);
+        if (refund != null) {
+            response.setRefund(refund);
+        }
 
         TransactionStatus status = new TransactionStatus();
         status.setStatus(cancel.getTransactionStatus());
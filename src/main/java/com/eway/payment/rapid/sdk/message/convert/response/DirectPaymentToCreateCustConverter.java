@@ -5,7 +5,7 @@ import com.eway.payment.rapid.sdk.entities.CreateCustomerResponse;
 import com.eway.payment.rapid.sdk.entities.DirectPaymentResponse;
 import com.eway.payment.rapid.sdk.exception.RapidSdkException;
 import com.eway.payment.rapid.sdk.message.convert.BeanConverter;
-import com.eway.payment.rapid.sdk.message.convert.InternalCustomerToCustomerConverter;
+import com.eway.payment.rapid.sdk.message.convert.Converters;
 import org.apache.commons.lang3.StringUtils;
 import java.util.Arrays;
 
@@ -13,7 +13,7 @@ public class DirectPaymentToCreateCustConverter implements BeanConverter<DirectP
 
     public CreateCustomerResponse doConvert(DirectPaymentResponse response) throws RapidSdkException {
         CreateCustomerResponse customerResponse = new CreateCustomerResponse();
-        BeanConverter<com.eway.payment.rapid.sdk.beans.internal.Customer, Customer> custConvert = new InternalCustomerToCustomerConverter();
+        BeanConverter<com.eway.payment.rapid.sdk.beans.internal.Customer, Customer> custConvert = Converters.INTERNAL_CUSTOMER_TO_CUSTOMER;
         customerResponse.setCustomer(custConvert.doConvert(response.getCustomer()));
         if (!StringUtils.isBlank(response.getErrors())) {
             customerResponse.setErrors(Arrays.asList(response.getErrors().split("\\s*,\\s*")));
@@ -6,8 +6,8 @@ import com.eway.payment.rapid.sdk.beans.external.TransactionType;
 import com.eway.payment.rapid.sdk.entities.DirectPaymentResponse;
 import com.eway.payment.rapid.sdk.exception.RapidSdkException;
 import com.eway.payment.rapid.sdk.message.convert.BeanConverter;
+import com.eway.payment.rapid.sdk.message.convert.Converters;
 import com.eway.payment.rapid.sdk.message.convert.DirectPaymentToTransStatusConverter;
-import com.eway.payment.rapid.sdk.message.convert.InternalCustomerToCustomerConverter;
 import com.eway.payment.rapid.sdk.message.convert.PaymentToPaymentDetailsConverter;
 import com.eway.payment.rapid.sdk.output.CreateTransactionResponse;
 import org.apache.commons.lang3.StringUtils;
@@ -26,10 +26,10 @@ public class DirectPaymentToCreateTransConverter implements BeanConverter<Direct
             }
         }
 
-        PaymentToPaymentDetailsConverter paymentConverter = new PaymentToPaymentDetailsConverter();
+        PaymentToPaymentDetailsConverter paymentConverter = Converters.PAYMENT_TO_PAYMENT_DETAILS;
         transaction.setPaymentDetails(paymentConverter.doConvert(response.getPayment()));
 
-        BeanConverter<com.eway.payment.rapid.sdk.beans.internal.Customer, Customer> converter = new InternalCustomerToCustomerConverter();
+        BeanConverter<com.eway.payment.rapid.sdk.beans.internal.Customer, Customer> converter = Converters.INTERNAL_CUSTOMER_TO_CUSTOMER;
         transaction.setCustomer(converter.doConvert(response.getCustomer()));
 
         transactionResponse.setTransaction(transaction);
@@ -37,7 +37,7 @@ public class DirectPaymentToCreateTransConverter implements BeanConverter<Direct
             transactionResponse.setErrors(Arrays.asList(response.getErrors().split("\\s*,\\s*")));
         }
 
-        DirectPaymentToTransStatusConverter statusConvert = new DirectPaymentToTransStatusConverter();
+        DirectPaymentToTransStatusConverter statusConvert = Converters.DIRECT_PAYMENT_TO_TRANS_STATUS;
         transactionResponse.setTransactionStatus(statusConvert.doConvert(response));
 
         transactionResponse.setAccessCode(transactionResponse.getAccessCode());
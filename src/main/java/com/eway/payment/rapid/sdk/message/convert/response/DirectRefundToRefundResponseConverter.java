@@ -6,8 +6,7 @@ import com.eway.payment.rapid.sdk.beans.external.TransactionStatus;
 import com.eway.payment.rapid.sdk.entities.DirectRefundResponse;
 import com.eway.payment.rapid.sdk.exception.RapidSdkException;
 import com.eway.payment.rapid.sdk.message.convert.BeanConverter;
-import com.eway.payment.rapid.sdk.message.convert.DirectRefundToTransStatusConverter;
-import com.eway.payment.rapid.sdk.message.convert.InternalCustomerToCustomerConverter;
+import com.eway.payment.rapid.sdk.message.convert.Converters;
 import com.eway.payment.rapid.sdk.output.RefundResponse;
 import org.apache.commons.lang3.StringUtils;
 import java.util.Arrays;
@@ -18,7 +17,7 @@ public class DirectRefundToRefundResponseConverter implements BeanConverter<Dire
         Refund refund = new Refund();
         refund.setRefundDetails(response.getRefund());
         com.eway.payment.rapid.sdk.beans.internal.Customer innerCust = response.getCustomer();
-        BeanConverter<com.eway.payment.rapid.sdk.beans.internal.Customer, Customer> custConvert = new InternalCustomerToCustomerConverter();
+        BeanConverter<com.eway.payment.rapid.sdk.beans.internal.Customer, Customer> custConvert = Converters.INTERNAL_CUSTOMER_TO_CUSTOMER;
         refund.setCustomer(custConvert.doConvert(innerCust));
 
         RefundResponse refundResponse = new RefundResponse();
@@ -27,7 +26,7 @@ public class DirectRefundToRefundResponseConverter implements BeanConverter<Dire
         }
         refundResponse.setRefund(refund);
 
-        BeanConverter<DirectRefundResponse, TransactionStatus> transStatusConvert = new DirectRefundToTransStatusConverter();
+        BeanConverter<DirectRefundResponse, TransactionStatus> transStatusConvert = Converters.DIRECT_REFUND_TO_TRANS_STATUS;
         refundResponse.setTransactionStatus(transStatusConvert.doConvert(response));
         return refundResponse;
     }
@@ -5,8 +5,7 @@ import com.eway.payment.rapid.sdk.beans.internal.Transaction;
 import com.eway.payment.rapid.sdk.entities.TransactionSearchResponse;
 import com.eway.payment.rapid.sdk.exception.RapidSdkException;
 import com.eway.payment.rapid.sdk.message.convert.BeanConverter;
-import com.eway.payment.rapid.sdk.message.convert.InternalTransactionToStatusConverter;
-import com.eway.payment.rapid.sdk.message.convert.InternalTransToTransConverter;
+import com.eway.payment.rapid.sdk.message.convert.Converters;
 import com.eway.payment.rapid.sdk.output.QueryTransactionResponse;
 import org.apache.commons.lang3.StringUtils;
 import java.util.Arrays;
@@ -16,13 +15,13 @@ public class SearchToQueryTransConverter implements BeanConverter<TransactionSea
     public QueryTransactionResponse doConvert(TransactionSearchResponse response) throws RapidSdkException {
         QueryTransactionResponse queryTransactionResponse = new QueryTransactionResponse();
         if (response.getTransactions() != null && response.getTransactions().length > 0) {
-            BeanConverter<Transaction, com.eway.payment.rapid.sdk.beans.external.Transaction> transConverter = new InternalTransToTransConverter();
+            BeanConverter<Transaction, com.eway.payment.rapid.sdk.beans.external.Transaction> transConverter = Converters.INTERNAL_TRANS_TO_TRANS;
             queryTransactionResponse.setTransaction(transConverter.doConvert(response.getTransactions()[0]));
         }
         if (!StringUtils.isBlank(response.getError())) {
             queryTransactionResponse.setErrors(Arrays.asList(response.getError().split("\\s*,\\s*")));
         }
-        BeanConverter<Transaction, TransactionStatus> statusConvert = new InternalTransactionToStatusConverter();
+        BeanConverter<Transaction, TransactionStatus> statusConvert = Converters.INTERNAL_TRANSACTION_TO_STATUS;
 
         if (response.getTransactions() != null && response.getTransactions().length > 0) {
             queryTransactionResponse.setTransactionStatus(statusConvert.doConvert(response.getTransactions()[0]));
@@ -3,6 +3,7 @@ package com.eway.payment.rapid.sdk.message.process;
 import com.eway.payment.rapid.sdk.entities.Request;
 import com.eway.payment.rapid.sdk.entities.Response;
 import com.eway.payment.rapid.sdk.exception.RapidSdkException;
+import com.eway.payment.rapid.sdk.message.process.transport.HttpTransport;
 
 import javax.ws.rs.client.WebTarget;
 
@@ -23,11 +24,26 @@ public abstract class AbstractMakeRequestMessageProcess<T, V> extends AbstractMe
         super(resource, requestPath);
     }
 
+    /**
+     * @param transport The transport to call Rapid API
+     * @param requestPath Path of request URL. Used to make full web service URL
+     */
+    public AbstractMakeRequestMessageProcess(HttpTransport transport, String... requestPath) {
+        super(transport, requestPath);
+    }
+
+    /**
+     * @param requestPath Path of request URL. Used to make full web service URL
+     */
+    public AbstractMakeRequestMessageProcess(String... requestPath) {
+        super(requestPath);
+    }
+
     @Override
-    protected final Response processPostMsg(T t) throws RapidSdkException {
+    protected final Response processPostMsg(T t, MessageContext<T> context) throws RapidSdkException {
         Request req = createRequest(t);
         if (req != null) {
-            return sendRequest(req);
+            return sendRequest(req, context);
         }
         return null;
     }
@@ -46,8 +62,9 @@ public abstract class AbstractMakeRequestMessageProcess<T, V> extends AbstractMe
      * The abstract method defining the sending request message
      *
      * @param req Request object
+     * @param context The call
      * @return Response object
      * @throws RapidSdkException base SDK exception
      */
-    protected abstract Response sendRequest(Request req) throws RapidSdkException;
+    protected abstract Response sendRequest(Request req, MessageContext<T> context) throws RapidSdkException;
 }
@@ -3,41 +3,56 @@ package com.eway.payment.rapid.sdk.message.process;
 import com.eway.payment.rapid.sdk.entities.Response;
 import com.eway.payment.rapid.sdk.exception.AuthenticationFailureException;
 import com.eway.payment.rapid.sdk.exception.CommunicationFailureException;
+import com.eway.payment.rapid.sdk.exception.DeadlineExceededException;
 import com.eway.payment.rapid.sdk.exception.RapidSdkException;
 import com.eway.payment.rapid.sdk.exception.SystemErrorException;
+import com.eway.payment.rapid.sdk.message.process.transport.Deadline;
+import com.eway.payment.rapid.sdk.message.process.transport.HttpTransport;
+import com.eway.payment.rapid.sdk.message.process.transport.JerseyTransport;
+import com.eway.payment.rapid.sdk.message.process.transport.TransportResponse;
 
-import javax.ws.rs.ProcessingException;
-import javax.ws.rs.WebApplicationException;
-import javax.ws.rs.client.Entity;
 import javax.ws.rs.client.WebTarget;
 
 import org.apache.commons.lang3.StringUtils;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.MapperFeature;
+import org.apache.http.conn.ConnectTimeoutException;
+import org.glassfish.jersey.uri.UriComponent;
+import com.eway.payment.rapid.sdk.util.JsonSupport;
 
 import java.io.IOException;
-import java.security.KeyManagementException;
-import java.security.NoSuchAlgorithmException;
+import java.net.SocketTimeoutException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-import javax.net.ssl.SSLContext;
 
-import javax.ws.rs.core.MediaType;
+import javax.ws.rs.HttpMethod;
 import javax.ws.rs.core.Response.Status;
 
 /**
- * The abstract class to defines message process work flows
+ * The abstract class to defines message process work flows. A process holds
+ * only what is fixed for every call, its request path and converters, and
+ * keeps the state of each call in a {@link MessageContext}, so one instance
+ * can be shared by many threads.
  *
  * @param <T> : Input generic class
  * @param <V> : Output generic class
  */
 public abstract class AbstractMessageProcess<T, V> implements MessageProcess<T, V> {
 
-    private WebTarget webResource;
-    private T t;
-    private final List<String> listRequestPath = new ArrayList<String>();
+    private final HttpTransport transport;
+    private final List<String> listRequestPath;
+    // the fixed path segments, joined and encoded once
+    private final String basePath;
+    private volatile Deadline deadline = Deadline.NONE;
+    private volatile MessageContext<T> lastContext;
 
+    /**
+     * The JSON of the last request sent by {@link #doWork(Object)}. Only
+     * filled in debug mode.
+     *
+     * @deprecated use {@link #getRequestJson()}, which also works outside debug mode
+     */
+    @Deprecated
     public String requestJson;
 
     /**
@@ -45,17 +60,75 @@ public abstract class AbstractMessageProcess<T, V> implements MessageProcess<T,
      * @param requestPath Path of request URL. Used to make full web service URL
      */
     public AbstractMessageProcess(WebTarget resource, String... requestPath) {
-        this.webResource = resource;
+        this(new JerseyTransport(resource), requestPath);
+    }
+
+    /**
+     * @param transport The transport to call Rapid API
+     * @param requestPath Path of request URL. Used to make full web service URL
+     */
+    public AbstractMessageProcess(HttpTransport transport, String... requestPath) {
+        this.transport = transport;
+        List<String> path = new ArrayList<String>();
         if (requestPath != null) {
-            listRequestPath.addAll(Arrays.asList(requestPath));
+            path.addAll(Arrays.asList(requestPath));
         }
+        this.listRequestPath = Collections.unmodifiableList(path);
+        StringBuilder base = new StringBuilder();
+        for (String p : path) {
+            if (!StringUtils.isBlank(p)) {
+                appendPath(base, p);
+            }
+        }
+        this.basePath = base.toString();
     }
 
+    /**
+     * Create a process to share between calls, which are each given their
+     * transport in a {@link MessageContext}
+     *
+     * @param requestPath Path of request URL. Used to make full web service URL
+     */
+    public AbstractMessageProcess(String... requestPath) {
+        this((HttpTransport) null, requestPath);
+    }
+
+    /**
+     * Run one call with the transport and deadline the process was created
+     * with. The request sent is kept for {@link #getRequestJson()}, so this
+     * is meant for a process used by one thread at a time.
+     *
+     * @param input The input object
+     * @return The output of the call
+     * @throws RapidSdkException if the call fails
+     */
     public final V doWork(T input) throws RapidSdkException {
-        this.t = input;
-        Response response = processPostMsg(input);
+        if (transport == null) {
+            throw new IllegalStateException("A shared message process needs a MessageContext for each call");
+        }
+        MessageContext<T> context = new MessageContext<T>(transport, deadline, input);
+        lastContext = context;
+        requestJson = null;
+        try {
+            return doWork(context);
+        } finally {
+            if (transport.isDebug()) {
+                requestJson = context.getRequestJson();
+            }
+        }
+    }
+
+    /**
+     * Run one call. Calls with different contexts may run at the same time.
+     *
+     * @param context The input, transport and time limits of the call
+     * @return The output of the call
+     * @throws RapidSdkException if the call fails
+     */
+    public final V doWork(MessageContext<T> context) throws RapidSdkException {
+        Response response = processPostMsg(context.getInput(), context);
         if (response != null) {
-            return makeResult(response);
+            return makeResult(response, context);
         }
         throw new SystemErrorException("Response object is null");
     }
@@ -67,54 +140,12 @@ public abstract class AbstractMessageProcess<T, V> implements MessageProcess<T,
      * @param <K> Response class
      * @param request Request object
      * @param responseClass The response class used for a successful result
+     * @param context The call
      * @return Instance of response class
      * @throws RapidSdkException base SDK exception
      */
-    protected final <U, K> U doPost(K request, Class<U> responseClass) throws RapidSdkException {
-        try {
-            WebTarget resource = getWebResource();
-            for (String path : getRequestPath()) {
-                if (!StringUtils.isBlank(path)) {
-                    resource = resource.path(path);
-                }
-            }
-
-            ObjectMapper mapper = new ObjectMapper();
-            mapper.configure(MapperFeature.ACCEPT_CASE_INSENSITIVE_PROPERTIES, true);
-            requestJson = mapper.writerWithDefaultPrettyPrinter().writeValueAsString(request);
-
-            SSLContext context = SSLContext.getInstance("TLSv1.2");
-            context.init(null, null, null);
-            SSLContext oldContext = SSLContext.getDefault();
-            SSLContext.setDefault(context);
-            
-            U response = resource.request().accept(MediaType.APPLICATION_JSON_TYPE).
-                    buildPost(Entity.entity(request, MediaType.APPLICATION_JSON_TYPE)).invoke(responseClass);
-
-            SSLContext.setDefault(oldContext);
-
-            return response;
-        } catch (ProcessingException e) {
-            throw new CommunicationFailureException("Error communicating with Rapid API", e);
-        } catch (WebApplicationException e) {
-
-            if (e.getResponse().getStatus() == Status.UNAUTHORIZED.getStatusCode()) {
-                throw new AuthenticationFailureException("Authentication failed on the endpoint", e);
-            } else if (e.getResponse().getStatus() == Status.FORBIDDEN.getStatusCode()) {
-                throw new AuthenticationFailureException("Authentication failed on the endpoint", e);
-            } else if (e.getResponse().getStatus() == Status.NOT_FOUND.getStatusCode()) {
-                throw new AuthenticationFailureException("Authentication failed on the endpoint", e);
-            } else {
-                throw new SystemErrorException(e.getMessage(), e);
-            }
-
-        } catch (IOException e) {
-            throw new SystemErrorException(e.getMessage(), e);
-        } catch (NoSuchAlgorithmException e) {
-            throw new CommunicationFailureException("Error using TLS 1.2 to connect to Rapid: no such algorithm", e);
-        } catch (KeyManagementException e) {
-            throw new CommunicationFailureException("Error using TLS 1.2 to connect to Rapid: key management", e);
-        }
+    protected final <U, K> U doPost(K request, Class<U> responseClass, MessageContext<T> context) throws RapidSdkException {
+        return doSend(HttpMethod.POST, request, responseClass, context);
     }
 
     /**
@@ -124,54 +155,12 @@ public abstract class AbstractMessageProcess<T, V> implements MessageProcess<T,
      * @param <K> Response class
      * @param request Request object
      * @param responseClass The response class used for a successful result
+     * @param context The call
      * @return Instance of response class
      * @throws RapidSdkException base SDK exception
      */
-    protected final <U, K> U doPut(K request, Class<U> responseClass) throws RapidSdkException {
-        try {
-            WebTarget resource = getWebResource();
-            for (String path : getRequestPath()) {
-                if (!StringUtils.isBlank(path)) {
-                    resource = resource.path(path);
-                }
-            }
-
-            ObjectMapper mapper = new ObjectMapper();
-            mapper.configure(MapperFeature.ACCEPT_CASE_INSENSITIVE_PROPERTIES, true);
-            requestJson = mapper.writerWithDefaultPrettyPrinter().writeValueAsString(request);
-
-            SSLContext context = SSLContext.getInstance("TLSv1.2");
-            context.init(null, null, null);
-            SSLContext oldContext = SSLContext.getDefault();
-            SSLContext.setDefault(context);
-
-            U response = resource.request().accept(MediaType.APPLICATION_JSON_TYPE).
-                    buildPut(Entity.entity(request, MediaType.APPLICATION_JSON_TYPE)).invoke(responseClass);
-
-            SSLContext.setDefault(oldContext);
-
-            return response;
-        } catch (ProcessingException e) {
-            throw new CommunicationFailureException("Error communicating with Rapid API", e);
-        } catch (WebApplicationException e) {
-
-            if (e.getResponse().getStatus() == Status.UNAUTHORIZED.getStatusCode()) {
-                throw new AuthenticationFailureException("Authentication failed on the endpoint", e);
-            } else if (e.getResponse().getStatus() == Status.FORBIDDEN.getStatusCode()) {
-                throw new AuthenticationFailureException("Authentication failed on the endpoint", e);
-            } else if (e.getResponse().getStatus() == Status.NOT_FOUND.getStatusCode()) {
-                throw new AuthenticationFailureException("Authentication failed on the endpoint", e);
-            } else {
-                throw new SystemErrorException(e.getMessage(), e);
-            }
-
-        } catch (IOException e) {
-            throw new SystemErrorException(e.getMessage(), e);
-        } catch (NoSuchAlgorithmException e) {
-            throw new CommunicationFailureException("Error using TLS 1.2 to connect to Rapid: no such algorithm", e);
-        } catch (KeyManagementException e) {
-            throw new CommunicationFailureException("Error using TLS 1.2 to connect to Rapid: key management", e);
-        }
+    protected final <U, K> U doPut(K request, Class<U> responseClass, MessageContext<T> context) throws RapidSdkException {
+        return doSend(HttpMethod.PUT, request, responseClass, context);
     }
 
     /**
@@ -180,108 +169,183 @@ public abstract class AbstractMessageProcess<T, V> implements MessageProcess<T,
      * @param <U> Response class
      * @param request Request object
      * @param responseClass The response class used for a successful result
+     * @param context The call
      * @return Instance of response class
      * @throws RapidSdkException base SDK exception
      */
-    protected final <U> U doGet(String request, Class<U> responseClass) throws RapidSdkException {
-        WebTarget resource = getWebResource();
-        for (String p : getRequestPath()) {
-            if (!StringUtils.isBlank(p)) {
-                resource = resource.path(p);
-            }
-        }
-        try {
-
-            SSLContext context = SSLContext.getInstance("TLSv1.2");
-            context.init(null,null,null);
-            SSLContext oldContext = SSLContext.getDefault();
-            SSLContext.setDefault(context);
+    protected final <U> U doGet(String request, Class<U> responseClass, MessageContext<T> context) throws RapidSdkException {
+        return readResponse(send(HttpMethod.GET, buildPath(context, request), null, context), responseClass);
+    }
 
-            U response = resource.path(request).request().accept(MediaType.APPLICATION_JSON_TYPE).
-                    get(responseClass);
+    /**
+     * Set the time limits of the calls {@link #doWork(Object)} makes.
+     * Without one, requests wait as long as the transport allows.
+     *
+     * @param deadline The time limits
+     */
+    public final void setDeadline(Deadline deadline) {
+        this.deadline = deadline != null ? deadline : Deadline.NONE;
+    }
 
-            SSLContext.setDefault(oldContext);
+    /**
+     * Get the JSON of the last request sent by {@link #doWork(Object)},
+     * pretty printed. The JSON is only formatted when this is called.
+     *
+     * @return The request JSON, or {@code null} if no request has been sent
+     */
+    public String getRequestJson() {
+        if (requestJson == null) {
+            MessageContext<T> context = lastContext;
+            if (context != null) {
+                requestJson = context.getRequestJson();
+            }
+        }
+        return requestJson;
+    }
 
-            return response;
-        } catch (ProcessingException e) {
-            throw new CommunicationFailureException("Error communicating with Rapid API", e);
-        } catch (WebApplicationException e) {
+    /**
+     * Serialize the request once and send it with the given method
+     */
+    private <U, K> U doSend(String method, K request, Class<U> responseClass, MessageContext<T> context) throws RapidSdkException {
+        byte[] body;
+        try {
+            body = JsonSupport.writer(request != null ? request.getClass() : Object.class).writeValueAsBytes(request);
+        } catch (IOException e) {
+            throw new SystemErrorException(e.getMessage(), e);
+        }
+        context.setRequestBody(body);
+        return readResponse(send(method, buildPath(context, null), body, context), responseClass);
+    }
 
-            if (e.getResponse().getStatus() == Status.UNAUTHORIZED.getStatusCode()) {
-                throw new AuthenticationFailureException("Authentication failed on the endpoint", e);
-            } else if (e.getResponse().getStatus() == Status.FORBIDDEN.getStatusCode()) {
-                throw new AuthenticationFailureException("Authentication failed on the endpoint", e);
-            } else if (e.getResponse().getStatus() == Status.NOT_FOUND.getStatusCode()) {
-                throw new AuthenticationFailureException("Authentication failed on the endpoint", e);
-            } else {
-                throw new SystemErrorException(e.getMessage(), e);
+    /**
+     * Send a request, failing with a distinct error if it times out because
+     * of the deadline. Whether the deadline shortens the request's timeouts
+     * is decided as it is sent, so a timeout of its own that fires close to
+     * the deadline is still a communication failure.
+     */
+    private TransportResponse send(String method, String path, byte[] body, MessageContext<T> context) throws RapidSdkException {
+        Deadline deadline = context.getDeadline();
+        if (deadline.isExpired()) {
+            throw new DeadlineExceededException("Deadline exceeded before calling Rapid API", null);
+        }
+        boolean connectLimited = deadline.limitsConnectTimeout();
+        boolean readLimited = deadline.limitsReadTimeout();
+        try {
+            return context.getTransport().send(method, path, body, deadline);
+        } catch (IOException e) {
+            if (isTimeout(e, connectLimited, readLimited)) {
+                throw new DeadlineExceededException("Deadline exceeded calling Rapid API", e);
             }
-
-        } catch (NoSuchAlgorithmException e) {
-            throw new CommunicationFailureException("Error using TLS 1.2 to connect to Rapid: no such algorithm", e);
-        } catch (KeyManagementException e) {
-            throw new CommunicationFailureException("Error using TLS 1.2 to connect to Rapid: key management", e);
+            throw new CommunicationFailureException("Error communicating with Rapid API", e);
         }
     }
 
     /**
-     * Get input object
-     *
-     * @return Instance of input class
+     * @return true if the failure, or one of its causes, is a connect or
+     * read timeout the deadline shortened
      */
-    protected final T getInput() {
-        return t;
+    private static boolean isTimeout(Throwable failure, boolean connectLimited, boolean readLimited) {
+        for (Throwable t = failure; t != null; t = t.getCause()) {
+            if (t instanceof ConnectTimeoutException) {
+                return connectLimited;
+            }
+            if (t instanceof SocketTimeoutException) {
+                return readLimited;
+            }
+        }
+        return false;
     }
 
     /**
-     * Get web resource request path
-     *
-     * @return Path of web resource
+     * Append the path segments of the call and an optional last segment to
+     * the fixed path
      */
-    protected final List<String> getRequestPath() {
-        return listRequestPath;
+    private String buildPath(MessageContext<T> context, String last) {
+        List<String> callPath = context.getRequestPath();
+        if (callPath.isEmpty() && last == null) {
+            return basePath;
+        }
+        StringBuilder path = new StringBuilder(basePath);
+        for (String p : callPath) {
+            appendPath(path, p);
+        }
+        if (last != null) {
+            appendPath(path, last);
+        }
+        return path.toString();
+    }
+
+    private static void appendPath(StringBuilder path, String segment) {
+        if (path.length() > 0 && path.charAt(path.length() - 1) != '/' && !segment.startsWith("/")) {
+            path.append('/');
+        }
+        path.append(UriComponent.encode(segment, UriComponent.Type.PATH));
+    }
+
+    private <U> U readResponse(TransportResponse response, Class<U> responseClass) throws RapidSdkException {
+        if (!response.isSuccessful()) {
+            throw toRapidException(response.getStatus());
+        }
+        byte[] body = response.getBody();
+        if (body.length == 0) {
+            return null;
+        }
+        try {
+            return JsonSupport.reader(responseClass).readValue(body);
+        } catch (IOException e) {
+            throw new CommunicationFailureException("Error communicating with Rapid API", e);
+        }
+    }
+
+    private RapidSdkException toRapidException(int status) {
+        if (status == Status.UNAUTHORIZED.getStatusCode()) {
+            return new AuthenticationFailureException("Authentication failed on the endpoint");
+        } else if (status == Status.FORBIDDEN.getStatusCode()) {
+            return new AuthenticationFailureException("Authentication failed on the endpoint");
+        } else if (status == Status.NOT_FOUND.getStatusCode()) {
+            return new AuthenticationFailureException("Authentication failed on the endpoint");
+        } else {
+            Status known = Status.fromStatusCode(status);
+            return new SystemErrorException(status, "HTTP " + status + (known != null ? " " + known.getReasonPhrase() : ""));
+        }
     }
 
     /**
-     * Set web resource request path
+     * Get web resource request path
      *
-     * @param requestPath String to add to request path
+     * @return The fixed path segments of the process
      */
-    protected final void addRequestPath(String... requestPath) {
-        if (requestPath != null) {
-            for (String path : requestPath) {
-                if (!StringUtils.isBlank(path)) {
-                    listRequestPath.add(path);
-                }
-            }
-        }
+    public final List<String> getRequestPath() {
+        return listRequestPath;
     }
 
     /**
      * Post message to web service and return response object
      *
      * @param req Request object(instance of input class)
+     * @param context The call
      * @return Instance of response class
      * @throws RapidSdkException base SDK exception
      */
-    protected abstract Response processPostMsg(T req) throws RapidSdkException;
+    protected abstract Response processPostMsg(T req, MessageContext<T> context) throws RapidSdkException;
 
     /**
      * Create result from web service response object
      *
      * @param res Response object
+     * @param context The call
      * @return Instance of output class
      * @throws RapidSdkException base SDK exception
      */
-    protected abstract V makeResult(Response res) throws RapidSdkException;
+    protected abstract V makeResult(Response res, MessageContext<T> context) throws RapidSdkException;
 
     /**
-     * Get web resource object to connect to Rapid API
+     * Get the transport the process was created with
      *
-     * @return Web resource
+     * @return The transport, {@code null} for a process shared between calls
      */
-    protected final WebTarget getWebResource() {
-        return webResource;
+    protected final HttpTransport getTransport() {
+        return transport;
     }
 
 }
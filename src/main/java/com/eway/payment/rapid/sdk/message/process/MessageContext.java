@@ -0,0 +1,114 @@
+package com.eway.payment.rapid.sdk.message.process;
+
+import com.eway.payment.rapid.sdk.message.process.transport.Deadline;
+import com.eway.payment.rapid.sdk.message.process.transport.HttpTransport;
+import com.eway.payment.rapid.sdk.util.JsonSupport;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The state of one call through a message process: its input, the
+ * transport and time limits to send it with, the path segments added for
+ * the call and the request sent. Message processes keep no state of their
+ * own between calls, so one instance can serve every call of a client at
+ * once, each with its own context. A context is used by one call only.
+ *
+ * @param <T> Input class
+ */
+public final class MessageContext<T> {
+
+    private final HttpTransport transport;
+    private final Deadline deadline;
+    private final T input;
+    private List<String> requestPath = Collections.emptyList();
+    private byte[] requestBody;
+    private String requestJson;
+
+    /**
+     * @param transport The transport to call Rapid API with
+     * @param deadline The time limits of the call, {@code null} for none
+     * @param input The input of the call
+     */
+    public MessageContext(HttpTransport transport, Deadline deadline, T input) {
+        this.transport = transport;
+        this.deadline = deadline != null ? deadline : Deadline.NONE;
+        this.input = input;
+    }
+
+    /**
+     * @return The input of the call
+     */
+    public T getInput() {
+        return input;
+    }
+
+    /**
+     * @return The transport to call Rapid API with
+     */
+    public HttpTransport getTransport() {
+        return transport;
+    }
+
+    /**
+     * @return The time limits of the call
+     */
+    public Deadline getDeadline() {
+        return deadline;
+    }
+
+    /**
+     * Add path segments for this call, after the fixed path of the process
+     *
+     * @param segments Path segments, not yet encoded. Blank ones are skipped.
+     */
+    public void addRequestPath(String... segments) {
+        if (segments == null) {
+            return;
+        }
+        for (String segment : segments) {
+            if (!StringUtils.isBlank(segment)) {
+                if (requestPath.isEmpty()) {
+                    requestPath = new ArrayList<String>(2);
+                }
+                requestPath.add(segment);
+            }
+        }
+    }
+
+    /**
+     * @return The path segments added for this call
+     */
+    List<String> getRequestPath() {
+        return requestPath;
+    }
+
+    /**
+     * @param requestBody The JSON request body sent
+     */
+    void setRequestBody(byte[] requestBody) {
+        this.requestBody = requestBody;
+        this.requestJson = null;
+    }
+
+    /**
+     * Get the JSON of the request sent, pretty printed. The JSON is only
+     * formatted when this is called.
+     *
+     * @return The request JSON, or {@code null} if no request body has been
+     * sent
+     */
+    public String getRequestJson() {
+        if (requestJson == null && requestBody != null) {
+            try {
+                requestJson = JsonSupport.prettyPrint(requestBody);
+            } catch (IOException e) {
+                return null;
+            }
+        }
+        return requestJson;
+    }
+}
@@ -0,0 +1,240 @@
+package com.eway.payment.rapid.sdk.message.process;
+
+import com.eway.payment.rapid.sdk.RapidClient;
+import com.eway.payment.rapid.sdk.beans.external.Address;
+import com.eway.payment.rapid.sdk.beans.external.CardDetails;
+import com.eway.payment.rapid.sdk.beans.external.Customer;
+import com.eway.payment.rapid.sdk.beans.external.LineItem;
+import com.eway.payment.rapid.sdk.beans.external.PaymentDetails;
+import com.eway.payment.rapid.sdk.beans.external.Refund;
+import com.eway.payment.rapid.sdk.beans.external.ShippingDetails;
+import com.eway.payment.rapid.sdk.beans.external.Transaction;
+import com.eway.payment.rapid.sdk.beans.external.TransactionType;
+import com.eway.payment.rapid.sdk.beans.internal.RefundDetails;
+import com.eway.payment.rapid.sdk.entities.CancelAuthorisationRequest;
+import com.eway.payment.rapid.sdk.entities.CancelAuthorisationResponse;
+import com.eway.payment.rapid.sdk.entities.CapturePaymentRequest;
+import com.eway.payment.rapid.sdk.entities.CapturePaymentResponse;
+import com.eway.payment.rapid.sdk.entities.CreateAccessCodeRequest;
+import com.eway.payment.rapid.sdk.entities.CreateAccessCodeResponse;
+import com.eway.payment.rapid.sdk.entities.CreateAccessCodeSharedRequest;
+import com.eway.payment.rapid.sdk.entities.CreateAccessCodeSharedResponse;
+import com.eway.payment.rapid.sdk.entities.CreateCustomerResponse;
+import com.eway.payment.rapid.sdk.entities.DirectCustomerSearchRequest;
+import com.eway.payment.rapid.sdk.entities.DirectCustomerSearchResponse;
+import com.eway.payment.rapid.sdk.entities.DirectPaymentRequest;
+import com.eway.payment.rapid.sdk.entities.DirectPaymentResponse;
+import com.eway.payment.rapid.sdk.entities.DirectRefundRequest;
+import com.eway.payment.rapid.sdk.entities.DirectRefundResponse;
+import com.eway.payment.rapid.sdk.entities.TransactionSearchResponse;
+import com.eway.payment.rapid.sdk.exception.RapidSdkException;
+import com.eway.payment.rapid.sdk.message.process.customer.CustDirectPaymentMsgProcess;
+import com.eway.payment.rapid.sdk.message.process.customer.CustDirectUpdateMsgProcess;
+import com.eway.payment.rapid.sdk.message.process.customer.CustResponsiveSharedMsgProcess;
+import com.eway.payment.rapid.sdk.message.process.customer.CustResponsiveUpdateMsgProcess;
+import com.eway.payment.rapid.sdk.message.process.customer.CustTransparentRedirectMsgProcess;
+import com.eway.payment.rapid.sdk.message.process.customer.CustTransparentUpdateMsgProcess;
+import com.eway.payment.rapid.sdk.message.process.customer.QueryCustomerMsgProcess;
+import com.eway.payment.rapid.sdk.message.process.refund.CancelAuthorisationMsgProcess;
+import com.eway.payment.rapid.sdk.message.process.refund.CapturePaymentMsgProcess;
+import com.eway.payment.rapid.sdk.message.process.refund.RefundMsgProcess;
+import com.eway.payment.rapid.sdk.message.process.transaction.TransDirectPaymentMsgProcess;
+import com.eway.payment.rapid.sdk.message.process.transaction.TransQueryMsgProcess;
+import com.eway.payment.rapid.sdk.message.process.transaction.TransResponsiveSharedMsgProcess;
+import com.eway.payment.rapid.sdk.message.process.transaction.TransTransparentRedirectMsgProcess;
+import com.eway.payment.rapid.sdk.message.process.transport.Deadline;
+import com.eway.payment.rapid.sdk.message.process.transport.HttpTransport;
+import com.eway.payment.rapid.sdk.message.process.transport.TransportResponse;
+import com.eway.payment.rapid.sdk.util.Constant;
+import com.eway.payment.rapid.sdk.util.JsonSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Runs every message process once on synthetic data, so the first real call
+ * does not pay for loading classes, building Jackson serializers and
+ * deserializers, or interpreting the converters. The processes send their
+ * requests to a transport that answers from memory: nothing reaches Rapid and
+ * nothing is charged.
+ * <p>
+ * The caches this fills are shared by every client, so the work is done once
+ * per class loader.
+ */
+public final class MessageProcessWarmUp {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RapidClient.class);
+
+    private static final Class<?>[] ENTITIES = {
+        CancelAuthorisationRequest.class, CancelAuthorisationResponse.class,
+        CapturePaymentRequest.class, CapturePaymentResponse.class,
+        CreateAccessCodeRequest.class, CreateAccessCodeResponse.class,
+        CreateAccessCodeSharedRequest.class, CreateAccessCodeSharedResponse.class,
+        CreateCustomerResponse.class,
+        DirectCustomerSearchRequest.class, DirectCustomerSearchResponse.class,
+        DirectPaymentRequest.class, DirectPaymentResponse.class,
+        DirectRefundRequest.class, DirectRefundResponse.class,
+        TransactionSearchResponse.class
+    };
+
+    private static final String TRANSACTION_RESPONSE = "{\"TransactionID\":1,\"TransactionStatus\":false,"
+            + "\"ResponseCode\":\"05\",\"ResponseMessage\":\"D4405\",\"Customer\":{\"TokenCustomerID\":\"1\"},"
+            + "\"Payment\":{\"TotalAmount\":100,\"InvoiceNumber\":\"1\"},\"Errors\":\"\"}";
+    private static final String SEARCH_RESPONSE = "{\"Transactions\":[{\"TransactionID\":1,\"TransactionStatus\":false,"
+            + "\"ResponseCode\":\"05\",\"ResponseMessage\":\"D4405\",\"TotalAmount\":100,\"Customer\":{}}],\"Errors\":\"\"}";
+    private static final String CUSTOMER_SEARCH_RESPONSE = "{\"Customers\":[{\"TokenCustomerID\":\"1\","
+            + "\"CardDetails\":{\"Number\":\"444433XXXXXX1111\"}}],\"Errors\":\"\"}";
+
+    private static volatile boolean done;
+
+    private MessageProcessWarmUp() {
+    }
+
+    /**
+     * Warm up the message processes, unless that has already been done
+     *
+     * @return The number of message processes that failed, which are logged.
+     * The synthetic data exercises the same code as real calls, so a failure
+     * points to a problem the first real call would also have.
+     */
+    public static synchronized int run() {
+        if (done) {
+            return 0;
+        }
+        for (Class<?> entity : ENTITIES) {
+            // readers and writers fetch their (de)serializers when they are built
+            JsonSupport.reader(entity);
+            JsonSupport.writer(entity);
+        }
+        String direct = Constant.DIRECT_PAYMENT_METHOD_NAME.concat(Constant.JSON_SUFIX);
+        String shared = Constant.RESPONSIVE_SHARED_METHOD_NAME.concat(Constant.JSON_SUFIX);
+        String redirect = Constant.TRANSPARENT_REDIRECT_METHOD_NAME.concat(Constant.JSON_SUFIX);
+        HttpTransport transport = new LocalTransport(TRANSACTION_RESPONSE);
+        HttpTransport search = new LocalTransport(SEARCH_RESPONSE);
+        HttpTransport customerSearch = new LocalTransport(CUSTOMER_SEARCH_RESPONSE);
+
+        int failures = 0;
+        failures += run(transport, new TransDirectPaymentMsgProcess(direct), transaction());
+        failures += run(transport, new TransResponsiveSharedMsgProcess(shared), transaction());
+        failures += run(transport, new TransTransparentRedirectMsgProcess(redirect), transaction());
+        failures += run(transport, new CapturePaymentMsgProcess(Constant.CAPTURE_PAYMENT_METHOD), transaction());
+        failures += run(transport, new CustDirectPaymentMsgProcess(direct), customer());
+        failures += run(transport, new CustResponsiveSharedMsgProcess(shared), customer());
+        failures += run(transport, new CustTransparentRedirectMsgProcess(redirect), customer());
+        failures += run(transport, new CustDirectUpdateMsgProcess(direct), customer());
+        failures += run(transport, new CustResponsiveUpdateMsgProcess(shared), customer());
+        failures += run(transport, new CustTransparentUpdateMsgProcess(redirect), customer());
+        failures += run(transport, new RefundMsgProcess(Constant.TRANSACTION_METHOD), refund());
+        failures += run(transport, new CancelAuthorisationMsgProcess(Constant.CANCEL_AUTHORISATION_METHOD), refund());
+        failures += run(search, new TransQueryMsgProcess(Constant.TRANSACTION_METHOD), "1");
+        failures += run(customerSearch, new QueryCustomerMsgProcess(
+                Constant.DIRECT_CUSTOMER_SEARCH_METHOD.concat(Constant.JSON_SUFIX)), "1");
+        done = true;
+        return failures;
+    }
+
+    private static <T> int run(HttpTransport transport, AbstractMessageProcess<T, ?> process, T input) {
+        try {
+            process.doWork(new MessageContext<T>(transport, Deadline.NONE, input));
+            return 0;
+        } catch (RapidSdkException | RuntimeException e) {
+            LOGGER.warn("Warm up of " + process.getClass().getSimpleName() + " failed", e);
+            return 1;
+        }
+    }
+
+    private static Transaction transaction() {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionType(TransactionType.Purchase);
+        transaction.setCapture(true);
+        transaction.setRedirectURL("http://localhost");
+        transaction.setCustomer(customer());
+        PaymentDetails payment = new PaymentDetails();
+        payment.setTotalAmount(100);
+        payment.setInvoiceNumber("1");
+        payment.setInvoiceReference("1");
+        payment.setCurrencyCode("AUD");
+        transaction.setPaymentDetails(payment);
+        ShippingDetails shipping = new ShippingDetails();
+        shipping.setFirstName("Warm");
+        shipping.setLastName("Up");
+        shipping.setShippingAddress(address());
+        transaction.setShippingDetails(shipping);
+        LineItem item = new LineItem();
+        item.setSku("1");
+        item.setQuantity(1);
+        item.setUnitCost(100);
+        item.setTotal(100);
+        transaction.setLineItems(Collections.singletonList(item));
+        transaction.setOptions(Collections.singletonList("1"));
+        return transaction;
+    }
+
+    private static Customer customer() {
+        Customer customer = new Customer();
+        customer.setTokenCustomerID("1");
+        customer.setFirstName("Warm");
+        customer.setLastName("Up");
+        customer.setRedirectUrl("http://localhost");
+        customer.setAddress(address());
+        CardDetails card = new CardDetails();
+        card.setName("Warm Up");
+        card.setNumber("4444333322221111");
+        card.setExpiryMonth("12");
+        card.setExpiryYear("99");
+        customer.setCardDetails(card);
+        return customer;
+    }
+
+    private static Address address() {
+        Address address = new Address();
+        address.setStreet1("1");
+        address.setCity("Sydney");
+        address.setCountry("au");
+        return address;
+    }
+
+    private static Refund refund() {
+        Refund refund = new Refund();
+        RefundDetails details = new RefundDetails();
+        details.setOriginalTransactionID("1");
+        details.setTotalAmount(100);
+        refund.setRefundDetails(details);
+        refund.setCustomer(customer());
+        return refund;
+    }
+
+    /**
+     * Answers every request with the same JSON, without any I/O
+     */
+    private static final class LocalTransport implements HttpTransport {
+
+        private final byte[] response;
+
+        LocalTransport(String response) {
+            this.response = response.getBytes(StandardCharsets.UTF_8);
+        }
+
+        public TransportResponse send(String method, String path, byte[] body, Deadline deadline) {
+            return new TransportResponse(200, response);
+        }
+
+        public CompletableFuture<TransportResponse> sendAsync(String method, String path, byte[] body, Deadline deadline) {
+            return CompletableFuture.completedFuture(send(method, path, body, deadline));
+        }
+
+        public void connect(Deadline deadline) throws IOException {
+        }
+
+        public boolean isDebug() {
+            return false;
+        }
+
+        public void close() {
+        }
+    }
+}
@@ -9,9 +9,11 @@ import com.eway.payment.rapid.sdk.entities.Request;
 import com.eway.payment.rapid.sdk.entities.Response;
 import com.eway.payment.rapid.sdk.exception.RapidSdkException;
 import com.eway.payment.rapid.sdk.message.convert.BeanConverter;
-import com.eway.payment.rapid.sdk.message.convert.CustomerToInternalCustomerConverter;
+import com.eway.payment.rapid.sdk.message.convert.Converters;
 import com.eway.payment.rapid.sdk.message.convert.response.DirectPaymentToCreateCustConverter;
 import com.eway.payment.rapid.sdk.message.process.AbstractMakeRequestMessageProcess;
+import com.eway.payment.rapid.sdk.message.process.MessageContext;
+import com.eway.payment.rapid.sdk.message.process.transport.HttpTransport;
 import com.eway.payment.rapid.sdk.util.Constant;
 
 import javax.ws.rs.client.WebTarget;
@@ -29,10 +31,25 @@ public class CustDirectPaymentMsgProcess extends AbstractMakeRequestMessageProce
         super(resource, requestPath);
     }
 
+    /**
+     * @param transport The transport to call Rapid API
+     * @param requestPath Path of request URL. Used to make full web service URL
+     */
+    public CustDirectPaymentMsgProcess(HttpTransport transport, String... requestPath) {
+        super(transport, requestPath);
+    }
+
+    /**
+     * @param requestPath Path of request URL. Used to make full web service URL
+     */
+    public CustDirectPaymentMsgProcess(String... requestPath) {
+        super(requestPath);
+    }
+
     @Override
     protected Request createRequest(Customer input) throws RapidSdkException {
         DirectPaymentRequest request = new DirectPaymentRequest();
-        BeanConverter<Customer, com.eway.payment.rapid.sdk.beans.internal.Customer> interCustConvert = new CustomerToInternalCustomerConverter(false);
+        BeanConverter<Customer, com.eway.payment.rapid.sdk.beans.internal.Customer> interCustConvert = Converters.CUSTOMER_TO_INTERNAL_CUSTOMER_UNMERGED_CARD;
         request.setCustomer(interCustConvert.doConvert(input));
         request.setCustomerIP(input.getCustomerDeviceIP());
         request.setMethod(Constant.CREATE_TOKEN_CUSTOMER_METHOD);
@@ -41,14 +58,14 @@ public class CustDirectPaymentMsgProcess extends AbstractMakeRequestMessageProce
     }
 
     @Override
-    protected Response sendRequest(Request req) throws RapidSdkException {
-        return doPost(req, DirectPaymentResponse.class);
+    protected Response sendRequest(Request req, MessageContext<Customer> context) throws RapidSdkException {
+        return doPost(req, DirectPaymentResponse.class, context);
     }
 
     @Override
-    protected CreateCustomerResponse makeResult(Response res) throws RapidSdkException {
+    protected CreateCustomerResponse makeResult(Response res, MessageContext<Customer> context) throws RapidSdkException {
         DirectPaymentResponse response = (DirectPaymentResponse) res;
-        DirectPaymentToCreateCustConverter converter = new DirectPaymentToCreateCustConverter();
+        DirectPaymentToCreateCustConverter converter = Converters.DIRECT_PAYMENT_TO_CREATE_CUST;
         return converter.doConvert(response);
     }
 }
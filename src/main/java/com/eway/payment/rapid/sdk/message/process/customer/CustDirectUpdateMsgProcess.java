@@ -10,9 +10,11 @@ import com.eway.payment.rapid.sdk.entities.Request;
 import com.eway.payment.rapid.sdk.entities.Response;
 import com.eway.payment.rapid.sdk.exception.RapidSdkException;
 import com.eway.payment.rapid.sdk.message.convert.BeanConverter;
-import com.eway.payment.rapid.sdk.message.convert.CustomerToInternalCustomerConverter;
+import com.eway.payment.rapid.sdk.message.convert.Converters;
 import com.eway.payment.rapid.sdk.message.convert.response.DirectPaymentToCreateCustConverter;
 import com.eway.payment.rapid.sdk.message.process.AbstractMakeRequestMessageProcess;
+import com.eway.payment.rapid.sdk.message.process.MessageContext;
+import com.eway.payment.rapid.sdk.message.process.transport.HttpTransport;
 import com.eway.payment.rapid.sdk.util.Constant;
 import javax.ws.rs.client.WebTarget;
 
@@ -29,10 +31,25 @@ public class CustDirectUpdateMsgProcess extends AbstractMakeRequestMessageProces
         super(resource, requestPath);
     }
 
+    /**
+     * @param transport The transport to call Rapid API
+     * @param requestPath Path of request URL. Used to make full web service URL
+     */
+    public CustDirectUpdateMsgProcess(HttpTransport transport, String... requestPath) {
+        super(transport, requestPath);
+    }
+
+    /**
+     * @param requestPath Path of request URL. Used to make full web service URL
+     */
+    public CustDirectUpdateMsgProcess(String... requestPath) {
+        super(requestPath);
+    }
+
     @Override
     protected Request createRequest(Customer input) throws RapidSdkException {
         DirectPaymentRequest request = new DirectPaymentRequest();
-        BeanConverter<Customer, com.eway.payment.rapid.sdk.beans.internal.Customer> interCustConvert = new CustomerToInternalCustomerConverter(false);
+        BeanConverter<Customer, com.eway.payment.rapid.sdk.beans.internal.Customer> interCustConvert = Converters.CUSTOMER_TO_INTERNAL_CUSTOMER_UNMERGED_CARD;
         Payment payment = new Payment();
         payment.setTotalAmount(0);
         request.setPayment(payment);
@@ -44,14 +61,14 @@ public class CustDirectUpdateMsgProcess extends AbstractMakeRequestMessageProces
     }
 
     @Override
-    protected Response sendRequest(Request req) throws RapidSdkException {
-        return doPost(req, DirectPaymentResponse.class);
+    protected Response sendRequest(Request req, MessageContext<Customer> context) throws RapidSdkException {
+        return doPost(req, DirectPaymentResponse.class, context);
     }
 
     @Override
-    protected CreateCustomerResponse makeResult(Response res) throws RapidSdkException {
+    protected CreateCustomerResponse makeResult(Response res, MessageContext<Customer> context) throws RapidSdkException {
         DirectPaymentResponse response = (DirectPaymentResponse) res;
-        DirectPaymentToCreateCustConverter converter = new DirectPaymentToCreateCustConverter();
+        DirectPaymentToCreateCustConverter converter = Converters.DIRECT_PAYMENT_TO_CREATE_CUST;
         return converter.doConvert(response);
     }
 }
@@ -9,9 +9,11 @@ import com.eway.payment.rapid.sdk.entities.Request;
 import com.eway.payment.rapid.sdk.entities.Response;
 import com.eway.payment.rapid.sdk.exception.RapidSdkException;
 import com.eway.payment.rapid.sdk.message.convert.BeanConverter;
+import com.eway.payment.rapid.sdk.message.convert.Converters;
 import com.eway.payment.rapid.sdk.message.convert.CustomerToInternalCustomerConverter;
-import com.eway.payment.rapid.sdk.message.convert.response.AccessCodeSharedToCreateCustConverter;
 import com.eway.payment.rapid.sdk.message.process.AbstractMakeRequestMessageProcess;
+import com.eway.payment.rapid.sdk.message.process.MessageContext;
+import com.eway.payment.rapid.sdk.message.process.transport.HttpTransport;
 import com.eway.payment.rapid.sdk.util.Constant;
 
 import javax.ws.rs.client.WebTarget;
@@ -29,10 +31,25 @@ public class CustResponsiveSharedMsgProcess extends AbstractMakeRequestMessagePr
         super(resource, requestPath);
     }
 
+    /**
+     * @param transport The transport to call Rapid API
+     * @param requestPath Path of request URL. Used to make full web service URL
+     */
+    public CustResponsiveSharedMsgProcess(HttpTransport transport, String... requestPath) {
+        super(transport, requestPath);
+    }
+
+    /**
+     * @param requestPath Path of request URL. Used to make full web service URL
+     */
+    public CustResponsiveSharedMsgProcess(String... requestPath) {
+        super(requestPath);
+    }
+
     @Override
     protected Request createRequest(Customer input) throws RapidSdkException {
         CreateAccessCodeSharedRequest request = new CreateAccessCodeSharedRequest();
-        CustomerToInternalCustomerConverter interCustConvert = new CustomerToInternalCustomerConverter();
+        CustomerToInternalCustomerConverter interCustConvert = Converters.CUSTOMER_TO_INTERNAL_CUSTOMER;
         request.setCustomer(interCustConvert.doConvert(input));
         request.setMethod(Constant.CREATE_TOKEN_CUSTOMER_METHOD);
         request.setTransactionType(TransactionType.Purchase.name());
@@ -42,15 +59,15 @@ public class CustResponsiveSharedMsgProcess extends AbstractMakeRequestMessagePr
     }
 
     @Override
-    protected CreateCustomerResponse makeResult(Response res) throws RapidSdkException {
+    protected CreateCustomerResponse makeResult(Response res, MessageContext<Customer> context) throws RapidSdkException {
         CreateAccessCodeSharedResponse response = (CreateAccessCodeSharedResponse) res;
-        BeanConverter<CreateAccessCodeSharedResponse, CreateCustomerResponse> converter = new AccessCodeSharedToCreateCustConverter();
+        BeanConverter<CreateAccessCodeSharedResponse, CreateCustomerResponse> converter = Converters.ACCESS_CODE_SHARED_TO_CREATE_CUST;
         return converter.doConvert(response);
     }
 
     @Override
-    protected Response sendRequest(Request req) throws RapidSdkException {
-        return doPost(req, CreateAccessCodeSharedResponse.class);
+    protected Response sendRequest(Request req, MessageContext<Customer> context) throws RapidSdkException {
+        return doPost(req, CreateAccessCodeSharedResponse.class, context);
     }
 
 }
@@ -6,9 +6,11 @@ import com.eway.payment.rapid.sdk.beans.internal.Payment;
 import com.eway.payment.rapid.sdk.entities.*;
 import com.eway.payment.rapid.sdk.exception.RapidSdkException;
 import com.eway.payment.rapid.sdk.message.convert.BeanConverter;
+import com.eway.payment.rapid.sdk.message.convert.Converters;
 import com.eway.payment.rapid.sdk.message.convert.CustomerToInternalCustomerConverter;
-import com.eway.payment.rapid.sdk.message.convert.response.AccessCodeSharedToCreateCustConverter;
 import com.eway.payment.rapid.sdk.message.process.AbstractMakeRequestMessageProcess;
+import com.eway.payment.rapid.sdk.message.process.MessageContext;
+import com.eway.payment.rapid.sdk.message.process.transport.HttpTransport;
 import com.eway.payment.rapid.sdk.util.Constant;
 import javax.ws.rs.client.WebTarget;
 
@@ -25,10 +27,25 @@ public class CustResponsiveUpdateMsgProcess extends AbstractMakeRequestMessagePr
         super(resource, requestPath);
     }
 
+    /**
+     * @param transport The transport to call Rapid API
+     * @param requestPath Path of request URL. Used to make full web service URL
+     */
+    public CustResponsiveUpdateMsgProcess(HttpTransport transport, String... requestPath) {
+        super(transport, requestPath);
+    }
+
+    /**
+     * @param requestPath Path of request URL. Used to make full web service URL
+     */
+    public CustResponsiveUpdateMsgProcess(String... requestPath) {
+        super(requestPath);
+    }
+
     @Override
     protected Request createRequest(Customer input) throws RapidSdkException {
         CreateAccessCodeSharedRequest request = new CreateAccessCodeSharedRequest();
-        CustomerToInternalCustomerConverter interCustConvert = new CustomerToInternalCustomerConverter();
+        CustomerToInternalCustomerConverter interCustConvert = Converters.CUSTOMER_TO_INTERNAL_CUSTOMER;
         Payment payment = new Payment();
         payment.setTotalAmount(0);
         request.setPayment(payment);
@@ -41,16 +58,16 @@ public class CustResponsiveUpdateMsgProcess extends AbstractMakeRequestMessagePr
     }
 
     @Override
-    protected CreateCustomerResponse makeResult(Response res) throws RapidSdkException {
+    protected CreateCustomerResponse makeResult(Response res, MessageContext<Customer> context) throws RapidSdkException {
         // Cast to implement response object
         CreateAccessCodeSharedResponse response = (CreateAccessCodeSharedResponse) res;
-        BeanConverter<CreateAccessCodeSharedResponse, CreateCustomerResponse> converter = new AccessCodeSharedToCreateCustConverter();
+        BeanConverter<CreateAccessCodeSharedResponse, CreateCustomerResponse> converter = Converters.ACCESS_CODE_SHARED_TO_CREATE_CUST;
         return converter.doConvert(response);
     }
 
     @Override
-    protected Response sendRequest(Request req) throws RapidSdkException {
-        return doPost(req, CreateAccessCodeSharedResponse.class);
+    protected Response sendRequest(Request req, MessageContext<Customer> context) throws RapidSdkException {
+        return doPost(req, CreateAccessCodeSharedResponse.class, context);
     }
 
 }
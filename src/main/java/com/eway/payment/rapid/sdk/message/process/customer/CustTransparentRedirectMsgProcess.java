@@ -8,9 +8,12 @@ import com.eway.payment.rapid.sdk.entities.CreateCustomerResponse;
 import com.eway.payment.rapid.sdk.entities.Request;
 import com.eway.payment.rapid.sdk.entities.Response;
 import com.eway.payment.rapid.sdk.exception.RapidSdkException;
+import com.eway.payment.rapid.sdk.message.convert.Converters;
 import com.eway.payment.rapid.sdk.message.convert.CustomerToInternalCustomerConverter;
 import com.eway.payment.rapid.sdk.message.convert.response.AccessCodeToCreateCustConverter;
 import com.eway.payment.rapid.sdk.message.process.AbstractMakeRequestMessageProcess;
+import com.eway.payment.rapid.sdk.message.process.MessageContext;
+import com.eway.payment.rapid.sdk.message.process.transport.HttpTransport;
 import com.eway.payment.rapid.sdk.util.Constant;
 
 import javax.ws.rs.client.WebTarget;
@@ -28,10 +31,25 @@ public class CustTransparentRedirectMsgProcess extends AbstractMakeRequestMessag
         super(resource, requestPath);
     }
 
+    /**
+     * @param transport The transport to call Rapid API
+     * @param requestPath Path of request URL. Used to make full web service URL
+     */
+    public CustTransparentRedirectMsgProcess(HttpTransport transport, String... requestPath) {
+        super(transport, requestPath);
+    }
+
+    /**
+     * @param requestPath Path of request URL. Used to make full web service URL
+     */
+    public CustTransparentRedirectMsgProcess(String... requestPath) {
+        super(requestPath);
+    }
+
     @Override
     protected Request createRequest(Customer input) throws RapidSdkException {
         CreateAccessCodeRequest request = new CreateAccessCodeRequest();
-        CustomerToInternalCustomerConverter interCustConvert = new CustomerToInternalCustomerConverter();
+        CustomerToInternalCustomerConverter interCustConvert = Converters.CUSTOMER_TO_INTERNAL_CUSTOMER;
         request.setCustomer(interCustConvert.doConvert(input));
         request.setMethod(Constant.CREATE_TOKEN_CUSTOMER_METHOD);
         request.setTransactionType(TransactionType.Purchase.name());
@@ -40,15 +58,15 @@ public class CustTransparentRedirectMsgProcess extends AbstractMakeRequestMessag
     }
 
     @Override
-    protected CreateCustomerResponse makeResult(Response res) {
+    protected CreateCustomerResponse makeResult(Response res, MessageContext<Customer> context) {
         CreateAccessCodeResponse response = (CreateAccessCodeResponse) res;
-        AccessCodeToCreateCustConverter converter = new AccessCodeToCreateCustConverter();
+        AccessCodeToCreateCustConverter converter = Converters.ACCESS_CODE_TO_CREATE_CUST;
         return converter.doConvert(response);
     }
 
     @Override
-    protected Response sendRequest(Request req) throws RapidSdkException {
-        return doPost(req, CreateAccessCodeResponse.class);
+    protected Response sendRequest(Request req, MessageContext<Customer> context) throws RapidSdkException {
+        return doPost(req, CreateAccessCodeResponse.class, context);
     }
 
 }
@@ -5,9 +5,12 @@ import com.eway.payment.rapid.sdk.beans.external.TransactionType;
 import com.eway.payment.rapid.sdk.beans.internal.Payment;
 import com.eway.payment.rapid.sdk.entities.*;
 import com.eway.payment.rapid.sdk.exception.RapidSdkException;
+import com.eway.payment.rapid.sdk.message.convert.Converters;
 import com.eway.payment.rapid.sdk.message.convert.CustomerToInternalCustomerConverter;
 import com.eway.payment.rapid.sdk.message.convert.response.AccessCodeToCreateCustConverter;
 import com.eway.payment.rapid.sdk.message.process.AbstractMakeRequestMessageProcess;
+import com.eway.payment.rapid.sdk.message.process.MessageContext;
+import com.eway.payment.rapid.sdk.message.process.transport.HttpTransport;
 import com.eway.payment.rapid.sdk.util.Constant;
 import javax.ws.rs.client.WebTarget;
 
@@ -24,10 +27,25 @@ public class CustTransparentUpdateMsgProcess extends AbstractMakeRequestMessageP
         super(resource, requestPath);
     }
 
+    /**
+     * @param transport The transport to call Rapid API
+     * @param requestPath Path of request URL. Used to make full web service URL
+     */
+    public CustTransparentUpdateMsgProcess(HttpTransport transport, String... requestPath) {
+        super(transport, requestPath);
+    }
+
+    /**
+     * @param requestPath Path of request URL. Used to make full web service URL
+     */
+    public CustTransparentUpdateMsgProcess(String... requestPath) {
+        super(requestPath);
+    }
+
     @Override
     protected Request createRequest(Customer input) throws RapidSdkException {
         CreateAccessCodeRequest request = new CreateAccessCodeRequest();
-        CustomerToInternalCustomerConverter interCustConvert = new CustomerToInternalCustomerConverter();
+        CustomerToInternalCustomerConverter interCustConvert = Converters.CUSTOMER_TO_INTERNAL_CUSTOMER;
         Payment payment = new Payment();
         payment.setTotalAmount(0);
         request.setPayment(payment);
@@ -39,15 +57,15 @@ public class CustTransparentUpdateMsgProcess extends AbstractMakeRequestMessageP
     }
 
     @Override
-    protected CreateCustomerResponse makeResult(Response res) {
+    protected CreateCustomerResponse makeResult(Response res, MessageContext<Customer> context) {
         CreateAccessCodeResponse response = (CreateAccessCodeResponse) res;
-        AccessCodeToCreateCustConverter converter = new AccessCodeToCreateCustConverter();
+        AccessCodeToCreateCustConverter converter = Converters.ACCESS_CODE_TO_CREATE_CUST;
         return converter.doConvert(response);
     }
 
     @Override
-    protected Response sendRequest(Request req) throws RapidSdkException {
-        return doPost(req, CreateAccessCodeResponse.class);
+    protected Response sendRequest(Request req, MessageContext<Customer> context) throws RapidSdkException {
+        return doPost(req, CreateAccessCodeResponse.class, context);
     }
 
 }
@@ -6,8 +6,10 @@ import com.eway.payment.rapid.sdk.entities.Request;
 import com.eway.payment.rapid.sdk.entities.Response;
 import com.eway.payment.rapid.sdk.exception.RapidSdkException;
 import com.eway.payment.rapid.sdk.message.convert.BeanConverter;
-import com.eway.payment.rapid.sdk.message.convert.response.DirectCustomerToQueryCustomerConverter;
+import com.eway.payment.rapid.sdk.message.convert.Converters;
 import com.eway.payment.rapid.sdk.message.process.AbstractMakeRequestMessageProcess;
+import com.eway.payment.rapid.sdk.message.process.MessageContext;
+import com.eway.payment.rapid.sdk.message.process.transport.HttpTransport;
 import com.eway.payment.rapid.sdk.output.QueryCustomerResponse;
 
 import javax.ws.rs.client.WebTarget;
@@ -25,6 +27,21 @@ public class QueryCustomerMsgProcess extends AbstractMakeRequestMessageProcess<S
         super(resource, requestPath);
     }
 
+    /**
+     * @param transport The transport to call Rapid API
+     * @param requestPath Path of request URL. Used to make full web service URL
+     */
+    public QueryCustomerMsgProcess(HttpTransport transport, String... requestPath) {
+        super(transport, requestPath);
+    }
+
+    /**
+     * @param requestPath Path of request URL. Used to make full web service URL
+     */
+    public QueryCustomerMsgProcess(String... requestPath) {
+        super(requestPath);
+    }
+
     @Override
     protected Request createRequest(String tokenCustomerID) throws RapidSdkException {
         DirectCustomerSearchRequest request = new DirectCustomerSearchRequest();
@@ -33,14 +50,14 @@ public class QueryCustomerMsgProcess extends AbstractMakeRequestMessageProcess<S
     }
 
     @Override
-    protected Response sendRequest(Request req) throws RapidSdkException {
-        return doPost(req, DirectCustomerSearchResponse.class);
+    protected Response sendRequest(Request req, MessageContext<String> context) throws RapidSdkException {
+        return doPost(req, DirectCustomerSearchResponse.class, context);
     }
 
     @Override
-    protected QueryCustomerResponse makeResult(Response res) throws RapidSdkException {
+    protected QueryCustomerResponse makeResult(Response res, MessageContext<String> context) throws RapidSdkException {
         DirectCustomerSearchResponse response = (DirectCustomerSearchResponse) res;
-        BeanConverter<DirectCustomerSearchResponse, QueryCustomerResponse> convert = new DirectCustomerToQueryCustomerConverter();
+        BeanConverter<DirectCustomerSearchResponse, QueryCustomerResponse> convert = Converters.DIRECT_CUSTOMER_TO_QUERY_CUSTOMER;
         return convert.doConvert(response);
     }
 
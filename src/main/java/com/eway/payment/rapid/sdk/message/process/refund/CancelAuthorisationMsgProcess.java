@@ -8,9 +8,10 @@ import com.eway.payment.rapid.sdk.entities.Request;
 import com.eway.payment.rapid.sdk.entities.Response;
 import com.eway.payment.rapid.sdk.exception.ParameterInvalidException;
 import com.eway.payment.rapid.sdk.exception.RapidSdkException;
-import com.eway.payment.rapid.sdk.message.convert.BeanConverter;
-import com.eway.payment.rapid.sdk.message.convert.response.CancelAuthorisationToRefundConverter;
+import com.eway.payment.rapid.sdk.message.convert.Converters;
 import com.eway.payment.rapid.sdk.message.process.AbstractMakeRequestMessageProcess;
+import com.eway.payment.rapid.sdk.message.process.MessageContext;
+import com.eway.payment.rapid.sdk.message.process.transport.HttpTransport;
 import com.eway.payment.rapid.sdk.output.RefundResponse;
 
 import javax.ws.rs.client.WebTarget;
@@ -25,6 +26,21 @@ public class CancelAuthorisationMsgProcess extends AbstractMakeRequestMessagePro
         super(resource, requestPath);
     }
 
+    /**
+     * @param transport The transport to call Rapid API
+     * @param requestPath Path of request URL. Used to make full web service URL
+     */
+    public CancelAuthorisationMsgProcess(HttpTransport transport, String... requestPath) {
+        super(transport, requestPath);
+    }
+
+    /**
+     * @param requestPath Path of request URL. Used to make full web service URL
+     */
+    public CancelAuthorisationMsgProcess(String... requestPath) {
+        super(requestPath);
+    }
+
     @Override
     protected Request createRequest(Refund refund) throws RapidSdkException {
         CancelAuthorisationRequest request = new CancelAuthorisationRequest();
@@ -37,14 +53,15 @@ public class CancelAuthorisationMsgProcess extends AbstractMakeRequestMessagePro
     }
 
     @Override
-    protected Response sendRequest(Request req) throws RapidSdkException {
-        return doPost(req, CancelAuthorisationResponse.class);
+    protected Response sendRequest(Request req, MessageContext<Refund> context) throws RapidSdkException {
+        return doPost(req, CancelAuthorisationResponse.class, context);
     }
 
     @Override
-    protected RefundResponse makeResult(Response res) throws RapidSdkException {
-        BeanConverter<CancelAuthorisationResponse, RefundResponse> convert = new CancelAuthorisationToRefundConverter(getInput());
-        return convert.doConvert((CancelAuthorisationResponse) res);
+    protected RefundResponse makeResult(Response res, MessageContext<Refund> context) throws RapidSdkException {
+        RefundResponse response = Converters.CANCEL_AUTHORISATION_TO_REFUND.doConvert((CancelAuthorisationResponse) res);
+        response.setRefund(context.getInput());
+        return response;
     }
 
 }
@@ -7,9 +7,10 @@ import com.eway.payment.rapid.sdk.entities.Request;
 import com.eway.payment.rapid.sdk.entities.Response;
 import com.eway.payment.rapid.sdk.exception.RapidSdkException;
 import com.eway.payment.rapid.sdk.message.convert.BeanConverter;
-import com.eway.payment.rapid.sdk.message.convert.request.TransactionToCapturePaymentConverter;
-import com.eway.payment.rapid.sdk.message.convert.response.CapturePaymentToCreateTransactionConverter;
+import com.eway.payment.rapid.sdk.message.convert.Converters;
 import com.eway.payment.rapid.sdk.message.process.AbstractMakeRequestMessageProcess;
+import com.eway.payment.rapid.sdk.message.process.MessageContext;
+import com.eway.payment.rapid.sdk.message.process.transport.HttpTransport;
 import com.eway.payment.rapid.sdk.output.CreateTransactionResponse;
 
 import javax.ws.rs.client.WebTarget;
@@ -23,22 +24,30 @@ public class CapturePaymentMsgProcess extends AbstractMakeRequestMessageProcess<
         super(resource, requestPath);
     }
 
+    public CapturePaymentMsgProcess(HttpTransport transport, String... requestPath) {
+        super(transport, requestPath);
+    }
+
+    public CapturePaymentMsgProcess(String... requestPath) {
+        super(requestPath);
+    }
+
     @Override
-    protected CreateTransactionResponse makeResult(Response res) throws RapidSdkException {
+    protected CreateTransactionResponse makeResult(Response res, MessageContext<Transaction> context) throws RapidSdkException {
         CapturePaymentResponse response = (CapturePaymentResponse) res;
-        BeanConverter<CapturePaymentResponse, CreateTransactionResponse> convert = new CapturePaymentToCreateTransactionConverter();
+        BeanConverter<CapturePaymentResponse, CreateTransactionResponse> convert = Converters.CAPTURE_PAYMENT_TO_CREATE_TRANSACTION;
         return convert.doConvert(response);
     }
 
     @Override
     protected Request createRequest(Transaction t) throws RapidSdkException {
-        BeanConverter<Transaction, CapturePaymentRequest> converter = new TransactionToCapturePaymentConverter();
+        BeanConverter<Transaction, CapturePaymentRequest> converter = Converters.TRANSACTION_TO_CAPTURE_PAYMENT;
         return converter.doConvert(t);
     }
 
     @Override
-    protected Response sendRequest(Request req) throws RapidSdkException {
-        return doPost(req, CapturePaymentResponse.class);
+    protected Response sendRequest(Request req, MessageContext<Transaction> context) throws RapidSdkException {
+        return doPost(req, CapturePaymentResponse.class, context);
     }
 
 }
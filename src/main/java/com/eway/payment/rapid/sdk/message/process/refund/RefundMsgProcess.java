@@ -7,9 +7,10 @@ import com.eway.payment.rapid.sdk.entities.Request;
 import com.eway.payment.rapid.sdk.entities.Response;
 import com.eway.payment.rapid.sdk.exception.RapidSdkException;
 import com.eway.payment.rapid.sdk.message.convert.BeanConverter;
-import com.eway.payment.rapid.sdk.message.convert.request.RefundToDirectRefundReqConverter;
-import com.eway.payment.rapid.sdk.message.convert.response.DirectRefundToRefundResponseConverter;
+import com.eway.payment.rapid.sdk.message.convert.Converters;
 import com.eway.payment.rapid.sdk.message.process.AbstractMakeRequestMessageProcess;
+import com.eway.payment.rapid.sdk.message.process.MessageContext;
+import com.eway.payment.rapid.sdk.message.process.transport.HttpTransport;
 import com.eway.payment.rapid.sdk.output.RefundResponse;
 import com.eway.payment.rapid.sdk.util.Constant;
 
@@ -28,23 +29,38 @@ public class RefundMsgProcess extends AbstractMakeRequestMessageProcess<Refund,
         super(resource, requestPath);
     }
 
+    /**
+     * @param transport The transport to call Rapid API
+     * @param requestPath Path of request URL. Used to make full web service URL
+     */
+    public RefundMsgProcess(HttpTransport transport, String... requestPath) {
+        super(transport, requestPath);
+    }
+
+    /**
+     * @param requestPath Path of request URL. Used to make full web service URL
+     */
+    public RefundMsgProcess(String... requestPath) {
+        super(requestPath);
+    }
+
     @Override
     protected Request createRequest(Refund refund) throws RapidSdkException {
-        BeanConverter<Refund, DirectRefundRequest> reqConverter = new RefundToDirectRefundReqConverter();
+        BeanConverter<Refund, DirectRefundRequest> reqConverter = Converters.REFUND_TO_DIRECT_REFUND_REQ;
         return reqConverter.doConvert(refund);
     }
 
     @Override
-    protected Response sendRequest(Request req) throws RapidSdkException {
+    protected Response sendRequest(Request req, MessageContext<Refund> context) throws RapidSdkException {
         DirectRefundRequest request = (DirectRefundRequest) req;
-        addRequestPath(request.getRefund().getOriginalTransactionID(), Constant.REFUND_SUBPATH_METHOD);
-        return doPost(request, DirectRefundResponse.class);
+        context.addRequestPath(request.getRefund().getOriginalTransactionID(), Constant.REFUND_SUBPATH_METHOD);
+        return doPost(request, DirectRefundResponse.class, context);
     }
 
     @Override
-    protected RefundResponse makeResult(Response res) throws RapidSdkException {
+    protected RefundResponse makeResult(Response res, MessageContext<Refund> context) throws RapidSdkException {
         DirectRefundResponse response = (DirectRefundResponse) res;
-        BeanConverter<DirectRefundResponse, RefundResponse> responseConvert = new DirectRefundToRefundResponseConverter();
+        BeanConverter<DirectRefundResponse, RefundResponse> responseConvert = Converters.DIRECT_REFUND_TO_REFUND_RESPONSE;
         return responseConvert.doConvert(response);
     }
 
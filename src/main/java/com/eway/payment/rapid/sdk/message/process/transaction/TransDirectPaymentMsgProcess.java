@@ -7,9 +7,10 @@ import com.eway.payment.rapid.sdk.entities.Request;
 import com.eway.payment.rapid.sdk.entities.Response;
 import com.eway.payment.rapid.sdk.exception.RapidSdkException;
 import com.eway.payment.rapid.sdk.message.convert.BeanConverter;
-import com.eway.payment.rapid.sdk.message.convert.request.TransactionToDirectPaymentConverter;
-import com.eway.payment.rapid.sdk.message.convert.response.DirectPaymentToCreateTransConverter;
+import com.eway.payment.rapid.sdk.message.convert.Converters;
 import com.eway.payment.rapid.sdk.message.process.AbstractMakeRequestMessageProcess;
+import com.eway.payment.rapid.sdk.message.process.MessageContext;
+import com.eway.payment.rapid.sdk.message.process.transport.HttpTransport;
 import com.eway.payment.rapid.sdk.output.CreateTransactionResponse;
 
 import javax.ws.rs.client.WebTarget;
@@ -27,22 +28,37 @@ public class TransDirectPaymentMsgProcess extends AbstractMakeRequestMessageProc
         super(resource, requestPath);
     }
 
+    /**
+     * @param transport The transport to call Rapid API
+     * @param requestPath Path of request URL. Used to make full web service URL
+     */
+    public TransDirectPaymentMsgProcess(HttpTransport transport, String... requestPath) {
+        super(transport, requestPath);
+    }
+
+    /**
+     * @param requestPath Path of request URL. Used to make full web service URL
+     */
+    public TransDirectPaymentMsgProcess(String... requestPath) {
+        super(requestPath);
+    }
+
     @Override
     protected Request createRequest(Transaction input) throws RapidSdkException {
-        BeanConverter<Transaction, DirectPaymentRequest> reqConverter = new TransactionToDirectPaymentConverter();
+        BeanConverter<Transaction, DirectPaymentRequest> reqConverter = Converters.TRANSACTION_TO_DIRECT_PAYMENT;
         return reqConverter.doConvert(input);
     }
 
     @Override
-    protected CreateTransactionResponse makeResult(Response res) throws RapidSdkException {
+    protected CreateTransactionResponse makeResult(Response res, MessageContext<Transaction> context) throws RapidSdkException {
         DirectPaymentResponse response = (DirectPaymentResponse) res;
-        BeanConverter<DirectPaymentResponse, CreateTransactionResponse> converter = new DirectPaymentToCreateTransConverter();
+        BeanConverter<DirectPaymentResponse, CreateTransactionResponse> converter = Converters.DIRECT_PAYMENT_TO_CREATE_TRANS;
         return converter.doConvert(response);
     }
 
     @Override
-    protected Response sendRequest(Request req) throws RapidSdkException {
-        return doPost(req, DirectPaymentResponse.class);
+    protected Response sendRequest(Request req, MessageContext<Transaction> context) throws RapidSdkException {
+        return doPost(req, DirectPaymentResponse.class, context);
     }
 
 }
@@ -4,8 +4,10 @@ import com.eway.payment.rapid.sdk.entities.Response;
 import com.eway.payment.rapid.sdk.entities.TransactionSearchResponse;
 import com.eway.payment.rapid.sdk.exception.RapidSdkException;
 import com.eway.payment.rapid.sdk.message.convert.BeanConverter;
-import com.eway.payment.rapid.sdk.message.convert.response.SearchToQueryTransConverter;
+import com.eway.payment.rapid.sdk.message.convert.Converters;
 import com.eway.payment.rapid.sdk.message.process.AbstractMessageProcess;
+import com.eway.payment.rapid.sdk.message.process.MessageContext;
+import com.eway.payment.rapid.sdk.message.process.transport.HttpTransport;
 import com.eway.payment.rapid.sdk.output.QueryTransactionResponse;
 
 import org.apache.commons.lang3.StringUtils;
@@ -24,15 +26,30 @@ public class TransQueryMsgProcess extends AbstractMessageProcess<String, QueryTr
         super(resource, requestPath);
     }
 
+    /**
+     * @param transport The transport to call Rapid API
+     * @param requestPath Path of request URL. Used to make full web service URL
+     */
+    public TransQueryMsgProcess(HttpTransport transport, String... requestPath) {
+        super(transport, requestPath);
+    }
+
+    /**
+     * @param requestPath Path of request URL. Used to make full web service URL
+     */
+    public TransQueryMsgProcess(String... requestPath) {
+        super(requestPath);
+    }
+
     @Override
-    protected Response processPostMsg(String req) throws RapidSdkException {
-        return doGet(StringUtils.isBlank(req) ? "0" : req, TransactionSearchResponse.class);
+    protected Response processPostMsg(String req, MessageContext<String> context) throws RapidSdkException {
+        return doGet(StringUtils.isBlank(req) ? "0" : req, TransactionSearchResponse.class, context);
     }
 
     @Override
-    protected QueryTransactionResponse makeResult(Response res) throws RapidSdkException {
+    protected QueryTransactionResponse makeResult(Response res, MessageContext<String> context) throws RapidSdkException {
         TransactionSearchResponse response = (TransactionSearchResponse) res;
-        BeanConverter<TransactionSearchResponse, QueryTransactionResponse> converter = new SearchToQueryTransConverter();
+        BeanConverter<TransactionSearchResponse, QueryTransactionResponse> converter = Converters.SEARCH_TO_QUERY_TRANS;
         return converter.doConvert(response);
     }
 
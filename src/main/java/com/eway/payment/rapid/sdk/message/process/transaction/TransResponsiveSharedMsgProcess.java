@@ -7,9 +7,10 @@ import com.eway.payment.rapid.sdk.entities.Request;
 import com.eway.payment.rapid.sdk.entities.Response;
 import com.eway.payment.rapid.sdk.exception.RapidSdkException;
 import com.eway.payment.rapid.sdk.message.convert.BeanConverter;
-import com.eway.payment.rapid.sdk.message.convert.request.TransactionToCreateAccessCodeSharedRequestConverter;
-import com.eway.payment.rapid.sdk.message.convert.response.AccessCodeSharedToCreateTransConverter;
+import com.eway.payment.rapid.sdk.message.convert.Converters;
 import com.eway.payment.rapid.sdk.message.process.AbstractMakeRequestMessageProcess;
+import com.eway.payment.rapid.sdk.message.process.MessageContext;
+import com.eway.payment.rapid.sdk.message.process.transport.HttpTransport;
 import com.eway.payment.rapid.sdk.output.CreateTransactionResponse;
 
 import javax.ws.rs.client.WebTarget;
@@ -27,22 +28,37 @@ public class TransResponsiveSharedMsgProcess extends AbstractMakeRequestMessageP
         super(resource, requestPath);
     }
 
+    /**
+     * @param transport The transport to call Rapid API
+     * @param requestPath Path of request URL. Used to make full web service URL
+     */
+    public TransResponsiveSharedMsgProcess(HttpTransport transport, String... requestPath) {
+        super(transport, requestPath);
+    }
+
+    /**
+     * @param requestPath Path of request URL. Used to make full web service URL
+     */
+    public TransResponsiveSharedMsgProcess(String... requestPath) {
+        super(requestPath);
+    }
+
     @Override
     protected Request createRequest(Transaction input) throws RapidSdkException {
-        BeanConverter<Transaction, CreateAccessCodeSharedRequest> converter = new TransactionToCreateAccessCodeSharedRequestConverter();
+        BeanConverter<Transaction, CreateAccessCodeSharedRequest> converter = Converters.TRANSACTION_TO_CREATE_ACCESS_CODE_SHARED_REQUEST;
         return converter.doConvert(input);
     }
 
     @Override
-    protected CreateTransactionResponse makeResult(Response res) throws RapidSdkException {
+    protected CreateTransactionResponse makeResult(Response res, MessageContext<Transaction> context) throws RapidSdkException {
         CreateAccessCodeSharedResponse response = (CreateAccessCodeSharedResponse) res;
-        BeanConverter<CreateAccessCodeSharedResponse, CreateTransactionResponse> convert = new AccessCodeSharedToCreateTransConverter();
+        BeanConverter<CreateAccessCodeSharedResponse, CreateTransactionResponse> convert = Converters.ACCESS_CODE_SHARED_TO_CREATE_TRANS;
         return convert.doConvert(response);
     }
 
     @Override
-    protected Response sendRequest(Request req) throws RapidSdkException {
-        return doPost(req, CreateAccessCodeSharedResponse.class);
+    protected Response sendRequest(Request req, MessageContext<Transaction> context) throws RapidSdkException {
+        return doPost(req, CreateAccessCodeSharedResponse.class, context);
     }
 
 }
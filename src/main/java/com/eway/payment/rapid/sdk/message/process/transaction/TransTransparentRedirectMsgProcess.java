@@ -7,9 +7,10 @@ import com.eway.payment.rapid.sdk.entities.Request;
 import com.eway.payment.rapid.sdk.entities.Response;
 import com.eway.payment.rapid.sdk.exception.RapidSdkException;
 import com.eway.payment.rapid.sdk.message.convert.BeanConverter;
-import com.eway.payment.rapid.sdk.message.convert.request.TransactionToCreateAccessCodeRequestConverter;
-import com.eway.payment.rapid.sdk.message.convert.response.AccessCodeToCreateTransConverter;
+import com.eway.payment.rapid.sdk.message.convert.Converters;
 import com.eway.payment.rapid.sdk.message.process.AbstractMakeRequestMessageProcess;
+import com.eway.payment.rapid.sdk.message.process.MessageContext;
+import com.eway.payment.rapid.sdk.message.process.transport.HttpTransport;
 import com.eway.payment.rapid.sdk.output.CreateTransactionResponse;
 
 import javax.ws.rs.client.WebTarget;
@@ -23,22 +24,30 @@ public class TransTransparentRedirectMsgProcess extends AbstractMakeRequestMessa
         super(resource, requestPath);
     }
 
+    public TransTransparentRedirectMsgProcess(HttpTransport transport, String... requestPath) {
+        super(transport, requestPath);
+    }
+
+    public TransTransparentRedirectMsgProcess(String... requestPath) {
+        super(requestPath);
+    }
+
     @Override
     protected Request createRequest(Transaction input) throws RapidSdkException {
-        BeanConverter<Transaction, CreateAccessCodeRequest> converter = new TransactionToCreateAccessCodeRequestConverter();
+        BeanConverter<Transaction, CreateAccessCodeRequest> converter = Converters.TRANSACTION_TO_CREATE_ACCESS_CODE_REQUEST;
         return converter.doConvert(input);
     }
 
     @Override
-    protected CreateTransactionResponse makeResult(Response res) throws RapidSdkException {
+    protected CreateTransactionResponse makeResult(Response res, MessageContext<Transaction> context) throws RapidSdkException {
         CreateAccessCodeResponse response = (CreateAccessCodeResponse) res;
-        BeanConverter<CreateAccessCodeResponse, CreateTransactionResponse> convert = new AccessCodeToCreateTransConverter();
+        BeanConverter<CreateAccessCodeResponse, CreateTransactionResponse> convert = Converters.ACCESS_CODE_TO_CREATE_TRANS;
         return convert.doConvert(response);
     }
 
     @Override
-    protected Response sendRequest(Request req) throws RapidSdkException {
-        return doPost(req, CreateAccessCodeResponse.class);
+    protected Response sendRequest(Request req, MessageContext<Transaction> context) throws RapidSdkException {
+        return doPost(req, CreateAccessCodeResponse.class, context);
     }
 
 }
@@ -0,0 +1,73 @@
+package com.eway.payment.rapid.sdk.message.process.transport;
+
+/**
+ * A snapshot of a client's HTTP connection pool
+ */
+public class ConnectionPoolStats {
+
+    private final int leased;
+    private final int idle;
+    private final int pending;
+    private final int max;
+    private final long leaseCount;
+    private final long totalLeaseWaitNanos;
+
+    public ConnectionPoolStats(int leased, int idle, int pending, int max, long leaseCount, long totalLeaseWaitNanos) {
+        this.leased = leased;
+        this.idle = idle;
+        this.pending = pending;
+        this.max = max;
+        this.leaseCount = leaseCount;
+        this.totalLeaseWaitNanos = totalLeaseWaitNanos;
+    }
+
+    /**
+     * @return Number of connections currently carrying a request
+     */
+    public int getLeased() {
+        return leased;
+    }
+
+    /**
+     * @return Number of open connections kept alive for reuse
+     */
+    public int getIdle() {
+        return idle;
+    }
+
+    /**
+     * @return Number of requests waiting for a connection. Anything above
+     * zero means the pool is saturated.
+     */
+    public int getPending() {
+        return pending;
+    }
+
+    /**
+     * @return The maximum number of connections the pool opens
+     */
+    public int getMax() {
+        return max;
+    }
+
+    /**
+     * @return Number of connections leased since the pool was created
+     */
+    public long getLeaseCount() {
+        return leaseCount;
+    }
+
+    /**
+     * @return The average time a request waited to lease a connection, in
+     * milliseconds
+     */
+    public double getAverageLeaseWaitMillis() {
+        return leaseCount > 0 ? totalLeaseWaitNanos / (double) leaseCount / 1000000d : 0d;
+    }
+
+    @Override
+    public String toString() {
+        return "ConnectionPoolStats[leased=" + leased + ", idle=" + idle + ", pending=" + pending + ", max=" + max
+                + ", leaseCount=" + leaseCount + ", averageLeaseWaitMillis=" + getAverageLeaseWaitMillis() + "]";
+    }
+}
@@ -0,0 +1,109 @@
+package com.eway.payment.rapid.sdk.message.process.transport;
+
+/**
+ * The time limits of one Rapid API call. The connect and read timeouts
+ * apply to each request, and are shortened so no request runs past the
+ * deadline of the whole call.
+ */
+public final class Deadline {
+
+    /**
+     * No limits
+     */
+    public static final Deadline NONE = new Deadline(0, 0, 0);
+
+    private final long connectTimeoutMillis;
+    private final long readTimeoutMillis;
+    private final long expiresAtNanos;
+    private final boolean bounded;
+
+    private Deadline(long connectTimeoutMillis, long readTimeoutMillis, long deadlineMillis) {
+        this.connectTimeoutMillis = connectTimeoutMillis;
+        this.readTimeoutMillis = readTimeoutMillis;
+        this.bounded = deadlineMillis > 0;
+        this.expiresAtNanos = bounded ? System.nanoTime() + deadlineMillis * 1000000L : 0;
+    }
+
+    /**
+     * Start timing a call
+     *
+     * @param connectTimeoutMillis How long each request waits to connect, 0
+     * for no limit
+     * @param readTimeoutMillis How long each request waits for data, 0 for
+     * no limit
+     * @param deadlineMillis How long the whole call may take from now, 0 for
+     * no limit
+     * @return The deadline
+     */
+    public static Deadline start(long connectTimeoutMillis, long readTimeoutMillis, long deadlineMillis) {
+        if (connectTimeoutMillis <= 0 && readTimeoutMillis <= 0 && deadlineMillis <= 0) {
+            return NONE;
+        }
+        return new Deadline(connectTimeoutMillis, readTimeoutMillis, deadlineMillis);
+    }
+
+    /**
+     * @return true if the call has a deadline and it has passed
+     */
+    public boolean isExpired() {
+        return bounded && System.nanoTime() - expiresAtNanos >= 0;
+    }
+
+    /**
+     * @return Milliseconds left before the deadline, or
+     * {@code Long.MAX_VALUE} if there is none
+     */
+    public long remainingMillis() {
+        if (!bounded) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0, (expiresAtNanos - System.nanoTime()) / 1000000L);
+    }
+
+    /**
+     * @return true if the deadline is nearer than the connect timeout, so a
+     * request that fails to connect in time now does so because of it
+     */
+    public boolean limitsConnectTimeout() {
+        return limits(connectTimeoutMillis);
+    }
+
+    /**
+     * @return true if the deadline is nearer than the read timeout, so a
+     * request that times out reading now does so because of it
+     */
+    public boolean limitsReadTimeout() {
+        return limits(readTimeoutMillis);
+    }
+
+    /**
+     * @return The connect timeout for the next request in milliseconds, 0
+     * for no limit
+     */
+    public int connectTimeoutMillis() {
+        return cap(connectTimeoutMillis);
+    }
+
+    /**
+     * @return The read timeout for the next request in milliseconds, 0 for
+     * no limit
+     */
+    public int readTimeoutMillis() {
+        return cap(readTimeoutMillis);
+    }
+
+    private boolean limits(long timeoutMillis) {
+        return bounded && (timeoutMillis <= 0 || cap(timeoutMillis) < timeoutMillis);
+    }
+
+    private int cap(long timeoutMillis) {
+        long capped = timeoutMillis;
+        if (bounded) {
+            // rounded up so the timeout does not fire just before the deadline,
+            // and 0 means no limit to the HTTP clients, so never go below 1ms
+            long remaining = Math.max(1, (expiresAtNanos - System.nanoTime() + 999999L) / 1000000L);
+            capped = timeoutMillis > 0 ? Math.min(timeoutMillis, remaining) : remaining;
+        }
+        return (int) Math.min(Integer.MAX_VALUE, capped);
+    }
+}
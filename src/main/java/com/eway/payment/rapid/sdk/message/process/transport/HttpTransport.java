@@ -0,0 +1,72 @@
+package com.eway.payment.rapid.sdk.message.process.transport;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Sends JSON requests to the Rapid API. A transport is bound to one endpoint
+ * and adds the Rapid headers and credentials to every request itself, so
+ * message processes only deal with paths and bodies. Implementations must be
+ * safe to use from many threads.
+ */
+public interface HttpTransport extends AutoCloseable {
+
+    /**
+     * Send a request and wait for the response
+     *
+     * @param method The HTTP method
+     * @param path The encoded path, relative to the endpoint
+     * @param body The JSON request body, or {@code null} for none
+     * @param deadline The time limits of the request
+     * @return The response status and body
+     * @throws IOException if the request could not be sent or the response
+     * could not be read, including when it timed out
+     */
+    TransportResponse send(String method, String path, byte[] body, Deadline deadline) throws IOException;
+
+    /**
+     * Send a request without blocking the calling thread
+     *
+     * @param method The HTTP method
+     * @param path The encoded path, relative to the endpoint
+     * @param body The JSON request body, or {@code null} for none
+     * @param deadline The time limits of the request
+     * @return A future completed with the response, or exceptionally with an
+     * IOException
+     */
+    CompletableFuture<TransportResponse> sendAsync(String method, String path, byte[] body, Deadline deadline);
+
+    /**
+     * Open a connection to the endpoint ahead of the first request, to check
+     * it can be reached. Transports keep the connection for later requests
+     * where they can, so the first request does not pay for another TLS
+     * handshake.
+     *
+     * @param deadline The time limits of the connection attempt
+     * @throws IOException if the endpoint cannot be reached
+     */
+    void connect(Deadline deadline) throws IOException;
+
+    /**
+     * Open several connections to the endpoint ahead of the first requests,
+     * so that many requests can start at once without waiting for a
+     * handshake. Transports that only keep one connection open one.
+     *
+     * @param connections How many connections to open
+     * @param deadline The time limits of each connection attempt
+     * @throws IOException if the endpoint cannot be reached
+     */
+    default void connect(int connections, Deadline deadline) throws IOException {
+        connect(deadline);
+    }
+
+    /**
+     * @return true if the transport logs its traffic
+     */
+    boolean isDebug();
+
+    /**
+     * Release the connections held by the transport
+     */
+    void close();
+}
@@ -0,0 +1,164 @@
+package com.eway.payment.rapid.sdk.message.process.transport;
+
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpHost;
+import org.apache.http.config.Registry;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ConnectionRequest;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.impl.conn.DefaultSchemePortResolver;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.BasicHttpContext;
+import org.apache.http.protocol.HttpContext;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pooling connection manager for the Jersey transport that caps how long a
+ * connection is kept alive while idle, closes expired connections as
+ * requests arrive, and records how long requests wait for a connection.
+ */
+public class InstrumentedConnectionManager extends PoolingHttpClientConnectionManager {
+
+    private final long idleTimeoutMillis;
+    private final AtomicLong leases = new AtomicLong();
+    private final AtomicLong leaseWaitNanos = new AtomicLong();
+    private final AtomicLong nextEviction = new AtomicLong();
+
+    /**
+     * @param registry The socket factories for each scheme
+     * @param idleTimeoutMillis How long an idle connection is kept alive, 0
+     * to keep it for as long as the server allows
+     */
+    public InstrumentedConnectionManager(Registry<ConnectionSocketFactory> registry, long idleTimeoutMillis) {
+        super(registry);
+        this.idleTimeoutMillis = idleTimeoutMillis;
+    }
+
+    @Override
+    public ConnectionRequest requestConnection(HttpRoute route, Object state) {
+        evictExpired();
+        final ConnectionRequest request = super.requestConnection(route, state);
+        return new ConnectionRequest() {
+            public HttpClientConnection get(long timeout, TimeUnit tunit)
+                    throws InterruptedException, ExecutionException, ConnectionPoolTimeoutException {
+                long start = System.nanoTime();
+                try {
+                    return request.get(timeout, tunit);
+                } finally {
+                    leaseWaitNanos.addAndGet(System.nanoTime() - start);
+                    leases.incrementAndGet();
+                }
+            }
+
+            public boolean cancel() {
+                return request.cancel();
+            }
+        };
+    }
+
+    @Override
+    public void releaseConnection(HttpClientConnection managedConn, Object state, long keepalive, TimeUnit tunit) {
+        if (idleTimeoutMillis > 0 && (keepalive <= 0 || tunit.toMillis(keepalive) > idleTimeoutMillis)) {
+            keepalive = idleTimeoutMillis;
+            tunit = TimeUnit.MILLISECONDS;
+        }
+        super.releaseConnection(managedConn, state, keepalive, tunit);
+    }
+
+    /**
+     * Open a connection to a host, completing the TLS handshake for HTTPS,
+     * and leave it idle in the pool for the next request to that host
+     *
+     * @param uri A URL on the host
+     * @param connectTimeoutMillis How long to wait to lease and connect, 0
+     * for no limit
+     * @throws IOException if the host cannot be connected to
+     */
+    public void preconnect(URI uri, int connectTimeoutMillis) throws IOException {
+        preconnect(uri, 1, connectTimeoutMillis);
+    }
+
+    /**
+     * Open connections to a host, completing the TLS handshake for HTTPS,
+     * and leave them idle in the pool for the next requests to that host.
+     * Connections already open in the pool count towards the number.
+     *
+     * @param uri A URL on the host
+     * @param connections How many connections to open, capped at the
+     * connections allowed per host
+     * @param connectTimeoutMillis How long to wait to lease and connect each
+     * connection, 0 for no limit
+     * @throws IOException if the host cannot be connected to
+     */
+    public void preconnect(URI uri, int connections, int connectTimeoutMillis) throws IOException {
+        HttpHost host = new HttpHost(uri.getHost(), uri.getPort(), uri.getScheme());
+        // the route HttpClient plans for the same URL, so requests lease this connection
+        HttpHost target = new HttpHost(host.getHostName(), DefaultSchemePortResolver.INSTANCE.resolve(host), host.getSchemeName());
+        HttpRoute route = new HttpRoute(target, null, "https".equalsIgnoreCase(target.getSchemeName()));
+        int count = Math.max(1, Math.min(connections, getMaxPerRoute(route)));
+        // hold every connection until all are open, so each lease gets a different one
+        List<HttpClientConnection> leased = new ArrayList<HttpClientConnection>(count);
+        try {
+            for (int i = 0; i < count; i++) {
+                HttpClientConnection connection = lease(route, connectTimeoutMillis);
+                leased.add(connection);
+                if (!connection.isOpen()) {
+                    HttpContext context = new BasicHttpContext();
+                    connect(connection, route, connectTimeoutMillis, context);
+                    routeComplete(connection, route, context);
+                }
+            }
+        } finally {
+            // a connection that failed to open is discarded rather than pooled
+            for (HttpClientConnection connection : leased) {
+                releaseConnection(connection, null, 0, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private HttpClientConnection lease(HttpRoute route, int timeoutMillis) throws IOException {
+        try {
+            // not counted as a lease, no request waits for it
+            return super.requestConnection(route, null).get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for a connection");
+        } catch (ExecutionException e) {
+            throw new IOException(e.getCause() != null ? e.getCause().getMessage() : e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @return A snapshot of the pool
+     */
+    public ConnectionPoolStats getStats() {
+        PoolStats totals = getTotalStats();
+        return new ConnectionPoolStats(totals.getLeased(), totals.getAvailable(), totals.getPending(), totals.getMax(),
+                leases.get(), leaseWaitNanos.get());
+    }
+
+    /**
+     * Close the connections whose keep-alive has run out, at most once a
+     * second, so idle sockets are released without a background thread
+     */
+    private void evictExpired() {
+        if (idleTimeoutMillis <= 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long next = nextEviction.get();
+        if (now >= next && nextEviction.compareAndSet(next, now + 1000)) {
+            closeExpiredConnections();
+        }
+    }
+}
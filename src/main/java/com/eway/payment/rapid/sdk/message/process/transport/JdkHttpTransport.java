@@ -0,0 +1,218 @@
+package com.eway.payment.rapid.sdk.message.process.transport;
+
+import com.eway.payment.rapid.sdk.RapidClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.net.ssl.SSLContext;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Transport using the {@code java.net.http.HttpClient} of Java 11 or later.
+ * It negotiates HTTP/2 where the endpoint supports it, multiplexing requests
+ * over one connection, and sends asynchronous requests without blocking a
+ * thread.
+ */
+public class JdkHttpTransport implements HttpTransport {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RapidClient.class);
+
+    private static final String JSON = "application/json";
+
+    private final HttpClient client;
+    private final String endpointUrl;
+    private final String[] headers;
+    private final boolean debug;
+
+    /**
+     * @param client The HTTP client to send requests with
+     * @param endpointUrl The Rapid endpoint URL
+     * @param headers Headers added to every request
+     * @param debug true to log requests and responses
+     */
+    public JdkHttpTransport(HttpClient client, String endpointUrl, Map<String, String> headers, boolean debug) {
+        this.client = client;
+        this.endpointUrl = endpointUrl.endsWith("/") ? endpointUrl : endpointUrl + "/";
+        Map<String, String> all = new LinkedHashMap<String, String>(headers);
+        all.put("Accept", JSON);
+        this.headers = new String[all.size() * 2];
+        int i = 0;
+        for (Map.Entry<String, String> header : all.entrySet()) {
+            this.headers[i++] = header.getKey();
+            this.headers[i++] = header.getValue();
+        }
+        this.debug = debug;
+    }
+
+    /**
+     * Create a transport with its own HTTP client
+     *
+     * @param endpointUrl The Rapid endpoint URL
+     * @param sslContext The SSL context for HTTPS connections
+     * @param headers Headers added to every request
+     * @param connectTimeoutMillis How long to wait to connect, 0 for no
+     * limit. The JDK client only supports one connect timeout, so it is not
+     * shortened by a request's deadline.
+     * @param debug true to log requests and responses
+     * @return The transport
+     */
+    public static JdkHttpTransport create(String endpointUrl, SSLContext sslContext, Map<String, String> headers,
+            long connectTimeoutMillis, boolean debug) {
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .sslContext(sslContext);
+        if (connectTimeoutMillis > 0) {
+            builder.connectTimeout(Duration.ofMillis(connectTimeoutMillis));
+        }
+        return new JdkHttpTransport(builder.build(), endpointUrl, headers, debug);
+    }
+
+    public TransportResponse send(String method, String path, byte[] body, Deadline deadline) throws IOException {
+        HttpRequest request = buildRequest(method, path, body, deadline);
+        try {
+            return toTransportResponse(client.send(request, HttpResponse.BodyHandlers.ofByteArray()));
+        } catch (HttpTimeoutException e) {
+            throw timeout(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            InterruptedIOException interrupted = new InterruptedIOException("Interrupted waiting for Rapid API");
+            interrupted.initCause(e);
+            throw interrupted;
+        }
+    }
+
+    public CompletableFuture<TransportResponse> sendAsync(String method, String path, byte[] body, Deadline deadline) {
+        HttpRequest request;
+        try {
+            request = buildRequest(method, path, body, deadline);
+        } catch (IOException e) {
+            CompletableFuture<TransportResponse> failed = new CompletableFuture<TransportResponse>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .handle((response, t) -> {
+                    if (t != null) {
+                        Throwable cause = t instanceof CompletionException && t.getCause() != null ? t.getCause() : t;
+                        if (cause instanceof HttpTimeoutException) {
+                            throw new CompletionException(timeout((HttpTimeoutException) cause));
+                        }
+                        throw new CompletionException(cause instanceof IOException ? cause : new IOException(cause.getMessage(), cause));
+                    }
+                    return toTransportResponse(response);
+                });
+    }
+
+    /**
+     * Sends a HEAD request to the endpoint, leaving the connection open in
+     * the client for later requests
+     */
+    public void connect(Deadline deadline) throws IOException {
+        send("HEAD", "", null, deadline);
+    }
+
+    /**
+     * Sends HEAD requests to the endpoint at the same time, so the client
+     * opens a connection for each of them. Over HTTP/2 the requests share a
+     * connection and only one is opened.
+     */
+    public void connect(int connections, Deadline deadline) throws IOException {
+        if (connections <= 1) {
+            connect(deadline);
+            return;
+        }
+        List<CompletableFuture<TransportResponse>> heads = new ArrayList<CompletableFuture<TransportResponse>>(connections);
+        for (int i = 0; i < connections; i++) {
+            heads.add(sendAsync("HEAD", "", null, deadline));
+        }
+        try {
+            for (CompletableFuture<TransportResponse> head : heads) {
+                head.join();
+            }
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e.getMessage(), e);
+        }
+    }
+
+    public boolean isDebug() {
+        return debug;
+    }
+
+    /**
+     * The JDK client has no close operation before Java 21; its idle
+     * connections are released when it is garbage collected.
+     */
+    public void close() {
+        if (client instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) client).close();
+            } catch (Exception e) {
+                LOGGER.debug("Error closing HTTP client", e);
+            }
+        }
+    }
+
+    private HttpRequest buildRequest(String method, String path, byte[] body, Deadline deadline) throws IOException {
+        URI uri;
+        try {
+            uri = URI.create(endpointUrl + path);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Invalid Rapid API URL: " + endpointUrl + path, e);
+        }
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri).headers(headers);
+        if (body != null) {
+            builder.header("Content-Type", JSON).method(method, HttpRequest.BodyPublishers.ofByteArray(body));
+        } else {
+            builder.method(method, HttpRequest.BodyPublishers.noBody());
+        }
+        // the JDK client times the whole response rather than each read
+        int timeout = deadline.readTimeoutMillis();
+        if (timeout > 0) {
+            builder.timeout(Duration.ofMillis(timeout));
+        }
+        if (debug) {
+            LOGGER.info("Sending " + method + " " + uri + (body != null ? "\n" + new String(body, StandardCharsets.UTF_8) : ""));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Report a timeout of the JDK client as the exception the other
+     * transports report, so code shared with Java 8 runtimes never loads a
+     * {@code java.net.http} class to recognise it. A connect timeout is a
+     * failure to connect, which the request never got past; the request
+     * timeout is the read timeout of the deadline.
+     */
+    private static IOException timeout(HttpTimeoutException e) {
+        IOException timeout = e instanceof HttpConnectTimeoutException
+                ? new ConnectException(e.getMessage()) : new SocketTimeoutException(e.getMessage());
+        timeout.initCause(e);
+        return timeout;
+    }
+
+    private TransportResponse toTransportResponse(HttpResponse<byte[]> response) {
+        if (debug) {
+            LOGGER.info("Received " + response.statusCode() + " from " + response.uri()
+                    + "\n" + new String(response.body(), StandardCharsets.UTF_8));
+        }
+        return new TransportResponse(response.statusCode(), response.body());
+    }
+}
@@ -0,0 +1,142 @@
+package com.eway.payment.rapid.sdk.message.process.transport;
+
+import com.eway.payment.rapid.sdk.util.Constant;
+import org.glassfish.jersey.client.ClientProperties;
+
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.client.Invocation;
+import javax.ws.rs.client.InvocationCallback;
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Transport using a JAX-RS client. The Rapid headers and JSON support come
+ * from the filters and features registered on that client.
+ */
+public class JerseyTransport implements HttpTransport {
+
+    private final WebTarget target;
+    private final Client client;
+    private final InstrumentedConnectionManager connectionManager;
+
+    /**
+     * Send requests through a web target. The client that created it stays
+     * open when the transport is closed.
+     *
+     * @param target The web target of the Rapid endpoint
+     */
+    public JerseyTransport(WebTarget target) {
+        this.target = target;
+        this.client = null;
+        this.connectionManager = null;
+    }
+
+    /**
+     * Send requests through a client, which is closed with the transport
+     *
+     * @param client The configured client
+     * @param endpointUrl The Rapid endpoint URL
+     */
+    public JerseyTransport(Client client, String endpointUrl) {
+        this(client, endpointUrl, null);
+    }
+
+    /**
+     * Send requests through a client, which is closed with the transport
+     *
+     * @param client The configured client
+     * @param endpointUrl The Rapid endpoint URL
+     * @param connectionManager The connection manager of the client, used
+     * to open connections ahead of requests, or {@code null}
+     */
+    public JerseyTransport(Client client, String endpointUrl, InstrumentedConnectionManager connectionManager) {
+        this.target = client.target(endpointUrl);
+        this.client = client;
+        this.connectionManager = connectionManager;
+    }
+
+    public TransportResponse send(String method, String path, byte[] body, Deadline deadline) throws IOException {
+        try {
+            return toTransportResponse(request(path, deadline).method(method, entity(body)));
+        } catch (ProcessingException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    public CompletableFuture<TransportResponse> sendAsync(String method, String path, byte[] body, Deadline deadline) {
+        final CompletableFuture<TransportResponse> result = new CompletableFuture<TransportResponse>();
+        try {
+            request(path, deadline).async()
+                    .method(method, entity(body), new InvocationCallback<Response>() {
+                        public void completed(Response response) {
+                            try {
+                                result.complete(toTransportResponse(response));
+                            } catch (ProcessingException e) {
+                                result.completeExceptionally(new IOException(e.getMessage(), e));
+                            }
+                        }
+
+                        public void failed(Throwable t) {
+                            result.completeExceptionally(new IOException(t.getMessage(), t));
+                        }
+                    });
+        } catch (ProcessingException e) {
+            result.completeExceptionally(new IOException(e.getMessage(), e));
+        }
+        return result;
+    }
+
+    /**
+     * Opens a pooled connection when the transport knows the client's
+     * connection manager, otherwise sends a HEAD request to the endpoint
+     */
+    public void connect(Deadline deadline) throws IOException {
+        connect(1, deadline);
+    }
+
+    public void connect(int connections, Deadline deadline) throws IOException {
+        if (connectionManager != null) {
+            connectionManager.preconnect(target.getUri(), connections, deadline.connectTimeoutMillis());
+        } else {
+            send(HttpMethod.HEAD, "", null, deadline);
+        }
+    }
+
+    public boolean isDebug() {
+        return Boolean.TRUE.equals(target.getConfiguration().getProperty(Constant.RAPID_SDK_DEBUG_PROPERTY));
+    }
+
+    public void close() {
+        if (client != null) {
+            client.close();
+        }
+    }
+
+    private Invocation.Builder request(String path, Deadline deadline) {
+        Invocation.Builder request = target.path(path).request().accept(MediaType.APPLICATION_JSON_TYPE);
+        if (deadline != Deadline.NONE) {
+            request.property(ClientProperties.CONNECT_TIMEOUT, deadline.connectTimeoutMillis())
+                    .property(ClientProperties.READ_TIMEOUT, deadline.readTimeoutMillis());
+        }
+        return request;
+    }
+
+    private static Entity<byte[]> entity(byte[] body) {
+        return body != null ? Entity.entity(body, MediaType.APPLICATION_JSON_TYPE) : null;
+    }
+
+    private static TransportResponse toTransportResponse(Response response) {
+        try {
+            return new TransportResponse(response.getStatus(),
+                    response.hasEntity() ? response.readEntity(byte[].class) : null);
+        } finally {
+            response.close();
+        }
+    }
+}
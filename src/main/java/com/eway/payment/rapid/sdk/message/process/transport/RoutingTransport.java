@@ -0,0 +1,264 @@
+package com.eway.payment.rapid.sdk.message.process.transport;
+
+import com.eway.payment.rapid.sdk.RapidClient;
+import com.eway.payment.rapid.sdk.resilience.EndpointRouter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Transport over several Rapid endpoints, such as regional proxies in front
+ * of Rapid, with one transport to each. The router picks the endpoint of
+ * every request and is told how it went: communication failures and HTTP
+ * 5xx responses count against the endpoint, and the round trip time of the
+ * others goes into its moving average. A request interrupted by its caller
+ * counts for neither.
+ * <p>
+ * A request can also be sent through a {@link Route}, which picks its
+ * endpoint ahead of sending, so that the caller can look up what belongs
+ * to that endpoint, such as its circuit breaker.
+ * <p>
+ * Ejected endpoints are probed by connecting to them on the executor, once
+ * a request finds a probe due, so an idle client does not probe.
+ */
+public class RoutingTransport implements HttpTransport {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RapidClient.class);
+
+    private final List<HttpTransport> transports;
+    private final EndpointRouter router;
+    private final Executor executor;
+    private final long probeTimeoutMillis;
+
+    /**
+     * @param transports One transport to each endpoint, in the order of the
+     * router's endpoints
+     * @param router Picks the endpoint of each request
+     * @param executor Runs the probes of ejected endpoints
+     * @param probeTimeoutMillis How long a probe waits to connect, 0 for no
+     * limit
+     */
+    public RoutingTransport(List<HttpTransport> transports, EndpointRouter router, Executor executor,
+            long probeTimeoutMillis) {
+        if (transports.size() != router.size()) {
+            throw new IllegalArgumentException("One transport is needed for each endpoint of the router");
+        }
+        this.transports = new ArrayList<HttpTransport>(transports);
+        this.router = router;
+        this.executor = executor;
+        this.probeTimeoutMillis = probeTimeoutMillis;
+    }
+
+    public TransportResponse send(String method, String path, byte[] body, Deadline deadline) throws IOException {
+        return route().send(method, path, body, deadline);
+    }
+
+    /**
+     * Pick the endpoint of the next request. The route must be used for one
+     * request, or given up with {@link Route#release()} or
+     * {@link Route#reject()}.
+     *
+     * @return The route to the endpoint
+     */
+    public Route route() {
+        probeDueEndpoints();
+        return new Route(router.choose());
+    }
+
+    /**
+     * @return The number of endpoints
+     */
+    public int size() {
+        return transports.size();
+    }
+
+    private TransportResponse send(int endpoint, String method, String path, byte[] body, Deadline deadline)
+            throws IOException {
+        long start = System.nanoTime();
+        try {
+            TransportResponse response = transports.get(endpoint).send(method, path, body, deadline);
+            router.onResult(endpoint, System.nanoTime() - start, isServerError(response));
+            return response;
+        } catch (IOException e) {
+            onFailure(endpoint, start);
+            throw e;
+        } catch (RuntimeException e) {
+            onFailure(endpoint, start);
+            throw e;
+        }
+    }
+
+    public CompletableFuture<TransportResponse> sendAsync(String method, String path, byte[] body, Deadline deadline) {
+        probeDueEndpoints();
+        final int endpoint = router.choose();
+        final long start = System.nanoTime();
+        CompletableFuture<TransportResponse> response;
+        try {
+            response = transports.get(endpoint).sendAsync(method, path, body, deadline);
+        } catch (RuntimeException e) {
+            onFailure(endpoint, start);
+            throw e;
+        }
+        return response.whenComplete((result, t) -> {
+            if (t != null) {
+                router.onResult(endpoint, System.nanoTime() - start, true);
+            } else {
+                router.onResult(endpoint, System.nanoTime() - start, isServerError(result));
+            }
+        });
+    }
+
+    /**
+     * Connects to every endpoint, ejecting those that cannot be reached.
+     * Fails only if none can.
+     */
+    public void connect(Deadline deadline) throws IOException {
+        connect(1, deadline);
+    }
+
+    public void connect(int connections, Deadline deadline) throws IOException {
+        IOException failure = null;
+        boolean connected = false;
+        for (int i = 0; i < transports.size(); i++) {
+            try {
+                transports.get(i).connect(connections, deadline);
+                connected = true;
+            } catch (IOException e) {
+                LOGGER.warn("Could not connect to Rapid endpoint " + router.getUrl(i), e);
+                router.onUnreachable(i);
+                failure = e;
+            }
+        }
+        if (!connected) {
+            throw failure;
+        }
+    }
+
+    public boolean isDebug() {
+        return transports.get(0).isDebug();
+    }
+
+    public void close() {
+        for (HttpTransport transport : transports) {
+            transport.close();
+        }
+    }
+
+    private void onFailure(int endpoint, long start) {
+        if (Thread.currentThread().isInterrupted()) {
+            router.onCancelled(endpoint);
+        } else {
+            router.onResult(endpoint, System.nanoTime() - start, true);
+        }
+    }
+
+    private static boolean isServerError(TransportResponse response) {
+        return response.getStatus() >= 500;
+    }
+
+    /**
+     * A transport to the endpoint the router picked for one request. The
+     * request is reported to the router like any other; a route given up
+     * without sending is reported as cancelled, or as failed if the caller
+     * rejects the endpoint.
+     */
+    public final class Route implements HttpTransport {
+
+        private final int endpoint;
+        private final AtomicBoolean used = new AtomicBoolean();
+
+        private Route(int endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        /**
+         * @return The URL of the endpoint
+         */
+        public String getUrl() {
+            return router.getUrl(endpoint);
+        }
+
+        public TransportResponse send(String method, String path, byte[] body, Deadline deadline) throws IOException {
+            if (!used.compareAndSet(false, true)) {
+                throw new IllegalStateException("A route sends one request");
+            }
+            return RoutingTransport.this.send(endpoint, method, path, body, deadline);
+        }
+
+        /**
+         * Sends the request through the routing transport, which picks its
+         * own endpoint, and gives up this route
+         */
+        public CompletableFuture<TransportResponse> sendAsync(String method, String path, byte[] body, Deadline deadline) {
+            release();
+            return RoutingTransport.this.sendAsync(method, path, body, deadline);
+        }
+
+        public void connect(Deadline deadline) throws IOException {
+            transports.get(endpoint).connect(deadline);
+        }
+
+        public boolean isDebug() {
+            return RoutingTransport.this.isDebug();
+        }
+
+        /**
+         * The routing transport is closed by its owner
+         */
+        public void close() {
+            release();
+        }
+
+        /**
+         * Give up the route if no request was sent through it
+         */
+        public void release() {
+            if (used.compareAndSet(false, true)) {
+                router.onCancelled(endpoint);
+            }
+        }
+
+        /**
+         * Give up the route as failed without sending, because the caller
+         * will not use the endpoint right now; the router passes it over
+         * for the next request, and ejects it if it keeps being rejected
+         */
+        public void reject() {
+            if (used.compareAndSet(false, true)) {
+                router.onResult(endpoint, 0, true);
+            }
+        }
+    }
+
+    private void probeDueEndpoints() {
+        for (int endpoint = router.probeDue(); endpoint >= 0; endpoint = router.probeDue()) {
+            final int probed = endpoint;
+            try {
+                executor.execute(() -> {
+                    boolean connected = false;
+                    try {
+                        transports.get(probed).connect(Deadline.start(probeTimeoutMillis, probeTimeoutMillis, 0));
+                        connected = true;
+                    } catch (IOException e) {
+                        LOGGER.debug("Probe of Rapid endpoint " + router.getUrl(probed) + " failed", e);
+                    } catch (RuntimeException e) {
+                        LOGGER.debug("Probe of Rapid endpoint " + router.getUrl(probed) + " failed", e);
+                    } finally {
+                        router.onProbe(probed, connected);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // probed again after another interval
+                router.onProbe(probed, false);
+                return;
+            }
+        }
+    }
+}
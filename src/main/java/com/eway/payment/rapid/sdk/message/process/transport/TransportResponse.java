@@ -0,0 +1,42 @@
+package com.eway.payment.rapid.sdk.message.process.transport;
+
+/**
+ * The status and body of a response from the Rapid API
+ */
+public final class TransportResponse {
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private final int status;
+    private final byte[] body;
+
+    /**
+     * @param status The HTTP status code
+     * @param body The response body, or {@code null} if there is none
+     */
+    public TransportResponse(int status, byte[] body) {
+        this.status = status;
+        this.body = body != null ? body : EMPTY;
+    }
+
+    /**
+     * @return The HTTP status code
+     */
+    public int getStatus() {
+        return status;
+    }
+
+    /**
+     * @return The response body, empty if there is none
+     */
+    public byte[] getBody() {
+        return body;
+    }
+
+    /**
+     * @return true if the status is in the 2xx range
+     */
+    public boolean isSuccessful() {
+        return status >= 200 && status < 300;
+    }
+}
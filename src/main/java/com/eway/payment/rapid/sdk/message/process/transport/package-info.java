@@ -0,0 +1,4 @@
+/**
+ * This package contains the HTTP transports used by the message processors of the eWAY Rapid library
+ */
+package com.eway.payment.rapid.sdk.message.process.transport;
@@ -0,0 +1,203 @@
+package com.eway.payment.rapid.sdk.resilience;
+
+import com.eway.payment.rapid.sdk.RapidClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Stops calls to an endpoint that keeps failing, so callers fail at once
+ * instead of each waiting out a connect or read timeout. The breaker keeps
+ * the outcomes of the last calls in a window and opens when too many of them
+ * failed or were slow. After the open duration it lets a few probe calls
+ * through: it closes again if they all succeed and opens again if one does
+ * not.
+ */
+public final class CircuitBreaker {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RapidClient.class);
+
+    private static final byte FAILED = 1;
+    private static final byte SLOW = 2;
+
+    private final String endpoint;
+    private final CircuitBreakerPolicy policy;
+    private final CircuitBreakerListener listener;
+    private final long slowCallNanos;
+    private final long openNanos;
+
+    // a lock rather than synchronized so virtual threads do not pin
+    private final ReentrantLock lock = new ReentrantLock();
+    // guarded by lock: the outcomes of the last calls, as FAILED and SLOW flags
+    private final byte[] window;
+    private int recorded;
+    private int next;
+    private int windowFailures;
+    private int windowSlowCalls;
+    private volatile CircuitState state = CircuitState.CLOSED;
+    private long openedAtNanos;
+    private int probesLeft;
+    private int probesSucceeded;
+
+    private final AtomicLong successfulCalls = new AtomicLong();
+    private final AtomicLong failedCalls = new AtomicLong();
+    private final AtomicLong slowCalls = new AtomicLong();
+    private final AtomicLong rejectedCalls = new AtomicLong();
+    private final AtomicLong timesOpened = new AtomicLong();
+
+    /**
+     * @param endpoint The URL of the endpoint the breaker protects
+     * @param policy When the breaker opens and closes
+     * @param listener Told about state changes, or {@code null}
+     */
+    public CircuitBreaker(String endpoint, CircuitBreakerPolicy policy, CircuitBreakerListener listener) {
+        this.endpoint = endpoint;
+        this.policy = policy;
+        this.listener = listener;
+        this.slowCallNanos = policy.getSlowCallRateThreshold() > 0
+                ? TimeUnit.MILLISECONDS.toNanos(policy.getSlowCallDurationMillis()) : 0;
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(policy.getOpenDurationMillis());
+        this.window = new byte[policy.getWindowSize()];
+    }
+
+    /**
+     * Ask to make a call. A call that is let through must report its
+     * outcome to {@link #onResult(long, boolean)}.
+     *
+     * @return true if the call may go to the endpoint, false to fail it at
+     * once
+     */
+    public boolean tryAcquire() {
+        CircuitState from;
+        CircuitState to = null;
+        boolean permitted;
+        lock.lock();
+        try {
+            from = state;
+            if (state == CircuitState.OPEN && System.nanoTime() - openedAtNanos >= openNanos) {
+                to = transition(CircuitState.HALF_OPEN);
+            }
+            if (state == CircuitState.HALF_OPEN) {
+                permitted = probesLeft > 0;
+                if (permitted) {
+                    probesLeft--;
+                }
+            } else {
+                permitted = state == CircuitState.CLOSED;
+            }
+        } finally {
+            lock.unlock();
+        }
+        notifyListener(from, to);
+        if (!permitted) {
+            rejectedCalls.incrementAndGet();
+        }
+        return permitted;
+    }
+
+    /**
+     * Record the outcome of a call that was let through
+     *
+     * @param durationNanos How long the call took
+     * @param failed true if the call failed to reach the endpoint, passed
+     * its deadline or was answered with a server error
+     */
+    public void onResult(long durationNanos, boolean failed) {
+        boolean slow = slowCallNanos > 0 && durationNanos > slowCallNanos;
+        (failed ? failedCalls : successfulCalls).incrementAndGet();
+        if (slow) {
+            slowCalls.incrementAndGet();
+        }
+        CircuitState from;
+        CircuitState to = null;
+        lock.lock();
+        try {
+            from = state;
+            if (state == CircuitState.CLOSED) {
+                record((byte) ((failed ? FAILED : 0) | (slow ? SLOW : 0)));
+                if (isOverThreshold()) {
+                    to = transition(CircuitState.OPEN);
+                }
+            } else if (state == CircuitState.HALF_OPEN) {
+                if (failed || slow) {
+                    to = transition(CircuitState.OPEN);
+                } else if (++probesSucceeded >= policy.getHalfOpenCalls()) {
+                    to = transition(CircuitState.CLOSED);
+                }
+            }
+            // an open breaker ignores calls let through before it opened
+        } finally {
+            lock.unlock();
+        }
+        notifyListener(from, to);
+    }
+
+    /**
+     * @return The state of the breaker. An open breaker reports
+     * {@link CircuitState#OPEN} until a call finds its open duration over.
+     */
+    public CircuitState getState() {
+        return state;
+    }
+
+    /**
+     * @return The state and counters of the breaker
+     */
+    public CircuitBreakerStats getStats() {
+        return new CircuitBreakerStats(state, successfulCalls.get(), failedCalls.get(), slowCalls.get(),
+                rejectedCalls.get(), timesOpened.get());
+    }
+
+    private void record(byte outcome) {
+        if (recorded == window.length) {
+            byte oldest = window[next];
+            windowFailures -= oldest & FAILED;
+            windowSlowCalls -= (oldest & SLOW) >> 1;
+        } else {
+            recorded++;
+        }
+        window[next] = outcome;
+        next = (next + 1) % window.length;
+        windowFailures += outcome & FAILED;
+        windowSlowCalls += (outcome & SLOW) >> 1;
+    }
+
+    private boolean isOverThreshold() {
+        if (recorded < policy.getMinimumCalls()) {
+            return false;
+        }
+        return windowFailures * 100 >= policy.getFailureRateThreshold() * recorded
+                || (slowCallNanos > 0 && windowSlowCalls * 100 >= policy.getSlowCallRateThreshold() * recorded);
+    }
+
+    private CircuitState transition(CircuitState to) {
+        state = to;
+        if (to == CircuitState.OPEN) {
+            openedAtNanos = System.nanoTime();
+            timesOpened.incrementAndGet();
+        } else if (to == CircuitState.HALF_OPEN) {
+            probesLeft = policy.getHalfOpenCalls();
+            probesSucceeded = 0;
+        } else {
+            recorded = 0;
+            next = 0;
+            windowFailures = 0;
+            windowSlowCalls = 0;
+        }
+        return to;
+    }
+
+    private void notifyListener(CircuitState from, CircuitState to) {
+        if (to == null || listener == null) {
+            return;
+        }
+        try {
+            listener.stateChanged(endpoint, from, to);
+        } catch (RuntimeException e) {
+            LOGGER.warn("Circuit breaker listener failed", e);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.eway.payment.rapid.sdk.resilience;
+
+/**
+ * Receives the state changes of a client's circuit breakers. Listeners are
+ * called on the thread of the call that caused the change, so they must be
+ * quick and thread safe; exceptions they throw are logged and ignored.
+ */
+public interface CircuitBreakerListener {
+
+    /**
+     * A circuit breaker changed state
+     *
+     * @param endpoint The URL of the endpoint the breaker protects
+     * @param from The previous state
+     * @param to The new state
+     */
+    void stateChanged(String endpoint, CircuitState from, CircuitState to);
+}
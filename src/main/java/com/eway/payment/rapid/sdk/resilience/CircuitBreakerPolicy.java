@@ -0,0 +1,219 @@
+package com.eway.payment.rapid.sdk.resilience;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Immutable settings of a circuit breaker. The breaker looks at the outcomes
+ * of the last calls in its window, and opens when the share of them that
+ * failed to reach Rapid or got a server error, or that were slow, reaches
+ * its threshold.
+ *
+ * Example:
+ * <pre>
+ * {@code
+ * CircuitBreakerPolicy policy = CircuitBreakerPolicy.builder()
+ *         .failureRateThreshold(50)
+ *         .slowCallRateThreshold(80, 5, TimeUnit.SECONDS)
+ *         .openDuration(30, TimeUnit.SECONDS)
+ *         .build();
+ * }
+ * </pre>
+ */
+public final class CircuitBreakerPolicy {
+
+    private final int failureRateThreshold;
+    private final int slowCallRateThreshold;
+    private final long slowCallDurationMillis;
+    private final int windowSize;
+    private final int minimumCalls;
+    private final long openDurationMillis;
+    private final int halfOpenCalls;
+
+    private CircuitBreakerPolicy(Builder builder) {
+        this.failureRateThreshold = builder.failureRateThreshold;
+        this.slowCallRateThreshold = builder.slowCallRateThreshold;
+        this.slowCallDurationMillis = builder.slowCallDurationMillis;
+        this.windowSize = builder.windowSize;
+        this.minimumCalls = builder.minimumCalls;
+        this.openDurationMillis = builder.openDurationMillis;
+        this.halfOpenCalls = builder.halfOpenCalls;
+    }
+
+    /**
+     * @return A builder holding the default settings
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return The percentage of failed calls in the window that opens the
+     * breaker
+     */
+    public int getFailureRateThreshold() {
+        return failureRateThreshold;
+    }
+
+    /**
+     * @return The percentage of slow calls in the window that opens the
+     * breaker, 0 if slow calls do not open it
+     */
+    public int getSlowCallRateThreshold() {
+        return slowCallRateThreshold;
+    }
+
+    /**
+     * @return How long a call may take before it counts as slow, in
+     * milliseconds
+     */
+    public long getSlowCallDurationMillis() {
+        return slowCallDurationMillis;
+    }
+
+    /**
+     * @return The number of most recent calls the rates are taken over
+     */
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    /**
+     * @return The number of calls recorded before the rates are looked at
+     */
+    public int getMinimumCalls() {
+        return minimumCalls;
+    }
+
+    /**
+     * @return How long the breaker stays open before it lets probe calls
+     * through, in milliseconds
+     */
+    public long getOpenDurationMillis() {
+        return openDurationMillis;
+    }
+
+    /**
+     * @return The number of probe calls that must succeed to close the
+     * breaker again
+     */
+    public int getHalfOpenCalls() {
+        return halfOpenCalls;
+    }
+
+    @Override
+    public String toString() {
+        return "CircuitBreakerPolicy[failureRate=" + failureRateThreshold + "%, slowCallRate=" + slowCallRateThreshold
+                + "% over " + slowCallDurationMillis + "ms, window=" + windowSize + ", minimumCalls=" + minimumCalls
+                + ", open=" + openDurationMillis + "ms, halfOpenCalls=" + halfOpenCalls + "]";
+    }
+
+    /**
+     * Builds a {@link CircuitBreakerPolicy}
+     */
+    public static final class Builder {
+
+        private int failureRateThreshold = 50;
+        private int slowCallRateThreshold;
+        private long slowCallDurationMillis;
+        private int windowSize = 20;
+        private int minimumCalls = 10;
+        private long openDurationMillis = 30000;
+        private int halfOpenCalls = 3;
+
+        private Builder() {
+        }
+
+        /**
+         * Set the percentage of failed calls that opens the breaker. A call
+         * fails when it cannot reach Rapid or get a readable answer, error
+         * code S9992, passes its deadline, S9997, or Rapid answers with an
+         * HTTP 5xx server error, S9996. Defaults to 50.
+         *
+         * @param percent The failure rate, from 1 to 100
+         * @return This builder
+         */
+        public Builder failureRateThreshold(int percent) {
+            if (percent < 1 || percent > 100) {
+                throw new IllegalArgumentException("Failure rate threshold must be from 1 to 100");
+            }
+            this.failureRateThreshold = percent;
+            return this;
+        }
+
+        /**
+         * Open the breaker when this percentage of calls take longer than a
+         * duration, whether they fail or not. By default slow calls do not
+         * open the breaker.
+         *
+         * @param percent The slow call rate, from 1 to 100
+         * @param duration How long a call may take before it counts as slow
+         * @param unit Time unit of the duration
+         * @return This builder
+         */
+        public Builder slowCallRateThreshold(int percent, long duration, TimeUnit unit) {
+            if (percent < 1 || percent > 100 || duration <= 0) {
+                throw new IllegalArgumentException("Slow call rate threshold must be from 1 to 100 and its duration positive");
+            }
+            this.slowCallRateThreshold = percent;
+            this.slowCallDurationMillis = unit.toMillis(duration);
+            return this;
+        }
+
+        /**
+         * Set how many of the most recent calls the rates are taken over,
+         * and how many must be recorded before they are looked at. Defaults
+         * to the last 20 calls, once 10 have been made.
+         *
+         * @param windowSize The number of calls in the window
+         * @param minimumCalls The number of calls needed to open the breaker
+         * @return This builder
+         */
+        public Builder window(int windowSize, int minimumCalls) {
+            if (minimumCalls < 1 || windowSize < minimumCalls) {
+                throw new IllegalArgumentException("Minimum calls must be at least 1 and not exceed the window size");
+            }
+            this.windowSize = windowSize;
+            this.minimumCalls = minimumCalls;
+            return this;
+        }
+
+        /**
+         * Set how long the breaker fails calls at once before it lets probe
+         * calls through. Defaults to 30 seconds.
+         *
+         * @param duration How long the breaker stays open
+         * @param unit Time unit of the duration
+         * @return This builder
+         */
+        public Builder openDuration(long duration, TimeUnit unit) {
+            if (duration < 0) {
+                throw new IllegalArgumentException("Open duration must not be negative");
+            }
+            this.openDurationMillis = unit.toMillis(duration);
+            return this;
+        }
+
+        /**
+         * Set how many probe calls go through while the breaker is half
+         * open. The breaker closes once they all succeed, and opens again as
+         * soon as one fails or is slow. Defaults to 3.
+         *
+         * @param halfOpenCalls The number of probe calls
+         * @return This builder
+         */
+        public Builder halfOpenCalls(int halfOpenCalls) {
+            if (halfOpenCalls < 1) {
+                throw new IllegalArgumentException("Half open calls must be at least 1");
+            }
+            this.halfOpenCalls = halfOpenCalls;
+            return this;
+        }
+
+        /**
+         * @return The policy
+         */
+        public CircuitBreakerPolicy build() {
+            return new CircuitBreakerPolicy(this);
+        }
+    }
+}
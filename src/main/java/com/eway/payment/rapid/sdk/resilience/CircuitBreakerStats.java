@@ -0,0 +1,74 @@
+package com.eway.payment.rapid.sdk.resilience;
+
+/**
+ * A snapshot of a circuit breaker's state and counters
+ */
+public class CircuitBreakerStats {
+
+    private final CircuitState state;
+    private final long successfulCalls;
+    private final long failedCalls;
+    private final long slowCalls;
+    private final long rejectedCalls;
+    private final long timesOpened;
+
+    public CircuitBreakerStats(CircuitState state, long successfulCalls, long failedCalls, long slowCalls,
+            long rejectedCalls, long timesOpened) {
+        this.state = state;
+        this.successfulCalls = successfulCalls;
+        this.failedCalls = failedCalls;
+        this.slowCalls = slowCalls;
+        this.rejectedCalls = rejectedCalls;
+        this.timesOpened = timesOpened;
+    }
+
+    /**
+     * @return The state of the breaker
+     */
+    public CircuitState getState() {
+        return state;
+    }
+
+    /**
+     * @return Number of calls Rapid answered, including slow ones
+     */
+    public long getSuccessfulCalls() {
+        return successfulCalls;
+    }
+
+    /**
+     * @return Number of calls that failed to reach Rapid or passed their
+     * deadline
+     */
+    public long getFailedCalls() {
+        return failedCalls;
+    }
+
+    /**
+     * @return Number of calls, failed or not, slower than the slow call
+     * duration
+     */
+    public long getSlowCalls() {
+        return slowCalls;
+    }
+
+    /**
+     * @return Number of calls failed at once because the breaker was open
+     */
+    public long getRejectedCalls() {
+        return rejectedCalls;
+    }
+
+    /**
+     * @return Number of times the breaker opened
+     */
+    public long getTimesOpened() {
+        return timesOpened;
+    }
+
+    @Override
+    public String toString() {
+        return "CircuitBreakerStats[state=" + state + ", successful=" + successfulCalls + ", failed=" + failedCalls
+                + ", slow=" + slowCalls + ", rejected=" + rejectedCalls + ", timesOpened=" + timesOpened + "]";
+    }
+}
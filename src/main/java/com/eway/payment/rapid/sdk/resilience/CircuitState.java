@@ -0,0 +1,23 @@
+package com.eway.payment.rapid.sdk.resilience;
+
+/**
+ * The states of a circuit breaker
+ */
+public enum CircuitState {
+
+    /**
+     * Calls go through and their outcomes are recorded
+     */
+    CLOSED,
+
+    /**
+     * Calls fail at once with error code S9992 without reaching Rapid
+     */
+    OPEN,
+
+    /**
+     * A few probe calls go through to find out whether Rapid has recovered;
+     * other calls fail at once
+     */
+    HALF_OPEN
+}
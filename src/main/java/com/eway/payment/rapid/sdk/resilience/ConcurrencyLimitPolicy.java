@@ -0,0 +1,188 @@
+package com.eway.payment.rapid.sdk.resilience;
+
+/**
+ * Immutable settings of an adaptive concurrency limiter. The limiter lets a
+ * number of calls be in flight at once and adjusts that number by additive
+ * increase, multiplicative decrease: it grows slowly while Rapid answers as
+ * fast as it does unloaded, and shrinks as soon as answers slow down past
+ * the latency tolerance or calls fail. Calls above the limit wait in a
+ * queue, or fail at once when the queue is full.
+ *
+ * Example:
+ * <pre>
+ * {@code
+ * ConcurrencyLimitPolicy policy = ConcurrencyLimitPolicy.builder()
+ *         .limits(10, 2, 50)
+ *         .latencyTolerance(1.5)
+ *         .maxQueueDepth(100)
+ *         .build();
+ * }
+ * </pre>
+ */
+public final class ConcurrencyLimitPolicy {
+
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double latencyTolerance;
+    private final double backoffRatio;
+    private final int maxQueueDepth;
+
+    private ConcurrencyLimitPolicy(Builder builder) {
+        this.initialLimit = builder.initialLimit;
+        this.minLimit = builder.minLimit;
+        this.maxLimit = builder.maxLimit;
+        this.latencyTolerance = builder.latencyTolerance;
+        this.backoffRatio = builder.backoffRatio;
+        this.maxQueueDepth = builder.maxQueueDepth;
+    }
+
+    /**
+     * @return A builder holding the default settings
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return The number of calls let in flight at once before any has
+     * completed
+     */
+    public int getInitialLimit() {
+        return initialLimit;
+    }
+
+    /**
+     * @return The lowest the limit shrinks to
+     */
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    /**
+     * @return The highest the limit grows to
+     */
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    /**
+     * @return How many times its unloaded round trip time a call may take
+     * before the limit shrinks
+     */
+    public double getLatencyTolerance() {
+        return latencyTolerance;
+    }
+
+    /**
+     * @return The factor the limit is multiplied by when it shrinks
+     */
+    public double getBackoffRatio() {
+        return backoffRatio;
+    }
+
+    /**
+     * @return The most calls that wait for room under the limit, 0 to fail
+     * calls above the limit at once
+     */
+    public int getMaxQueueDepth() {
+        return maxQueueDepth;
+    }
+
+    @Override
+    public String toString() {
+        return "ConcurrencyLimitPolicy[initialLimit=" + initialLimit + ", minLimit=" + minLimit + ", maxLimit=" + maxLimit
+                + ", latencyTolerance=" + latencyTolerance + ", backoffRatio=" + backoffRatio
+                + ", maxQueueDepth=" + maxQueueDepth + "]";
+    }
+
+    /**
+     * Builds a {@link ConcurrencyLimitPolicy}
+     */
+    public static final class Builder {
+
+        private int initialLimit = 20;
+        private int minLimit = 1;
+        private int maxLimit = 200;
+        private double latencyTolerance = 2.0;
+        private double backoffRatio = 0.9;
+        private int maxQueueDepth = 50;
+
+        private Builder() {
+        }
+
+        /**
+         * Set the limit before any call has completed, and how far it may
+         * shrink and grow. Defaults to 20 calls, between 1 and 200. Equal
+         * limits make a fixed limit.
+         *
+         * @param initialLimit The limit to start with
+         * @param minLimit The lowest limit
+         * @param maxLimit The highest limit
+         * @return This builder
+         */
+        public Builder limits(int initialLimit, int minLimit, int maxLimit) {
+            if (minLimit < 1 || initialLimit < minLimit || maxLimit < initialLimit) {
+                throw new IllegalArgumentException("Limits must be at least 1 and the initial limit between the minimum and maximum");
+            }
+            this.initialLimit = initialLimit;
+            this.minLimit = minLimit;
+            this.maxLimit = maxLimit;
+            return this;
+        }
+
+        /**
+         * Set how many times its unloaded round trip time a call may take
+         * before the limit shrinks. The unloaded round trip time is the
+         * fastest call seen recently. Defaults to 2.
+         *
+         * @param latencyTolerance The tolerance, more than 1
+         * @return This builder
+         */
+        public Builder latencyTolerance(double latencyTolerance) {
+            if (!(latencyTolerance > 1)) {
+                throw new IllegalArgumentException("Latency tolerance must be more than 1");
+            }
+            this.latencyTolerance = latencyTolerance;
+            return this;
+        }
+
+        /**
+         * Set the factor the limit is multiplied by when a call is slow or
+         * fails. Defaults to 0.9.
+         *
+         * @param backoffRatio The factor, from 0.5 and less than 1
+         * @return This builder
+         */
+        public Builder backoffRatio(double backoffRatio) {
+            if (!(backoffRatio >= 0.5 && backoffRatio < 1)) {
+                throw new IllegalArgumentException("Backoff ratio must be from 0.5 and less than 1");
+            }
+            this.backoffRatio = backoffRatio;
+            return this;
+        }
+
+        /**
+         * Set how many calls above the limit wait for room, each no longer
+         * than its deadline. Further calls fail at once. Defaults to 50.
+         *
+         * @param maxQueueDepth The most waiting calls, 0 to fail every call
+         * above the limit at once
+         * @return This builder
+         */
+        public Builder maxQueueDepth(int maxQueueDepth) {
+            if (maxQueueDepth < 0) {
+                throw new IllegalArgumentException("Max queue depth must not be negative");
+            }
+            this.maxQueueDepth = maxQueueDepth;
+            return this;
+        }
+
+        /**
+         * @return The policy
+         */
+        public ConcurrencyLimitPolicy build() {
+            return new ConcurrencyLimitPolicy(this);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.eway.payment.rapid.sdk.resilience;
+
+/**
+ * A snapshot of a concurrency limiter's limit, load and counters
+ */
+public class ConcurrencyLimitStats {
+
+    private final int limit;
+    private final int inFlight;
+    private final int queueDepth;
+    private final long rejectedCalls;
+
+    public ConcurrencyLimitStats(int limit, int inFlight, int queueDepth, long rejectedCalls) {
+        this.limit = limit;
+        this.inFlight = inFlight;
+        this.queueDepth = queueDepth;
+        this.rejectedCalls = rejectedCalls;
+    }
+
+    /**
+     * @return The number of calls let in flight at once
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * @return Number of calls in flight
+     */
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    /**
+     * @return Number of calls waiting for room under the limit
+     */
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    /**
+     * @return Number of calls failed because the queue was full or their
+     * deadline passed while they waited
+     */
+    public long getRejectedCalls() {
+        return rejectedCalls;
+    }
+
+    @Override
+    public String toString() {
+        return "ConcurrencyLimitStats[limit=" + limit + ", inFlight=" + inFlight + ", queueDepth=" + queueDepth
+                + ", rejected=" + rejectedCalls + "]";
+    }
+}
@@ -0,0 +1,169 @@
+package com.eway.payment.rapid.sdk.resilience;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limits how many calls are in flight at once, and adapts the limit to the
+ * load Rapid can take without queueing them. Each completed call is a
+ * sample of the round trip time: while calls take no longer than the
+ * latency tolerance times the unloaded round trip time and the limit is
+ * in use, the limit grows by one over the limit per call, about one per
+ * round trip. A slow or failed call multiplies it by the backoff ratio.
+ * The unloaded round trip time is the fastest call of the last window of
+ * calls, so it follows Rapid when it gets faster or slower for good.
+ *
+ * Calls above the limit wait in a first in, first out queue and are let
+ * through as room frees up.
+ */
+public final class ConcurrencyLimiter {
+
+    // number of calls the unloaded round trip time is measured over
+    private static final int BASELINE_WINDOW = 100;
+
+    private final ConcurrencyLimitPolicy policy;
+
+    // a lock rather than synchronized so virtual threads do not pin; guards all the fields below
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ArrayDeque<Waiter> queue = new ArrayDeque<Waiter>();
+    private double limit;
+    private int inFlight;
+    private long baselineNanos;
+    private long windowMinNanos = Long.MAX_VALUE;
+    private int windowCalls;
+    private long rejectedCalls;
+
+    /**
+     * @param policy How the limit starts and adapts
+     */
+    public ConcurrencyLimiter(ConcurrencyLimitPolicy policy) {
+        this.policy = policy;
+        this.limit = policy.getInitialLimit();
+    }
+
+    /**
+     * Ask to make a call, waiting in the queue while the limit is reached.
+     * A call that is let through must report its completion to
+     * {@link #release(long, boolean)} or {@link #release()}.
+     *
+     * @param maxWaitMillis The longest to wait for room
+     * @return true if the call may go ahead, false if the queue is full, the
+     * wait ran out or the thread was interrupted
+     */
+    public boolean acquire(long maxWaitMillis) {
+        lock.lock();
+        try {
+            if (queue.isEmpty() && inFlight < currentLimit()) {
+                inFlight++;
+                return true;
+            }
+            if (queue.size() >= policy.getMaxQueueDepth() || maxWaitMillis <= 0) {
+                rejectedCalls++;
+                return false;
+            }
+            Waiter waiter = new Waiter(lock.newCondition());
+            queue.addLast(waiter);
+            long nanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+            try {
+                while (!waiter.granted && nanos > 0) {
+                    nanos = waiter.condition.awaitNanos(nanos);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (waiter.granted) {
+                return true;
+            }
+            queue.remove(waiter);
+            rejectedCalls++;
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Report a call that was let through and sent to Rapid
+     *
+     * @param roundTripNanos How long the call took
+     * @param failed true if the call failed to reach Rapid, passed its
+     * deadline or was answered with a server error
+     */
+    public void release(long roundTripNanos, boolean failed) {
+        lock.lock();
+        try {
+            boolean limitInUse = inFlight * 2 >= limit;
+            inFlight--;
+            windowMinNanos = Math.min(windowMinNanos, roundTripNanos);
+            baselineNanos = baselineNanos == 0 ? roundTripNanos : Math.min(baselineNanos, roundTripNanos);
+            if (++windowCalls == BASELINE_WINDOW) {
+                baselineNanos = windowMinNanos;
+                windowMinNanos = Long.MAX_VALUE;
+                windowCalls = 0;
+            }
+            if (failed || roundTripNanos > baselineNanos * policy.getLatencyTolerance()) {
+                limit = Math.max(policy.getMinLimit(), limit * policy.getBackoffRatio());
+            } else if (limitInUse) {
+                limit = Math.min(policy.getMaxLimit(), limit + 1 / limit);
+            }
+            letWaitersThrough();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Report a call that was let through but not sent, leaving the limit as
+     * it is
+     */
+    public void release() {
+        lock.lock();
+        try {
+            inFlight--;
+            letWaitersThrough();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return The limit, load and counters of the limiter
+     */
+    public ConcurrencyLimitStats getStats() {
+        lock.lock();
+        try {
+            return new ConcurrencyLimitStats(currentLimit(), inFlight, queue.size(), rejectedCalls);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int currentLimit() {
+        return (int) limit;
+    }
+
+    private void letWaitersThrough() {
+        while (!queue.isEmpty() && inFlight < currentLimit()) {
+            Waiter waiter = queue.pollFirst();
+            waiter.granted = true;
+            inFlight++;
+            waiter.condition.signal();
+        }
+    }
+
+    /**
+     * A call waiting in the queue. Room is handed over to it by the call
+     * that frees it, so newer calls cannot take it first.
+     */
+    private static final class Waiter {
+
+        final Condition condition;
+        boolean granted;
+
+        Waiter(Condition condition) {
+            this.condition = condition;
+        }
+    }
+}
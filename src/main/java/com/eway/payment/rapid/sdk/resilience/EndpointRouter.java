@@ -0,0 +1,273 @@
+package com.eway.payment.rapid.sdk.resilience;
+
+import com.eway.payment.rapid.sdk.RapidClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Picks which of several Rapid endpoints each call goes to. Every endpoint
+ * keeps an exponentially weighted moving average of its round trip time,
+ * and a call goes to the endpoint where that average, multiplied by the
+ * calls already in flight to it plus one, is lowest. Weighing by calls in
+ * flight spreads a burst of calls rather than sending them all to the
+ * endpoint that was fastest a moment ago. An endpoint that has not been
+ * answered yet counts as the fastest, so every endpoint is tried early on.
+ * <p>
+ * An endpoint whose last call failed is passed over until another endpoint
+ * answers a call, so a call sent again after a failure goes elsewhere
+ * without one failure keeping the endpoint out of use for good. An
+ * endpoint that fails as many calls in a row as the policy allows is
+ * ejected and sent no calls until a probe connects to it, or a call
+ * already on its way to it succeeds. If every
+ * endpoint is ejected, calls still go to the best of them rather than
+ * failing here; failing fast is the circuit breaker's job.
+ */
+public final class EndpointRouter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RapidClient.class);
+
+    private final EndpointRoutingPolicy policy;
+    // a lock rather than synchronized so virtual threads do not pin; guards every endpoint's fields
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Endpoint[] endpoints;
+
+    /**
+     * @param urls The URLs of the endpoints, in order of preference while
+     * none has been measured
+     * @param policy When endpoints are ejected and probed
+     */
+    public EndpointRouter(List<String> urls, EndpointRoutingPolicy policy) {
+        if (urls.isEmpty()) {
+            throw new IllegalArgumentException("At least one endpoint is needed");
+        }
+        this.policy = policy;
+        this.endpoints = new Endpoint[urls.size()];
+        for (int i = 0; i < endpoints.length; i++) {
+            endpoints[i] = new Endpoint(urls.get(i));
+        }
+    }
+
+    /**
+     * @return The number of endpoints
+     */
+    public int size() {
+        return endpoints.length;
+    }
+
+    /**
+     * @param index The endpoint
+     * @return The URL of the endpoint
+     */
+    public String getUrl(int index) {
+        return endpoints[index].url;
+    }
+
+    /**
+     * Choose the endpoint of a call and count the call in flight to it.
+     * Each call chosen must be reported to {@link #onResult(int, long,
+     * boolean)} or {@link #onCancelled(int)}.
+     *
+     * @return The index of the endpoint
+     */
+    public int choose() {
+        lock.lock();
+        try {
+            int best = -1;
+            boolean bestEjected = true;
+            for (int i = 0; i < endpoints.length; i++) {
+                Endpoint endpoint = endpoints[i];
+                if (best < 0 || bestEjected && !endpoint.ejected
+                        || bestEjected == endpoint.ejected && endpoint.isBetterThan(endpoints[best])) {
+                    best = i;
+                    bestEjected = endpoint.ejected;
+                }
+            }
+            endpoints[best].inFlight++;
+            return best;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Report the outcome of a call
+     *
+     * @param index The endpoint the call was sent to
+     * @param roundTripNanos How long the call took
+     * @param failed true if the call failed in a way that says the endpoint
+     * is unhealthy
+     */
+    public void onResult(int index, long roundTripNanos, boolean failed) {
+        lock.lock();
+        try {
+            Endpoint endpoint = endpoints[index];
+            endpoint.inFlight--;
+            if (failed) {
+                endpoint.consecutiveFailures++;
+                endpoint.passedOver = true;
+                if (!endpoint.ejected && endpoint.consecutiveFailures >= policy.getEjectAfterFailures()) {
+                    eject(endpoint, endpoint.consecutiveFailures + " calls in a row failed");
+                }
+                return;
+            }
+            endpoint.consecutiveFailures = 0;
+            for (Endpoint each : endpoints) {
+                each.passedOver = false;
+            }
+            endpoint.roundTripNanos = endpoint.roundTripNanos == 0 ? roundTripNanos
+                    : endpoint.roundTripNanos + policy.getSmoothing() * (roundTripNanos - endpoint.roundTripNanos);
+            if (endpoint.ejected) {
+                recover(endpoint);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Report a call that was given up by its caller, which says nothing
+     * about the endpoint
+     *
+     * @param index The endpoint the call was sent to
+     */
+    public void onCancelled(int index) {
+        lock.lock();
+        try {
+            endpoints[index].inFlight--;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Report an endpoint that could not be connected to when the client
+     * checked it, ejecting it at once
+     *
+     * @param index The endpoint
+     */
+    public void onUnreachable(int index) {
+        lock.lock();
+        try {
+            Endpoint endpoint = endpoints[index];
+            endpoint.consecutiveFailures++;
+            if (!endpoint.ejected) {
+                eject(endpoint, "it could not be connected to");
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Take the next ejected endpoint that is due a probe. It is not offered
+     * again until the probe is reported to {@link #onProbe(int, boolean)}.
+     *
+     * @return The index of the endpoint, or -1 if none is due
+     */
+    public int probeDue() {
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            for (int i = 0; i < endpoints.length; i++) {
+                Endpoint endpoint = endpoints[i];
+                if (endpoint.ejected && !endpoint.probing && now - endpoint.nextProbeNanos >= 0) {
+                    endpoint.probing = true;
+                    return i;
+                }
+            }
+            return -1;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Report the outcome of a probe
+     *
+     * @param index The endpoint probed
+     * @param connected true if the probe connected to the endpoint, which
+     * puts it back in service
+     */
+    public void onProbe(int index, boolean connected) {
+        lock.lock();
+        try {
+            Endpoint endpoint = endpoints[index];
+            endpoint.probing = false;
+            if (!endpoint.ejected) {
+                return;
+            }
+            if (connected) {
+                endpoint.consecutiveFailures = 0;
+                endpoint.passedOver = false;
+                recover(endpoint);
+            } else {
+                endpoint.nextProbeNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(policy.getProbeIntervalMillis());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return The health of every endpoint, in the order they were given
+     */
+    public List<EndpointStats> getStats() {
+        lock.lock();
+        try {
+            List<EndpointStats> stats = new ArrayList<EndpointStats>(endpoints.length);
+            for (Endpoint endpoint : endpoints) {
+                stats.add(new EndpointStats(endpoint.url, endpoint.roundTripNanos / 1000000.0, endpoint.inFlight,
+                        endpoint.consecutiveFailures, endpoint.ejected));
+            }
+            return Collections.unmodifiableList(stats);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void eject(Endpoint endpoint, String reason) {
+        endpoint.ejected = true;
+        endpoint.nextProbeNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(policy.getProbeIntervalMillis());
+        LOGGER.warn("Ejected Rapid endpoint " + endpoint.url + " as " + reason);
+    }
+
+    private void recover(Endpoint endpoint) {
+        endpoint.ejected = false;
+        LOGGER.info("Rapid endpoint " + endpoint.url + " is back in service");
+    }
+
+    private static final class Endpoint {
+
+        private final String url;
+        private double roundTripNanos;
+        private int inFlight;
+        private int consecutiveFailures;
+        // failed its last call, and no endpoint has answered one since
+        private boolean passedOver;
+        private boolean ejected;
+        private boolean probing;
+        private long nextProbeNanos;
+
+        Endpoint(String url) {
+            this.url = url;
+        }
+
+        boolean isBetterThan(Endpoint other) {
+            if (passedOver != other.passedOver) {
+                return !passedOver;
+            }
+            double cost = roundTripNanos * (inFlight + 1);
+            double otherCost = other.roundTripNanos * (other.inFlight + 1);
+            if (cost != otherCost) {
+                return cost < otherCost;
+            }
+            return inFlight < other.inFlight;
+        }
+    }
+}
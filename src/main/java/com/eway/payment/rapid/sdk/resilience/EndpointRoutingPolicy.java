@@ -0,0 +1,145 @@
+package com.eway.payment.rapid.sdk.resilience;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Immutable settings of routing calls across several Rapid endpoints. Each
+ * call goes to the endpoint with the lowest moving average of round trip
+ * time, weighed by the calls it has in flight. An endpoint that fails
+ * several calls in a row is ejected, and is only sent calls again once a
+ * probe connects to it.
+ *
+ * Example:
+ * <pre>
+ * {@code
+ * EndpointRoutingPolicy policy = EndpointRoutingPolicy.builder()
+ *         .ejectAfterFailures(3)
+ *         .probeInterval(5, TimeUnit.SECONDS)
+ *         .build();
+ * }
+ * </pre>
+ */
+public final class EndpointRoutingPolicy {
+
+    private final double smoothing;
+    private final int ejectAfterFailures;
+    private final long probeIntervalMillis;
+
+    private EndpointRoutingPolicy(Builder builder) {
+        this.smoothing = builder.smoothing;
+        this.ejectAfterFailures = builder.ejectAfterFailures;
+        this.probeIntervalMillis = builder.probeIntervalMillis;
+    }
+
+    /**
+     * @return A builder holding the default settings
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return The policy with the default settings
+     */
+    public static EndpointRoutingPolicy defaults() {
+        return builder().build();
+    }
+
+    /**
+     * @return The weight of the latest round trip time in an endpoint's
+     * moving average
+     */
+    public double getSmoothing() {
+        return smoothing;
+    }
+
+    /**
+     * @return The number of calls in a row an endpoint fails before it is
+     * ejected
+     */
+    public int getEjectAfterFailures() {
+        return ejectAfterFailures;
+    }
+
+    /**
+     * @return How long an ejected endpoint waits between probes, in
+     * milliseconds
+     */
+    public long getProbeIntervalMillis() {
+        return probeIntervalMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "EndpointRoutingPolicy[smoothing=" + smoothing + ", ejectAfterFailures=" + ejectAfterFailures
+                + ", probeInterval=" + probeIntervalMillis + "ms]";
+    }
+
+    /**
+     * Builds an {@link EndpointRoutingPolicy}
+     */
+    public static final class Builder {
+
+        private double smoothing = 0.2;
+        private int ejectAfterFailures = 5;
+        private long probeIntervalMillis = 10000;
+
+        private Builder() {
+        }
+
+        /**
+         * Set the weight of the latest round trip time in an endpoint's
+         * moving average. Higher values follow changes sooner but are
+         * swayed more by a single slow call. Defaults to 0.2.
+         *
+         * @param smoothing The weight, above 0 and at most 1
+         * @return This builder
+         */
+        public Builder smoothing(double smoothing) {
+            if (!(smoothing > 0 && smoothing <= 1)) {
+                throw new IllegalArgumentException("Smoothing must be above 0 and at most 1");
+            }
+            this.smoothing = smoothing;
+            return this;
+        }
+
+        /**
+         * Set how many calls in a row an endpoint must fail to be ejected.
+         * Communication failures and HTTP 5xx responses count as failures.
+         * Defaults to 5.
+         *
+         * @param failures The number of failures, at least 1
+         * @return This builder
+         */
+        public Builder ejectAfterFailures(int failures) {
+            if (failures < 1) {
+                throw new IllegalArgumentException("Failures to eject must be at least 1");
+            }
+            this.ejectAfterFailures = failures;
+            return this;
+        }
+
+        /**
+         * Set how long an ejected endpoint waits before it is probed, and
+         * between probes while they fail. Defaults to 10 seconds.
+         *
+         * @param interval The interval, more than 0
+         * @param unit The unit of the interval
+         * @return This builder
+         */
+        public Builder probeInterval(long interval, TimeUnit unit) {
+            if (interval <= 0) {
+                throw new IllegalArgumentException("Probe interval must be more than 0");
+            }
+            this.probeIntervalMillis = unit.toMillis(interval);
+            return this;
+        }
+
+        /**
+         * @return The policy
+         */
+        public EndpointRoutingPolicy build() {
+            return new EndpointRoutingPolicy(this);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.eway.payment.rapid.sdk.resilience;
+
+/**
+ * A snapshot of the health of one Rapid endpoint a client routes calls to
+ */
+public class EndpointStats {
+
+    private final String url;
+    private final double roundTripMillis;
+    private final int inFlight;
+    private final int consecutiveFailures;
+    private final boolean ejected;
+
+    public EndpointStats(String url, double roundTripMillis, int inFlight, int consecutiveFailures, boolean ejected) {
+        this.url = url;
+        this.roundTripMillis = roundTripMillis;
+        this.inFlight = inFlight;
+        this.consecutiveFailures = consecutiveFailures;
+        this.ejected = ejected;
+    }
+
+    /**
+     * @return The URL of the endpoint
+     */
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * @return The moving average of the endpoint's round trip time, in
+     * milliseconds, 0 until a call to it has succeeded
+     */
+    public double getRoundTripMillis() {
+        return roundTripMillis;
+    }
+
+    /**
+     * @return Number of calls sent to the endpoint and not yet answered
+     */
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    /**
+     * @return Number of calls to the endpoint that failed since the last
+     * one that succeeded
+     */
+    public int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    /**
+     * @return true if the endpoint is not sent calls until a probe
+     * connects to it
+     */
+    public boolean isEjected() {
+        return ejected;
+    }
+
+    @Override
+    public String toString() {
+        return "EndpointStats[url=" + url + ", roundTrip=" + Math.round(roundTripMillis * 10) / 10.0 + "ms, inFlight="
+                + inFlight + ", consecutiveFailures=" + consecutiveFailures + ", ejected=" + ejected + "]";
+    }
+}
@@ -0,0 +1,136 @@
+package com.eway.payment.rapid.sdk.resilience;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Decides when a query is sent a second time. It keeps the latency of the
+ * last queries in a window and hedges a query once it has waited longer
+ * than the policy's percentile of them. The percentile is worked out again
+ * every few queries rather than on each one, as that needs a sort of the
+ * window.
+ *
+ * Each query earns a fraction of a hedge, the budget percentage, and each
+ * hedge spends a whole one, so no more than that share of queries are sent
+ * twice over time.
+ */
+public final class Hedging {
+
+    // the most hedges saved up by queries that were not hedged
+    private static final double MAX_BUDGET = 10;
+    // number of latencies recorded between working out the percentile again
+    private static final int RECOMPUTE_EVERY = 16;
+
+    private final HedgingPolicy policy;
+
+    // a lock rather than synchronized so virtual threads do not pin; guards all the fields below
+    private final ReentrantLock lock = new ReentrantLock();
+    private final long[] latencies;
+    private int recorded;
+    private int next;
+    private int sinceRecompute;
+    private long delayMillis = -1;
+    private double budget;
+    private long queries;
+    private long hedged;
+    private long hedgesWon;
+    private long overBudget;
+
+    /**
+     * @param policy When to hedge and how often
+     */
+    public Hedging(HedgingPolicy policy) {
+        this.policy = policy;
+        this.latencies = new long[policy.getWindowSize()];
+    }
+
+    /**
+     * Start a query, earning its share of the hedge budget
+     *
+     * @return How long the query waits before it is sent again, in
+     * milliseconds, or -1 if it is not hedged because too few queries have
+     * completed
+     */
+    public long startQuery() {
+        lock.lock();
+        try {
+            queries++;
+            budget = Math.min(MAX_BUDGET, budget + policy.getBudgetPercent() / 100.0);
+            return delayMillis;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Ask to send a query a second time
+     *
+     * @return true if the budget allows it
+     */
+    public boolean tryHedge() {
+        lock.lock();
+        try {
+            if (budget < 1) {
+                overBudget++;
+                return false;
+            }
+            budget--;
+            hedged++;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Report that the second request of a query answered first
+     */
+    public void hedgeWon() {
+        lock.lock();
+        try {
+            hedgesWon++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Record how long a request of a query took to be answered
+     *
+     * @param latencyNanos The latency of the request
+     */
+    public void recordLatency(long latencyNanos) {
+        lock.lock();
+        try {
+            latencies[next] = latencyNanos;
+            next = (next + 1) % latencies.length;
+            if (recorded < latencies.length) {
+                recorded++;
+            }
+            if (recorded >= policy.getMinimumSamples()
+                    && (delayMillis < 0 || ++sinceRecompute >= RECOMPUTE_EVERY)) {
+                sinceRecompute = 0;
+                long[] sorted = Arrays.copyOf(latencies, recorded);
+                Arrays.sort(sorted);
+                long percentile = sorted[Math.min(recorded - 1, recorded * policy.getDelayPercentile() / 100)];
+                // rounded up, and at least 1ms, as a hedge with no delay would send every query twice
+                delayMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(percentile + 999999L));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return The counters and current delay of hedged queries
+     */
+    public HedgingStats getStats() {
+        lock.lock();
+        try {
+            return new HedgingStats(queries, hedged, hedgesWon, overBudget, delayMillis);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
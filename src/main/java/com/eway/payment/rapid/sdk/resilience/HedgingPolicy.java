@@ -0,0 +1,147 @@
+package com.eway.payment.rapid.sdk.resilience;
+
+/**
+ * Immutable settings of hedged queries. When a query has had no answer for
+ * longer than a percentile of recent query latency, the same query is sent
+ * a second time and the first answer is used. A budget caps how many
+ * queries may be sent twice, so a slow Rapid does not get twice the load.
+ *
+ * Example:
+ * <pre>
+ * {@code
+ * HedgingPolicy policy = HedgingPolicy.builder()
+ *         .delayPercentile(90)
+ *         .budgetPercent(5)
+ *         .build();
+ * }
+ * </pre>
+ */
+public final class HedgingPolicy {
+
+    private final int delayPercentile;
+    private final int windowSize;
+    private final int minimumSamples;
+    private final int budgetPercent;
+
+    private HedgingPolicy(Builder builder) {
+        this.delayPercentile = builder.delayPercentile;
+        this.windowSize = builder.windowSize;
+        this.minimumSamples = builder.minimumSamples;
+        this.budgetPercent = builder.budgetPercent;
+    }
+
+    /**
+     * @return A builder holding the default settings
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return The percentile of recent query latency a query waits for
+     * before it is sent again
+     */
+    public int getDelayPercentile() {
+        return delayPercentile;
+    }
+
+    /**
+     * @return The number of most recent queries the latency is taken over
+     */
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    /**
+     * @return The number of queries that must have completed before any is
+     * hedged
+     */
+    public int getMinimumSamples() {
+        return minimumSamples;
+    }
+
+    /**
+     * @return The most queries sent a second time, as a percentage of all
+     * queries
+     */
+    public int getBudgetPercent() {
+        return budgetPercent;
+    }
+
+    @Override
+    public String toString() {
+        return "HedgingPolicy[delayPercentile=" + delayPercentile + ", window=" + windowSize + ", minimumSamples="
+                + minimumSamples + ", budget=" + budgetPercent + "%]";
+    }
+
+    /**
+     * Builds a {@link HedgingPolicy}
+     */
+    public static final class Builder {
+
+        private int delayPercentile = 95;
+        private int windowSize = 200;
+        private int minimumSamples = 20;
+        private int budgetPercent = 10;
+
+        private Builder() {
+        }
+
+        /**
+         * Set the percentile of recent query latency a query waits for
+         * before it is sent again. Defaults to 95, so about one query in
+         * twenty is hedged while Rapid is steady.
+         *
+         * @param percentile The percentile, from 1 to 99
+         * @return This builder
+         */
+        public Builder delayPercentile(int percentile) {
+            if (percentile < 1 || percentile > 99) {
+                throw new IllegalArgumentException("Delay percentile must be from 1 to 99");
+            }
+            this.delayPercentile = percentile;
+            return this;
+        }
+
+        /**
+         * Set how many of the most recent queries the latency is taken over,
+         * and how many must have completed before any query is hedged.
+         * Defaults to the last 200 queries, once 20 have completed.
+         *
+         * @param windowSize The number of queries in the window
+         * @param minimumSamples The number of queries needed to hedge
+         * @return This builder
+         */
+        public Builder window(int windowSize, int minimumSamples) {
+            if (minimumSamples < 1 || windowSize < minimumSamples) {
+                throw new IllegalArgumentException("Minimum samples must be at least 1 and not exceed the window size");
+            }
+            this.windowSize = windowSize;
+            this.minimumSamples = minimumSamples;
+            return this;
+        }
+
+        /**
+         * Set the most queries sent a second time, as a percentage of all
+         * queries. Each query earns that fraction of a hedge, up to a burst
+         * of ten. Defaults to 10.
+         *
+         * @param percent The budget, from 1 to 100
+         * @return This builder
+         */
+        public Builder budgetPercent(int percent) {
+            if (percent < 1 || percent > 100) {
+                throw new IllegalArgumentException("Budget must be from 1 to 100 percent");
+            }
+            this.budgetPercent = percent;
+            return this;
+        }
+
+        /**
+         * @return The policy
+         */
+        public HedgingPolicy build() {
+            return new HedgingPolicy(this);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.eway.payment.rapid.sdk.resilience;
+
+/**
+ * A snapshot of the counters of hedged queries
+ */
+public class HedgingStats {
+
+    private final long queries;
+    private final long hedged;
+    private final long hedgesWon;
+    private final long overBudget;
+    private final long delayMillis;
+
+    public HedgingStats(long queries, long hedged, long hedgesWon, long overBudget, long delayMillis) {
+        this.queries = queries;
+        this.hedged = hedged;
+        this.hedgesWon = hedgesWon;
+        this.overBudget = overBudget;
+        this.delayMillis = delayMillis;
+    }
+
+    /**
+     * @return Number of queries that could be hedged
+     */
+    public long getQueries() {
+        return queries;
+    }
+
+    /**
+     * @return Number of queries sent a second time
+     */
+    public long getHedged() {
+        return hedged;
+    }
+
+    /**
+     * @return Number of queries the second request answered first
+     */
+    public long getHedgesWon() {
+        return hedgesWon;
+    }
+
+    /**
+     * @return Number of queries that would have been sent a second time
+     * but for the budget
+     */
+    public long getOverBudget() {
+        return overBudget;
+    }
+
+    /**
+     * @return How long a query waits before it is sent again, in
+     * milliseconds, or -1 until enough queries have completed
+     */
+    public long getDelayMillis() {
+        return delayMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "HedgingStats[queries=" + queries + ", hedged=" + hedged + ", hedgesWon=" + hedgesWon
+                + ", overBudget=" + overBudget + ", delay=" + delayMillis + "ms]";
+    }
+}
@@ -0,0 +1,137 @@
+package com.eway.payment.rapid.sdk.resilience;
+
+import com.eway.payment.rapid.sdk.RequestPriority;
+
+import java.util.EnumMap;
+
+/**
+ * Immutable settings of a client's priority lanes. A total number of calls
+ * may be in flight at once, and each lane may use up to a share of them.
+ * When calls wait, the next free place goes to a waiting lane in proportion
+ * to its weight, among the lanes still under their share.
+ *
+ * By default calls may use the whole connection pool; interactive payments
+ * may take all of it, interactive queries 80% and background work 25%, and
+ * waiting lanes are served 6 to 3 to 1.
+ *
+ * Example:
+ * <pre>
+ * {@code
+ * PriorityLanePolicy policy = PriorityLanePolicy.builder()
+ *         .totalConcurrency(40)
+ *         .lane(RequestPriority.BACKGROUND, 10, 1)
+ *         .build();
+ * }
+ * </pre>
+ */
+public final class PriorityLanePolicy {
+
+    private final int totalConcurrency;
+    private final EnumMap<RequestPriority, Integer> sharePercents;
+    private final EnumMap<RequestPriority, Integer> weights;
+
+    private PriorityLanePolicy(Builder builder) {
+        this.totalConcurrency = builder.totalConcurrency;
+        this.sharePercents = new EnumMap<RequestPriority, Integer>(builder.sharePercents);
+        this.weights = new EnumMap<RequestPriority, Integer>(builder.weights);
+    }
+
+    /**
+     * @return A builder holding the default settings
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return The most calls in flight at once, 0 for the connection pool
+     * size per host
+     */
+    public int getTotalConcurrency() {
+        return totalConcurrency;
+    }
+
+    /**
+     * @param priority A lane
+     * @return The percentage of the total calls the lane may have in flight
+     */
+    public int getSharePercent(RequestPriority priority) {
+        return sharePercents.get(priority);
+    }
+
+    /**
+     * @param priority A lane
+     * @return The weight the lane is served with while calls wait
+     */
+    public int getWeight(RequestPriority priority) {
+        return weights.get(priority);
+    }
+
+    @Override
+    public String toString() {
+        return "PriorityLanePolicy[totalConcurrency=" + totalConcurrency + ", shares=" + sharePercents
+                + ", weights=" + weights + "]";
+    }
+
+    /**
+     * Builds a {@link PriorityLanePolicy}
+     */
+    public static final class Builder {
+
+        private int totalConcurrency;
+        private final EnumMap<RequestPriority, Integer> sharePercents = new EnumMap<RequestPriority, Integer>(RequestPriority.class);
+        private final EnumMap<RequestPriority, Integer> weights = new EnumMap<RequestPriority, Integer>(RequestPriority.class);
+
+        private Builder() {
+            lane(RequestPriority.INTERACTIVE_PAYMENT, 100, 6);
+            lane(RequestPriority.INTERACTIVE_QUERY, 80, 3);
+            lane(RequestPriority.BACKGROUND, 25, 1);
+        }
+
+        /**
+         * Set the most calls in flight at once across all lanes. Defaults to
+         * the connection pool size per host, so calls wait in their lanes
+         * rather than for a connection.
+         *
+         * @param totalConcurrency The number of calls, 0 for the connection
+         * pool size per host
+         * @return This builder
+         */
+        public Builder totalConcurrency(int totalConcurrency) {
+            if (totalConcurrency < 0) {
+                throw new IllegalArgumentException("Total concurrency must not be negative");
+            }
+            this.totalConcurrency = totalConcurrency;
+            return this;
+        }
+
+        /**
+         * Set the share of the total a lane may have in flight, and the
+         * weight it is served with while calls wait. A lane always gets at
+         * least one call in flight.
+         *
+         * @param priority The lane
+         * @param sharePercent The percentage of the total, from 1 to 100
+         * @param weight The weight, at least 1
+         * @return This builder
+         */
+        public Builder lane(RequestPriority priority, int sharePercent, int weight) {
+            if (priority == null) {
+                throw new IllegalArgumentException("Priority must not be null");
+            }
+            if (sharePercent < 1 || sharePercent > 100 || weight < 1) {
+                throw new IllegalArgumentException("Share must be from 1 to 100 percent and weight at least 1");
+            }
+            this.sharePercents.put(priority, sharePercent);
+            this.weights.put(priority, weight);
+            return this;
+        }
+
+        /**
+         * @return The policy
+         */
+        public PriorityLanePolicy build() {
+            return new PriorityLanePolicy(this);
+        }
+    }
+}
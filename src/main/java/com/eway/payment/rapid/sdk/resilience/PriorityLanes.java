@@ -0,0 +1,181 @@
+package com.eway.payment.rapid.sdk.resilience;
+
+import com.eway.payment.rapid.sdk.RequestPriority;
+
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Schedules calls in priority lanes. A call goes ahead at once while the
+ * total and its lane's share have room and no earlier call of its lane
+ * waits. Otherwise it waits in its lane, first in, first out. Each time a
+ * place frees up it goes to one of the waiting lanes still under their
+ * share, chosen by smooth weighted round robin: over time each lane is
+ * served in proportion to its weight, without long runs of one lane.
+ */
+public final class PriorityLanes {
+
+    private final int totalConcurrency;
+    private final EnumMap<RequestPriority, Lane> lanes = new EnumMap<RequestPriority, Lane>(RequestPriority.class);
+
+    // a lock rather than synchronized so virtual threads do not pin; guards the lanes and inFlight
+    private final ReentrantLock lock = new ReentrantLock();
+    private int inFlight;
+
+    /**
+     * @param policy The shares and weights of the lanes
+     * @param totalConcurrency The most calls in flight at once
+     */
+    public PriorityLanes(PriorityLanePolicy policy, int totalConcurrency) {
+        this.totalConcurrency = totalConcurrency;
+        for (RequestPriority priority : RequestPriority.values()) {
+            int share = Math.max(1, totalConcurrency * policy.getSharePercent(priority) / 100);
+            lanes.put(priority, new Lane(share, policy.getWeight(priority)));
+        }
+    }
+
+    /**
+     * Ask to make a call in a lane, waiting while there is no room for it.
+     * A call that is let through must report its completion to
+     * {@link #release(RequestPriority)}.
+     *
+     * @param priority The lane of the call
+     * @param maxWaitMillis The longest to wait for room
+     * @return true if the call may go ahead, false if the wait ran out or
+     * the thread was interrupted
+     */
+    public boolean acquire(RequestPriority priority, long maxWaitMillis) {
+        Lane lane = lanes.get(priority);
+        lock.lock();
+        try {
+            if (lane.queue.isEmpty() && inFlight < totalConcurrency && lane.inFlight < lane.share) {
+                inFlight++;
+                lane.inFlight++;
+                return true;
+            }
+            if (maxWaitMillis <= 0) {
+                return false;
+            }
+            Waiter waiter = new Waiter(lock.newCondition());
+            lane.queue.addLast(waiter);
+            long nanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+            try {
+                while (!waiter.granted && nanos > 0) {
+                    nanos = waiter.condition.awaitNanos(nanos);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (waiter.granted) {
+                return true;
+            }
+            lane.queue.remove(waiter);
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Report that a call let through has completed
+     *
+     * @param priority The lane of the call
+     */
+    public void release(RequestPriority priority) {
+        Lane lane = lanes.get(priority);
+        lock.lock();
+        try {
+            inFlight--;
+            lane.inFlight--;
+            letWaitersThrough();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param priority A lane
+     * @return Number of calls of the lane in flight
+     */
+    public int getInFlight(RequestPriority priority) {
+        lock.lock();
+        try {
+            return lanes.get(priority).inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param priority A lane
+     * @return Number of calls waiting in the lane
+     */
+    public int getQueueDepth(RequestPriority priority) {
+        lock.lock();
+        try {
+            return lanes.get(priority).queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void letWaitersThrough() {
+        while (inFlight < totalConcurrency) {
+            Lane next = null;
+            int totalWeight = 0;
+            for (Lane lane : lanes.values()) {
+                if (!lane.queue.isEmpty() && lane.inFlight < lane.share) {
+                    lane.credit += lane.weight;
+                    totalWeight += lane.weight;
+                    if (next == null || lane.credit > next.credit) {
+                        next = lane;
+                    }
+                }
+            }
+            if (next == null) {
+                return;
+            }
+            next.credit -= totalWeight;
+            Waiter waiter = next.queue.pollFirst();
+            waiter.granted = true;
+            inFlight++;
+            next.inFlight++;
+            waiter.condition.signal();
+        }
+    }
+
+    /**
+     * The share, weight, load and waiting calls of one lane
+     */
+    private static final class Lane {
+
+        final int share;
+        final int weight;
+        final ArrayDeque<Waiter> queue = new ArrayDeque<Waiter>();
+        int inFlight;
+        // the smooth weighted round robin credit of the lane
+        int credit;
+
+        Lane(int share, int weight) {
+            this.share = share;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * A call waiting in a lane. Room is handed over to it by the call that
+     * frees it, so newer calls cannot take it first.
+     */
+    private static final class Waiter {
+
+        final Condition condition;
+        boolean granted;
+
+        Waiter(Condition condition) {
+            this.condition = condition;
+        }
+    }
+}
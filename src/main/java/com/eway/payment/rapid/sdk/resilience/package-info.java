@@ -0,0 +1,8 @@
+/**
+ * This package contains the circuit breaker that protects callers from a
+ * failing Rapid endpoint, the concurrency limiter that keeps a client from
+ * overloading Rapid, the priority lanes that keep background work from
+ * starving interactive calls, the hedging that cuts the tail latency
+ * of queries, and the routing of calls across several endpoints
+ */
+package com.eway.payment.rapid.sdk.resilience;
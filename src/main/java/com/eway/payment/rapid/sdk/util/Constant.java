@@ -12,6 +12,8 @@ public class Constant {
     public static final String AUTHENTICATION_FAILURE_ERROR_CODE = "S9993";
     public static final String INTERNAL_RAPID_API_ERROR_CODE = "S9995";
     public static final String INTERNAL_RAPID_SERVER_ERROR_CODE = "S9996";
+    public static final String DEADLINE_EXCEEDED_ERROR_CODE = "S9997";
+    public static final String OUTCOME_UNKNOWN_ERROR_CODE = "S9998";
 
     //Property file details
     public static final String ERROR_CODE_RESOURCE_EN = "err_code_resource_en.properties";
@@ -21,6 +23,7 @@ public class Constant {
     public static final String GLOBAL_RAPID_SANDBOX_REST_URL_PARAM = "global.rapid.rest.sandbox.url";
     public static final String RAPID_ENDPOINT_SANDBOX = "Sandbox";
     public static final String RAPID_ENDPOINT_PRODUCTION = "Production";
+    public static final String RAPID_SDK_DEBUG_PROPERTY = "com.eway.payment.rapid.sdk.debug";
 
     // End point request path 
     public static final String DIRECT_PAYMENT_METHOD_NAME = "DirectPayment";
@@ -43,7 +43,7 @@ public class EwayJacksonJsonFeature implements Feature {
             context.register(JsonParseExceptionMapper.class);
             context.register(JsonMappingExceptionMapper.class);
 
-            context.register(JacksonJsonProvider.class, MessageBodyReader.class, MessageBodyWriter.class);
+            context.register(new JacksonJsonProvider(JsonSupport.mapper()), MessageBodyReader.class, MessageBodyWriter.class);
         }
 
         return true;
@@ -0,0 +1,77 @@
+package com.eway.payment.rapid.sdk.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The Jackson mapper shared by every client, with readers and writers built
+ * once per type. Readers and writers are immutable and safe to share between
+ * threads.
+ */
+public final class JsonSupport {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final ObjectWriter PRETTY_WRITER = MAPPER.writerWithDefaultPrettyPrinter();
+
+    private static final ConcurrentMap<Class<?>, ObjectReader> READERS = new ConcurrentHashMap<Class<?>, ObjectReader>();
+    private static final ConcurrentMap<Class<?>, ObjectWriter> WRITERS = new ConcurrentHashMap<Class<?>, ObjectWriter>();
+
+    private JsonSupport() {
+    }
+
+    /**
+     * @return The shared mapper, which must not be reconfigured
+     */
+    public static ObjectMapper mapper() {
+        return MAPPER;
+    }
+
+    /**
+     * Get the reader for a type
+     *
+     * @param type The class to read
+     * @return The reader
+     */
+    public static ObjectReader reader(Class<?> type) {
+        ObjectReader reader = READERS.get(type);
+        if (reader == null) {
+            reader = MAPPER.readerFor(type);
+            READERS.putIfAbsent(type, reader);
+        }
+        return reader;
+    }
+
+    /**
+     * Get the writer for a type
+     *
+     * @param type The class to write
+     * @return The writer
+     */
+    public static ObjectWriter writer(Class<?> type) {
+        ObjectWriter writer = WRITERS.get(type);
+        if (writer == null) {
+            writer = MAPPER.writerFor(type);
+            WRITERS.putIfAbsent(type, writer);
+        }
+        return writer;
+    }
+
+    /**
+     * Pretty print a JSON document for debugging
+     *
+     * @param json The JSON document
+     * @return The indented JSON, or {@code null} if there is none
+     * @throws IOException if the document is not valid JSON
+     */
+    public static String prettyPrint(byte[] json) throws IOException {
+        if (json == null) {
+            return null;
+        }
+        return PRETTY_WRITER.writeValueAsString(MAPPER.readTree(json));
+    }
+}
@@ -1,45 +1,98 @@
-package com.eway.payment.rapid.sdk.util;
-
-import com.eway.payment.rapid.sdk.RapidClient;
-import org.apache.commons.lang3.StringUtils;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
-import javax.ws.rs.client.ClientRequestContext;
-import javax.ws.rs.client.ClientRequestFilter;
-import javax.ws.rs.core.HttpHeaders;
-import java.io.IOException;
-import java.util.Properties;
-
-/**
- * Filter for WebResource to add Rapid headers
- */
-public class RapidClientFilter implements ClientRequestFilter {
-
-    private String apiVersion;
-    private static final Logger LOGGER = LoggerFactory.getLogger(RapidClient.class);
-
-    public void setVersion(String version) {
-        this.apiVersion = version;
-    }
-
-
-    public void filter(ClientRequestContext aContext) throws IOException {
-
-        String userAgent = "";
-        try {
-            Properties prop = ResourceUtil.loadProperiesOnResourceFolder(Constant.RAPID_API_RESOURCE);
-            userAgent = prop.getProperty(Constant.RAPID_SDK_USER_AGENT_PARAM);
-            if (StringUtils.isBlank(userAgent)) {
-                throw new Exception("Resource file " + Constant.RAPID_API_RESOURCE + " is invalid.");
-            }
-        } catch (Exception e) {
-            LOGGER.error("User Agent could not be loaded", e);
-        }
-
-        aContext.getHeaders().putSingle(HttpHeaders.USER_AGENT, userAgent);
-        if (this.apiVersion != null) {
-            aContext.getHeaders().putSingle("X-EWAY-APIVERSION", this.apiVersion);
-        }
-    }
-}
+package com.eway.payment.rapid.sdk.util;
+
+import com.eway.payment.rapid.sdk.RapidClient;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.ws.rs.client.ClientRequestContext;
+import javax.ws.rs.client.ClientRequestFilter;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MultivaluedMap;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.Base64;
+import java.util.Properties;
+
+/**
+ * Filter for WebResource to add Rapid headers. The header values are built
+ * when the filter is configured, so adding them to a request only allocates
+ * the value list the request owns.
+ */
+public class RapidClientFilter implements ClientRequestFilter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RapidClient.class);
+
+    public static final String API_VERSION_HEADER = "X-EWAY-APIVERSION";
+
+    // the charset Jersey's basic authentication used for the credentials
+    private static final Charset CREDENTIALS_CHARSET = Charset.forName("ISO-8859-1");
+
+    private static final String USER_AGENT = loadUserAgent();
+
+    private volatile String apiVersion;
+    private volatile String authorization;
+
+    public void setVersion(String version) {
+        this.apiVersion = version;
+    }
+
+    /**
+     * Send the Rapid API key and password as Basic authorization on every
+     * request
+     *
+     * @param apiKey Rapid API key
+     * @param password Rapid API password
+     */
+    public void setCredentials(String apiKey, String password) {
+        this.authorization = basicAuthorization(apiKey, password);
+    }
+
+    /**
+     * @return The User-Agent sent to Rapid
+     */
+    public static String userAgent() {
+        return USER_AGENT;
+    }
+
+    /**
+     * Build the Basic Authorization header value for a Rapid API key and
+     * password
+     *
+     * @param apiKey Rapid API key
+     * @param password Rapid API password
+     * @return The header value
+     */
+    public static String basicAuthorization(String apiKey, String password) {
+        String credentials = StringUtils.defaultString(apiKey) + ":" + StringUtils.defaultString(password);
+        return "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(CREDENTIALS_CHARSET));
+    }
+
+    public void filter(ClientRequestContext aContext) throws IOException {
+        // putSingle gives each request its own value list, which later filters may add to
+        MultivaluedMap<String, Object> headers = aContext.getHeaders();
+        headers.putSingle(HttpHeaders.USER_AGENT, USER_AGENT);
+        String version = this.apiVersion;
+        if (version != null) {
+            headers.putSingle(API_VERSION_HEADER, version);
+        }
+        String auth = this.authorization;
+        if (auth != null) {
+            headers.putSingle(HttpHeaders.AUTHORIZATION, auth);
+        }
+    }
+
+    private static String loadUserAgent() {
+        try {
+            Properties prop = ResourceUtil.loadProperiesOnResourceFolder(Constant.RAPID_API_RESOURCE);
+            String userAgent = prop.getProperty(Constant.RAPID_SDK_USER_AGENT_PARAM);
+            if (StringUtils.isBlank(userAgent)) {
+                throw new Exception("Resource file " + Constant.RAPID_API_RESOURCE + " is invalid.");
+            }
+            return userAgent;
+        } catch (Exception e) {
+            LOGGER.error("User Agent could not be loaded", e);
+            return "";
+        }
+    }
+}
@@ -31,7 +31,13 @@ public class ResourceUtil {
     public static Properties loadProperies(String fileName) throws Exception {
         Properties prop = new Properties();
         InputStream input = ResourceUtil.class.getClassLoader().getResourceAsStream(fileName);
-        prop.load(input);
+        try {
+            prop.load(input);
+        } finally {
+            if (input != null) {
+                input.close();
+            }
+        }
         return prop;
     }
 
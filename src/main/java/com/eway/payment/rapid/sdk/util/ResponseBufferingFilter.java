@@ -0,0 +1,35 @@
+package com.eway.payment.rapid.sdk.util;
+
+import javax.ws.rs.client.ClientRequestContext;
+import javax.ws.rs.client.ClientResponseContext;
+import javax.ws.rs.client.ClientResponseFilter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Filter for WebResource that reads each response body to the end before it
+ * is parsed. The pooled connector only returns a connection to the pool once
+ * its response has been fully consumed, and the JSON reader stops at the
+ * closing brace, so without this every connection would be discarded.
+ */
+public class ResponseBufferingFilter implements ClientResponseFilter {
+
+    private static final int BUFFER_SIZE = 4096;
+
+    public void filter(ClientRequestContext requestContext, ClientResponseContext responseContext) throws IOException {
+        if (!responseContext.hasEntity()) {
+            return;
+        }
+        InputStream in = responseContext.getEntityStream();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(BUFFER_SIZE);
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        in.close();
+        responseContext.setEntityStream(new ByteArrayInputStream(out.toByteArray()));
+    }
+}
@@ -0,0 +1,86 @@
+package com.eway.payment.rapid.sdk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.eway.payment.rapid.sdk.beans.external.TransactionFilter;
+import com.eway.payment.rapid.sdk.output.QueryCustomerResponse;
+import com.eway.payment.rapid.sdk.output.QueryTransactionResponse;
+import com.eway.payment.rapid.sdk.util.Constant;
+
+public class RapidClientAsyncTest {
+
+    private StubRapidServer server;
+    private RapidClient client;
+
+    @Before
+    public void setup() throws Exception {
+        server = new StubRapidServer();
+        client = RapidSDK.newRapidClient("apiKey", "password", server.getUrl());
+    }
+
+    @After
+    public void tearDown() {
+        client.close();
+        server.stop();
+    }
+
+    @Test
+    public void testQueryTransactionAsync() throws Exception {
+        QueryTransactionResponse response = client.queryTransactionAsync(1).get(5, TimeUnit.SECONDS);
+        assertTrue(response.getErrors().isEmpty());
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void testAsyncErrorsMatchBlockingCall() throws Exception {
+        server.setResponse(500, "{}");
+        TransactionFilter filter = new TransactionFilter();
+        filter.setInvoiceReference("INV-1");
+        QueryTransactionResponse blocking = client.queryTransaction(filter);
+        QueryTransactionResponse async = client.queryTransactionAsync(filter).get(5, TimeUnit.SECONDS);
+        assertEquals(blocking.getErrors(), async.getErrors());
+        assertTrue(async.getErrors().contains(Constant.INTERNAL_RAPID_SERVER_ERROR_CODE));
+    }
+
+    @Test
+    public void testInvalidClientAsync() throws Exception {
+        RapidClient invalid = RapidSDK.newRapidClient("apiKey", "", server.getUrl());
+        QueryCustomerResponse response = invalid.queryCustomerAsync(1L).get(5, TimeUnit.SECONDS);
+        assertTrue(response.getErrors().contains(Constant.API_KEY_INVALID_ERROR_CODE));
+        invalid.close();
+    }
+
+    @Test
+    public void testVirtualThreadModeRunsCalls() throws Exception {
+        RapidClient virtual = RapidSDK.newRapidClient("apiKey", "password", server.getUrl(),
+                RapidClientConfig.builder().executionMode(ExecutionMode.VIRTUAL_THREADS).build());
+        QueryTransactionResponse response = virtual.queryTransactionAsync(1).get(5, TimeUnit.SECONDS);
+        assertTrue(response.getErrors().isEmpty());
+        virtual.close();
+    }
+
+    @Test
+    public void testConfiguredExecutorRunsCalls() throws Exception {
+        final AtomicInteger executed = new AtomicInteger();
+        Executor executor = new Executor() {
+            public void execute(Runnable command) {
+                executed.incrementAndGet();
+                new Thread(command).start();
+            }
+        };
+        RapidClient configured = RapidSDK.newRapidClient("apiKey", "password", server.getUrl(),
+                RapidClientConfig.builder().executor(executor).build());
+        configured.queryTransactionAsync("accessCode").get(5, TimeUnit.SECONDS);
+        assertEquals(1, executed.get());
+        configured.close();
+    }
+}
@@ -0,0 +1,152 @@
+package com.eway.payment.rapid.sdk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.eway.payment.rapid.sdk.output.QueryTransactionResponse;
+import com.eway.payment.rapid.sdk.util.Constant;
+import com.eway.payment.rapid.sdk.util.RapidClientFilter;
+
+public class RapidClientBuilderTest {
+
+    private StubRapidServer server;
+    private RapidClient client;
+
+    @Before
+    public void setup() throws Exception {
+        server = new StubRapidServer();
+    }
+
+    @After
+    public void tearDown() {
+        if (client != null) {
+            client.close();
+        }
+        server.stop();
+    }
+
+    @Test
+    public void testBuildConfigCollectsOptions() {
+        OperationTimeouts queryTimeouts = OperationTimeouts.of(1, 2, 3, TimeUnit.SECONDS);
+        MetricsListener listener = new RecordingListener();
+        RapidClientConfig config = RapidSDK.builder()
+                .transportType(TransportType.JDK_HTTP_CLIENT)
+                .connectionPool(4, 2)
+                .timeouts(OperationType.QUERY, queryTimeouts)
+                .settledTransactionCache(10)
+                .metricsListener(listener)
+                .endpointVerification(EndpointVerification.LAZY)
+                .buildConfig();
+
+        assertEquals(TransportType.JDK_HTTP_CLIENT, config.getTransportType());
+        assertEquals(4, config.getMaxConnections());
+        assertEquals(2, config.getMaxConnectionsPerRoute());
+        assertSame(queryTimeouts, config.getTimeouts(OperationType.QUERY));
+        assertEquals(60000, config.getTimeouts(OperationType.PAYMENT).getReadTimeoutMillis());
+        assertEquals(10, config.getSettledTransactionCacheSize());
+        assertSame(listener, config.getMetricsListener());
+        assertEquals(EndpointVerification.LAZY, config.getEndpointVerification());
+    }
+
+    @Test
+    public void testBuildAppliesCredentialsAndVersion() {
+        client = RapidSDK.builder()
+                .credentials("apiKey", "password")
+                .endpoint(server.getUrl())
+                .version("40")
+                .build();
+        assertTrue(client.isValid());
+        assertTrue(client.queryTransaction(1).getErrors().isEmpty());
+        assertEquals("40", server.getLastRequestHeader(RapidClientFilter.API_VERSION_HEADER));
+        assertEquals(RapidClientFilter.basicAuthorization("apiKey", "password"), server.getLastRequestHeader("Authorization"));
+    }
+
+    @Test
+    public void testEagerVerificationFailsAtConstruction() throws Exception {
+        client = RapidSDK.builder()
+                .credentials("apiKey", "password")
+                .endpoint(unusedUrl())
+                .build();
+        assertFalse(client.isValid());
+        assertEquals(Arrays.asList(Constant.LIBRARY_NOT_HAVE_ENDPOINT_ERROR_CODE), client.getErrors());
+    }
+
+    @Test
+    public void testLazyVerificationFailsOnFirstRequest() throws Exception {
+        client = RapidSDK.builder()
+                .credentials("apiKey", "password")
+                .endpoint(unusedUrl())
+                .endpointVerification(EndpointVerification.LAZY)
+                .build();
+        assertTrue(client.isValid());
+
+        QueryTransactionResponse response = client.queryTransaction(1);
+        assertEquals(Arrays.asList(Constant.LIBRARY_NOT_HAVE_ENDPOINT_ERROR_CODE), response.getErrors());
+        assertFalse(client.isValid());
+        assertEquals(Arrays.asList(Constant.LIBRARY_NOT_HAVE_ENDPOINT_ERROR_CODE), client.getErrors());
+    }
+
+    @Test
+    public void testLazyVerificationDoesNotConnectUntilUsed() {
+        client = RapidSDK.builder()
+                .credentials("apiKey", "password")
+                .endpoint(server.getUrl())
+                .endpointVerification(EndpointVerification.LAZY)
+                .build();
+        assertEquals(0, server.getConnectionCount());
+        assertTrue(client.queryTransaction(1).getErrors().isEmpty());
+        assertTrue(client.isValid());
+    }
+
+    @Test
+    public void testMetricsListenerSeesEveryCall() {
+        RecordingListener listener = new RecordingListener();
+        client = RapidSDK.builder()
+                .credentials("apiKey", "password")
+                .endpoint(server.getUrl())
+                .metricsListener(listener)
+                .build();
+        client.queryTransaction(1);
+        server.setResponse(500, "");
+        client.queryTransaction(2);
+
+        assertEquals(Arrays.asList(OperationType.QUERY, OperationType.QUERY), listener.operations);
+        assertNull(listener.errorCodes.get(0));
+        assertEquals(Constant.INTERNAL_RAPID_SERVER_ERROR_CODE, listener.errorCodes.get(1));
+        assertTrue(listener.durations.get(0) > 0);
+    }
+
+    private static String unusedUrl() throws Exception {
+        ServerSocket socket = new ServerSocket(0);
+        int port = socket.getLocalPort();
+        socket.close();
+        return "http://localhost:" + port + "/";
+    }
+
+    private static class RecordingListener implements MetricsListener {
+
+        private final List<OperationType> operations = Collections.synchronizedList(new ArrayList<OperationType>());
+        private final List<String> errorCodes = Collections.synchronizedList(new ArrayList<String>());
+        private final List<Long> durations = Collections.synchronizedList(new ArrayList<Long>());
+
+        public void callCompleted(OperationType operation, long durationNanos, String errorCode) {
+            operations.add(operation);
+            errorCodes.add(errorCode);
+            durations.add(durationNanos);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.eway.payment.rapid.sdk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.eway.payment.rapid.sdk.beans.external.TransactionFilter;
+import com.eway.payment.rapid.sdk.output.QueryTransactionResponse;
+import com.eway.payment.rapid.sdk.util.Constant;
+
+public class RapidClientBulkQueryTest {
+
+    private StubRapidServer server;
+    private RapidClient client;
+
+    @Before
+    public void setup() throws Exception {
+        server = new StubRapidServer();
+        client = RapidSDK.newRapidClient("apiKey", "password", server.getUrl(),
+                RapidClientConfig.builder().bulkQueryConcurrency(3).build());
+    }
+
+    @After
+    public void tearDown() {
+        client.close();
+        server.stop();
+    }
+
+    @Test
+    public void testMixedFiltersAreDeduplicated() {
+        List<TransactionFilter> filters = new ArrayList<TransactionFilter>();
+        for (int i = 0; i < 10; i++) {
+            filters.add(byTransactionId(i + 1));
+            filters.add(byTransactionId(i + 1));
+        }
+        TransactionFilter accessCode = new TransactionFilter();
+        accessCode.setAccessCode("A1");
+        filters.add(accessCode);
+        TransactionFilter invoiceNumber = new TransactionFilter();
+        invoiceNumber.setInvoiceNumber("INV-1");
+        filters.add(invoiceNumber);
+        TransactionFilter invoiceReference = new TransactionFilter();
+        invoiceReference.setInvoiceReference("REF-1");
+        filters.add(invoiceReference);
+
+        Map<TransactionFilter, QueryTransactionResponse> results = client.queryTransactions(filters);
+
+        assertEquals(13, results.size());
+        assertEquals(13, server.getRequestCount());
+        Iterator<TransactionFilter> keys = results.keySet().iterator();
+        assertSame(filters.get(0), keys.next());
+        assertSame(filters.get(2), keys.next());
+        for (QueryTransactionResponse response : results.values()) {
+            assertTrue(response.getErrors().isEmpty());
+        }
+    }
+
+    @Test
+    public void testInFlightRequestsAreBounded() {
+        server.setDelayMillis(50);
+        List<TransactionFilter> filters = new ArrayList<TransactionFilter>();
+        for (int i = 0; i < 12; i++) {
+            filters.add(byTransactionId(i + 1));
+        }
+        client.queryTransactions(filters);
+        assertEquals(12, server.getRequestCount());
+        assertTrue(server.getMaxConcurrentRequests() <= 3);
+    }
+
+    @Test
+    public void testInvalidFilterReportsError() {
+        TransactionFilter empty = new TransactionFilter();
+        List<TransactionFilter> filters = new ArrayList<TransactionFilter>();
+        filters.add(empty);
+        Map<TransactionFilter, QueryTransactionResponse> results = client.queryTransactions(filters);
+        assertTrue(results.get(empty).getErrors().contains(Constant.API_KEY_INVALID_ERROR_CODE));
+        assertEquals(0, server.getRequestCount());
+    }
+
+    @Test
+    public void testStreamingDeliversEachResultOnce() throws Exception {
+        List<TransactionFilter> filters = new ArrayList<TransactionFilter>();
+        for (int i = 0; i < 20; i++) {
+            filters.add(byTransactionId(i % 10 + 1));
+        }
+        final Map<TransactionFilter, AtomicInteger> deliveries = new ConcurrentHashMap<TransactionFilter, AtomicInteger>();
+        client.queryTransactionsAsync(filters, (filter, response) -> {
+            deliveries.putIfAbsent(filter, new AtomicInteger());
+            deliveries.get(filter).incrementAndGet();
+        }).get(10, TimeUnit.SECONDS);
+
+        assertEquals(10, deliveries.size());
+        for (AtomicInteger count : deliveries.values()) {
+            assertEquals(1, count.get());
+        }
+    }
+
+    @Test
+    public void testEmptyFilters() throws Exception {
+        assertTrue(client.queryTransactions(new ArrayList<TransactionFilter>()).isEmpty());
+        client.queryTransactionsAsync(null, (filter, response) -> { }).get(1, TimeUnit.SECONDS);
+    }
+
+    private static TransactionFilter byTransactionId(int id) {
+        TransactionFilter filter = new TransactionFilter();
+        filter.setTransactionId(id);
+        return filter;
+    }
+}
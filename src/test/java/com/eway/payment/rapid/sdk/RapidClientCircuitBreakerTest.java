@@ -0,0 +1,227 @@
+package com.eway.payment.rapid.sdk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.eway.payment.rapid.sdk.beans.external.Refund;
+import com.eway.payment.rapid.sdk.resilience.CircuitBreakerListener;
+import com.eway.payment.rapid.sdk.resilience.CircuitBreakerPolicy;
+import com.eway.payment.rapid.sdk.resilience.CircuitBreakerStats;
+import com.eway.payment.rapid.sdk.resilience.CircuitState;
+import com.eway.payment.rapid.sdk.util.Constant;
+
+public class RapidClientCircuitBreakerTest {
+
+    // a response Rapid would never send, read as a communication failure
+    private static final String MALFORMED_RESPONSE = "{\"Transactions\":";
+    // a cancellation answer whose transaction ID the converter cannot parse
+    private static final String UNREADABLE_CANCEL_RESPONSE = "{\"TransactionID\":\"not a number\",\"TransactionStatus\":false,\"Errors\":\"\"}";
+
+    private final List<String> changes = new CopyOnWriteArrayList<String>();
+    private StubRapidServer server;
+    private RapidClient client;
+
+    @Before
+    public void setup() throws Exception {
+        server = new StubRapidServer();
+    }
+
+    @After
+    public void tearDown() {
+        if (client != null) {
+            client.close();
+        }
+        server.stop();
+    }
+
+    @Test
+    public void testOpensOnFailureRateAndFailsFast() {
+        client = newClient(RapidSDK.builder(), policy().openDuration(1, TimeUnit.MINUTES));
+        failCalls(1);
+        for (int i = 0; i < 3; i++) {
+            assertTrue(client.queryTransaction(1).getErrors().isEmpty());
+        }
+        failCalls(1);
+        assertEquals(CircuitState.CLOSED, client.getCircuitBreakerStats().getState());
+
+        // the window now holds two failures in four calls
+        failCalls(1);
+        assertEquals(Arrays.asList(Constant.COMMUNICATION_FAILURE_ERROR_CODE), client.queryTransaction(1).getErrors());
+        assertEquals(6, server.getRequestCount());
+
+        CircuitBreakerStats stats = client.getCircuitBreakerStats();
+        assertEquals(CircuitState.OPEN, stats.getState());
+        assertEquals(3, stats.getFailedCalls());
+        assertEquals(3, stats.getSuccessfulCalls());
+        assertEquals(1, stats.getRejectedCalls());
+        assertEquals(1, stats.getTimesOpened());
+        assertEquals(Arrays.asList("CLOSED>OPEN"), changes);
+    }
+
+    @Test
+    public void testSuccessfulProbeClosesBreaker() throws Exception {
+        client = newClient(RapidSDK.builder(), policy().openDuration(100, TimeUnit.MILLISECONDS).halfOpenCalls(2));
+        failCalls(4);
+        Thread.sleep(150);
+
+        assertTrue(client.queryTransaction(1).getErrors().isEmpty());
+        assertEquals(CircuitState.HALF_OPEN, client.getCircuitBreakerStats().getState());
+        assertTrue(client.queryTransaction(1).getErrors().isEmpty());
+        assertEquals(CircuitState.CLOSED, client.getCircuitBreakerStats().getState());
+        assertEquals(Arrays.asList("CLOSED>OPEN", "OPEN>HALF_OPEN", "HALF_OPEN>CLOSED"), changes);
+    }
+
+    @Test
+    public void testFailedProbeOpensBreakerAgain() throws Exception {
+        client = newClient(RapidSDK.builder(), policy().openDuration(100, TimeUnit.MILLISECONDS));
+        failCalls(4);
+        Thread.sleep(150);
+
+        failCalls(1);
+        assertEquals(CircuitState.OPEN, client.getCircuitBreakerStats().getState());
+        assertEquals(2, client.getCircuitBreakerStats().getTimesOpened());
+        assertEquals(Arrays.asList("CLOSED>OPEN", "OPEN>HALF_OPEN", "HALF_OPEN>OPEN"), changes);
+    }
+
+    @Test
+    public void testSlowCallsOpenBreaker() {
+        client = newClient(RapidSDK.builder(), policy().slowCallRateThreshold(50, 100, TimeUnit.MILLISECONDS)
+                .openDuration(1, TimeUnit.MINUTES));
+        server.setDelayMillis(200);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(client.queryTransaction(1).getErrors().isEmpty());
+        }
+        assertEquals(CircuitState.OPEN, client.getCircuitBreakerStats().getState());
+        assertEquals(4, client.getCircuitBreakerStats().getSlowCalls());
+
+        long start = System.nanoTime();
+        assertEquals(Arrays.asList(Constant.COMMUNICATION_FAILURE_ERROR_CODE), client.queryTransaction(1).getErrors());
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(100));
+        assertEquals(4, server.getRequestCount());
+    }
+
+    @Test
+    public void testServerErrorsOpenBreaker() {
+        client = newClient(RapidSDK.builder(), policy().openDuration(1, TimeUnit.MINUTES));
+        for (int i = 0; i < 4; i++) {
+            server.queueResponse(503, "");
+            assertEquals(Arrays.asList(Constant.INTERNAL_RAPID_SERVER_ERROR_CODE), client.queryTransaction(1).getErrors());
+        }
+        assertEquals(CircuitState.OPEN, client.getCircuitBreakerStats().getState());
+        assertEquals(4, client.getCircuitBreakerStats().getFailedCalls());
+    }
+
+    @Test
+    public void testClientErrorsDoNotOpenBreaker() {
+        client = newClient(RapidSDK.builder(), policy());
+        for (int i = 0; i < 4; i++) {
+            server.queueResponse(429, "");
+            assertEquals(Arrays.asList(Constant.INTERNAL_RAPID_SERVER_ERROR_CODE), client.queryTransaction(1).getErrors());
+        }
+        assertEquals(CircuitState.CLOSED, client.getCircuitBreakerStats().getState());
+    }
+
+    @Test
+    public void testUnexpectedErrorsCountAsFailures() {
+        client = newClient(RapidSDK.builder(), policy());
+        server.setResponse(200, UNREADABLE_CANCEL_RESPONSE);
+        try {
+            client.cancel(cancellation());
+            fail("Expected the transaction ID not to parse");
+        } catch (NumberFormatException expected) {
+            // not a RapidSdkException, so it reaches the caller
+        }
+        assertEquals(1, client.getCircuitBreakerStats().getFailedCalls());
+    }
+
+    @Test
+    public void testOpenBreakerIsNotRetried() {
+        client = newClient(RapidSDK.builder().retryPolicy(RetryPolicy.of(3, 1, 1, TimeUnit.MILLISECONDS)),
+                policy().window(2, 2).openDuration(1, TimeUnit.MINUTES));
+        server.queueResponse(200, MALFORMED_RESPONSE);
+        server.queueResponse(200, MALFORMED_RESPONSE);
+
+        // the second attempt opens the breaker, which fails the third at once
+        assertEquals(Arrays.asList(Constant.COMMUNICATION_FAILURE_ERROR_CODE), client.queryTransaction(1).getErrors());
+        assertEquals(2, server.getRequestCount());
+        assertEquals(CircuitState.OPEN, client.getCircuitBreakerStats().getState());
+        assertEquals(1, client.getCircuitBreakerStats().getRejectedCalls());
+
+        assertEquals(Arrays.asList(Constant.COMMUNICATION_FAILURE_ERROR_CODE), client.queryTransaction(1).getErrors());
+        assertEquals(2, server.getRequestCount());
+        assertEquals(2, client.getCircuitBreakerStats().getRejectedCalls());
+    }
+
+    @Test
+    public void testBreakerOfAReplacedEndpointIsDropped() throws Exception {
+        client = newClient(RapidSDK.builder(), policy().openDuration(1, TimeUnit.MINUTES));
+        failCalls(4);
+        assertEquals(CircuitState.OPEN, client.getCircuitBreakerStats().getState());
+
+        StubRapidServer other = new StubRapidServer();
+        try {
+            client.setEndpoint(other.getUrl());
+            client.setEndpoint(server.getUrl());
+        } finally {
+            other.stop();
+        }
+        assertEquals(CircuitState.CLOSED, client.getCircuitBreakerStats().getState());
+        assertEquals(0, client.getCircuitBreakerStats().getFailedCalls());
+    }
+
+    @Test
+    public void testDisabledByDefault() {
+        client = newClient(RapidSDK.builder(), null);
+        failCalls(4);
+        CircuitBreakerStats stats = client.getCircuitBreakerStats();
+        assertEquals(CircuitState.CLOSED, stats.getState());
+        assertEquals(0, stats.getFailedCalls());
+    }
+
+    /**
+     * Make calls that fail with a communication failure, one for each queued
+     * malformed response
+     */
+    private void failCalls(int count) {
+        for (int i = 0; i < count; i++) {
+            server.queueResponse(200, MALFORMED_RESPONSE);
+        }
+        for (int i = 0; i < count; i++) {
+            assertEquals(Arrays.asList(Constant.COMMUNICATION_FAILURE_ERROR_CODE), client.queryTransaction(1).getErrors());
+        }
+    }
+
+    private static Refund cancellation() {
+        Refund refund = new Refund();
+        refund.setRefundDetails(InputModelFactory.initRefundDetails());
+        refund.getRefundDetails().setOriginalTransactionID("11735670");
+        return refund;
+    }
+
+    private static CircuitBreakerPolicy.Builder policy() {
+        return CircuitBreakerPolicy.builder().failureRateThreshold(50).window(4, 4);
+    }
+
+    private RapidClient newClient(RapidSDK.Builder builder, CircuitBreakerPolicy.Builder policy) {
+        return builder.credentials("apiKey", "password")
+                .endpoint(server.getUrl())
+                .endpointVerification(EndpointVerification.NONE)
+                .circuitBreaker(policy != null ? policy.build() : null)
+                .circuitBreakerListener(new CircuitBreakerListener() {
+                    public void stateChanged(String endpoint, CircuitState from, CircuitState to) {
+                        changes.add(from + ">" + to);
+                    }
+                })
+                .build();
+    }
+}
@@ -0,0 +1,144 @@
+package com.eway.payment.rapid.sdk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.eway.payment.rapid.sdk.cache.CoalescingStats;
+import com.eway.payment.rapid.sdk.output.ResponseOutput;
+
+public class RapidClientCoalescingTest {
+
+    private static final int CALLERS = 10;
+
+    private StubRapidServer server;
+    private ExecutorService pool;
+
+    @Before
+    public void setup() throws Exception {
+        server = new StubRapidServer();
+        server.setDelayMillis(300);
+        pool = Executors.newFixedThreadPool(CALLERS);
+    }
+
+    @After
+    public void tearDown() {
+        pool.shutdownNow();
+        server.stop();
+    }
+
+    @Test
+    public void testIdenticalTransactionQueriesShareOneCall() throws Exception {
+        final RapidClient client = newClient(true);
+        List<ResponseOutput> responses = runConcurrently(new Callable<ResponseOutput>() {
+            public ResponseOutput call() {
+                return client.queryTransaction("accessCode");
+            }
+        });
+        assertEquals(1, server.getRequestCount());
+        for (ResponseOutput response : responses) {
+            assertSame(responses.get(0), response);
+        }
+        CoalescingStats stats = client.getCoalescingStats();
+        assertEquals(CALLERS, stats.getRequests());
+        assertEquals(CALLERS - 1, stats.getCoalesced());
+        client.close();
+    }
+
+    @Test
+    public void testIdenticalCustomerQueriesShareOneCall() throws Exception {
+        server.setResponse(200, "{\"Customers\":[],\"Errors\":\"\"}");
+        final RapidClient client = newClient(true);
+        runConcurrently(new Callable<ResponseOutput>() {
+            public ResponseOutput call() {
+                return client.queryCustomer(987654321L);
+            }
+        });
+        assertEquals(1, server.getRequestCount());
+        assertEquals(CALLERS - 1, client.getCoalescingStats().getCoalesced());
+        client.close();
+    }
+
+    @Test
+    public void testSequentialQueriesAreNotCoalesced() {
+        server.setDelayMillis(0);
+        RapidClient client = newClient(true);
+        client.queryTransaction(1);
+        client.queryTransaction(1);
+        assertEquals(2, server.getRequestCount());
+        assertEquals(0, client.getCoalescingStats().getCoalesced());
+        client.close();
+    }
+
+    @Test
+    public void testQueryWithNewCredentialsIsNotCoalesced() throws Exception {
+        final RapidClient client = newClient(true);
+        Future<ResponseOutput> first = pool.submit(new Callable<ResponseOutput>() {
+            public ResponseOutput call() {
+                return client.queryTransaction("accessCode");
+            }
+        });
+        long waitUntil = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (server.getRequestCount() == 0 && System.nanoTime() < waitUntil) {
+            Thread.sleep(10);
+        }
+        client.setCredentials("otherApiKey", "otherPassword");
+        client.queryTransaction("accessCode");
+        first.get();
+        assertEquals(2, server.getRequestCount());
+        assertEquals(0, client.getCoalescingStats().getCoalesced());
+        List<String> authorizations = server.getRequestHeaders("Authorization");
+        assertNotEquals(authorizations.get(0), authorizations.get(1));
+        client.close();
+    }
+
+    @Test
+    public void testCoalescingDisabledByDefault() throws Exception {
+        final RapidClient client = newClient(false);
+        runConcurrently(new Callable<ResponseOutput>() {
+            public ResponseOutput call() {
+                return client.queryTransaction("accessCode");
+            }
+        });
+        assertEquals(CALLERS, server.getRequestCount());
+        assertEquals(0, client.getCoalescingStats().getRequests());
+        client.close();
+    }
+
+    private RapidClient newClient(boolean coalesce) {
+        return RapidSDK.newRapidClient("apiKey", "password", server.getUrl(),
+                RapidClientConfig.builder().coalesceQueries(coalesce).build());
+    }
+
+    private List<ResponseOutput> runConcurrently(final Callable<ResponseOutput> call) throws Exception {
+        final CountDownLatch start = new CountDownLatch(1);
+        List<Future<ResponseOutput>> futures = new ArrayList<Future<ResponseOutput>>();
+        for (int i = 0; i < CALLERS; i++) {
+            futures.add(pool.submit(new Callable<ResponseOutput>() {
+                public ResponseOutput call() throws Exception {
+                    start.await();
+                    return call.call();
+                }
+            }));
+        }
+        start.countDown();
+        List<ResponseOutput> responses = new ArrayList<ResponseOutput>();
+        for (Future<ResponseOutput> future : futures) {
+            responses.add(future.get());
+        }
+        return responses;
+    }
+}
@@ -0,0 +1,160 @@
+package com.eway.payment.rapid.sdk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.eway.payment.rapid.sdk.beans.external.Refund;
+import com.eway.payment.rapid.sdk.output.QueryTransactionResponse;
+import com.eway.payment.rapid.sdk.resilience.ConcurrencyLimitPolicy;
+import com.eway.payment.rapid.sdk.resilience.ConcurrencyLimitStats;
+import com.eway.payment.rapid.sdk.util.Constant;
+
+public class RapidClientConcurrencyLimitTest {
+
+    private static final int CALLS = 4;
+    // a cancellation answer whose transaction ID the converter cannot parse
+    private static final String UNREADABLE_CANCEL_RESPONSE = "{\"TransactionID\":\"not a number\",\"TransactionStatus\":false,\"Errors\":\"\"}";
+
+    private StubRapidServer server;
+    private RapidClient client;
+
+    @Before
+    public void setup() throws Exception {
+        server = new StubRapidServer();
+        server.setDelayMillis(300);
+    }
+
+    @After
+    public void tearDown() {
+        if (client != null) {
+            client.close();
+        }
+        server.stop();
+    }
+
+    @Test
+    public void testCallsAboveTheLimitWait() throws Exception {
+        client = newClient(ConcurrencyLimitPolicy.builder().limits(2, 2, 2).maxQueueDepth(10));
+        List<CompletableFuture<QueryTransactionResponse>> futures = queryAsync();
+        awaitQueueDepth(2);
+
+        for (CompletableFuture<QueryTransactionResponse> future : futures) {
+            assertTrue(future.get(10, TimeUnit.SECONDS).getErrors().isEmpty());
+        }
+        assertEquals(CALLS, server.getRequestCount());
+        assertEquals(2, server.getMaxConcurrentRequests());
+        ConcurrencyLimitStats stats = client.getConcurrencyLimitStats();
+        assertEquals(0, stats.getInFlight());
+        assertEquals(0, stats.getQueueDepth());
+        assertEquals(0, stats.getRejectedCalls());
+    }
+
+    @Test
+    public void testCallsAboveTheLimitAreRejectedWhenTheQueueIsFull() throws Exception {
+        client = newClient(ConcurrencyLimitPolicy.builder().limits(2, 2, 2).maxQueueDepth(0));
+        int rejected = 0;
+        for (CompletableFuture<QueryTransactionResponse> future : queryAsync()) {
+            List<String> errors = future.get(10, TimeUnit.SECONDS).getErrors();
+            if (!errors.isEmpty()) {
+                assertEquals(Constant.COMMUNICATION_FAILURE_ERROR_CODE, errors.get(0));
+                rejected++;
+            }
+        }
+        assertEquals(CALLS - server.getRequestCount(), rejected);
+        assertTrue(server.getMaxConcurrentRequests() <= 2);
+        assertEquals(rejected, client.getConcurrencyLimitStats().getRejectedCalls());
+    }
+
+    @Test
+    public void testEachApiKeyHasItsOwnLimiter() {
+        client = newClient(ConcurrencyLimitPolicy.builder().limits(3, 1, 10));
+        assertEquals(3, client.getConcurrencyLimitStats().getLimit());
+        client.setCredentials("otherKey", "password");
+        assertEquals(3, client.getConcurrencyLimitStats().getLimit());
+        assertEquals(0, client.getConcurrencyLimitStats().getInFlight());
+    }
+
+    @Test
+    public void testUnexpectedErrorsShrinkTheLimit() {
+        client = newClient(ConcurrencyLimitPolicy.builder().limits(8, 1, 10));
+        server.setDelayMillis(0);
+        server.setResponse(200, UNREADABLE_CANCEL_RESPONSE);
+        try {
+            client.cancel(cancellation());
+            fail("Expected the transaction ID not to parse");
+        } catch (NumberFormatException expected) {
+            // not a RapidSdkException, so it reaches the caller
+        }
+        ConcurrencyLimitStats stats = client.getConcurrencyLimitStats();
+        assertTrue(stats.getLimit() < 8);
+        assertEquals(0, stats.getInFlight());
+    }
+
+    @Test
+    public void testLimiterOfAReplacedApiKeyIsDropped() {
+        client = newClient(ConcurrencyLimitPolicy.builder().limits(8, 1, 10));
+        server.setDelayMillis(0);
+        server.setResponse(200, UNREADABLE_CANCEL_RESPONSE);
+        try {
+            client.cancel(cancellation());
+            fail("Expected the transaction ID not to parse");
+        } catch (NumberFormatException expected) {
+            // shrinks the limit of the API key
+        }
+        assertTrue(client.getConcurrencyLimitStats().getLimit() < 8);
+
+        client.setCredentials("otherKey", "password");
+        client.setCredentials("apiKey", "password");
+        assertEquals(8, client.getConcurrencyLimitStats().getLimit());
+    }
+
+    @Test
+    public void testDisabledByDefault() throws Exception {
+        client = newClient(null);
+        for (CompletableFuture<QueryTransactionResponse> future : queryAsync()) {
+            assertTrue(future.get(10, TimeUnit.SECONDS).getErrors().isEmpty());
+        }
+        assertEquals(0, client.getConcurrencyLimitStats().getLimit());
+    }
+
+    private List<CompletableFuture<QueryTransactionResponse>> queryAsync() {
+        List<CompletableFuture<QueryTransactionResponse>> futures = new ArrayList<CompletableFuture<QueryTransactionResponse>>();
+        for (int i = 1; i <= CALLS; i++) {
+            futures.add(client.queryTransactionAsync(i));
+        }
+        return futures;
+    }
+
+    private static Refund cancellation() {
+        Refund refund = new Refund();
+        refund.setRefundDetails(InputModelFactory.initRefundDetails());
+        refund.getRefundDetails().setOriginalTransactionID("11735670");
+        return refund;
+    }
+
+    private void awaitQueueDepth(int depth) throws InterruptedException {
+        long until = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (client.getConcurrencyLimitStats().getQueueDepth() < depth && System.nanoTime() < until) {
+            Thread.sleep(1);
+        }
+        assertEquals(depth, client.getConcurrencyLimitStats().getQueueDepth());
+    }
+
+    private RapidClient newClient(ConcurrencyLimitPolicy.Builder policy) {
+        return RapidSDK.builder().credentials("apiKey", "password")
+                .endpoint(server.getUrl())
+                .endpointVerification(EndpointVerification.NONE)
+                .concurrencyLimit(policy != null ? policy.build() : null)
+                .build();
+    }
+}
@@ -0,0 +1,124 @@
+package com.eway.payment.rapid.sdk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+import com.eway.payment.rapid.sdk.output.QueryTransactionResponse;
+
+/**
+ * Rotates the credentials of a client while many threads query through it,
+ * and checks every request the stub received carried a matching API key and
+ * password.
+ */
+@RunWith(Parameterized.class)
+public class RapidClientCredentialRotationTest {
+
+    private static final int THREADS = 16;
+    private static final int ROTATIONS = 40;
+
+    @Parameters(name = "{0}")
+    public static Collection<Object[]> transports() {
+        return Arrays.asList(new Object[][] {{TransportType.JERSEY}, {TransportType.JDK_HTTP_CLIENT}});
+    }
+
+    private final TransportType transportType;
+    private StubRapidServer server;
+    private RapidClient client;
+
+    public RapidClientCredentialRotationTest(TransportType transportType) {
+        this.transportType = transportType;
+    }
+
+    @Before
+    public void setup() throws Exception {
+        server = new StubRapidServer();
+        client = RapidSDK.builder()
+                .credentials("key0", "password0")
+                .endpoint(server.getUrl())
+                .transportType(transportType)
+                // the stub may close a pooled connection as it is reused, which is not what this test is about
+                .retryPolicy(OperationType.QUERY, RetryPolicy.of(3, 1, 10, TimeUnit.MILLISECONDS))
+                .build();
+    }
+
+    @After
+    public void tearDown() {
+        client.close();
+        server.stop();
+    }
+
+    @Test
+    public void testRequestsNeverMixOldAndNewCredentials() throws Exception {
+        final AtomicBoolean rotating = new AtomicBoolean(true);
+        final Queue<List<String>> failures = new ConcurrentLinkedQueue<List<String>>();
+        final CountDownLatch started = new CountDownLatch(THREADS);
+        Thread[] threads = new Thread[THREADS];
+        for (int t = 0; t < THREADS; t++) {
+            threads[t] = new Thread(new Runnable() {
+                public void run() {
+                    started.countDown();
+                    boolean last;
+                    do {
+                        // one more query after the last rotation
+                        last = !rotating.get();
+                        QueryTransactionResponse response = client.queryTransaction(1);
+                        if (!response.getErrors().isEmpty()) {
+                            failures.add(response.getErrors());
+                        }
+                    } while (!last);
+                }
+            });
+            threads[t].start();
+        }
+        started.await();
+        for (int i = 1; i <= ROTATIONS; i++) {
+            int sent = server.getRequestCount();
+            client.setCredentials("key" + i, "password" + i);
+            // let some requests go out with these credentials before the next rotation
+            long timeout = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (server.getRequestCount() < sent + THREADS && System.nanoTime() < timeout) {
+                Thread.sleep(1);
+            }
+        }
+        rotating.set(false);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertTrue("failed requests " + failures, failures.isEmpty());
+        Set<String> seen = new HashSet<String>();
+        for (String authorization : server.getRequestHeaders("Authorization")) {
+            String[] credentials = credentials(authorization);
+            assertEquals(authorization, credentials[0].substring("key".length()), credentials[1].substring("password".length()));
+            seen.add(credentials[0]);
+        }
+        assertTrue("credentials seen " + seen, seen.size() > 2);
+        assertEquals("key" + ROTATIONS, credentials(server.getLastRequestHeader("Authorization"))[0]);
+    }
+
+    private static String[] credentials(String authorization) {
+        String decoded = new String(Base64.getDecoder().decode(authorization.substring("Basic ".length())),
+                Charset.forName("ISO-8859-1"));
+        return decoded.split(":");
+    }
+}
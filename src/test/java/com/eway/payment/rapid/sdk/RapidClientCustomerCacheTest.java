@@ -0,0 +1,81 @@
+package com.eway.payment.rapid.sdk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.eway.payment.rapid.sdk.beans.external.Customer;
+import com.eway.payment.rapid.sdk.beans.external.PaymentMethod;
+import com.eway.payment.rapid.sdk.cache.CacheStats;
+import com.eway.payment.rapid.sdk.output.QueryCustomerResponse;
+
+public class RapidClientCustomerCacheTest {
+
+    private static final String CUSTOMER_RESPONSE = "{\"Customers\":[{\"TokenCustomerID\":\"987654321\",\"FirstName\":\"John\"}],\"Errors\":\"\"}";
+    private static final String UPDATE_RESPONSE = "{\"Customer\":{\"TokenCustomerID\":\"987654321\"},\"Errors\":\"\"}";
+
+    private StubRapidServer server;
+    private RapidClient client;
+
+    @Before
+    public void setup() throws Exception {
+        server = new StubRapidServer();
+        server.setResponse(200, CUSTOMER_RESPONSE);
+        client = RapidSDK.newRapidClient("apiKey", "password", server.getUrl(),
+                RapidClientConfig.builder().tokenCustomerCache(100, 1, TimeUnit.MINUTES).build());
+    }
+
+    @After
+    public void tearDown() {
+        client.close();
+        server.stop();
+    }
+
+    @Test
+    public void testRepeatedQueryIsServedFromCache() {
+        QueryCustomerResponse first = client.queryCustomer(987654321L);
+        QueryCustomerResponse second = client.queryCustomer(987654321L);
+        assertEquals("John", first.getFirstName());
+        assertSame(first, second);
+        assertEquals(1, server.getRequestCount());
+        CacheStats stats = client.getTokenCustomerCacheStats();
+        assertEquals(1, stats.getHits());
+        assertEquals(1, stats.getMisses());
+    }
+
+    @Test
+    public void testUpdateInvalidatesCustomer() {
+        client.queryCustomer(987654321L);
+        server.setResponse(200, UPDATE_RESPONSE);
+        Customer customer = new Customer();
+        customer.setTokenCustomerID("987654321");
+        assertTrue(client.update(PaymentMethod.Direct, customer).getErrors().isEmpty());
+        server.setResponse(200, CUSTOMER_RESPONSE);
+        client.queryCustomer(987654321L);
+        assertEquals(3, server.getRequestCount());
+    }
+
+    @Test
+    public void testNewCredentialsAreNotServedFromCache() {
+        client.queryCustomer(987654321L);
+        client.setCredentials("otherApiKey", "otherPassword");
+        int before = server.getRequestCount();
+        client.queryCustomer(987654321L);
+        assertEquals(before + 1, server.getRequestCount());
+        assertEquals(0, client.getTokenCustomerCacheStats().getHits());
+    }
+
+    @Test
+    public void testFailedQueryIsNotCached() {
+        server.setResponse(200, "{\"Customers\":[],\"Errors\":\"V6040\"}");
+        client.queryCustomer(1L);
+        client.queryCustomer(1L);
+        assertEquals(2, server.getRequestCount());
+    }
+}
@@ -0,0 +1,158 @@
+package com.eway.payment.rapid.sdk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.eway.payment.rapid.sdk.resilience.CircuitBreakerListener;
+import com.eway.payment.rapid.sdk.resilience.CircuitBreakerPolicy;
+import com.eway.payment.rapid.sdk.resilience.CircuitBreakerStats;
+import com.eway.payment.rapid.sdk.resilience.CircuitState;
+import com.eway.payment.rapid.sdk.resilience.EndpointRoutingPolicy;
+import com.eway.payment.rapid.sdk.resilience.EndpointStats;
+
+public class RapidClientEndpointRoutingTest {
+
+    private StubRapidServer first;
+    private StubRapidServer second;
+    private RapidClient client;
+
+    @Before
+    public void setup() throws Exception {
+        first = new StubRapidServer();
+        second = new StubRapidServer();
+    }
+
+    @After
+    public void tearDown() {
+        if (client != null) {
+            client.close();
+        }
+        first.stop();
+        second.stop();
+    }
+
+    @Test
+    public void testCallsGoToTheFasterEndpoint() {
+        client = newClient(RapidSDK.builder());
+        first.setDelayMillis(100);
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(client.queryTransaction(i).getErrors().isEmpty());
+        }
+        assertEquals(1, first.getRequestCount());
+        assertEquals(9, second.getRequestCount());
+        List<EndpointStats> stats = client.getEndpointStats();
+        assertEquals(first.getUrl(), stats.get(0).getUrl());
+        assertTrue(stats.get(0).getRoundTripMillis() > stats.get(1).getRoundTripMillis());
+    }
+
+    @Test
+    public void testRetryGoesToAnotherEndpoint() {
+        client = newClient(RapidSDK.builder().retryPolicy(RetryPolicy.of(2, 10, 10, TimeUnit.MILLISECONDS)));
+        first.stop();
+
+        assertTrue(client.queryTransaction(1).getErrors().isEmpty());
+        assertEquals(1, second.getRequestCount());
+        assertEquals(1, client.getEndpointStats().get(0).getConsecutiveFailures());
+    }
+
+    @Test
+    public void testFailingEndpointIsEjectedUntilProbed() throws Exception {
+        client = newClient(RapidSDK.builder().endpointRouting(EndpointRoutingPolicy.builder()
+                .ejectAfterFailures(1)
+                .probeInterval(100, TimeUnit.MILLISECONDS)
+                .build()));
+        first.setResponse(503, "");
+
+        client.queryTransaction(1);
+        for (int i = 0; i < 3; i++) {
+            assertTrue(client.queryTransaction(i).getErrors().isEmpty());
+        }
+        assertEquals(1, first.getRequestCount());
+        assertTrue(client.getEndpointStats().get(0).isEjected());
+
+        first.setResponse(200, StubRapidServer.EMPTY_SEARCH_RESPONSE);
+        Thread.sleep(150);
+        // finds the probe due, and is sent to the other endpoint meanwhile
+        assertTrue(client.queryTransaction(1).getErrors().isEmpty());
+        long waitUntil = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (client.getEndpointStats().get(0).isEjected() && System.nanoTime() < waitUntil) {
+            Thread.sleep(10);
+        }
+        assertFalse(client.getEndpointStats().get(0).isEjected());
+    }
+
+    @Test
+    public void testEachEndpointHasItsOwnCircuitBreaker() {
+        final List<String> opened = new CopyOnWriteArrayList<String>();
+        client = newClient(RapidSDK.builder()
+                .endpointRouting(EndpointRoutingPolicy.builder().ejectAfterFailures(100).build())
+                .circuitBreaker(CircuitBreakerPolicy.builder().failureRateThreshold(50).window(2, 2)
+                        .openDuration(1, TimeUnit.MINUTES).build())
+                .circuitBreakerListener(new CircuitBreakerListener() {
+                    public void stateChanged(String endpoint, CircuitState from, CircuitState to) {
+                        if (to == CircuitState.OPEN) {
+                            opened.add(endpoint);
+                        }
+                    }
+                }));
+        first.setResponse(503, "");
+
+        int failed = 0;
+        for (int i = 0; i < 10; i++) {
+            if (!client.queryTransaction(i).getErrors().isEmpty()) {
+                failed++;
+            }
+        }
+        // the open breaker of the first endpoint passes it over rather than failing calls
+        assertEquals(2, failed);
+        assertEquals(2, first.getRequestCount());
+        assertEquals(Arrays.asList(first.getUrl()), opened);
+        CircuitBreakerStats stats = client.getCircuitBreakerStats();
+        assertEquals(CircuitState.CLOSED, stats.getState());
+        assertEquals(2, stats.getFailedCalls());
+        assertTrue(stats.getRejectedCalls() > 0);
+    }
+
+    @Test
+    public void testUnreachableEndpointIsEjectedByVerification() {
+        String unreachable = first.getUrl();
+        first.stop();
+        client = RapidSDK.builder().credentials("apiKey", "password")
+                .endpoints(unreachable, second.getUrl())
+                .build();
+
+        assertTrue(client.isValid());
+        assertTrue(client.getEndpointStats().get(0).isEjected());
+        assertTrue(client.queryTransaction(1).getErrors().isEmpty());
+        assertEquals(1, second.getRequestCount());
+    }
+
+    @Test
+    public void testSingleEndpointIsNotRouted() {
+        client = RapidSDK.builder().credentials("apiKey", "password")
+                .endpoint(second.getUrl())
+                .endpointVerification(EndpointVerification.NONE)
+                .build();
+
+        assertTrue(client.queryTransaction(1).getErrors().isEmpty());
+        assertTrue(client.getEndpointStats().isEmpty());
+    }
+
+    private RapidClient newClient(RapidSDK.Builder builder) {
+        return builder.credentials("apiKey", "password")
+                .endpoints(first.getUrl(), second.getUrl())
+                .endpointVerification(EndpointVerification.NONE)
+                .build();
+    }
+}
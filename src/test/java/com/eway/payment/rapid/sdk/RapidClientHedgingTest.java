@@ -0,0 +1,129 @@
+package com.eway.payment.rapid.sdk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.eway.payment.rapid.sdk.beans.external.PaymentMethod;
+import com.eway.payment.rapid.sdk.resilience.HedgingPolicy;
+import com.eway.payment.rapid.sdk.resilience.HedgingStats;
+import com.eway.payment.rapid.sdk.util.Constant;
+
+public class RapidClientHedgingTest {
+
+    private static final int WARM_UP_QUERIES = 5;
+    private static final String CUSTOMER_RESPONSE = "{\"Customers\":[{\"TokenCustomerID\":\"987654321098\"}],\"Errors\":\"\"}";
+
+    private StubRapidServer server;
+    private RapidClient client;
+
+    @Before
+    public void setup() throws Exception {
+        server = new StubRapidServer();
+    }
+
+    @After
+    public void tearDown() {
+        if (client != null) {
+            client.close();
+        }
+        server.stop();
+    }
+
+    @Test
+    public void testSlowQueryIsAnsweredByTheHedge() {
+        client = newClient(HedgingPolicy.builder().budgetPercent(100));
+        warmUp();
+        server.queueDelayMillis(3000);
+
+        long start = System.nanoTime();
+        assertTrue(client.queryTransaction(1).getErrors().isEmpty());
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(1500));
+        assertEquals(WARM_UP_QUERIES + 2, server.getRequestCount());
+        HedgingStats stats = client.getHedgingStats();
+        assertEquals(1, stats.getHedged());
+        assertEquals(1, stats.getHedgesWon());
+    }
+
+    @Test
+    public void testSlowCustomerQueryIsAnsweredByTheHedge() {
+        client = newClient(HedgingPolicy.builder().budgetPercent(100));
+        warmUp();
+        server.setResponse(200, CUSTOMER_RESPONSE);
+        server.queueDelayMillis(3000);
+
+        long start = System.nanoTime();
+        assertTrue(client.queryCustomer(987654321098L).getErrors().isEmpty());
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(1500));
+        assertEquals(1, client.getHedgingStats().getHedgesWon());
+    }
+
+    @Test
+    public void testBudgetCapsHedges() {
+        client = newClient(HedgingPolicy.builder().budgetPercent(1));
+        warmUp();
+        server.queueDelayMillis(300);
+
+        assertTrue(client.queryTransaction(1).getErrors().isEmpty());
+        assertEquals(WARM_UP_QUERIES + 1, server.getRequestCount());
+        HedgingStats stats = client.getHedgingStats();
+        assertEquals(0, stats.getHedged());
+        assertEquals(1, stats.getOverBudget());
+    }
+
+    @Test
+    public void testFailureIsReturnedOnceEveryRequestFailed() {
+        client = newClient(HedgingPolicy.builder().budgetPercent(100));
+        warmUp();
+        server.queueDelayMillis(300);
+        server.queueResponse(200, "{\"Transactions\":");
+        server.queueResponse(200, "{\"Transactions\":");
+
+        assertEquals(Arrays.asList(Constant.COMMUNICATION_FAILURE_ERROR_CODE), client.queryTransaction(1).getErrors());
+        assertEquals(WARM_UP_QUERIES + 2, server.getRequestCount());
+    }
+
+    @Test
+    public void testPaymentsAreNotHedged() {
+        client = newClient(HedgingPolicy.builder().budgetPercent(100));
+        warmUp();
+        server.queueDelayMillis(300);
+        server.setResponse(200, "{\"AccessCode\":\"F9802j0\",\"Errors\":null}");
+
+        client.create(PaymentMethod.TransparentRedirect, InputModelFactory.createTransaction());
+        assertEquals(WARM_UP_QUERIES + 1, server.getRequestCount());
+        assertEquals(WARM_UP_QUERIES, client.getHedgingStats().getQueries());
+    }
+
+    @Test
+    public void testDisabledByDefault() {
+        client = newClient(null);
+        warmUp();
+        HedgingStats stats = client.getHedgingStats();
+        assertEquals(0, stats.getQueries());
+        assertEquals(-1, stats.getDelayMillis());
+    }
+
+    /**
+     * Make enough fast queries for the client to know its hedge delay
+     */
+    private void warmUp() {
+        for (int i = 0; i < WARM_UP_QUERIES; i++) {
+            assertTrue(client.queryTransaction(100 + i).getErrors().isEmpty());
+        }
+    }
+
+    private RapidClient newClient(HedgingPolicy.Builder policy) {
+        return RapidSDK.builder().credentials("apiKey", "password")
+                .endpoint(server.getUrl())
+                .endpointVerification(EndpointVerification.NONE)
+                .hedging(policy != null ? policy.delayPercentile(50).window(10, WARM_UP_QUERIES).build() : null)
+                .build();
+    }
+}
@@ -0,0 +1,117 @@
+package com.eway.payment.rapid.sdk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.eway.payment.rapid.sdk.message.process.transport.ConnectionPoolStats;
+import com.eway.payment.rapid.sdk.output.QueryTransactionResponse;
+
+public class RapidClientPoolTest {
+
+    private StubRapidServer server;
+    private RapidClient client;
+
+    @Before
+    public void setup() throws Exception {
+        server = new StubRapidServer();
+        client = RapidSDK.newRapidClient("apiKey", "password", server.getUrl());
+    }
+
+    @After
+    public void tearDown() {
+        client.close();
+        server.stop();
+    }
+
+    @Test
+    public void testRequestsShareOneConnection() {
+        for (int i = 0; i < 5; i++) {
+            QueryTransactionResponse response = client.queryTransaction(i + 1);
+            assertTrue(response.getErrors().isEmpty());
+        }
+        assertEquals(5, server.getRequestCount());
+        assertEquals(1, server.getConnectionCount());
+    }
+
+    @Test
+    public void testUnchangedConfigurationKeepsConnection() {
+        client.setVersion("40");
+        client.queryTransaction(1);
+        client.setVersion("40");
+        client.setDebug(false);
+        client.setCredentials("apiKey", "password");
+        client.queryTransaction(2);
+        assertEquals(1, server.getConnectionCount());
+    }
+
+    @Test
+    public void testChangedConfigurationRebuildsClient() {
+        client.queryTransaction(1);
+        client.setCredentials("apiKey", "rotated");
+        client.queryTransaction(2);
+        assertEquals(2, server.getConnectionCount());
+    }
+
+    @Test
+    public void testClientUsableAfterClose() {
+        client.queryTransaction(1);
+        client.close();
+        QueryTransactionResponse response = client.queryTransaction(2);
+        assertTrue(response.getErrors().isEmpty());
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    public void testPoolStatsCountLeases() {
+        for (int i = 0; i < 3; i++) {
+            client.queryTransaction(i + 1);
+        }
+        ConnectionPoolStats stats = client.getConnectionPoolStats();
+        assertEquals(0, stats.getLeased());
+        assertEquals(1, stats.getIdle());
+        assertEquals(0, stats.getPending());
+        assertEquals(20, stats.getMax());
+        assertEquals(3, stats.getLeaseCount());
+    }
+
+    @Test
+    public void testSaturatedPoolQueuesRequests() {
+        client.close();
+        client = RapidSDK.newRapidClient("apiKey", "password", server.getUrl(),
+                RapidClientConfig.builder().connectionPool(1, 1).build());
+        server.setDelayMillis(100);
+        List<CompletableFuture<QueryTransactionResponse>> responses = new ArrayList<CompletableFuture<QueryTransactionResponse>>();
+        for (int i = 0; i < 3; i++) {
+            responses.add(client.queryTransactionAsync(i + 1));
+        }
+        for (CompletableFuture<QueryTransactionResponse> response : responses) {
+            assertTrue(response.join().getErrors().isEmpty());
+        }
+        ConnectionPoolStats stats = client.getConnectionPoolStats();
+        assertEquals(1, server.getConnectionCount());
+        assertEquals(1, stats.getMax());
+        assertEquals(3, stats.getLeaseCount());
+        // the requests took turns on the one connection, waiting 0, 100 and 200ms
+        assertTrue(stats.getAverageLeaseWaitMillis() > 50);
+    }
+
+    @Test
+    public void testIdleConnectionIsNotReused() throws InterruptedException {
+        client.close();
+        client = RapidSDK.newRapidClient("apiKey", "password", server.getUrl(),
+                RapidClientConfig.builder().idleConnectionTimeout(50, TimeUnit.MILLISECONDS).build());
+        client.queryTransaction(1);
+        Thread.sleep(150);
+        client.queryTransaction(2);
+        assertEquals(2, server.getConnectionCount());
+    }
+}
@@ -0,0 +1,88 @@
+package com.eway.payment.rapid.sdk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.eway.payment.rapid.sdk.beans.external.TransactionFilter;
+import com.eway.payment.rapid.sdk.output.QueryTransactionResponse;
+import com.eway.payment.rapid.sdk.resilience.PriorityLanePolicy;
+
+public class RapidClientPriorityLaneTest {
+
+    private static final long DELAY_MILLIS = 300;
+
+    private StubRapidServer server;
+    private RapidClient client;
+
+    @Before
+    public void setup() throws Exception {
+        server = new StubRapidServer();
+        server.setDelayMillis(DELAY_MILLIS);
+        client = RapidSDK.builder().credentials("apiKey", "password")
+                .endpoint(server.getUrl())
+                .endpointVerification(EndpointVerification.NONE)
+                .priorityLanes(PriorityLanePolicy.builder().totalConcurrency(2).build())
+                .build();
+    }
+
+    @After
+    public void tearDown() {
+        client.close();
+        server.stop();
+    }
+
+    @Test
+    public void testInteractiveCallsDoNotWaitBehindBackgroundWork() throws Exception {
+        RapidClient background = client.withPriority(RequestPriority.BACKGROUND);
+        List<CompletableFuture<QueryTransactionResponse>> futures = new ArrayList<CompletableFuture<QueryTransactionResponse>>();
+        for (int i = 1; i <= 3; i++) {
+            futures.add(background.queryTransactionAsync(i));
+        }
+
+        long start = System.nanoTime();
+        assertTrue(client.queryTransaction(100).getErrors().isEmpty());
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(DELAY_MILLIS * 2));
+        for (CompletableFuture<QueryTransactionResponse> future : futures) {
+            assertTrue(future.get(10, TimeUnit.SECONDS).getErrors().isEmpty());
+        }
+        // background work gets a quarter of the two calls in flight, so one at a time
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(DELAY_MILLIS * 2));
+        assertEquals(2, server.getMaxConcurrentRequests());
+    }
+
+    @Test
+    public void testBulkQueriesOfAViewAreMadeInItsLane() {
+        List<TransactionFilter> filters = new ArrayList<TransactionFilter>();
+        for (int i = 1; i <= 3; i++) {
+            TransactionFilter filter = new TransactionFilter();
+            filter.setTransactionId(i);
+            filters.add(filter);
+        }
+        Map<TransactionFilter, QueryTransactionResponse> results = client.withPriority(RequestPriority.BACKGROUND)
+                .queryTransactions(filters);
+        assertEquals(filters, new ArrayList<TransactionFilter>(results.keySet()));
+        assertEquals(3, server.getRequestCount());
+        assertEquals(1, server.getMaxConcurrentRequests());
+    }
+
+    @Test
+    public void testViewSharesTheClient() {
+        RapidClient view = client.withPriority(RequestPriority.INTERACTIVE_PAYMENT);
+        view.setCredentials("otherKey", "password");
+        assertTrue(client.queryTransaction(1).getErrors().isEmpty());
+        String expected = "Basic " + Base64.getEncoder().encodeToString("otherKey:password".getBytes(StandardCharsets.UTF_8));
+        assertEquals(expected, server.getLastRequestHeader("Authorization"));
+    }
+}
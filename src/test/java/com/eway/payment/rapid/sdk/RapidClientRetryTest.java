@@ -0,0 +1,306 @@
+package com.eway.payment.rapid.sdk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.eway.payment.rapid.sdk.beans.external.PaymentMethod;
+import com.eway.payment.rapid.sdk.beans.external.Refund;
+import com.eway.payment.rapid.sdk.beans.external.Transaction;
+import com.eway.payment.rapid.sdk.output.CreateTransactionResponse;
+import com.eway.payment.rapid.sdk.output.QueryTransactionResponse;
+import com.eway.payment.rapid.sdk.output.RefundResponse;
+import com.eway.payment.rapid.sdk.util.Constant;
+
+public class RapidClientRetryTest {
+
+    // a response Rapid would never send, read as a communication failure
+    private static final String MALFORMED_RESPONSE = "{\"Transactions\":";
+    private static final String DIRECT_PAYMENT_RESPONSE = "{\"TransactionID\":\"11735670\",\"TransactionStatus\":true,"
+            + "\"ResponseCode\":\"00\",\"Payment\":{\"TotalAmount\":1000},\"Customer\":{},\"Errors\":\"\"}";
+    private static final String FOUND_RESPONSE = "{\"Transactions\":[{\"TransactionID\":22334455,\"TransactionStatus\":true,"
+            + "\"TransactionCaptured\":true,\"ResponseCode\":\"00\",\"TotalAmount\":1000,\"Customer\":{}}],\"Errors\":null}";
+    // an earlier payment that reused the invoice reference and was declined
+    private static final String DECLINED_RESPONSE = "{\"Transactions\":[{\"TransactionID\":22334400,\"TransactionStatus\":false,"
+            + "\"TransactionCaptured\":false,\"ResponseCode\":\"05\",\"TotalAmount\":1000,\"Customer\":{}}],\"Errors\":null}";
+    // the authorisation a capture is made for, which has the capture's invoice reference
+    private static final String AUTHORISATION_RESPONSE = "{\"Transactions\":[{\"TransactionID\":11735600,\"TransactionStatus\":true,"
+            + "\"TransactionCaptured\":false,\"ResponseCode\":\"00\",\"TotalAmount\":1000,\"Customer\":{}}],\"Errors\":null}";
+    private static final RetryPolicy RETRY_POLICY = RetryPolicy.of(3, 10, 40, TimeUnit.MILLISECONDS);
+
+    private final List<String> retries = new CopyOnWriteArrayList<String>();
+    private StubRapidServer server;
+    private RapidClient client;
+
+    @Before
+    public void setup() throws Exception {
+        server = new StubRapidServer();
+    }
+
+    @After
+    public void tearDown() {
+        if (client != null) {
+            client.close();
+        }
+        server.stop();
+    }
+
+    @Test
+    public void testQueryIsRetriedAfterCommunicationFailure() {
+        client = newClient(RapidSDK.builder().retryPolicy(RETRY_POLICY));
+        server.queueResponse(200, MALFORMED_RESPONSE);
+        server.queueResponse(200, MALFORMED_RESPONSE);
+
+        QueryTransactionResponse response = client.queryTransaction(1);
+        assertTrue(response.getErrors().isEmpty());
+        assertEquals(3, server.getRequestCount());
+        assertEquals(Arrays.asList("QUERY 1 S9992", "QUERY 2 S9992"), retries);
+    }
+
+    @Test
+    public void testQueryGivesUpAfterMaxAttempts() {
+        client = newClient(RapidSDK.builder().retryPolicy(RETRY_POLICY));
+        for (int i = 0; i < 5; i++) {
+            server.queueResponse(200, MALFORMED_RESPONSE);
+        }
+
+        QueryTransactionResponse response = client.queryTransaction(1);
+        assertEquals(Arrays.asList(Constant.COMMUNICATION_FAILURE_ERROR_CODE), response.getErrors());
+        assertEquals(3, server.getRequestCount());
+        assertEquals(2, retries.size());
+    }
+
+    @Test
+    public void testNothingIsRetriedByDefault() {
+        client = newClient(RapidSDK.builder());
+        server.queueResponse(200, MALFORMED_RESPONSE);
+
+        assertEquals(Arrays.asList(Constant.COMMUNICATION_FAILURE_ERROR_CODE), client.queryTransaction(1).getErrors());
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void testHttpErrorIsNotRetried() {
+        client = newClient(RapidSDK.builder().retryPolicy(RETRY_POLICY));
+        server.queueResponse(500, "");
+
+        assertEquals(Arrays.asList(Constant.INTERNAL_RAPID_SERVER_ERROR_CODE), client.queryTransaction(1).getErrors());
+        assertEquals(1, server.getRequestCount());
+        assertTrue(retries.isEmpty());
+    }
+
+    @Test
+    public void testRetryStopsBeforeDeadline() {
+        client = newClient(RapidSDK.builder()
+                .retryPolicy(RetryPolicy.of(5, 2, 2, TimeUnit.SECONDS))
+                .timeouts(OperationType.QUERY, OperationTimeouts.of(1, 1, 1, TimeUnit.SECONDS)));
+        server.queueResponse(200, MALFORMED_RESPONSE);
+
+        long start = System.nanoTime();
+        assertEquals(Arrays.asList(Constant.COMMUNICATION_FAILURE_ERROR_CODE), client.queryTransaction(1).getErrors());
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(500));
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void testPaymentThatWentThroughIsNotSentAgain() {
+        client = newClient(RapidSDK.builder().retryPolicy(RETRY_POLICY));
+        server.queueResponse(200, MALFORMED_RESPONSE);
+        server.queueResponse(200, FOUND_RESPONSE);
+
+        CreateTransactionResponse response = client.create(PaymentMethod.Direct, transaction("513456"));
+        assertTrue(response.getErrors().isEmpty());
+        assertEquals(22334455, response.getTransactionStatus().getTransactionID());
+        assertEquals(Arrays.asList("POST /DirectPayment.json", "GET /Transaction/InvoiceRef/513456"), server.getRequests());
+    }
+
+    @Test
+    public void testPaymentOutcomeIsUnknownWhenNotFound() {
+        client = newClient(RapidSDK.builder().retryPolicy(RETRY_POLICY));
+        server.setResponse(200, DIRECT_PAYMENT_RESPONSE);
+        server.queueResponse(200, MALFORMED_RESPONSE);
+        server.queueResponse(200, StubRapidServer.EMPTY_SEARCH_RESPONSE);
+
+        CreateTransactionResponse response = client.create(PaymentMethod.Direct, transaction("513456"));
+        assertEquals(Arrays.asList(Constant.OUTCOME_UNKNOWN_ERROR_CODE), response.getErrors());
+        assertEquals(Arrays.asList("POST /DirectPayment.json", "GET /Transaction/InvoiceRef/513456"), server.getRequests());
+        assertTrue(retries.isEmpty());
+    }
+
+    @Test
+    public void testPaymentOutcomeIsUnknownWhenOnlyADeclineIsFound() {
+        client = newClient(RapidSDK.builder().retryPolicy(RETRY_POLICY));
+        server.setResponse(200, DIRECT_PAYMENT_RESPONSE);
+        server.queueResponse(200, MALFORMED_RESPONSE);
+        server.queueResponse(200, DECLINED_RESPONSE);
+
+        CreateTransactionResponse response = client.create(PaymentMethod.Direct, transaction("513456"));
+        assertEquals(Arrays.asList(Constant.OUTCOME_UNKNOWN_ERROR_CODE), response.getErrors());
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    public void testPaymentOutcomeIsUnknownWhenAnotherAmountIsFound() {
+        client = newClient(RapidSDK.builder().retryPolicy(RETRY_POLICY));
+        server.setResponse(200, DIRECT_PAYMENT_RESPONSE);
+        server.queueResponse(200, MALFORMED_RESPONSE);
+        server.queueResponse(200, FOUND_RESPONSE);
+        Transaction transaction = transaction("513456");
+        transaction.getPaymentDetails().setTotalAmount(2500);
+
+        CreateTransactionResponse response = client.create(PaymentMethod.Direct, transaction);
+        assertEquals(Arrays.asList(Constant.OUTCOME_UNKNOWN_ERROR_CODE), response.getErrors());
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    public void testPaymentThatCouldNotConnectIsSentAgain() throws Exception {
+        server.stop();
+        final int port;
+        ServerSocket socket = new ServerSocket(0);
+        try {
+            port = socket.getLocalPort();
+        } finally {
+            socket.close();
+        }
+        // nothing listens on the port until the payment is retried
+        client = RapidSDK.builder().retryPolicy(RETRY_POLICY)
+                .credentials("apiKey", "password")
+                .endpoint("http://localhost:" + port + "/")
+                .endpointVerification(EndpointVerification.NONE)
+                .metricsListener(new MetricsListener() {
+                    public void callCompleted(OperationType operation, long durationNanos, String errorCode) {
+                    }
+
+                    @Override
+                    public void callRetried(OperationType operation, int attempt, String errorCode) {
+                        retries.add(operation + " " + attempt + " " + errorCode);
+                        try {
+                            server = new StubRapidServer(port);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        server.setResponse(200, DIRECT_PAYMENT_RESPONSE);
+                    }
+                })
+                .build();
+
+        CreateTransactionResponse response = client.create(PaymentMethod.Direct, transaction("513456"));
+        assertTrue(response.getErrors().isEmpty());
+        assertEquals(11735670, response.getTransactionStatus().getTransactionID());
+        assertEquals(Arrays.asList("PAYMENT 1 S9992"), retries);
+        assertEquals(Arrays.asList("POST /DirectPayment.json"), server.getRequests());
+    }
+
+    @Test
+    public void testFailedCaptureIsNotMistakenForItsAuthorisation() {
+        client = newClient(RapidSDK.builder().retryPolicy(RETRY_POLICY));
+        server.queueResponse(200, MALFORMED_RESPONSE);
+        server.queueResponse(200, AUTHORISATION_RESPONSE);
+        Transaction capture = transaction("513456");
+        capture.setAuthTransactionID(11735600);
+
+        CreateTransactionResponse response = client.create(PaymentMethod.Authorisation, capture);
+        assertEquals(Arrays.asList(Constant.COMMUNICATION_FAILURE_ERROR_CODE), response.getErrors());
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void testPaymentWithoutInvoiceReferenceIsNotSentAgain() {
+        client = newClient(RapidSDK.builder().retryPolicy(RETRY_POLICY));
+        server.queueResponse(200, MALFORMED_RESPONSE);
+
+        CreateTransactionResponse response = client.create(PaymentMethod.Direct, transaction(null));
+        assertEquals(Arrays.asList(Constant.COMMUNICATION_FAILURE_ERROR_CODE), response.getErrors());
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void testPaymentIsNotSentAgainWhenLookupFails() {
+        client = newClient(RapidSDK.builder().retryPolicy(RETRY_POLICY));
+        server.queueResponse(200, MALFORMED_RESPONSE);
+        server.queueResponse(200, MALFORMED_RESPONSE);
+
+        CreateTransactionResponse response = client.create(PaymentMethod.Direct, transaction("513456"));
+        assertEquals(Arrays.asList(Constant.OUTCOME_UNKNOWN_ERROR_CODE), response.getErrors());
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    public void testRefundThatWentThroughIsNotSentAgain() {
+        client = newClient(RapidSDK.builder().retryPolicy(RETRY_POLICY));
+        server.queueResponse(200, MALFORMED_RESPONSE);
+        server.queueResponse(200, FOUND_RESPONSE);
+        Refund refund = new Refund();
+        refund.setRefundDetails(InputModelFactory.initRefundDetails());
+        refund.getRefundDetails().setOriginalTransactionID("11735670");
+
+        RefundResponse response = client.refund(refund);
+        assertTrue(response.getErrors().isEmpty());
+        assertEquals(22334455, response.getTransactionStatus().getTransactionID());
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    public void testRefundOutcomeIsUnknownWhenAnotherRefundIsFound() {
+        client = newClient(RapidSDK.builder().retryPolicy(RETRY_POLICY));
+        server.queueResponse(200, MALFORMED_RESPONSE);
+        server.queueResponse(200, FOUND_RESPONSE);
+        Refund refund = new Refund();
+        refund.setRefundDetails(InputModelFactory.initRefundDetails());
+        refund.getRefundDetails().setOriginalTransactionID("11735670");
+        refund.getRefundDetails().setTotalAmount(400);
+
+        RefundResponse response = client.refund(refund);
+        assertEquals(Arrays.asList(Constant.OUTCOME_UNKNOWN_ERROR_CODE), response.getErrors());
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    public void testRefundOutcomeIsUnknownWhenOnlyADeclineIsFound() {
+        client = newClient(RapidSDK.builder().retryPolicy(RETRY_POLICY));
+        server.queueResponse(200, MALFORMED_RESPONSE);
+        server.queueResponse(200, DECLINED_RESPONSE);
+        Refund refund = new Refund();
+        refund.setRefundDetails(InputModelFactory.initRefundDetails());
+        refund.getRefundDetails().setOriginalTransactionID("11735670");
+
+        RefundResponse response = client.refund(refund);
+        assertEquals(Arrays.asList(Constant.OUTCOME_UNKNOWN_ERROR_CODE), response.getErrors());
+        assertEquals(2, server.getRequestCount());
+    }
+
+    private RapidClient newClient(RapidSDK.Builder builder) {
+        return builder.credentials("apiKey", "password")
+                .endpoint(server.getUrl())
+                .endpointVerification(EndpointVerification.NONE)
+                .metricsListener(new MetricsListener() {
+                    public void callCompleted(OperationType operation, long durationNanos, String errorCode) {
+                    }
+
+                    @Override
+                    public void callRetried(OperationType operation, int attempt, String errorCode) {
+                        retries.add(operation + " " + attempt + " " + errorCode);
+                    }
+                })
+                .build();
+    }
+
+    private static Transaction transaction(String invoiceReference) {
+        Transaction transaction = InputModelFactory.createTransaction();
+        transaction.setCustomer(InputModelFactory.initCustomer());
+        transaction.setPaymentDetails(InputModelFactory.initPaymentDetails("Inv 21540", invoiceReference));
+        return transaction;
+    }
+}
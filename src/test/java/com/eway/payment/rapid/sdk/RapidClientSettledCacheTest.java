@@ -0,0 +1,131 @@
+package com.eway.payment.rapid.sdk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.eway.payment.rapid.sdk.beans.external.Refund;
+import com.eway.payment.rapid.sdk.beans.external.TransactionFilter;
+import com.eway.payment.rapid.sdk.cache.CacheStats;
+import com.eway.payment.rapid.sdk.output.QueryTransactionResponse;
+
+public class RapidClientSettledCacheTest {
+
+    private static final String DECLINED_RESPONSE = "{\"Transactions\":[{\"ResponseCode\":\"05\",\"ResponseMessage\":\"D4405\","
+            + "\"InvoiceNumber\":\"Inv 21540\",\"InvoiceReference\":\"513456\",\"TotalAmount\":1000,\"TransactionID\":11735670,"
+            + "\"TransactionStatus\":false,\"TransactionCaptured\":false,\"MaxRefund\":\"0\",\"Customer\":{}}],\"Errors\":\"\"}";
+    private static final String REFUNDABLE_RESPONSE = "{\"Transactions\":[{\"ResponseCode\":\"00\",\"ResponseMessage\":\"A2000\","
+            + "\"InvoiceNumber\":\"Inv 21540\",\"InvoiceReference\":\"513456\",\"TotalAmount\":1000,\"TransactionID\":11735670,"
+            + "\"TransactionStatus\":true,\"TransactionCaptured\":true,\"MaxRefund\":\"1000\",\"Customer\":{}}],\"Errors\":\"\"}";
+
+    private static final String REFUNDED_RESPONSE = "{\"Transactions\":[{\"ResponseCode\":\"00\",\"ResponseMessage\":\"A2000\","
+            + "\"InvoiceNumber\":\"Inv 21540\",\"InvoiceReference\":\"513456\",\"TotalAmount\":1000,\"TransactionID\":11735670,"
+            + "\"TransactionStatus\":true,\"TransactionCaptured\":true,\"MaxRefund\":\"0\",\"Customer\":{}}],\"Errors\":\"\"}";
+
+    private StubRapidServer server;
+    private RapidClient client;
+
+    @Before
+    public void setup() throws Exception {
+        server = new StubRapidServer();
+        client = RapidSDK.newRapidClient("apiKey", "password", server.getUrl(),
+                RapidClientConfig.builder().settledTransactionCache(100).build());
+    }
+
+    @After
+    public void tearDown() {
+        client.close();
+        server.stop();
+    }
+
+    @Test
+    public void testSettledTransactionIsServedByAnyIndex() {
+        server.setResponse(200, REFUNDED_RESPONSE);
+        QueryTransactionResponse first = client.queryTransaction(11735670);
+        assertEquals(11735670, first.getTransactionStatus().getTransactionID());
+
+        assertSame(first, client.queryTransaction(11735670));
+        assertSame(first, client.queryTransaction(byInvoiceNumber()));
+        assertSame(first, client.queryTransaction(byInvoiceReference()));
+        assertEquals(1, server.getRequestCount());
+
+        CacheStats stats = client.getSettledTransactionCacheStats();
+        assertEquals(3, stats.getHits());
+        assertEquals(1, stats.getSize());
+    }
+
+    @Test
+    public void testDeclinedInvoiceIsQueriedAgain() {
+        server.setResponse(200, DECLINED_RESPONSE);
+        QueryTransactionResponse first = client.queryTransaction(11735670);
+        assertSame(first, client.queryTransaction(11735670));
+
+        client.queryTransaction(byInvoiceNumber());
+        client.queryTransaction(byInvoiceReference());
+        assertEquals(3, server.getRequestCount());
+    }
+
+    @Test
+    public void testRefundedInvoiceIsQueriedAgain() {
+        server.setResponse(200, REFUNDED_RESPONSE);
+        QueryTransactionResponse first = client.queryTransaction(11735670);
+        Refund refund = new Refund();
+        refund.setRefundDetails(InputModelFactory.initRefundDetails());
+        refund.getRefundDetails().setOriginalTransactionID("11735600");
+        client.refund(refund);
+
+        assertSame(first, client.queryTransaction(11735670));
+        client.queryTransaction(byInvoiceReference());
+        assertEquals(3, server.getRequestCount());
+    }
+
+    @Test
+    public void testRefundableTransactionIsNotCached() {
+        server.setResponse(200, REFUNDABLE_RESPONSE);
+        client.queryTransaction(11735670);
+        client.queryTransaction(11735670);
+        assertEquals(2, server.getRequestCount());
+        assertEquals(0, client.getSettledTransactionCacheStats().getSize());
+    }
+
+    @Test
+    public void testNewEndpointIsNotServedFromCache() throws Exception {
+        StubRapidServer other = new StubRapidServer();
+        try {
+            server.setResponse(200, DECLINED_RESPONSE);
+            other.setResponse(200, DECLINED_RESPONSE);
+            client.queryTransaction(11735670);
+            client.setEndpoint(other.getUrl());
+            client.queryTransaction(11735670);
+            assertEquals(1, other.getRequestCount());
+            assertEquals(0, client.getSettledTransactionCacheStats().getHits());
+        } finally {
+            other.stop();
+        }
+    }
+
+    @Test
+    public void testCacheDisabledByDefault() {
+        client.close();
+        client = RapidSDK.newRapidClient("apiKey", "password", server.getUrl());
+        server.setResponse(200, DECLINED_RESPONSE);
+        client.queryTransaction(11735670);
+        client.queryTransaction(11735670);
+        assertEquals(2, server.getRequestCount());
+    }
+
+    private static TransactionFilter byInvoiceNumber() {
+        TransactionFilter filter = new TransactionFilter();
+        filter.setInvoiceNumber("Inv 21540");
+        return filter;
+    }
+
+    private static TransactionFilter byInvoiceReference() {
+        TransactionFilter filter = new TransactionFilter();
+        filter.setInvoiceReference("513456");
+        return filter;
+    }
+}
@@ -0,0 +1,98 @@
+package com.eway.payment.rapid.sdk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+import com.eway.payment.rapid.sdk.beans.external.PaymentMethod;
+import com.eway.payment.rapid.sdk.beans.external.Transaction;
+import com.eway.payment.rapid.sdk.beans.external.TransactionType;
+import com.eway.payment.rapid.sdk.object.create.ObjectCreator;
+import com.eway.payment.rapid.sdk.output.CreateTransactionResponse;
+import com.eway.payment.rapid.sdk.output.QueryTransactionResponse;
+import com.eway.payment.rapid.sdk.util.Constant;
+
+@RunWith(Parameterized.class)
+public class RapidClientTimeoutTest {
+
+    private static final String DIRECT_PAYMENT_RESPONSE = "{\"TransactionID\":\"11735670\",\"TransactionStatus\":true,"
+            + "\"ResponseCode\":\"00\",\"Payment\":{\"TotalAmount\":1000},\"Customer\":{},\"Errors\":\"\"}";
+
+    @Parameters(name = "{0}")
+    public static Collection<Object[]> transports() {
+        return Arrays.asList(new Object[][] {{TransportType.JERSEY}, {TransportType.JDK_HTTP_CLIENT}});
+    }
+
+    private final TransportType transportType;
+    private StubRapidServer server;
+    private RapidClient client;
+
+    public RapidClientTimeoutTest(TransportType transportType) {
+        this.transportType = transportType;
+    }
+
+    @Before
+    public void setup() throws Exception {
+        server = new StubRapidServer();
+        server.setDelayMillis(500);
+    }
+
+    @After
+    public void tearDown() {
+        if (client != null) {
+            client.close();
+        }
+        server.stop();
+    }
+
+    @Test
+    public void testReadTimeoutIsCommunicationFailure() {
+        client = newClient(RapidClientConfig.builder()
+                .timeouts(OperationTimeouts.of(1000, 100, 0, TimeUnit.MILLISECONDS)));
+        QueryTransactionResponse response = client.queryTransaction(1);
+        assertEquals(Arrays.asList(Constant.COMMUNICATION_FAILURE_ERROR_CODE), response.getErrors());
+    }
+
+    @Test
+    public void testExpiredDeadlineHasDistinctErrorCode() {
+        client = newClient(RapidClientConfig.builder()
+                .timeouts(OperationTimeouts.of(1000, 0, 100, TimeUnit.MILLISECONDS)));
+        long start = System.nanoTime();
+        QueryTransactionResponse response = client.queryTransaction(1);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertEquals(Arrays.asList(Constant.DEADLINE_EXCEEDED_ERROR_CODE), response.getErrors());
+        assertTrue("took " + elapsedMillis + "ms", elapsedMillis < 450);
+    }
+
+    @Test
+    public void testTimeoutsArePerOperation() {
+        server.setResponse(200, DIRECT_PAYMENT_RESPONSE);
+        client = newClient(RapidClientConfig.builder()
+                .timeouts(OperationType.QUERY, OperationTimeouts.of(1000, 0, 100, TimeUnit.MILLISECONDS)));
+
+        Transaction transaction = new Transaction();
+        transaction.setCustomer(ObjectCreator.createExternalCustomer());
+        transaction.setPaymentDetails(ObjectCreator.createPaymentDetails());
+        transaction.setTransactionType(TransactionType.Purchase);
+        transaction.setCapture(true);
+        CreateTransactionResponse payment = client.create(PaymentMethod.Direct, transaction);
+        assertTrue(payment.getErrors().isEmpty());
+
+        QueryTransactionResponse query = client.queryTransaction(1);
+        assertEquals(Arrays.asList(Constant.DEADLINE_EXCEEDED_ERROR_CODE), query.getErrors());
+    }
+
+    private RapidClient newClient(RapidClientConfig.Builder config) {
+        return RapidSDK.newRapidClient("apiKey", "password", server.getUrl(), config.transportType(transportType).build());
+    }
+}
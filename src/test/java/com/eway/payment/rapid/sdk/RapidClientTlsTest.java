@@ -0,0 +1,88 @@
+package com.eway.payment.rapid.sdk;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.net.ssl.SSLContext;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.eway.payment.rapid.sdk.output.QueryTransactionResponse;
+
+public class RapidClientTlsTest {
+
+    private StubRapidServer server;
+    private SSLContext originalDefault;
+
+    @Before
+    public void setup() throws Exception {
+        server = new StubRapidServer();
+        originalDefault = SSLContext.getDefault();
+    }
+
+    @After
+    public void tearDown() {
+        SSLContext.setDefault(originalDefault);
+        server.stop();
+    }
+
+    @Test
+    public void testParallelCallsLeaveDefaultContextAlone() throws Exception {
+        final SSLContext sentinel = SSLContext.getInstance("TLS");
+        sentinel.init(null, null, null);
+        SSLContext.setDefault(sentinel);
+
+        final RapidClient client = RapidSDK.newRapidClient("apiKey", "password", server.getUrl());
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final AtomicBoolean swapped = new AtomicBoolean(false);
+        Thread watcher = new Thread(new Runnable() {
+            public void run() {
+                while (running.get()) {
+                    try {
+                        if (SSLContext.getDefault() != sentinel) {
+                            swapped.set(true);
+                        }
+                    } catch (Exception e) {
+                        swapped.set(true);
+                    }
+                }
+            }
+        });
+        watcher.start();
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<QueryTransactionResponse>> results = new ArrayList<Future<QueryTransactionResponse>>();
+            for (int i = 0; i < 200; i++) {
+                final int id = i + 1;
+                results.add(pool.submit(new Callable<QueryTransactionResponse>() {
+                    public QueryTransactionResponse call() {
+                        return client.queryTransaction(id);
+                    }
+                }));
+            }
+            for (Future<QueryTransactionResponse> result : results) {
+                assertTrue(result.get().getErrors().isEmpty());
+            }
+        } finally {
+            running.set(false);
+            watcher.join();
+            pool.shutdown();
+            client.close();
+        }
+
+        assertFalse(swapped.get());
+        assertSame(sentinel, SSLContext.getDefault());
+    }
+}
@@ -0,0 +1,103 @@
+package com.eway.payment.rapid.sdk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+import com.eway.payment.rapid.sdk.beans.external.PaymentMethod;
+import com.eway.payment.rapid.sdk.beans.external.Transaction;
+import com.eway.payment.rapid.sdk.beans.external.TransactionFilter;
+import com.eway.payment.rapid.sdk.beans.external.TransactionType;
+import com.eway.payment.rapid.sdk.object.create.ObjectCreator;
+import com.eway.payment.rapid.sdk.output.CreateTransactionResponse;
+import com.eway.payment.rapid.sdk.output.QueryTransactionResponse;
+import com.eway.payment.rapid.sdk.util.RapidClientFilter;
+
+/**
+ * Runs the same client calls over each transport against a local stub of
+ * the Rapid API.
+ */
+@RunWith(Parameterized.class)
+public class RapidClientTransportTest {
+
+    private static final String DIRECT_PAYMENT_RESPONSE = "{\"TransactionID\":\"11735670\",\"TransactionStatus\":true,"
+            + "\"ResponseCode\":\"00\",\"Payment\":{\"TotalAmount\":1000},\"Customer\":{},\"Errors\":\"\"}";
+
+    @Parameters(name = "{0}")
+    public static Collection<Object[]> transports() {
+        return Arrays.asList(new Object[][] {{TransportType.JERSEY}, {TransportType.JDK_HTTP_CLIENT}});
+    }
+
+    private final TransportType transportType;
+    private StubRapidServer server;
+    private RapidClient client;
+
+    public RapidClientTransportTest(TransportType transportType) {
+        this.transportType = transportType;
+    }
+
+    @Before
+    public void setup() throws Exception {
+        server = new StubRapidServer();
+        client = RapidSDK.newRapidClient("apiKey", "password", server.getUrl(),
+                RapidClientConfig.builder().transportType(transportType).build());
+    }
+
+    @After
+    public void tearDown() {
+        client.close();
+        server.stop();
+    }
+
+    @Test
+    public void testQueryByInvoiceNumberEncodesPath() {
+        TransactionFilter filter = new TransactionFilter();
+        filter.setInvoiceNumber("Inv 21540");
+        QueryTransactionResponse response = client.queryTransaction(filter);
+        assertTrue(response.getErrors().isEmpty());
+        assertEquals("GET /Transaction/InvoiceNumber/Inv%2021540", server.getLastRequest());
+    }
+
+    @Test
+    public void testCreateTransactionSendsHeaders() {
+        server.setResponse(200, DIRECT_PAYMENT_RESPONSE);
+        client.setVersion("40");
+        Transaction transaction = new Transaction();
+        transaction.setCustomer(ObjectCreator.createExternalCustomer());
+        transaction.setPaymentDetails(ObjectCreator.createPaymentDetails());
+        transaction.setTransactionType(TransactionType.Purchase);
+        transaction.setCapture(true);
+
+        CreateTransactionResponse response = client.create(PaymentMethod.Direct, transaction);
+        assertTrue(response.getErrors().isEmpty());
+        assertEquals(11735670, response.getTransactionStatus().getTransactionID());
+        assertEquals("POST /DirectPayment.json", server.getLastRequest());
+        assertEquals(RapidClientFilter.basicAuthorization("apiKey", "password"), server.getLastRequestHeader("Authorization"));
+        assertEquals(RapidClientFilter.userAgent(), server.getLastRequestHeader("User-Agent"));
+        assertEquals("40", server.getLastRequestHeader(RapidClientFilter.API_VERSION_HEADER));
+        assertTrue(server.getLastRequestHeader("Content-Type").startsWith("application/json"));
+    }
+
+    @Test
+    public void testUnauthorisedIsAuthenticationFailure() {
+        server.setResponse(401, "");
+        QueryTransactionResponse response = client.queryTransaction(1);
+        assertEquals(Arrays.asList("S9993"), response.getErrors());
+    }
+
+    @Test
+    public void testServerErrorIsSystemError() {
+        server.setResponse(500, "");
+        QueryTransactionResponse response = client.queryTransaction(1);
+        assertEquals(Arrays.asList("S9996"), response.getErrors());
+    }
+}
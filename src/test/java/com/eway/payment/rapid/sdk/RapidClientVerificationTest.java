@@ -0,0 +1,149 @@
+package com.eway.payment.rapid.sdk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.eway.payment.rapid.sdk.message.process.transport.ConnectionPoolStats;
+import com.eway.payment.rapid.sdk.util.Constant;
+
+public class RapidClientVerificationTest {
+
+    private StubRapidServer server;
+    private RapidClient client;
+
+    @Before
+    public void setup() throws Exception {
+        server = new StubRapidServer();
+    }
+
+    @After
+    public void tearDown() {
+        if (client != null) {
+            client.close();
+        }
+        server.stop();
+    }
+
+    @Test
+    public void testVerificationConnectionIsReusedByFirstRequest() {
+        client = newClient(server.getUrl(), EndpointVerification.EAGER, TransportType.JERSEY);
+        assertEquals(0, server.getRequestCount());
+        ConnectionPoolStats stats = client.getConnectionPoolStats();
+        assertEquals(1, stats.getIdle());
+
+        assertTrue(client.queryTransaction(1).getErrors().isEmpty());
+        stats = client.getConnectionPoolStats();
+        assertEquals(1, stats.getIdle());
+        assertEquals(1, stats.getLeaseCount());
+        assertEquals(1, server.getConnectionCount());
+    }
+
+    @Test
+    public void testJdkTransportVerifiesWithHeadRequest() {
+        client = newClient(server.getUrl(), EndpointVerification.EAGER, TransportType.JDK_HTTP_CLIENT);
+        assertTrue(client.isValid());
+        assertEquals("HEAD /", server.getLastRequest());
+        assertTrue(client.queryTransaction(1).getErrors().isEmpty());
+        assertEquals(1, server.getConnectionCount());
+    }
+
+    @Test
+    public void testBackgroundVerificationPublishesFailure() throws Exception {
+        client = newClient(unusedUrl(), EndpointVerification.BACKGROUND, TransportType.JERSEY);
+        for (int i = 0; i < 100 && client.isValid(); i++) {
+            Thread.sleep(50);
+        }
+        assertFalse(client.isValid());
+        assertEquals(Arrays.asList(Constant.LIBRARY_NOT_HAVE_ENDPOINT_ERROR_CODE), client.getErrors());
+    }
+
+    @Test
+    public void testBackgroundVerificationSucceeds() throws Exception {
+        client = newClient(server.getUrl(), EndpointVerification.BACKGROUND, TransportType.JERSEY);
+        assertTrue(client.queryTransaction(1).getErrors().isEmpty());
+        assertTrue(client.isValid());
+        assertEquals(1, server.getConnectionCount());
+    }
+
+    @Test
+    public void testConcurrentRequestsWaitForLazyVerification() throws Exception {
+        client = newClient(unusedUrl(), EndpointVerification.LAZY, TransportType.JERSEY);
+        ExecutorService pool = Executors.newFixedThreadPool(10);
+        try {
+            final CountDownLatch start = new CountDownLatch(1);
+            List<Future<List<String>>> errors = new ArrayList<Future<List<String>>>();
+            for (int i = 0; i < 10; i++) {
+                errors.add(pool.submit(new Callable<List<String>>() {
+                    public List<String> call() throws Exception {
+                        start.await();
+                        return client.queryTransaction(1).getErrors();
+                    }
+                }));
+            }
+            start.countDown();
+            // each fails on the verification, or on the client made invalid by it, never on a request sent unverified
+            for (Future<List<String>> error : errors) {
+                assertFalse(error.get().isEmpty());
+                assertFalse(error.get().contains(Constant.COMMUNICATION_FAILURE_ERROR_CODE));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertFalse(client.isValid());
+    }
+
+    @Test
+    public void testClosedClientStillVerifiesLazily() {
+        client = newClient(server.getUrl(), EndpointVerification.LAZY, TransportType.JERSEY);
+        server.stop();
+        client.close();
+        assertEquals(Arrays.asList(Constant.LIBRARY_NOT_HAVE_ENDPOINT_ERROR_CODE), client.queryTransaction(1).getErrors());
+        assertFalse(client.isValid());
+    }
+
+    @Test
+    public void testSkippedVerificationReportsRequestFailures() throws Exception {
+        client = newClient(unusedUrl(), EndpointVerification.NONE, TransportType.JERSEY);
+        assertTrue(client.isValid());
+        assertEquals(Arrays.asList(Constant.COMMUNICATION_FAILURE_ERROR_CODE), client.queryTransaction(1).getErrors());
+        assertTrue(client.isValid());
+    }
+
+    @Test
+    public void testMalformedEndpointIsInvalidWithoutVerification() {
+        client = newClient("not a url", EndpointVerification.NONE, TransportType.JERSEY);
+        assertFalse(client.isValid());
+        assertEquals(Arrays.asList(Constant.LIBRARY_NOT_HAVE_ENDPOINT_ERROR_CODE), client.getErrors());
+    }
+
+    private static RapidClient newClient(String endpoint, EndpointVerification verification, TransportType transportType) {
+        return RapidSDK.builder()
+                .credentials("apiKey", "password")
+                .endpoint(endpoint)
+                .endpointVerification(verification)
+                .transportType(transportType)
+                .build();
+    }
+
+    private static String unusedUrl() throws Exception {
+        ServerSocket socket = new ServerSocket(0);
+        int port = socket.getLocalPort();
+        socket.close();
+        return "http://localhost:" + port + "/";
+    }
+}
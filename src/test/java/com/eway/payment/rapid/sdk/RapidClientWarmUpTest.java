@@ -0,0 +1,98 @@
+package com.eway.payment.rapid.sdk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.net.ServerSocket;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.eway.payment.rapid.sdk.message.process.MessageProcessWarmUp;
+import com.eway.payment.rapid.sdk.message.process.transport.ConnectionPoolStats;
+
+public class RapidClientWarmUpTest {
+
+    private StubRapidServer server;
+    private RapidClient client;
+
+    @Before
+    public void setup() throws Exception {
+        server = new StubRapidServer();
+    }
+
+    @After
+    public void tearDown() {
+        if (client != null) {
+            client.close();
+        }
+        server.stop();
+    }
+
+    @Test
+    public void testMessageProcessesWarmUpOnSyntheticData() {
+        // the first run may have happened in another test, later runs do nothing
+        MessageProcessWarmUp.run();
+        assertEquals(0, MessageProcessWarmUp.run());
+    }
+
+    @Test
+    public void testWarmUpOpensPooledConnectionsWithoutRequests() {
+        client = newClient(server.getUrl(), TransportType.JERSEY);
+        assertTrue(client.warmUp(3));
+        assertEquals(0, server.getRequestCount());
+        ConnectionPoolStats stats = client.getConnectionPoolStats();
+        assertEquals(3, stats.getIdle());
+        assertEquals(0, stats.getLeaseCount());
+
+        assertTrue(client.queryTransaction(1).getErrors().isEmpty());
+        assertEquals(3, client.getConnectionPoolStats().getIdle());
+    }
+
+    @Test
+    public void testWarmUpIsCappedByPoolSize() {
+        client = RapidSDK.builder()
+                .credentials("apiKey", "password")
+                .endpoint(server.getUrl())
+                .endpointVerification(EndpointVerification.NONE)
+                .connectionPool(2, 2)
+                .build();
+        assertTrue(client.warmUp(5));
+        assertEquals(2, client.getConnectionPoolStats().getIdle());
+    }
+
+    @Test
+    public void testJdkTransportWarmsUpWithHeadRequest() {
+        client = newClient(server.getUrl(), TransportType.JDK_HTTP_CLIENT);
+        assertTrue(client.warmUp());
+        assertEquals("HEAD /", server.getLastRequest());
+    }
+
+    @Test
+    public void testWarmUpReportsUnreachableEndpoint() throws Exception {
+        ServerSocket socket = new ServerSocket(0);
+        int port = socket.getLocalPort();
+        socket.close();
+        client = newClient("http://localhost:" + port + "/", TransportType.JERSEY);
+        assertFalse(client.warmUp());
+        assertTrue(client.isValid());
+    }
+
+    @Test
+    public void testInvalidClientDoesNotConnect() {
+        client = RapidSDK.newRapidClient("", "", server.getUrl());
+        assertFalse(client.warmUp());
+        assertEquals(0, server.getRequestCount());
+    }
+
+    private static RapidClient newClient(String endpoint, TransportType transportType) {
+        return RapidSDK.builder()
+                .credentials("apiKey", "password")
+                .endpoint(endpoint)
+                .endpointVerification(EndpointVerification.NONE)
+                .transportType(transportType)
+                .build();
+    }
+}
@@ -3,7 +3,6 @@ package com.eway.payment.rapid.sdk;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
-import java.lang.reflect.Field;
 import java.util.List;
 import java.util.Properties;
 
@@ -124,10 +123,7 @@ public class RapidJdkClientTest {
         client = RapidSDK.newRapidClient(APIKey, passWord, endpoint);
         Properties prop = ResourceUtil
                 .loadProperies(Constant.RAPID_API_RESOURCE);
-        Class<?> c = RapidClientImpl.class;
-        Field field = c.getDeclaredField("webUrl");
-        field.setAccessible(true);
-        String value = (String) field.get(client);
+        String value = ((RapidClientImpl) client).getWebUrl();
         assertTrue(value.equalsIgnoreCase(prop
                 .getProperty(Constant.GLOBAL_RAPID_SANDBOX_REST_URL_PARAM)));
         // Load properties file
@@ -0,0 +1,235 @@
+package com.eway.payment.rapid.sdk;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A local HTTP server standing in for the Rapid API in tests. Every request
+ * is answered with the same configurable JSON body.
+ */
+public class StubRapidServer {
+
+    public static final String EMPTY_SEARCH_RESPONSE = "{\"Transactions\":[],\"Errors\":null}";
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final Set<Integer> remotePorts = Collections.newSetFromMap(new ConcurrentHashMap<Integer, Boolean>());
+    private final Queue<Headers> requestHeaders = new ConcurrentLinkedQueue<Headers>();
+    private final Queue<String> requests = new ConcurrentLinkedQueue<String>();
+    private final Queue<Object[]> queuedResponses = new ConcurrentLinkedQueue<Object[]>();
+    private final Queue<Long> queuedDelays = new ConcurrentLinkedQueue<Long>();
+
+    private volatile int status = 200;
+    private volatile String body = EMPTY_SEARCH_RESPONSE;
+    private volatile long delayMillis;
+    private volatile String lastRequestBody;
+    private volatile Headers lastRequestHeaders;
+    private volatile String lastRequest;
+
+    public StubRapidServer() throws IOException {
+        this(0);
+    }
+
+    /**
+     * @param port The port to listen on, 0 for any free port
+     */
+    public StubRapidServer(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        server.createContext("/", new HttpHandler() {
+            public void handle(HttpExchange exchange) throws IOException {
+                respond(exchange);
+            }
+        });
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /**
+     * @return The base URL to use as the Rapid endpoint
+     */
+    public String getUrl() {
+        return "http://localhost:" + server.getAddress().getPort() + "/";
+    }
+
+    public void setResponse(int status, String body) {
+        this.status = status;
+        this.body = body;
+    }
+
+    /**
+     * Answer one request with this status and body before falling back to
+     * the response set by {@link #setResponse(int, String)}. Queued
+     * responses are used in the order they were queued.
+     */
+    public void queueResponse(int status, String body) {
+        queuedResponses.add(new Object[] {status, body});
+    }
+
+    public void setDelayMillis(long delayMillis) {
+        this.delayMillis = delayMillis;
+    }
+
+    /**
+     * Delay the answer to one request by this long instead of the delay set
+     * by {@link #setDelayMillis(long)}. Queued delays are used in the order
+     * they were queued, by requests in the order they arrive.
+     */
+    public void queueDelayMillis(long delayMillis) {
+        queuedDelays.add(delayMillis);
+    }
+
+    /**
+     * @return Number of HTTP requests received
+     */
+    public int getRequestCount() {
+        return requestCount.get();
+    }
+
+    /**
+     * @return The most requests that were being handled at the same time
+     */
+    public int getMaxConcurrentRequests() {
+        return maxInFlight.get();
+    }
+
+    /**
+     * @return Number of distinct client connections that sent a request
+     */
+    public int getConnectionCount() {
+        return remotePorts.size();
+    }
+
+    /**
+     * @return The body of the last request received, or {@code null}
+     */
+    public String getLastRequestBody() {
+        return lastRequestBody;
+    }
+
+    /**
+     * @param name Header name
+     * @return The value of a header of the last request received, or {@code null}
+     */
+    public String getLastRequestHeader(String name) {
+        Headers headers = lastRequestHeaders;
+        return headers != null ? headers.getFirst(name) : null;
+    }
+
+    /**
+     * @param name Header name
+     * @return The value of a header of every request received, in the order
+     * they were received, {@code null} where a request did not have it
+     */
+    public List<String> getRequestHeaders(String name) {
+        List<String> values = new ArrayList<String>();
+        for (Headers headers : requestHeaders) {
+            values.add(headers.getFirst(name));
+        }
+        return values;
+    }
+
+    /**
+     * @return The method and path of the last request received, such as
+     * {@code GET /Transaction/1}, or {@code null}
+     */
+    public String getLastRequest() {
+        return lastRequest;
+    }
+
+    /**
+     * @return The method and path of every request received, in order
+     */
+    public List<String> getRequests() {
+        return new ArrayList<String>(requests);
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void respond(HttpExchange exchange) throws IOException {
+        requestCount.incrementAndGet();
+        int current = inFlight.incrementAndGet();
+        int max;
+        while (current > (max = maxInFlight.get()) && !maxInFlight.compareAndSet(max, current)) {
+            // retry until the maximum is recorded
+        }
+        Object[] response;
+        try {
+            response = handle(exchange);
+        } finally {
+            // before the response is written, so a client that has read it never finds the request still counted
+            inFlight.decrementAndGet();
+        }
+        write(exchange, (Integer) response[0], (String) response[1]);
+    }
+
+    /**
+     * Read the request and wait out its delay
+     *
+     * @return The status and body to answer with
+     */
+    private Object[] handle(HttpExchange exchange) throws IOException {
+        remotePorts.add(exchange.getRemoteAddress().getPort());
+        lastRequestHeaders = exchange.getRequestHeaders();
+        requestHeaders.add(exchange.getRequestHeaders());
+        lastRequest = exchange.getRequestMethod() + " " + exchange.getRequestURI().getRawPath();
+        requests.add(lastRequest);
+        // drain the request so the connection can be reused
+        InputStream in = exchange.getRequestBody();
+        ByteArrayOutputStream request = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            request.write(buffer, 0, read);
+        }
+        lastRequestBody = request.toString("UTF-8");
+        Long queuedDelay = "HEAD".equals(exchange.getRequestMethod()) ? null : queuedDelays.poll();
+        long delayMillis = queuedDelay != null ? queuedDelay : this.delayMillis;
+        if (delayMillis > 0) {
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        Object[] queued = "HEAD".equals(exchange.getRequestMethod()) ? null : queuedResponses.poll();
+        return queued != null ? queued : new Object[] {status, body};
+    }
+
+    private void write(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes("UTF-8");
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        if ("HEAD".equals(exchange.getRequestMethod())) {
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+            return;
+        }
+        exchange.sendResponseHeaders(status, bytes.length);
+        OutputStream out = exchange.getResponseBody();
+        out.write(bytes);
+        out.close();
+    }
+}
@@ -0,0 +1,84 @@
+package com.eway.payment.rapid.sdk.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.eway.payment.rapid.sdk.InputModelFactory;
+import com.eway.payment.rapid.sdk.beans.external.Transaction;
+import com.eway.payment.rapid.sdk.entities.DirectPaymentRequest;
+import com.eway.payment.rapid.sdk.entities.TransactionSearchResponse;
+import com.eway.payment.rapid.sdk.exception.RapidSdkException;
+import com.eway.payment.rapid.sdk.message.convert.Converters;
+import com.eway.payment.rapid.sdk.output.QueryTransactionResponse;
+
+/**
+ * Measures the cost of converting a direct payment request and a transaction
+ * query response with the shared converters, and with the converters as they
+ * were before, which allocated every converter of the tree on each call (see
+ * {@link PerCallConverters}). Run through
+ * {@link #main(String[])} to report allocated bytes per operation
+ * ({@code gc.alloc.rate.norm}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConverterBenchmark {
+
+    private Transaction transaction;
+    private TransactionSearchResponse searchResponse;
+
+    @Setup
+    public void setup() {
+        transaction = InputModelFactory.createTransaction();
+        transaction.setCustomer(InputModelFactory.initCustomer());
+        transaction.setPaymentDetails(InputModelFactory.initPaymentDetails());
+        transaction.setShippingDetails(InputModelFactory.createShippingDetail());
+        searchResponse = InputModelFactory.createTransactionSearchResponse();
+        searchResponse.getTransactions()[0].setTransactionID("11735670");
+        searchResponse.getTransactions()[0].setTransactionStatus(true);
+    }
+
+    @Benchmark
+    public DirectPaymentRequest sharedDirectPaymentRequest() throws RapidSdkException {
+        return Converters.TRANSACTION_TO_DIRECT_PAYMENT.doConvert(transaction);
+    }
+
+    @Benchmark
+    public DirectPaymentRequest newDirectPaymentRequest() throws RapidSdkException {
+        return new PerCallConverters.TransactionToDirectPaymentConverter().doConvert(transaction);
+    }
+
+    @Benchmark
+    public QueryTransactionResponse sharedQueryResponse() throws RapidSdkException {
+        return Converters.SEARCH_TO_QUERY_TRANS.doConvert(searchResponse);
+    }
+
+    @Benchmark
+    public QueryTransactionResponse newQueryResponse() throws RapidSdkException {
+        return new PerCallConverters.SearchToQueryTransConverter().doConvert(searchResponse);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ConverterBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
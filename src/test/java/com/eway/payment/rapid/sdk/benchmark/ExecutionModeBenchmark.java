@@ -0,0 +1,82 @@
+package com.eway.payment.rapid.sdk.benchmark;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.eway.payment.rapid.sdk.ExecutionMode;
+import com.eway.payment.rapid.sdk.RapidClient;
+import com.eway.payment.rapid.sdk.RapidClientConfig;
+import com.eway.payment.rapid.sdk.RapidSDK;
+import com.eway.payment.rapid.sdk.StubRapidServer;
+import com.eway.payment.rapid.sdk.output.QueryTransactionResponse;
+
+/**
+ * Compares the throughput of asynchronous queries run on platform threads
+ * and on virtual threads, against a local server that answers after a fixed
+ * delay. Virtual threads fall back to platform threads before Java 21.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExecutionModeBenchmark {
+
+    @Param({"PLATFORM_THREADS", "VIRTUAL_THREADS"})
+    private ExecutionMode mode;
+
+    @Param({"500"})
+    private int concurrentCalls;
+
+    @Param({"20"})
+    private long serverDelayMillis;
+
+    private StubRapidServer server;
+    private RapidClient client;
+
+    @Setup
+    public void setup() throws Exception {
+        server = new StubRapidServer();
+        server.setDelayMillis(serverDelayMillis);
+        client = RapidSDK.newRapidClient("apiKey", "password", server.getUrl(),
+                RapidClientConfig.builder().executionMode(mode).build());
+    }
+
+    @TearDown
+    public void tearDown() {
+        client.close();
+        server.stop();
+    }
+
+    @Benchmark
+    public int concurrentQueries() {
+        @SuppressWarnings("unchecked")
+        CompletableFuture<QueryTransactionResponse>[] calls = new CompletableFuture[concurrentCalls];
+        for (int i = 0; i < concurrentCalls; i++) {
+            calls[i] = client.queryTransactionAsync(i + 1);
+        }
+        CompletableFuture.allOf(calls).join();
+        return calls.length;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ExecutionModeBenchmark.class.getSimpleName()).build()).run();
+    }
+}
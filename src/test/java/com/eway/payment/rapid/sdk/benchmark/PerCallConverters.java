@@ -0,0 +1,226 @@
+package com.eway.payment.rapid.sdk.benchmark;
+
+import java.util.Arrays;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.eway.payment.rapid.sdk.beans.external.BeagleVerifyStatus;
+import com.eway.payment.rapid.sdk.beans.external.Customer;
+import com.eway.payment.rapid.sdk.beans.external.FraudAction;
+import com.eway.payment.rapid.sdk.beans.external.PaymentDetails;
+import com.eway.payment.rapid.sdk.beans.external.ProcessingDetails;
+import com.eway.payment.rapid.sdk.beans.external.RequestMethod;
+import com.eway.payment.rapid.sdk.beans.external.ShippingDetails;
+import com.eway.payment.rapid.sdk.beans.external.ShippingMethod;
+import com.eway.payment.rapid.sdk.beans.external.Transaction;
+import com.eway.payment.rapid.sdk.beans.external.TransactionStatus;
+import com.eway.payment.rapid.sdk.beans.external.VerificationResult;
+import com.eway.payment.rapid.sdk.beans.internal.BeagleVerification;
+import com.eway.payment.rapid.sdk.beans.internal.Verification;
+import com.eway.payment.rapid.sdk.entities.DirectPaymentRequest;
+import com.eway.payment.rapid.sdk.entities.TransactionSearchResponse;
+import com.eway.payment.rapid.sdk.exception.ParameterInvalidException;
+import com.eway.payment.rapid.sdk.exception.RapidSdkException;
+import com.eway.payment.rapid.sdk.message.convert.BeanConverter;
+import com.eway.payment.rapid.sdk.message.convert.CustomerToInternalCustomerConverter;
+import com.eway.payment.rapid.sdk.message.convert.InternalCustomerToCustomerConverter;
+import com.eway.payment.rapid.sdk.message.convert.InternalTransactionToAddressConverter;
+import com.eway.payment.rapid.sdk.message.convert.TransactionShippingAddressConverter;
+import com.eway.payment.rapid.sdk.message.convert.TransactionToArrLineItemConverter;
+import com.eway.payment.rapid.sdk.message.convert.TransactionToArrOptionConverter;
+import com.eway.payment.rapid.sdk.message.convert.TransactionToPaymentConverter;
+import com.eway.payment.rapid.sdk.message.convert.VerificationToVerifiResultConverter;
+import com.eway.payment.rapid.sdk.output.QueryTransactionResponse;
+
+/**
+ * The converters measured by {@link ConverterBenchmark} as they were before
+ * they were shared: every converter, nested ones included, allocates each
+ * converter it delegates to on every call. The leaf converters allocated
+ * nothing and are used as they are.
+ */
+final class PerCallConverters {
+
+    private PerCallConverters() {
+    }
+
+    static final class TransactionToDirectPaymentConverter implements BeanConverter<Transaction, DirectPaymentRequest> {
+
+        public DirectPaymentRequest doConvert(Transaction input) throws RapidSdkException {
+            DirectPaymentRequest request = new DirectPaymentRequest();
+            BeanConverter<Customer, com.eway.payment.rapid.sdk.beans.internal.Customer> interCustConvert = new CustomerToInternalCustomerConverter(false);
+            if (input.getCustomer() != null) {
+                request.setCustomerIP(input.getCustomer().getCustomerDeviceIP());
+                request.setCustomer(interCustConvert.doConvert(input.getCustomer()));
+            }
+            TransactionToPaymentConverter paymentConvert = new TransactionToPaymentConverter();
+            request.setPayment(paymentConvert.doConvert(input));
+
+            TransactionShippingAddressConverter shipConverter = new TransactionShippingAddressConverter();
+            request.setShippingAddress(shipConverter.doConvert(input));
+
+            TransactionToArrLineItemConverter lineItemConvert = new TransactionToArrLineItemConverter();
+            request.setItems(lineItemConvert.doConvert(input));
+
+            TransactionToArrOptionConverter optionConverter = new TransactionToArrOptionConverter();
+            request.setOptions(optionConverter.doConvert(input));
+
+            request.setDeviceID(input.getDeviceID());
+            request.setPartnerID(input.getPartnerID());
+            request.setTransactionType(input.getTransactionType() != null ? input.getTransactionType().name() : "");
+            request.setMethod(input.isCapture() ? RequestMethod.ProcessPayment.name() : RequestMethod.Authorise.name());
+            request.setRedirectUrl(input.getRedirectURL());
+            request.setSecuredCardData(input.getSecuredCardData());
+            return request;
+        }
+    }
+
+    static final class SearchToQueryTransConverter implements BeanConverter<TransactionSearchResponse, QueryTransactionResponse> {
+
+        public QueryTransactionResponse doConvert(TransactionSearchResponse response) throws RapidSdkException {
+            QueryTransactionResponse queryTransactionResponse = new QueryTransactionResponse();
+            if (response.getTransactions() != null && response.getTransactions().length > 0) {
+                BeanConverter<com.eway.payment.rapid.sdk.beans.internal.Transaction, Transaction> transConverter = new InternalTransToTransConverter();
+                queryTransactionResponse.setTransaction(transConverter.doConvert(response.getTransactions()[0]));
+            }
+            if (!StringUtils.isBlank(response.getError())) {
+                queryTransactionResponse.setErrors(Arrays.asList(response.getError().split("\\s*,\\s*")));
+            }
+            BeanConverter<com.eway.payment.rapid.sdk.beans.internal.Transaction, TransactionStatus> statusConvert = new InternalTransactionToStatusConverter();
+
+            if (response.getTransactions() != null && response.getTransactions().length > 0) {
+                queryTransactionResponse.setTransactionStatus(statusConvert.doConvert(response.getTransactions()[0]));
+            }
+            return queryTransactionResponse;
+        }
+    }
+
+    static final class InternalTransToTransConverter implements BeanConverter<com.eway.payment.rapid.sdk.beans.internal.Transaction, Transaction> {
+
+        public Transaction doConvert(com.eway.payment.rapid.sdk.beans.internal.Transaction iTransaction) throws RapidSdkException {
+            Transaction transaction = new Transaction();
+            transaction.setTokenCustomerID(iTransaction.getTokenCustomerID());
+            transaction.setMaxRefund(iTransaction.getMaxRefund());
+            transaction.setTransactionDateTime(iTransaction.getTransactionDateTime());
+            transaction.setSource(iTransaction.getSource());
+            transaction.setOriginalTransactionId(iTransaction.getOriginalTransactionId());
+
+            Customer eWayCustomer = getEwayCustomer(iTransaction);
+
+            if (eWayCustomer.getTokenCustomerID() == null && iTransaction.getTokenCustomerID() != null) {
+                eWayCustomer.setTokenCustomerID(iTransaction.getTokenCustomerID());
+            }
+
+            transaction.setCustomer(eWayCustomer);
+
+            transaction.setPaymentDetails(getPaymentDetails(iTransaction));
+            transaction.setShippingDetails(getShippingDetails(iTransaction));
+            return transaction;
+        }
+
+        private Customer getEwayCustomer(com.eway.payment.rapid.sdk.beans.internal.Transaction iTransaction) throws RapidSdkException {
+            com.eway.payment.rapid.sdk.beans.internal.Customer iCustomer = iTransaction.getCustomer();
+            InternalCustomerToCustomerConverter custConvert = new InternalCustomerToCustomerConverter();
+            Customer customer = custConvert.doConvert(iCustomer);
+            InternalTransactionToAddressConverter addressConvert = new InternalTransactionToAddressConverter();
+            customer.setAddress(addressConvert.doConvert(iTransaction));
+            return customer;
+        }
+
+        private PaymentDetails getPaymentDetails(com.eway.payment.rapid.sdk.beans.internal.Transaction iTransaction) {
+            PaymentDetails paymentDetails = new PaymentDetails();
+            paymentDetails.setTotalAmount(iTransaction.getTotalAmount());
+            paymentDetails.setInvoiceReference(iTransaction.getInvoiceReference());
+            paymentDetails.setInvoiceNumber(iTransaction.getInvoiceNumber());
+            paymentDetails.setCurrencyCode(iTransaction.getCurrencyCode());
+            return paymentDetails;
+        }
+
+        private ShippingDetails getShippingDetails(com.eway.payment.rapid.sdk.beans.internal.Transaction iTransaction) throws RapidSdkException {
+            ShippingDetails shippingDetails = new ShippingDetails();
+            if (iTransaction.getShippingAddress() != null) {
+                InternalTransactionToAddressConverter addressConvert = new InternalTransactionToAddressConverter();
+                shippingDetails.setShippingAddress(addressConvert.doConvert(iTransaction));
+                String methodName = iTransaction.getShippingAddress().getShippingMethod();
+                if (!StringUtils.isBlank(methodName)) {
+                    for (ShippingMethod m : ShippingMethod.values()) {
+                        if (m.name().equalsIgnoreCase(methodName)) {
+                            shippingDetails.setShippingMethod(m);
+                            break;
+                        }
+                    }
+                }
+            }
+            if (iTransaction.getShippingAddress() != null) {
+                shippingDetails.setEmail(iTransaction.getShippingAddress().getEmail());
+                shippingDetails.setFax(iTransaction.getShippingAddress().getFax());
+                shippingDetails.setLastName(iTransaction.getShippingAddress().getLastName());
+                shippingDetails.setFirstName(iTransaction.getShippingAddress().getFirstName());
+                shippingDetails.setPhone(iTransaction.getShippingAddress().getPhone());
+            }
+            return shippingDetails;
+        }
+    }
+
+    static final class InternalTransactionToStatusConverter implements BeanConverter<com.eway.payment.rapid.sdk.beans.internal.Transaction, TransactionStatus> {
+
+        public TransactionStatus doConvert(com.eway.payment.rapid.sdk.beans.internal.Transaction transaction) throws RapidSdkException {
+            TransactionStatus transactionStatus = new TransactionStatus();
+            if (transaction.getBeagleScore() != null) {
+                transactionStatus.setBeagleScore(transaction.getBeagleScore());
+            }
+            transactionStatus.setStatus(transaction.getTransactionStatus());
+            transactionStatus.setTotal(transaction.getTotalAmount());
+            transactionStatus.setCaptured(transaction.getTransactionCaptured());
+
+            transactionStatus.setProcessingDetails(getProcessingDetails(transaction));
+            if (!StringUtils.isBlank(transaction.getFraudAction())) {
+                try {
+                    transactionStatus.setFraudAction(FraudAction.valueOf(transaction.getFraudAction()));
+                } catch (Exception e) {
+                    throw new ParameterInvalidException("Invalid Transaction Fraud Action: " + transaction.getFraudAction());
+                }
+            }
+
+            if (!StringUtils.isBlank(transaction.getTransactionID())) {
+                try {
+                    transactionStatus.setTransactionID(Integer.parseInt(transaction.getTransactionID()));
+                } catch (Exception e) {
+                    throw new ParameterInvalidException("Invalid Transaction ID");
+                }
+            }
+
+            BeanConverter<Verification, VerificationResult> converter = new VerificationToVerifiResultConverter();
+            VerificationResult result = converter.doConvert(transaction.getVerification());
+
+            BeagleVerification beagleVerification = transaction.getBeagleVerification();
+            if (beagleVerification != null) {
+                result.setBeagleEmail(getBeagleVerification(beagleVerification.getEmail()));
+                result.setBeaglePhone(getBeagleVerification(beagleVerification.getPhone()));
+            }
+            transactionStatus.setVerificationResult(result);
+
+            return transactionStatus;
+        }
+
+        private ProcessingDetails getProcessingDetails(com.eway.payment.rapid.sdk.beans.internal.Transaction response) {
+            ProcessingDetails processingDetails = new ProcessingDetails();
+            processingDetails.setAuthorisationCode(response.getAuthorisationCode());
+            processingDetails.setResponseCode(response.getResponseCode());
+            processingDetails.setResponseMessage(response.getResponseMessage());
+            return processingDetails;
+        }
+
+        private BeagleVerifyStatus getBeagleVerification(String code) {
+            if ("0".equalsIgnoreCase(code)) {
+                return BeagleVerifyStatus.NotVerified;
+            } else if ("1".equalsIgnoreCase(code)) {
+                return BeagleVerifyStatus.Attempted;
+            } else if ("2".equalsIgnoreCase(code)) {
+                return BeagleVerifyStatus.Verified;
+            } else if ("3".equalsIgnoreCase(code)) {
+                return BeagleVerifyStatus.Failed;
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.eway.payment.rapid.sdk.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.eway.payment.rapid.sdk.EndpointVerification;
+import com.eway.payment.rapid.sdk.InputModelFactory;
+import com.eway.payment.rapid.sdk.RapidClient;
+import com.eway.payment.rapid.sdk.RapidSDK;
+import com.eway.payment.rapid.sdk.StubRapidServer;
+import com.eway.payment.rapid.sdk.beans.external.PaymentMethod;
+import com.eway.payment.rapid.sdk.beans.external.Transaction;
+import com.eway.payment.rapid.sdk.output.CreateTransactionResponse;
+
+/**
+ * Measures the latency of the first direct payment a new client makes, in a
+ * fresh JVM each time, with and without {@link RapidClient#warmUp()} called
+ * when the client is created. The stub endpoint is plain HTTP, so the TLS
+ * handshake a warm up also saves against Rapid is not part of the numbers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+public class StartupBenchmark {
+
+    private static final String DIRECT_PAYMENT_RESPONSE = "{\"AuthorisationCode\":\"612250\",\"ResponseCode\":\"00\","
+            + "\"ResponseMessage\":\"A2000\",\"TransactionID\":11735670,\"TransactionStatus\":true,"
+            + "\"Customer\":{\"CardDetails\":{\"Number\":\"444433XXXXXX1111\"}},"
+            + "\"Payment\":{\"TotalAmount\":1000,\"InvoiceNumber\":\"Inv 21540\",\"CurrencyCode\":\"AUD\"},\"Errors\":\"\"}";
+
+    @Param({"false", "true"})
+    public boolean warmUp;
+
+    private StubRapidServer server;
+    private RapidClient client;
+    private Transaction transaction;
+
+    @Setup
+    public void setup() throws Exception {
+        server = new StubRapidServer();
+        server.setResponse(200, DIRECT_PAYMENT_RESPONSE);
+        client = RapidSDK.builder()
+                .credentials("apiKey", "password")
+                .endpoint(server.getUrl())
+                .endpointVerification(EndpointVerification.NONE)
+                .build();
+        if (warmUp) {
+            client.warmUp();
+        }
+        transaction = InputModelFactory.createTransaction();
+        transaction.setCustomer(InputModelFactory.initCustomer());
+        transaction.setPaymentDetails(InputModelFactory.initPaymentDetails());
+    }
+
+    @TearDown
+    public void tearDown() {
+        client.close();
+        server.stop();
+    }
+
+    @Benchmark
+    public CreateTransactionResponse firstPayment() {
+        return client.create(PaymentMethod.Direct, transaction);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(StartupBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,128 @@
+package com.eway.payment.rapid.sdk.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.eway.payment.rapid.sdk.beans.external.PaymentDetails;
+import com.eway.payment.rapid.sdk.beans.external.ProcessingDetails;
+import com.eway.payment.rapid.sdk.beans.external.Transaction;
+import com.eway.payment.rapid.sdk.beans.external.TransactionFilter;
+import com.eway.payment.rapid.sdk.beans.external.TransactionStatus;
+import com.eway.payment.rapid.sdk.output.QueryTransactionResponse;
+
+public class SettledTransactionCacheTest {
+
+    private SettledTransactionCache cache;
+
+    @Before
+    public void setup() {
+        cache = new SettledTransactionCache(2);
+    }
+
+    @Test
+    public void testOnlySettledResponsesAreCached() {
+        assertTrue(SettledTransactionCache.isSettled(response(1, false, false, "0")));
+        assertTrue(SettledTransactionCache.isSettled(response(1, true, true, "0.00")));
+        assertFalse(SettledTransactionCache.isSettled(response(1, true, true, "1000")));
+        assertFalse(SettledTransactionCache.isSettled(response(1, true, false, "0")));
+        assertFalse(SettledTransactionCache.isSettled(response(1, true, true, null)));
+        assertFalse(SettledTransactionCache.isSettled(response(0, false, false, "0")));
+
+        QueryTransactionResponse unprocessed = response(1, false, false, "0");
+        unprocessed.getTransactionStatus().getProcessingDetails().setResponseCode(null);
+        assertFalse(SettledTransactionCache.isSettled(unprocessed));
+
+        QueryTransactionResponse failed = response(1, false, false, "0");
+        failed.getErrors().add("V6021");
+        assertFalse(cache.put(failed));
+        assertEquals(0, cache.getStats().getSize());
+    }
+
+    @Test
+    public void testLookupByEveryIndex() {
+        QueryTransactionResponse response = response(11735670, true, true, "0");
+        assertTrue(cache.put(response));
+
+        assertSame(response, cache.get(11735670));
+        assertSame(response, cache.get(filter(11735670, null, null, null)));
+        assertSame(response, cache.get(filter(null, null, "Inv 11735670", null)));
+        assertSame(response, cache.get(filter(null, null, null, "Ref 11735670")));
+        assertNull(cache.get(filter(null, "AccessCode", null, null)));
+        assertNull(cache.get(filter(null, null, "Inv 1", null)));
+
+        CacheStats stats = cache.getStats();
+        assertEquals(4, stats.getHits());
+        assertEquals(1, stats.getMisses());
+    }
+
+    @Test
+    public void testDeclineIsOnlyFoundByTransactionId() {
+        QueryTransactionResponse response = response(11735670, false, false, "0");
+        assertTrue(cache.put(response));
+
+        assertSame(response, cache.get(11735670));
+        assertSame(response, cache.get(filter(11735670, null, null, null)));
+        assertNull(cache.get(filter(null, null, "Inv 11735670", null)));
+        assertNull(cache.get(filter(null, null, null, "Ref 11735670")));
+    }
+
+    @Test
+    public void testEvictionDropsInvoiceIndexes() {
+        cache.put(response(1, true, true, "0"));
+        cache.put(response(2, true, true, "0"));
+        cache.get(1);
+        cache.put(response(3, true, true, "0"));
+
+        assertNull(cache.get(2));
+        assertNull(cache.get(filter(null, null, "Inv 2", null)));
+        assertNull(cache.get(filter(null, null, null, "Ref 2")));
+        assertEquals(1, cache.getStats().getEvictions());
+        assertEquals(2, cache.getStats().getSize());
+    }
+
+    @Test
+    public void testInvalidateInvoiceKeepsTransactionId() {
+        cache.put(response(1, true, true, "0"));
+        cache.invalidateInvoice("Inv 1", "Ref 1");
+        assertNull(cache.get(filter(null, null, "Inv 1", null)));
+        assertNull(cache.get(filter(null, null, null, "Ref 1")));
+        assertEquals(1, cache.get(1).getTransactionStatus().getTransactionID());
+    }
+
+    private static QueryTransactionResponse response(int transactionId, boolean status, boolean captured, String maxRefund) {
+        ProcessingDetails processingDetails = new ProcessingDetails();
+        processingDetails.setResponseCode(status ? "00" : "05");
+        TransactionStatus transactionStatus = new TransactionStatus();
+        transactionStatus.setTransactionID(transactionId);
+        transactionStatus.setStatus(status);
+        transactionStatus.setCaptured(captured);
+        transactionStatus.setProcessingDetails(processingDetails);
+
+        PaymentDetails paymentDetails = new PaymentDetails();
+        paymentDetails.setInvoiceNumber("Inv " + transactionId);
+        paymentDetails.setInvoiceReference("Ref " + transactionId);
+        Transaction transaction = new Transaction();
+        transaction.setPaymentDetails(paymentDetails);
+        transaction.setMaxRefund(maxRefund);
+
+        QueryTransactionResponse response = new QueryTransactionResponse();
+        response.setTransaction(transaction);
+        response.setTransactionStatus(transactionStatus);
+        return response;
+    }
+
+    private static TransactionFilter filter(Integer transactionId, String accessCode, String invoiceNumber, String invoiceReference) {
+        TransactionFilter filter = new TransactionFilter();
+        filter.setTransactionId(transactionId);
+        filter.setAccessCode(accessCode);
+        filter.setInvoiceNumber(invoiceNumber);
+        filter.setInvoiceReference(invoiceReference);
+        return filter;
+    }
+}
@@ -0,0 +1,102 @@
+package com.eway.payment.rapid.sdk.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.eway.payment.rapid.sdk.output.QueryCustomerResponse;
+
+public class TokenCustomerCacheTest {
+
+    private static final long TTL = 1000L;
+
+    private AtomicLong now;
+    private TokenCustomerCache cache;
+
+    @Before
+    public void setup() {
+        now = new AtomicLong();
+        cache = new TokenCustomerCache(3, TTL, now::get);
+    }
+
+    @Test
+    public void testHitAndMiss() {
+        QueryCustomerResponse response = new QueryCustomerResponse();
+        assertNull(cache.get(1L));
+        cache.put(1L, response, cache.version());
+        assertSame(response, cache.get(1L));
+        CacheStats stats = cache.getStats();
+        assertEquals(1, stats.getHits());
+        assertEquals(1, stats.getMisses());
+        assertEquals(1, stats.getSize());
+    }
+
+    @Test
+    public void testEntriesExpire() {
+        cache.put(1L, new QueryCustomerResponse(), cache.version());
+        now.set(TTL - 1);
+        assertEquals(1, cache.getStats().getSize());
+        cache.get(1L);
+        now.set(TTL);
+        assertNull(cache.get(1L));
+        assertEquals(1, cache.getStats().getEvictions());
+        assertEquals(0, cache.getStats().getSize());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() {
+        cache.put(1L, new QueryCustomerResponse(), cache.version());
+        cache.put(2L, new QueryCustomerResponse(), cache.version());
+        cache.put(3L, new QueryCustomerResponse(), cache.version());
+        cache.get(1L);
+        cache.put(4L, new QueryCustomerResponse(), cache.version());
+        assertNull(cache.get(2L));
+        assertEquals(1, cache.getStats().getEvictions());
+        assertEquals(3, cache.getStats().getSize());
+    }
+
+    @Test
+    public void testInvalidateRemovesEntry() {
+        cache.put(1L, new QueryCustomerResponse(), cache.version());
+        cache.invalidate(1L);
+        assertNull(cache.get(1L));
+    }
+
+    @Test
+    public void testStaleResponseIsNotCached() {
+        long version = cache.version();
+        cache.invalidate(1L);
+        cache.put(1L, new QueryCustomerResponse(), version);
+        assertNull(cache.get(1L));
+    }
+
+    @Test
+    public void testMatchesHashMapUnderCollidingKeys() {
+        TokenCustomerCache large = new TokenCustomerCache(64, Long.MAX_VALUE / 2, now::get);
+        Map<Long, QueryCustomerResponse> expected = new HashMap<Long, QueryCustomerResponse>();
+        Random random = new Random(42);
+        for (int i = 0; i < 5000; i++) {
+            long key = random.nextInt(48) * 1024L;
+            if (random.nextBoolean()) {
+                QueryCustomerResponse response = new QueryCustomerResponse();
+                large.put(key, response, large.version());
+                expected.put(key, response);
+            } else {
+                large.invalidate(key);
+                expected.remove(key);
+            }
+        }
+        for (long key = 0; key < 48 * 1024L; key += 1024L) {
+            assertSame(expected.get(key), large.get(key));
+        }
+        assertEquals(expected.size(), large.getStats().getSize());
+    }
+}
@@ -0,0 +1,119 @@
+package com.eway.payment.rapid.sdk.message.process;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Test;
+
+import com.eway.payment.rapid.sdk.beans.external.Refund;
+import com.eway.payment.rapid.sdk.beans.internal.RefundDetails;
+import com.eway.payment.rapid.sdk.message.process.refund.RefundMsgProcess;
+import com.eway.payment.rapid.sdk.message.process.transport.Deadline;
+import com.eway.payment.rapid.sdk.message.process.transport.HttpTransport;
+import com.eway.payment.rapid.sdk.message.process.transport.TransportResponse;
+import com.eway.payment.rapid.sdk.output.RefundResponse;
+import com.eway.payment.rapid.sdk.util.Constant;
+
+/**
+ * Runs many refunds at once through one message process, each with its own
+ * context, and checks no call sees the path or request of another.
+ */
+public class SharedMessageProcessTest {
+
+    private static final int THREADS = 16;
+    private static final int CALLS = 200;
+
+    @Test
+    public void testConcurrentCallsKeepTheirOwnPath() throws Exception {
+        final RefundMsgProcess process = new RefundMsgProcess(Constant.TRANSACTION_METHOD);
+        final EchoTransport transport = new EchoTransport();
+        final Queue<String> failures = new ConcurrentLinkedQueue<String>();
+        final CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[THREADS];
+        for (int t = 0; t < THREADS; t++) {
+            final int thread = t;
+            threads[t] = new Thread(new Runnable() {
+                public void run() {
+                    try {
+                        start.await();
+                        for (int i = 0; i < CALLS; i++) {
+                            String transactionId = String.valueOf(thread * CALLS + i + 1);
+                            MessageContext<Refund> context = new MessageContext<Refund>(transport, null, refund(transactionId));
+                            RefundResponse response = process.doWork(context);
+                            if (!transactionId.equals(String.valueOf(response.getTransactionStatus().getTransactionID()))) {
+                                failures.add(transactionId + " answered for " + response.getTransactionStatus().getTransactionID());
+                            }
+                            if (!context.getRequestJson().contains("\"" + transactionId + "\"")) {
+                                failures.add(transactionId + " sent " + context.getRequestJson());
+                            }
+                        }
+                    } catch (Exception e) {
+                        failures.add(e.toString());
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertTrue("failed calls " + failures, failures.isEmpty());
+        assertEquals(THREADS * CALLS, transport.paths.size());
+        // the calls added nothing to the process itself
+        assertEquals(Arrays.asList(Constant.TRANSACTION_METHOD), process.getRequestPath());
+        assertNull(process.getRequestJson());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testSharedProcessNeedsContext() throws Exception {
+        new RefundMsgProcess(Constant.TRANSACTION_METHOD).doWork(refund("1"));
+    }
+
+    private static Refund refund(String transactionId) {
+        RefundDetails details = new RefundDetails();
+        details.setOriginalTransactionID(transactionId);
+        details.setTotalAmount(100);
+        Refund refund = new Refund();
+        refund.setRefundDetails(details);
+        return refund;
+    }
+
+    /**
+     * Answers a refund with the transaction ID found in its path
+     */
+    private static final class EchoTransport implements HttpTransport {
+
+        private final Queue<String> paths = new ConcurrentLinkedQueue<String>();
+
+        public TransportResponse send(String method, String path, byte[] body, Deadline deadline) {
+            paths.add(path);
+            String transactionId = path.split("/")[1];
+            String response = "{\"TransactionID\":\"" + transactionId + "\",\"TransactionStatus\":true,\"Errors\":\"\"}";
+            return new TransportResponse(200, response.getBytes(StandardCharsets.UTF_8));
+        }
+
+        public CompletableFuture<TransportResponse> sendAsync(String method, String path, byte[] body, Deadline deadline) {
+            return CompletableFuture.completedFuture(send(method, path, body, deadline));
+        }
+
+        public void connect(Deadline deadline) {
+        }
+
+        public boolean isDebug() {
+            return false;
+        }
+
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.eway.payment.rapid.sdk.message.process;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+
+import javax.net.ssl.SSLContext;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+import com.eway.payment.rapid.sdk.StubRapidServer;
+import com.eway.payment.rapid.sdk.TransportType;
+import com.eway.payment.rapid.sdk.beans.external.Transaction;
+import com.eway.payment.rapid.sdk.beans.external.TransactionType;
+import com.eway.payment.rapid.sdk.exception.RapidSdkException;
+import com.eway.payment.rapid.sdk.message.process.transaction.TransDirectPaymentMsgProcess;
+import com.eway.payment.rapid.sdk.message.process.transport.HttpTransport;
+import com.eway.payment.rapid.sdk.message.process.transport.JdkHttpTransport;
+import com.eway.payment.rapid.sdk.message.process.transport.JerseyTransport;
+import com.eway.payment.rapid.sdk.object.create.ObjectCreator;
+import com.eway.payment.rapid.sdk.output.CreateTransactionResponse;
+import com.eway.payment.rapid.sdk.util.Constant;
+import com.eway.payment.rapid.sdk.util.EwayJacksonJsonFeature;
+import com.eway.payment.rapid.sdk.util.JsonSupport;
+import com.fasterxml.jackson.databind.JsonNode;
+
+@RunWith(Parameterized.class)
+public class TransDirectPaymentMsgProcessTest {
+
+    private static final String DIRECT_PAYMENT_RESPONSE = "{\"TransactionID\":\"11735670\",\"TransactionStatus\":true,"
+            + "\"ResponseCode\":\"00\",\"Payment\":{\"TotalAmount\":1000},\"Customer\":{},\"Errors\":\"\"}";
+
+    @Parameters(name = "{0}")
+    public static Collection<Object[]> transports() {
+        return Arrays.asList(new Object[][] {{TransportType.JERSEY}, {TransportType.JDK_HTTP_CLIENT}});
+    }
+
+    private final TransportType transportType;
+    private StubRapidServer server;
+    private Client client;
+    private HttpTransport transport;
+    private Transaction transaction;
+
+    public TransDirectPaymentMsgProcessTest(TransportType transportType) {
+        this.transportType = transportType;
+    }
+
+    @Before
+    public void setup() throws Exception {
+        server = new StubRapidServer();
+        server.setResponse(200, DIRECT_PAYMENT_RESPONSE);
+        client = ClientBuilder.newClient().register(EwayJacksonJsonFeature.class);
+        transaction = new Transaction();
+        transaction.setCustomer(ObjectCreator.createExternalCustomer());
+        transaction.setPaymentDetails(ObjectCreator.createPaymentDetails());
+        transaction.setTransactionType(TransactionType.Purchase);
+        transaction.setCapture(true);
+    }
+
+    @After
+    public void tearDown() {
+        if (transport != null) {
+            transport.close();
+        }
+        client.close();
+        server.stop();
+    }
+
+    @Test
+    public void testRequestJsonIsOnlyFormattedOnDemand() throws Exception {
+        TransDirectPaymentMsgProcess process = new TransDirectPaymentMsgProcess(transport(false), "DirectPayment.json");
+        CreateTransactionResponse response = process.doWork(transaction);
+
+        assertEquals(11735670, response.getTransactionStatus().getTransactionID());
+        assertTrue(response.getErrors().isEmpty());
+        assertNull(process.requestJson);
+
+        String requestJson = process.getRequestJson();
+        assertNotNull(requestJson);
+        JsonNode sent = JsonSupport.mapper().readTree(server.getLastRequestBody());
+        assertEquals(sent, JsonSupport.mapper().readTree(requestJson));
+        assertEquals("ProcessPayment", sent.get("Method").asText());
+    }
+
+    @Test
+    public void testDebugModeFillsRequestJson() throws Exception {
+        TransDirectPaymentMsgProcess process = new TransDirectPaymentMsgProcess(transport(true), "DirectPayment.json");
+        process.doWork(transaction);
+        assertNotNull(process.requestJson);
+    }
+
+    @Test(expected = RapidSdkException.class)
+    public void testMalformedResponseIsCommunicationFailure() throws Exception {
+        server.setResponse(200, "{\"TransactionID\":");
+        new TransDirectPaymentMsgProcess(transport(false), "DirectPayment.json").doWork(transaction);
+    }
+
+    private HttpTransport transport(boolean debug) throws Exception {
+        if (transportType == TransportType.JDK_HTTP_CLIENT) {
+            transport = JdkHttpTransport.create(server.getUrl(), SSLContext.getDefault(),
+                    Collections.<String, String>emptyMap(), 0, debug);
+        } else {
+            transport = new JerseyTransport(debug
+                    ? client.target(server.getUrl()).property(Constant.RAPID_SDK_DEBUG_PROPERTY, true)
+                    : client.target(server.getUrl()));
+        }
+        return transport;
+    }
+}
@@ -0,0 +1,53 @@
+package com.eway.payment.rapid.sdk.message.process.transport;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class DeadlineTest {
+
+    @Test
+    public void testNoLimitsIsNone() {
+        assertSame(Deadline.NONE, Deadline.start(0, 0, 0));
+        assertFalse(Deadline.NONE.isExpired());
+        assertEquals(Long.MAX_VALUE, Deadline.NONE.remainingMillis());
+        assertEquals(0, Deadline.NONE.readTimeoutMillis());
+    }
+
+    @Test
+    public void testTimeoutsWithoutDeadlineAreUnchanged() {
+        Deadline deadline = Deadline.start(1000, 5000, 0);
+        assertEquals(1000, deadline.connectTimeoutMillis());
+        assertEquals(5000, deadline.readTimeoutMillis());
+        assertFalse(deadline.isExpired());
+    }
+
+    @Test
+    public void testTimeoutsAreCappedByDeadline() {
+        Deadline deadline = Deadline.start(1000, 0, 200);
+        assertTrue(deadline.connectTimeoutMillis() <= 200);
+        assertTrue(deadline.readTimeoutMillis() <= 200);
+        assertTrue(deadline.readTimeoutMillis() > 0);
+    }
+
+    @Test
+    public void testOnlyTimeoutsShortenedByDeadlineAreLimited() {
+        Deadline deadline = Deadline.start(100, 0, 60000);
+        assertFalse(deadline.limitsConnectTimeout());
+        assertTrue(deadline.limitsReadTimeout());
+        assertFalse(Deadline.start(100, 100, 0).limitsReadTimeout());
+        assertTrue(Deadline.start(1000, 1000, 200).limitsConnectTimeout());
+    }
+
+    @Test
+    public void testExpiredDeadlineNeverMeansNoLimit() throws InterruptedException {
+        Deadline deadline = Deadline.start(0, 0, 1);
+        Thread.sleep(5);
+        assertTrue(deadline.isExpired());
+        assertEquals(0, deadline.remainingMillis());
+        assertEquals(1, deadline.readTimeoutMillis());
+    }
+}
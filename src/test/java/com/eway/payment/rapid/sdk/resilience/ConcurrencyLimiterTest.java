@@ -0,0 +1,124 @@
+package com.eway.payment.rapid.sdk.resilience;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class ConcurrencyLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(50);
+
+    @Test
+    public void testLimitGrowsWhileCallsAreFastAndTheLimitIsInUse() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(ConcurrencyLimitPolicy.builder().limits(4, 1, 6).build());
+        for (int round = 0; round < 50; round++) {
+            int limit = limiter.getStats().getLimit();
+            for (int i = 0; i < limit; i++) {
+                assertTrue(limiter.acquire(0));
+            }
+            for (int i = 0; i < limit; i++) {
+                limiter.release(FAST, false);
+            }
+        }
+        assertEquals(6, limiter.getStats().getLimit());
+    }
+
+    @Test
+    public void testLimitDoesNotGrowWhileLittleUsed() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(ConcurrencyLimitPolicy.builder().limits(4, 1, 6).build());
+        for (int i = 0; i < 50; i++) {
+            assertTrue(limiter.acquire(0));
+            limiter.release(FAST, false);
+        }
+        assertEquals(4, limiter.getStats().getLimit());
+    }
+
+    @Test
+    public void testLimitShrinksOnSlowOrFailedCalls() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(ConcurrencyLimitPolicy.builder()
+                .limits(10, 2, 10).backoffRatio(0.5).build());
+        assertTrue(limiter.acquire(0));
+        limiter.release(FAST, false);
+        assertTrue(limiter.acquire(0));
+        limiter.release(SLOW, false);
+        assertEquals(5, limiter.getStats().getLimit());
+        assertTrue(limiter.acquire(0));
+        limiter.release(FAST, true);
+        assertEquals(2, limiter.getStats().getLimit());
+        assertTrue(limiter.acquire(0));
+        limiter.release(SLOW, true);
+        assertEquals(2, limiter.getStats().getLimit());
+    }
+
+    @Test
+    public void testCallsAboveTheLimitAreRejectedWhenTheQueueIsFull() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(ConcurrencyLimitPolicy.builder()
+                .limits(1, 1, 1).maxQueueDepth(0).build());
+        assertTrue(limiter.acquire(1000));
+        long start = System.nanoTime();
+        assertFalse(limiter.acquire(1000));
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(500));
+        assertEquals(new ConcurrencyLimitStats(1, 1, 0, 1).toString(), limiter.getStats().toString());
+    }
+
+    @Test
+    public void testQueuedCallsGetRoomInOrder() throws Exception {
+        final ConcurrencyLimiter limiter = new ConcurrencyLimiter(ConcurrencyLimitPolicy.builder()
+                .limits(1, 1, 1).maxQueueDepth(2).build());
+        final List<String> order = new CopyOnWriteArrayList<String>();
+        assertTrue(limiter.acquire(0));
+        Thread first = waiter(limiter, order, "first");
+        awaitQueueDepth(limiter, 1);
+        Thread second = waiter(limiter, order, "second");
+        awaitQueueDepth(limiter, 2);
+        assertFalse(limiter.acquire(1000));
+
+        limiter.release();
+        first.join(5000);
+        second.join(5000);
+        assertEquals("[first, second]", order.toString());
+        assertEquals(new ConcurrencyLimitStats(1, 0, 0, 1).toString(), limiter.getStats().toString());
+    }
+
+    @Test
+    public void testQueuedCallGivesUpWhenItsWaitRunsOut() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(ConcurrencyLimitPolicy.builder().limits(1, 1, 1).build());
+        assertTrue(limiter.acquire(0));
+        long start = System.nanoTime();
+        assertFalse(limiter.acquire(50));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+        assertEquals(new ConcurrencyLimitStats(1, 1, 0, 1).toString(), limiter.getStats().toString());
+    }
+
+    /**
+     * Start a thread that waits for room, records its name once it has it
+     * and releases it
+     */
+    private static Thread waiter(final ConcurrencyLimiter limiter, final List<String> order, final String name) {
+        Thread thread = new Thread(new Runnable() {
+            public void run() {
+                if (limiter.acquire(5000)) {
+                    order.add(name);
+                    limiter.release();
+                }
+            }
+        });
+        thread.start();
+        return thread;
+    }
+
+    private static void awaitQueueDepth(ConcurrencyLimiter limiter, int depth) throws InterruptedException {
+        long until = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (limiter.getStats().getQueueDepth() < depth && System.nanoTime() < until) {
+            Thread.sleep(1);
+        }
+        assertEquals(depth, limiter.getStats().getQueueDepth());
+    }
+}
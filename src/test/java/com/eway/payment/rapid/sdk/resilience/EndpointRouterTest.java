@@ -0,0 +1,113 @@
+package com.eway.payment.rapid.sdk.resilience;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class EndpointRouterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Test
+    public void testLowestRoundTripIsChosen() {
+        EndpointRouter router = newRouter(EndpointRoutingPolicy.defaults());
+        router.onResult(router.choose(), SLOW, false);
+        int second = router.choose();
+        assertEquals(1, second);
+        router.onResult(second, FAST, false);
+        for (int i = 0; i < 5; i++) {
+            int endpoint = router.choose();
+            assertEquals(1, endpoint);
+            router.onResult(endpoint, FAST, false);
+        }
+        assertEquals(100.0, router.getStats().get(0).getRoundTripMillis(), 0.001);
+        assertEquals(10.0, router.getStats().get(1).getRoundTripMillis(), 0.001);
+    }
+
+    @Test
+    public void testCallsInFlightSpreadLoad() {
+        EndpointRouter router = newRouter(EndpointRoutingPolicy.defaults());
+        router.onResult(router.choose(), 3 * FAST, false);
+        router.onResult(router.choose(), FAST, false);
+        // the faster endpoint takes calls until its calls in flight make up for its lower round trip
+        assertEquals(1, router.choose());
+        assertEquals(1, router.choose());
+        assertEquals(0, router.choose());
+        assertEquals(2, router.getStats().get(1).getInFlight());
+    }
+
+    @Test
+    public void testFailedEndpointIsAvoidedAndEjected() {
+        EndpointRouter router = newRouter(EndpointRoutingPolicy.builder().ejectAfterFailures(2).build());
+        int first = router.choose();
+        router.choose();
+        int third = router.choose();
+        assertEquals(0, third);
+        router.onResult(first, FAST, true);
+        assertEquals(1, router.choose());
+        router.onCancelled(1);
+        router.onResult(third, FAST, true);
+        EndpointStats stats = router.getStats().get(0);
+        assertTrue(stats.isEjected());
+        assertEquals(2, stats.getConsecutiveFailures());
+        assertEquals(0, stats.getInFlight());
+    }
+
+    @Test
+    public void testOneFailureDoesNotKeepFastEndpointOutOfUse() {
+        EndpointRouter router = newRouter(EndpointRoutingPolicy.defaults());
+        router.onResult(router.choose(), FAST, false);
+        router.onResult(router.choose(), SLOW, false);
+        router.onResult(router.choose(), FAST, true);
+        // passed over until the slower endpoint answers
+        for (int i = 0; i < 3; i++) {
+            assertEquals(1, router.choose());
+        }
+        for (int i = 0; i < 3; i++) {
+            router.onResult(1, SLOW, false);
+        }
+        assertEquals(0, router.choose());
+        assertEquals(1, router.getStats().get(0).getConsecutiveFailures());
+    }
+
+    @Test
+    public void testEjectedEndpointRecoversWhenProbed() throws Exception {
+        EndpointRouter router = newRouter(EndpointRoutingPolicy.builder()
+                .ejectAfterFailures(1)
+                .probeInterval(20, TimeUnit.MILLISECONDS)
+                .build());
+        router.onResult(router.choose(), FAST, true);
+        assertEquals(-1, router.probeDue());
+        Thread.sleep(40);
+        assertEquals(0, router.probeDue());
+        assertEquals(-1, router.probeDue());
+        router.onProbe(0, false);
+        assertTrue(router.getStats().get(0).isEjected());
+
+        Thread.sleep(40);
+        assertEquals(0, router.probeDue());
+        router.onProbe(0, true);
+        assertFalse(router.getStats().get(0).isEjected());
+        assertEquals(0, router.choose());
+    }
+
+    @Test
+    public void testCallsStillRoutedWhenEveryEndpointIsEjected() {
+        EndpointRouter router = newRouter(EndpointRoutingPolicy.builder().ejectAfterFailures(1).build());
+        router.onUnreachable(0);
+        router.onUnreachable(1);
+        router.onResult(router.choose(), FAST, false);
+        assertFalse(router.getStats().get(0).isEjected());
+        assertTrue(router.getStats().get(1).isEjected());
+    }
+
+    private static EndpointRouter newRouter(EndpointRoutingPolicy policy) {
+        return new EndpointRouter(Arrays.asList("https://one.example/", "https://two.example/"), policy);
+    }
+}
@@ -0,0 +1,59 @@
+package com.eway.payment.rapid.sdk.resilience;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class HedgingTest {
+
+    @Test
+    public void testNoDelayUntilEnoughQueriesCompleted() {
+        Hedging hedging = new Hedging(HedgingPolicy.builder().window(10, 3).build());
+        for (int i = 0; i < 2; i++) {
+            assertEquals(-1, hedging.startQuery());
+            hedging.recordLatency(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+        assertEquals(-1, hedging.startQuery());
+        hedging.recordLatency(TimeUnit.MILLISECONDS.toNanos(10));
+        assertEquals(10, hedging.startQuery());
+    }
+
+    @Test
+    public void testDelayIsThePercentileOfTheWindow() {
+        Hedging hedging = new Hedging(HedgingPolicy.builder().delayPercentile(50).window(10, 10).build());
+        for (int i = 10; i >= 1; i--) {
+            hedging.recordLatency(TimeUnit.MILLISECONDS.toNanos(i));
+        }
+        assertEquals(6, hedging.startQuery());
+        assertEquals(6, hedging.getStats().getDelayMillis());
+    }
+
+    @Test
+    public void testDelayFollowsRecentLatency() {
+        Hedging hedging = new Hedging(HedgingPolicy.builder().delayPercentile(90).window(20, 20).build());
+        for (int i = 0; i < 20; i++) {
+            hedging.recordLatency(TimeUnit.MILLISECONDS.toNanos(5));
+        }
+        assertEquals(5, hedging.startQuery());
+        for (int i = 0; i < 20; i++) {
+            hedging.recordLatency(TimeUnit.MILLISECONDS.toNanos(50));
+        }
+        assertEquals(50, hedging.startQuery());
+    }
+
+    @Test
+    public void testBudgetCapsHedges() {
+        Hedging hedging = new Hedging(HedgingPolicy.builder().budgetPercent(50).build());
+        hedging.startQuery();
+        assertFalse(hedging.tryHedge());
+        hedging.startQuery();
+        assertTrue(hedging.tryHedge());
+        assertFalse(hedging.tryHedge());
+        hedging.hedgeWon();
+        assertEquals(new HedgingStats(2, 1, 1, 2, -1).toString(), hedging.getStats().toString());
+    }
+}
@@ -0,0 +1,104 @@
+package com.eway.payment.rapid.sdk.resilience;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.eway.payment.rapid.sdk.RequestPriority;
+
+public class PriorityLanesTest {
+
+    @Test
+    public void testLaneIsCappedAtItsShare() {
+        PriorityLanes lanes = new PriorityLanes(PriorityLanePolicy.builder().build(), 4);
+        assertTrue(lanes.acquire(RequestPriority.BACKGROUND, 0));
+        assertFalse(lanes.acquire(RequestPriority.BACKGROUND, 0));
+        assertTrue(lanes.acquire(RequestPriority.INTERACTIVE_PAYMENT, 0));
+        assertTrue(lanes.acquire(RequestPriority.INTERACTIVE_QUERY, 0));
+        assertTrue(lanes.acquire(RequestPriority.INTERACTIVE_PAYMENT, 0));
+        assertFalse(lanes.acquire(RequestPriority.INTERACTIVE_PAYMENT, 0));
+        assertEquals(1, lanes.getInFlight(RequestPriority.BACKGROUND));
+        assertEquals(2, lanes.getInFlight(RequestPriority.INTERACTIVE_PAYMENT));
+    }
+
+    @Test
+    public void testWaitingBackgroundWorkDoesNotHoldUpPayments() throws Exception {
+        PriorityLanes lanes = new PriorityLanes(PriorityLanePolicy.builder()
+                .lane(RequestPriority.BACKGROUND, 50, 1).build(), 2);
+        assertTrue(lanes.acquire(RequestPriority.BACKGROUND, 0));
+        List<String> order = new CopyOnWriteArrayList<String>();
+        Thread background = waiter(lanes, RequestPriority.BACKGROUND, order, "background");
+        awaitQueueDepth(lanes, RequestPriority.BACKGROUND, 1);
+
+        assertTrue(lanes.acquire(RequestPriority.INTERACTIVE_PAYMENT, 0));
+        lanes.release(RequestPriority.INTERACTIVE_PAYMENT);
+        lanes.release(RequestPriority.BACKGROUND);
+        background.join(5000);
+        assertEquals("[background]", order.toString());
+    }
+
+    @Test
+    public void testWaitingLanesAreServedByWeight() throws Exception {
+        PriorityLanes lanes = new PriorityLanes(PriorityLanePolicy.builder()
+                .lane(RequestPriority.INTERACTIVE_PAYMENT, 100, 3)
+                .lane(RequestPriority.BACKGROUND, 100, 1).build(), 1);
+        assertTrue(lanes.acquire(RequestPriority.INTERACTIVE_QUERY, 0));
+        List<String> order = new CopyOnWriteArrayList<String>();
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int i = 1; i <= 3; i++) {
+            threads.add(waiter(lanes, RequestPriority.BACKGROUND, order, "B" + i));
+            awaitQueueDepth(lanes, RequestPriority.BACKGROUND, i);
+            threads.add(waiter(lanes, RequestPriority.INTERACTIVE_PAYMENT, order, "P" + i));
+            awaitQueueDepth(lanes, RequestPriority.INTERACTIVE_PAYMENT, i);
+        }
+
+        lanes.release(RequestPriority.INTERACTIVE_QUERY);
+        for (Thread thread : threads) {
+            thread.join(5000);
+        }
+        assertEquals("[P1, P2, B1, P3, B2, B3]", order.toString());
+    }
+
+    @Test
+    public void testWaitGivesUpWhenItRunsOut() {
+        PriorityLanes lanes = new PriorityLanes(PriorityLanePolicy.builder().build(), 1);
+        assertTrue(lanes.acquire(RequestPriority.INTERACTIVE_PAYMENT, 0));
+        long start = System.nanoTime();
+        assertFalse(lanes.acquire(RequestPriority.INTERACTIVE_PAYMENT, 50));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+        assertEquals(0, lanes.getQueueDepth(RequestPriority.INTERACTIVE_PAYMENT));
+    }
+
+    /**
+     * Start a thread that waits for room in a lane, records its name once
+     * it has it and releases it
+     */
+    private static Thread waiter(final PriorityLanes lanes, final RequestPriority priority, final List<String> order,
+            final String name) {
+        Thread thread = new Thread(new Runnable() {
+            public void run() {
+                if (lanes.acquire(priority, 5000)) {
+                    order.add(name);
+                    lanes.release(priority);
+                }
+            }
+        });
+        thread.start();
+        return thread;
+    }
+
+    private static void awaitQueueDepth(PriorityLanes lanes, RequestPriority priority, int depth) throws InterruptedException {
+        long until = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (lanes.getQueueDepth(priority) < depth && System.nanoTime() < until) {
+            Thread.sleep(1);
+        }
+        assertEquals(depth, lanes.getQueueDepth(priority));
+    }
+}
@@ -0,0 +1,100 @@
+package com.eway.payment.rapid.sdk.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Base64;
+
+import javax.ws.rs.client.ClientRequestContext;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.eway.payment.rapid.sdk.RapidClient;
+import com.eway.payment.rapid.sdk.RapidSDK;
+import com.eway.payment.rapid.sdk.StubRapidServer;
+
+public class RapidClientFilterTest {
+
+    private StubRapidServer server;
+    private RapidClient client;
+
+    @Before
+    public void setup() throws Exception {
+        server = new StubRapidServer();
+        client = RapidSDK.newRapidClient("apiKey", "password", server.getUrl());
+    }
+
+    @After
+    public void tearDown() {
+        client.close();
+        server.stop();
+    }
+
+    @Test
+    public void testStaticHeadersAreSent() throws Exception {
+        client.queryTransaction(1);
+        String userAgent = ResourceUtil.loadProperiesOnResourceFolder(Constant.RAPID_API_RESOURCE)
+                .getProperty(Constant.RAPID_SDK_USER_AGENT_PARAM);
+        assertFalse(StringUtils.isBlank(userAgent));
+        assertEquals(userAgent, server.getLastRequestHeader("User-Agent"));
+        assertEquals(basic("apiKey:password"), server.getLastRequestHeader("Authorization"));
+        assertNull(server.getLastRequestHeader(RapidClientFilter.API_VERSION_HEADER));
+    }
+
+    @Test
+    public void testHeadersFollowConfigurationChanges() {
+        client.setVersion("40");
+        client.setCredentials("rotatedKey", "rotatedPassword");
+        client.setDebug(true);
+        client.queryTransaction(1);
+        client.queryTransaction(2);
+        assertEquals("40", server.getLastRequestHeader(RapidClientFilter.API_VERSION_HEADER));
+        assertEquals(basic("rotatedKey:rotatedPassword"), server.getLastRequestHeader("Authorization"));
+    }
+
+    @Test
+    public void testEachRequestOwnsItsHeaderValues() throws Exception {
+        RapidClientFilter filter = new RapidClientFilter();
+        filter.setVersion("40");
+        filter.setCredentials("apiKey", "password");
+        MultivaluedMap<String, Object> first = filter(filter);
+        MultivaluedMap<String, Object> second = filter(filter);
+
+        first.add(HttpHeaders.AUTHORIZATION, "Bearer token");
+        first.add(RapidClientFilter.API_VERSION_HEADER, "41");
+        assertEquals(Arrays.<Object>asList(basic("apiKey:password")), second.get(HttpHeaders.AUTHORIZATION));
+        assertEquals(Arrays.<Object>asList("40"), second.get(RapidClientFilter.API_VERSION_HEADER));
+    }
+
+    private static MultivaluedMap<String, Object> filter(RapidClientFilter filter) throws Exception {
+        final MultivaluedMap<String, Object> headers = new MultivaluedHashMap<String, Object>();
+        ClientRequestContext context = (ClientRequestContext) Proxy.newProxyInstance(
+                RapidClientFilterTest.class.getClassLoader(), new Class<?>[] {ClientRequestContext.class},
+                new InvocationHandler() {
+                    public Object invoke(Object proxy, Method method, Object[] args) {
+                        if ("getHeaders".equals(method.getName())) {
+                            return headers;
+                        }
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+        filter.filter(context);
+        return headers;
+    }
+
+    private static String basic(String credentials) {
+        return "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(Charset.forName("ISO-8859-1")));
+    }
+}